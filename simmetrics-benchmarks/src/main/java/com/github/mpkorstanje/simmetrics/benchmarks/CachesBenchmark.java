@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.builders.Caches;
+import com.github.mpkorstanje.simmetrics.builders.SimplificationCache;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Benchmarks concurrent lookups in a simplification cache backed by Guava
+ * against the cache created by {@link Caches#simplificationCache(int)}.
+ * Lookups draw from a key space twice the size of the cache so both hits and
+ * misses occur.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(Threads.MAX)
+@Fork(1)
+public class CachesBenchmark {
+
+	private static final int MAX_ENTRIES = 1024;
+
+	@Param({ "guava", "clock" })
+	public String cache;
+
+	private SimplificationCache simplificationCache;
+
+	private final Simplifier simplifier = Simplifiers.toLowerCase();
+
+	private String[] keys;
+
+	@Setup
+	public void setUp() {
+		simplificationCache = "guava".equals(cache)
+				? Caches.simplificationCache(CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).<String, String> build())
+				: Caches.simplificationCache(MAX_ENTRIES);
+		keys = new String[2 * MAX_ENTRIES];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = "Key " + i;
+		}
+	}
+
+	@Benchmark
+	public String get() {
+		final String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+		return simplificationCache.get(key, simplifier);
+	}
+
+}
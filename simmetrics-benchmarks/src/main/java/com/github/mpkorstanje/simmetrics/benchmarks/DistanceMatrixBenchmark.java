@@ -0,0 +1,92 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.search.DistanceMatrix;
+
+/**
+ * Benchmarks computing all pairwise Levenshtein distances with
+ * {@link DistanceMatrix} against nested loops filling a {@code float[][]}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceMatrixBenchmark {
+
+	@Param({ "1000", "4000" })
+	public int size;
+
+	private final StringDistance distance = new Levenshtein();
+
+	private List<String> items;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(42);
+		items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = 8 + random.nextInt(16);
+			for (int j = 0; j < length; j++) {
+				builder.append((char) ('a' + random.nextInt(26)));
+			}
+			items.add(builder.toString());
+		}
+	}
+
+	@Benchmark
+	public float[][] nestedLoops() {
+		final float[][] matrix = new float[size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				matrix[i][j] = distance.distance(items.get(i), items.get(j));
+			}
+		}
+		return matrix;
+	}
+
+	@Benchmark
+	public DistanceMatrix distanceMatrix() {
+		return DistanceMatrix.compute(items, distance);
+	}
+
+}
@@ -0,0 +1,51 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Resolves benchmark parameters to the factory methods of the utility classes
+ * under test. Because parameters are resolved by name, a benchmark covers a
+ * newly added factory as soon as its name is added to the parameter list.
+ */
+final class Factories {
+
+	private Factories() {
+		// Utility class
+	}
+
+	/**
+	 * Invokes the public static no-argument factory method {@code name} of
+	 * {@code factories}.
+	 */
+	static <T> T create(Class<?> factories, String name, Class<T> type) {
+		try {
+			final Method method = factories.getMethod(name);
+			return type.cast(method.invoke(null));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new IllegalArgumentException("No factory method " + name + " in " + factories.getName(), e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+}
@@ -0,0 +1,193 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Generates reproducible benchmark inputs. Inputs are made of space separated
+ * words drawn from an alphabet so whitespace and q-gram tokenizers produce
+ * realistic tokens.
+ * <p>
+ * Pairs of inputs have the same length in code points. This allows length
+ * sensitive metrics such as the Hamming distance to be benchmarked on the
+ * same inputs as the others.
+ */
+public final class Inputs {
+
+	/**
+	 * Length of the generated inputs in code points.
+	 */
+	public enum Length {
+		/**
+		 * Short names e.g. {@code "Sam J Chapman"}.
+		 */
+		SHORT(12),
+		/**
+		 * Addresses e.g. {@code "221B Baker Street, London NW1 6XE"}.
+		 */
+		ADDRESS(48),
+		/**
+		 * Paragraphs of text.
+		 */
+		PARAGRAPH(500),
+		/**
+		 * Documents of text.
+		 */
+		DOCUMENT(10_000);
+
+		private final int codePoints;
+
+		Length(int codePoints) {
+			this.codePoints = codePoints;
+		}
+
+		public int codePoints() {
+			return codePoints;
+		}
+	}
+
+	/**
+	 * Alphabet the generated inputs are drawn from.
+	 */
+	public enum Alphabet {
+		/**
+		 * Upper and lower case ASCII letters.
+		 */
+		ASCII(concat(range('a', 'z'), range('A', 'Z'))),
+		/**
+		 * ASCII and Latin-1 letters including diacritics.
+		 */
+		LATIN_1(concat(range('a', 'z'), range('A', 'Z'), range(0xC0, 0xD6), range(0xD8, 0xF6), range(0xF8, 0xFF))),
+		/**
+		 * CJK unified ideographs from the basic multilingual plane.
+		 */
+		CJK(range(0x4E00, 0x4FFF)),
+		/**
+		 * Deseret letters, encoded as surrogate pairs. Like Latin these have
+		 * upper and lower case forms.
+		 */
+		SURROGATE_PAIRS(range(0x10400, 0x1044F));
+
+		private final int[] codePoints;
+
+		Alphabet(int[] codePoints) {
+			this.codePoints = codePoints;
+		}
+
+		int codePoint(Random random) {
+			return codePoints[random.nextInt(codePoints.length)];
+		}
+	}
+
+	private static final int SEED = 42;
+
+	private static final int MAX_WORD_LENGTH = 9;
+
+	private static final int EDIT_RATE = 8;
+
+	private Inputs() {
+		// Utility class
+	}
+
+	/**
+	 * Creates a pair of similar inputs of the given length and alphabet. The
+	 * second input is derived from the first by substituting roughly one in
+	 * eight code points, and at least one.
+	 *
+	 * @param length
+	 *            length of the inputs
+	 * @param alphabet
+	 *            alphabet to draw code points from
+	 * @return a pair of inputs with equal code point length
+	 */
+	public static String[] pair(Length length, Alphabet alphabet) {
+		final Random random = new Random(SEED);
+		final int[] a = text(random, length.codePoints(), alphabet);
+		final int[] b = a.clone();
+		int edits = 0;
+		for (int i = 0; i < b.length; i++) {
+			if (b[i] != ' ' && random.nextInt(EDIT_RATE) == 0) {
+				b[i] = substitute(random, alphabet, b[i]);
+				edits++;
+			}
+		}
+		// Identical inputs would take the equals short cut in most metrics.
+		// Words are never separated by more then one space.
+		if (edits == 0) {
+			final int middle = b[b.length / 2] == ' ' ? b.length / 2 - 1 : b.length / 2;
+			b[middle] = substitute(random, alphabet, b[middle]);
+		}
+		return new String[] { toString(a), toString(b) };
+	}
+
+	/**
+	 * Creates a single input of the given length and alphabet.
+	 *
+	 * @param length
+	 *            length of the input
+	 * @param alphabet
+	 *            alphabet to draw code points from
+	 * @return an input
+	 */
+	public static String single(Length length, Alphabet alphabet) {
+		return pair(length, alphabet)[0];
+	}
+
+	private static int[] text(Random random, int length, Alphabet alphabet) {
+		final int[] text = new int[length];
+		int wordLength = 1 + random.nextInt(MAX_WORD_LENGTH);
+		for (int i = 0; i < length; i++) {
+			if (wordLength-- == 0 && i < length - 1) {
+				text[i] = ' ';
+				wordLength = 1 + random.nextInt(MAX_WORD_LENGTH);
+			} else {
+				text[i] = alphabet.codePoint(random);
+			}
+		}
+		return text;
+	}
+
+	private static int substitute(Random random, Alphabet alphabet, int codePoint) {
+		int substitute;
+		do {
+			substitute = alphabet.codePoint(random);
+		} while (substitute == codePoint);
+		return substitute;
+	}
+
+	private static String toString(int[] codePoints) {
+		return new String(codePoints, 0, codePoints.length);
+	}
+
+	private static int[] range(int from, int to) {
+		return IntStream.rangeClosed(from, to).toArray();
+	}
+
+	private static int[] concat(int[]... ranges) {
+		IntStream codePoints = IntStream.empty();
+		for (int[] range : ranges) {
+			codePoints = IntStream.concat(codePoints, IntStream.of(range));
+		}
+		return codePoints.toArray();
+	}
+
+}
@@ -0,0 +1,123 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.text.Normalizer.Form;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Alphabet;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Length;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+
+/**
+ * Benchmarks every simplifier created by {@link Simplifiers}. The
+ * {@code chain} simplifier is the chain commonly used in front of token based
+ * metrics: lower case, remove diacritics and replace non-word characters. The
+ * {@code compile} simplifier is the same chain after
+ * {@link Simplifiers#compile(Simplifier)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimplifiersBenchmark {
+
+	@Param({
+			"chain",
+			"compile",
+			"normalize",
+			"removeAll",
+			"removeDiacritics",
+			"removeNonWord",
+			"replaceAll",
+			"replaceNonWord",
+			"toLowerCase",
+			"toUpperCase"
+	})
+	public String simplifier;
+
+	@Param
+	public Length length;
+
+	@Param
+	public Alphabet alphabet;
+
+	private Simplifier instance;
+
+	private String input;
+
+	@Setup
+	public void setUp() {
+		instance = create(simplifier);
+		input = Inputs.single(length, alphabet);
+	}
+
+	static Simplifier create(String name) {
+		switch (name) {
+		case "chain":
+			return Simplifiers.chain(
+					Simplifiers.toLowerCase(Locale.ENGLISH),
+					Simplifiers.removeDiacritics(),
+					Simplifiers.replaceNonWord());
+		case "compile":
+			return Simplifiers.compile(create("chain"));
+		case "normalize":
+			return Simplifiers.normalize(Form.NFD);
+		case "removeAll":
+			return Simplifiers.removeAll("\\s+");
+		case "removeDiacritics":
+			return Simplifiers.removeDiacritics();
+		case "removeNonWord":
+			return Simplifiers.removeNonWord();
+		case "replaceAll":
+			return Simplifiers.replaceAll("\\s+", "_");
+		case "replaceNonWord":
+			return Simplifiers.replaceNonWord();
+		case "toLowerCase":
+			return Simplifiers.toLowerCase(Locale.ENGLISH);
+		case "toUpperCase":
+			return Simplifiers.toUpperCase(Locale.ENGLISH);
+		default:
+			throw new IllegalArgumentException("Unknown simplifier " + name);
+		}
+	}
+
+	@Benchmark
+	public String simplify() {
+		return instance.simplify(input);
+	}
+
+}
@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Alphabet;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Length;
+import com.github.mpkorstanje.simmetrics.metrics.StringDistances;
+
+/**
+ * Benchmarks every distance created by {@link StringDistances}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringDistancesBenchmark {
+
+	private static final int CANDIDATES = 100;
+
+	@Param({
+			"blockDistance",
+			"cosineSimilarity",
+			"damerauLevenshtein",
+			"dice",
+			"euclideanDistance",
+			"generalizedJaccard",
+			"hammingDistance",
+			"identity",
+			"jaccard",
+			"jaro",
+			"jaroWinkler",
+			"levenshtein",
+			"longestCommonSubsequence",
+			"longestCommonSubstring",
+			"overlapCoefficient",
+			"qGramsDistance",
+			"simonWhite"
+	})
+	public String distance;
+
+	@Param
+	public Length length;
+
+	@Param
+	public Alphabet alphabet;
+
+	private StringDistance stringDistance;
+
+	private String a;
+
+	private String b;
+
+	private List<String> candidates;
+
+	private float[] distances;
+
+	@Setup
+	public void setUp() {
+		stringDistance = Factories.create(StringDistances.class, distance, StringDistance.class);
+		final String[] pair = Inputs.pair(length, alphabet);
+		a = pair[0];
+		b = pair[1];
+		candidates = Collections.nCopies(CANDIDATES, b);
+		distances = new float[CANDIDATES];
+	}
+
+	@Benchmark
+	public float distance() {
+		return stringDistance.distance(a, b);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CANDIDATES)
+	public float[] distanceAll() {
+		stringDistance.distanceAll(a, candidates, distances);
+		return distances;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Alphabet;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Length;
+import com.github.mpkorstanje.simmetrics.metrics.StringMetrics;
+
+/**
+ * Benchmarks every metric created by {@link StringMetrics}, except for
+ * Smith-Waterman which is benchmarked by {@link SmithWatermanBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringMetricsBenchmark {
+
+	private static final int CANDIDATES = 100;
+
+	@Param({
+			"blockDistance",
+			"cosineSimilarity",
+			"damerauLevenshtein",
+			"dice",
+			"euclideanDistance",
+			"generalizedJaccard",
+			"identity",
+			"jaccard",
+			"jaro",
+			"jaroWinkler",
+			"level2SmithWatermanGotoh",
+			"levenshtein",
+			"longestCommonSubSequence",
+			"longestCommonSubstring",
+			"needlemanWunch",
+			"overlapCoefficient",
+			"qGramsDistance",
+			"simonWhite",
+			"smithWatermanGotoh"
+	})
+	public String metric;
+
+	@Param
+	public Length length;
+
+	@Param
+	public Alphabet alphabet;
+
+	private StringMetric stringMetric;
+
+	private PreparedStringMetric preparedMetric;
+
+	private String a;
+
+	private String b;
+
+	private List<String> candidates;
+
+	private float[] similarities;
+
+	@Setup
+	public void setUp() {
+		stringMetric = Factories.create(StringMetrics.class, metric, StringMetric.class);
+		final String[] pair = Inputs.pair(length, alphabet);
+		a = pair[0];
+		b = pair[1];
+		candidates = Collections.nCopies(CANDIDATES, b);
+		similarities = new float[CANDIDATES];
+		preparedMetric = stringMetric.prepare(a);
+	}
+
+	@Benchmark
+	public float compare() {
+		return stringMetric.compare(a, b);
+	}
+
+	@Benchmark
+	public float comparePrepared() {
+		return preparedMetric.compare(b);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CANDIDATES)
+	public float[] compareAll() {
+		stringMetric.compareAll(a, candidates, similarities);
+		return similarities;
+	}
+
+}
@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Alphabet;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Length;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.SparseVector;
+import com.github.mpkorstanje.simmetrics.metrics.TokenDictionary;
+import com.github.mpkorstanje.simmetrics.metrics.TokenIdMultiset;
+import com.github.mpkorstanje.simmetrics.metrics.TokenIdSet;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+import com.google.common.collect.Multiset;
+
+/**
+ * Benchmarks set and multiset metrics over pre-tokenized inputs, comparing
+ * collections of strings against the token id profiles created by a
+ * {@link TokenDictionary}. Tokenization is done during setup so only the
+ * metric is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenDictionaryBenchmark {
+
+	@Param({ "ADDRESS", "PARAGRAPH", "DOCUMENT" })
+	public Length length;
+
+	private final Jaccard<String> jaccard = new Jaccard<>();
+	private final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+
+	private Set<String> setA;
+	private Set<String> setB;
+	private Multiset<String> multisetA;
+	private Multiset<String> multisetB;
+
+	private TokenIdSet idSetA;
+	private TokenIdSet idSetB;
+	private TokenIdMultiset idMultisetA;
+	private TokenIdMultiset idMultisetB;
+
+	private SparseVector vectorA;
+	private SparseVector vectorB;
+
+	@Setup
+	public void setUp() {
+		final String[] pair = Inputs.pair(length, Alphabet.ASCII);
+		final Tokenizer tokenizer = Tokenizers.qGram(3);
+		final TokenDictionary dictionary = new TokenDictionary(tokenizer);
+
+		setA = tokenizer.tokenizeToSet(pair[0]);
+		setB = tokenizer.tokenizeToSet(pair[1]);
+		multisetA = tokenizer.tokenizeToMultiset(pair[0]);
+		multisetB = tokenizer.tokenizeToMultiset(pair[1]);
+
+		idSetA = dictionary.tokenizeToSet(pair[0]);
+		idSetB = dictionary.tokenizeToSet(pair[1]);
+		idMultisetA = dictionary.tokenizeToMultiset(pair[0]);
+		idMultisetB = dictionary.tokenizeToMultiset(pair[1]);
+
+		vectorA = SparseVector.of(idMultisetA);
+		vectorB = SparseVector.of(idMultisetB);
+	}
+
+	@Benchmark
+	public float jaccard() {
+		return jaccard.compare(setA, setB);
+	}
+
+	@Benchmark
+	public float jaccardTokenIds() {
+		return jaccard.compare(idSetA, idSetB);
+	}
+
+	@Benchmark
+	public float cosineSimilarity() {
+		return cosine.compare(multisetA, multisetB);
+	}
+
+	@Benchmark
+	public float cosineSimilarityTokenIds() {
+		return cosine.compare(idMultisetA, idMultisetB);
+	}
+
+	@Benchmark
+	public float cosineSimilaritySparseVector() {
+		return cosine.compare(vectorA, vectorB);
+	}
+
+}
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Alphabet;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Length;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+import com.google.common.collect.Multiset;
+
+/**
+ * Benchmarks every tokenizer created by {@link Tokenizers}. Composite
+ * tokenizers such as {@code filter}, {@code transform} and {@code chain} wrap
+ * a whitespace tokenizer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizersBenchmark {
+
+	@Param({
+			"chain",
+			"filter",
+			"pattern",
+			"qGram",
+			"qGramWithFilter",
+			"qGramWithPadding",
+			"transform",
+			"whitespace"
+	})
+	public String tokenizer;
+
+	@Param
+	public Length length;
+
+	@Param
+	public Alphabet alphabet;
+
+	private Tokenizer instance;
+
+	private String input;
+
+	@Setup
+	public void setUp() {
+		instance = create(tokenizer);
+		input = Inputs.single(length, alphabet);
+	}
+
+	static Tokenizer create(String name) {
+		switch (name) {
+		case "chain":
+			return Tokenizers.chain(Tokenizers.whitespace(), Tokenizers.qGram(2));
+		case "filter":
+			return Tokenizers.filter(Tokenizers.whitespace(), token -> token.length() > 3);
+		case "pattern":
+			return Tokenizers.pattern(Pattern.compile("\\s+"));
+		case "qGram":
+			return Tokenizers.qGram(3);
+		case "qGramWithFilter":
+			return Tokenizers.qGramWithFilter(3);
+		case "qGramWithPadding":
+			return Tokenizers.qGramWithPadding(3);
+		case "transform":
+			return Tokenizers.transform(Tokenizers.whitespace(), String::trim);
+		case "whitespace":
+			return Tokenizers.whitespace();
+		default:
+			throw new IllegalArgumentException("Unknown tokenizer " + name);
+		}
+	}
+
+	@Benchmark
+	public List<String> tokenizeToList() {
+		return instance.tokenizeToList(input);
+	}
+
+	@Benchmark
+	public Set<String> tokenizeToSet() {
+		return instance.tokenizeToSet(input);
+	}
+
+	@Benchmark
+	public Multiset<String> tokenizeToMultiset() {
+		return instance.tokenizeToMultiset(input);
+	}
+
+}
@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.mpkorstanje.simmetrics.metrics.BlockDistance;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.DenseVector;
+import com.github.mpkorstanje.simmetrics.metrics.EuclideanDistance;
+
+/**
+ * Benchmarks the vector metrics over dense vectors of typical embedding
+ * dimensions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorsBenchmark {
+
+	private static final int SEED = 42;
+
+	@Param({ "64", "384", "1536" })
+	public int dimension;
+
+	private final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+	private final EuclideanDistance<String> euclidean = new EuclideanDistance<>();
+	private final BlockDistance<String> block = new BlockDistance<>();
+
+	private DenseVector a;
+	private DenseVector b;
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(SEED);
+		a = random(random, dimension);
+		b = random(random, dimension);
+	}
+
+	private static DenseVector random(Random random, int dimension) {
+		final float[] values = new float[dimension];
+		for (int i = 0; i < dimension; i++) {
+			values[i] = random.nextFloat();
+		}
+		return DenseVector.of(values);
+	}
+
+	@Benchmark
+	public float cosineSimilarity() {
+		return cosine.compare(a, b);
+	}
+
+	@Benchmark
+	public float euclideanDistance() {
+		return euclidean.distance(a, b);
+	}
+
+	@Benchmark
+	public float blockDistance() {
+		return block.distance(a, b);
+	}
+
+}
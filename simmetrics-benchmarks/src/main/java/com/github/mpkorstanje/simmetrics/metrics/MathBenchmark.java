@@ -0,0 +1,125 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import com.google.common.collect.Sets;
+
+/**
+ * Benchmarks the argument ordering used by {@link Math#union(Multiset, Multiset)}
+ * and {@link Math#intersection(Set, Set)} against Guava called with the
+ * arguments in the unfavourable order. Lives in the metrics package to access
+ * the package private {@link Math} utility.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MathBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int size;
+
+	@Param({ "2", "10" })
+	public int ratio;
+
+	private Multiset<Integer> smallMultiset;
+	private Multiset<Integer> largeMultiset;
+
+	private Set<Integer> smallSet;
+	private Set<Integer> largeSet;
+
+	@Setup
+	public void setUp() {
+		smallMultiset = HashMultiset.create();
+		largeMultiset = HashMultiset.create();
+		smallSet = new HashSet<>();
+		largeSet = new HashSet<>();
+
+		for (int i = 0; i < size; i++) {
+			smallMultiset.add(i * 2);
+			smallSet.add(i * 2);
+		}
+		for (int i = 0; i < size * ratio; i++) {
+			largeMultiset.add(i);
+			largeSet.add(i);
+		}
+	}
+
+	@Benchmark
+	public int multisetUnion() {
+		return sum(Math.union(smallMultiset, largeMultiset));
+	}
+
+	@Benchmark
+	public int multisetUnionSmallFirst() {
+		return sum(Multisets.union(smallMultiset, largeMultiset));
+	}
+
+	@Benchmark
+	public int multisetIntersection() {
+		return Math.intersection(largeMultiset, smallMultiset).size();
+	}
+
+	@Benchmark
+	public int multisetIntersectionLargeFirst() {
+		return Multisets.intersection(largeMultiset, smallMultiset).size();
+	}
+
+	@Benchmark
+	public int setIntersection() {
+		return Math.intersection(largeSet, smallSet).size();
+	}
+
+	@Benchmark
+	public int setIntersectionLargeFirst() {
+		return Sets.intersection(largeSet, smallSet).size();
+	}
+
+	private static int sum(Multiset<Integer> multiset) {
+		// Metrics iterate over the element set of a union, so should we.
+		int sum = 0;
+		for (Integer element : multiset.elementSet()) {
+			sum += multiset.count(element);
+		}
+		return sum;
+	}
+
+}
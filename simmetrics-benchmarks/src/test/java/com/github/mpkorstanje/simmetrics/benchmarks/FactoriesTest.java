@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * Simmetrics - Benchmarks
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.benchmarks;
+
+import static java.util.stream.Collectors.toCollection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Param;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Alphabet;
+import com.github.mpkorstanje.simmetrics.benchmarks.Inputs.Length;
+import com.github.mpkorstanje.simmetrics.metrics.StringDistances;
+import com.github.mpkorstanje.simmetrics.metrics.StringMetrics;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+final class FactoriesTest {
+
+	@Test
+	void benchmarksEveryStringMetric() throws Exception {
+		final Set<String> params = params(StringMetricsBenchmark.class, "metric");
+		params.addAll(params(SmithWatermanBenchmark.class, "metric"));
+		assertEquals(factories(StringMetrics.class, StringMetric.class), params);
+	}
+
+	@Test
+	void benchmarksEveryStringDistance() throws Exception {
+		assertEquals(factories(StringDistances.class, StringDistance.class),
+				params(StringDistancesBenchmark.class, "distance"));
+	}
+
+	@Test
+	void benchmarksEveryTokenizer() throws Exception {
+		assertEquals(factories(Tokenizers.class, Tokenizer.class),
+				params(TokenizersBenchmark.class, "tokenizer"));
+	}
+
+	@Test
+	void benchmarksEverySimplifier() throws Exception {
+		assertEquals(factories(Simplifiers.class, Simplifier.class),
+				params(SimplifiersBenchmark.class, "simplifier"));
+	}
+
+	@Test
+	void createsEveryParameter() throws Exception {
+		for (String name : params(StringMetricsBenchmark.class, "metric")) {
+			assertNotNull(Factories.create(StringMetrics.class, name, StringMetric.class));
+		}
+		for (String name : params(SmithWatermanBenchmark.class, "metric")) {
+			assertNotNull(Factories.create(StringMetrics.class, name, StringMetric.class));
+		}
+		for (String name : params(StringDistancesBenchmark.class, "distance")) {
+			assertNotNull(Factories.create(StringDistances.class, name, StringDistance.class));
+		}
+		for (String name : params(TokenizersBenchmark.class, "tokenizer")) {
+			assertNotNull(TokenizersBenchmark.create(name));
+		}
+		for (String name : params(SimplifiersBenchmark.class, "simplifier")) {
+			assertNotNull(SimplifiersBenchmark.create(name));
+		}
+	}
+
+	@Test
+	void smithWatermanSkipsDocuments() throws Exception {
+		final Set<String> lengths = params(SmithWatermanBenchmark.class, "length");
+		assertFalse(lengths.contains(Length.DOCUMENT.name()));
+		for (String length : lengths) {
+			assertNotNull(Length.valueOf(length));
+		}
+	}
+
+	@Test
+	void pairsHaveEqualCodePointLength() {
+		for (Length length : Length.values()) {
+			for (Alphabet alphabet : Alphabet.values()) {
+				String[] pair = Inputs.pair(length, alphabet);
+				assertEquals(length.codePoints(), pair[0].codePointCount(0, pair[0].length()));
+				assertEquals(length.codePoints(), pair[1].codePointCount(0, pair[1].length()));
+				assertNotEquals(pair[0], pair[1]);
+			}
+		}
+	}
+
+	private static Set<String> factories(Class<?> factories, Class<?> type) {
+		return Arrays.stream(factories.getMethods())
+				.filter(method -> Modifier.isStatic(method.getModifiers()))
+				.filter(method -> type.isAssignableFrom(method.getReturnType()))
+				.map(Method::getName)
+				.collect(toCollection(TreeSet::new));
+	}
+
+	private static Set<String> params(Class<?> benchmark, String field) throws NoSuchFieldException {
+		Param param = benchmark.getField(field).getAnnotation(Param.class);
+		return new TreeSet<>(Arrays.asList(param.value()));
+	}
+
+}
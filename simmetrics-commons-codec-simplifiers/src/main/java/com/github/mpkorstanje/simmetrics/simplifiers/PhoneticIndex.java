@@ -0,0 +1,326 @@
+/*-
+ * #%L
+ * Simmetrics - Apache Commons Codec Simplifiers
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.simplifiers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Blocking index grouping records by their phonetic keys. Records sharing at
+ * least one key are candidates for comparison by a more expensive metric, all
+ * other pairs can be skipped.
+ * <p>
+ * Records are identified by their position in the list the index was built
+ * from. Each candidate is reported once, even when it shares multiple keys
+ * with a record. Records without a phonetic code are not a candidate for any
+ * record.
+ * <p>
+ * Keys are stored in an open addressing table of longs and blocks in a single
+ * array of record ids, so no strings or boxed keys are created after the
+ * records have been encoded.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * <pre>
+ * <code>
+ * PhoneticIndex index = PhoneticIndex.build(PhoneticKeys.doubleMetaphone(), names);
+ * index.forEachCandidatePair((a, b) -&gt; {
+ * 	if (metric.compare(names.get(a), names.get(b)) &gt; 0.9f) {
+ * 		...
+ * 	}
+ * });
+ * </code>
+ * </pre>
+ *
+ * @see PhoneticKeys
+ */
+public final class PhoneticIndex {
+
+	/**
+	 * Receives candidate pairs from a phonetic index.
+	 */
+	@FunctionalInterface
+	public interface PairConsumer {
+
+		/**
+		 * Accepts a pair of records sharing a phonetic key.
+		 *
+		 * @param a
+		 *            the id of the first record
+		 * @param b
+		 *            the id of the second record, greater then {@code a}
+		 */
+		void accept(int a, int b);
+	}
+
+	private static final int EMPTY = -1;
+
+	/**
+	 * Builds an index of the records.
+	 *
+	 * @param keys
+	 *            the phonetic keys to block by
+	 * @param records
+	 *            the records to index
+	 * @return an index of the records
+	 * @throws NullPointerException
+	 *             when keys, records or any record is null
+	 */
+	public static PhoneticIndex build(PhoneticKeys keys, List<String> records) {
+		checkNotNull(keys);
+		checkNotNull(records);
+
+		final long[][] recordKeys = new long[records.size()][];
+		int total = 0;
+		int i = 0;
+		for (String record : records) {
+			recordKeys[i] = keys.keys(record);
+			total += recordKeys[i].length;
+			i++;
+		}
+
+		// Count the records per key
+		final int capacity = Integer.highestOneBit(Math.max(total, 1) * 2 - 1) << 1;
+		final long[] table = new long[capacity];
+		final int[] blockOf = new int[capacity];
+		Arrays.fill(blockOf, EMPTY);
+		final int[] sizes = new int[total];
+		int blocks = 0;
+		for (long[] recordKey : recordKeys) {
+			for (long key : recordKey) {
+				final int slot = slot(table, blockOf, key);
+				if (blockOf[slot] == EMPTY) {
+					table[slot] = key;
+					blockOf[slot] = blocks++;
+				}
+				sizes[blockOf[slot]]++;
+			}
+		}
+
+		// Lay out the blocks back to back
+		final int[] offsets = new int[blocks + 1];
+		for (int b = 0; b < blocks; b++) {
+			offsets[b + 1] = offsets[b] + sizes[b];
+		}
+		final int[] ids = new int[total];
+		final int[] next = Arrays.copyOf(offsets, blocks);
+		for (int id = 0; id < recordKeys.length; id++) {
+			for (long key : recordKeys[id]) {
+				ids[next[blockOf[slot(table, blockOf, key)]]++] = id;
+			}
+		}
+
+		return new PhoneticIndex(keys, recordKeys, table, blockOf, offsets, ids);
+	}
+
+	private static int slot(long[] table, int[] blockOf, long key) {
+		final int mask = table.length - 1;
+		int slot = (int) (mix(key) & mask);
+		while (blockOf[slot] != EMPTY && table[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static long mix(long key) {
+		// Finalizer of MurmurHash3
+		key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+		key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return key ^ (key >>> 33);
+	}
+
+	private final PhoneticKeys keys;
+
+	private final long[][] recordKeys;
+
+	private final long[] table;
+
+	private final int[] blockOf;
+
+	private final int[] offsets;
+
+	private final int[] ids;
+
+	private PhoneticIndex(PhoneticKeys keys, long[][] recordKeys, long[] table, int[] blockOf, int[] offsets,
+			int[] ids) {
+		this.keys = keys;
+		this.recordKeys = recordKeys;
+		this.table = table;
+		this.blockOf = blockOf;
+		this.offsets = offsets;
+		this.ids = ids;
+	}
+
+	/**
+	 * Returns the number of records in the index.
+	 *
+	 * @return the number of records
+	 */
+	public int size() {
+		return recordKeys.length;
+	}
+
+	/**
+	 * Returns the number of distinct keys in the index.
+	 *
+	 * @return the number of blocks
+	 */
+	public int blocks() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Passes the id of each record that shares a key with the query to the
+	 * sink. Each id is passed once, in ascending order.
+	 *
+	 * @param query
+	 *            the string to find candidates for
+	 * @param sink
+	 *            receives the ids of the candidates
+	 * @throws NullPointerException
+	 *             when query or sink is null
+	 */
+	public void candidates(String query, IntConsumer sink) {
+		checkNotNull(sink);
+		final long[] queryKeys = keys.keys(query);
+		if (queryKeys.length == 1) {
+			// Ids within a block are ascending and distinct
+			final int block = block(queryKeys[0]);
+			if (block != EMPTY) {
+				for (int i = offsets[block]; i < offsets[block + 1]; i++) {
+					sink.accept(ids[i]);
+				}
+			}
+			return;
+		}
+		accept(queryKeys, EMPTY, sink);
+	}
+
+	/**
+	 * Passes the id of each record that shares a key with the given record to
+	 * the sink, excluding the record itself. Each id is passed once, in
+	 * ascending order.
+	 *
+	 * @param record
+	 *            the id of the record to find candidates for
+	 * @param sink
+	 *            receives the ids of the candidates
+	 * @throws IllegalArgumentException
+	 *             when record is not in the index
+	 * @throws NullPointerException
+	 *             when sink is null
+	 */
+	public void candidates(int record, IntConsumer sink) {
+		checkArgument(record >= 0 && record < recordKeys.length, "record must be in the index");
+		checkNotNull(sink);
+		accept(recordKeys[record], record, sink);
+	}
+
+	/**
+	 * Collects the ids in the blocks of the keys and passes them to the sink
+	 * once each, skipping the excluded id. Costs are bounded by the size of
+	 * the blocks rather than the size of the index.
+	 */
+	private void accept(long[] keys, int excluded, IntConsumer sink) {
+		int length = 0;
+		final int[] blocks = new int[keys.length];
+		for (int k = 0; k < keys.length; k++) {
+			blocks[k] = block(keys[k]);
+			if (blocks[k] != EMPTY) {
+				length += offsets[blocks[k] + 1] - offsets[blocks[k]];
+			}
+		}
+		if (length == 0) {
+			return;
+		}
+		final int[] candidates = new int[length];
+		length = 0;
+		for (int block : blocks) {
+			if (block != EMPTY) {
+				final int size = offsets[block + 1] - offsets[block];
+				System.arraycopy(ids, offsets[block], candidates, length, size);
+				length += size;
+			}
+		}
+		Arrays.sort(candidates);
+		for (int i = 0; i < length; i++) {
+			final int id = candidates[i];
+			if (id != excluded && (i == 0 || candidates[i - 1] != id)) {
+				sink.accept(id);
+			}
+		}
+	}
+
+	/**
+	 * Passes each pair of records that share at least one key to the sink. Each
+	 * pair is passed once, with the lower id first. Pairs are ordered by the
+	 * first id.
+	 *
+	 * @param sink
+	 *            receives the candidate pairs
+	 * @throws NullPointerException
+	 *             when sink is null
+	 */
+	public void forEachCandidatePair(PairConsumer sink) {
+		checkNotNull(sink);
+		// Stamp each candidate with the current record to report it once
+		final int[] seenBy = new int[recordKeys.length];
+		Arrays.fill(seenBy, EMPTY);
+		for (int a = 0; a < recordKeys.length; a++) {
+			for (long key : recordKeys[a]) {
+				final int block = block(key);
+				// Ids within a block are ascending, skip those up to a
+				int i = Arrays.binarySearch(ids, offsets[block], offsets[block + 1], a) + 1;
+				for (; i < offsets[block + 1]; i++) {
+					final int b = ids[i];
+					if (seenBy[b] != a) {
+						seenBy[b] = a;
+						sink.accept(a, b);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of pairs of records that share at least one key.
+	 *
+	 * @return the number of candidate pairs
+	 */
+	public long candidatePairs() {
+		final long[] count = new long[1];
+		forEachCandidatePair((a, b) -> count[0]++);
+		return count[0];
+	}
+
+	private int block(long key) {
+		return blockOf[slot(table, blockOf, key)];
+	}
+
+	@Override
+	public String toString() {
+		return "PhoneticIndex [keys=" + keys + ", size=" + size() + ", blocks=" + blocks() + "]";
+	}
+
+}
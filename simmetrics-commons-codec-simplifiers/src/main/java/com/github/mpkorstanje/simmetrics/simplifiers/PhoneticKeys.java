@@ -0,0 +1,207 @@
+/*-
+ * #%L
+ * Simmetrics - Apache Commons Codec Simplifiers
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.simplifiers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Maps a string to one or more phonetic keys for use in a
+ * {@link PhoneticIndex}. Each phonetic code is packed into a long, so keys can
+ * be compared and hashed without creating strings.
+ * <p>
+ * Codes of up to ten letters and digits are packed exactly, six bits per
+ * character. This covers Soundex, whose keys also fit in an int, as well as
+ * Metaphone, DoubleMetaphone, Daitch-Mokotoff Soundex and Caverphone. Longer
+ * codes and codes with other characters are hashed and distinct codes may
+ * occasionally share a key. This only makes a block larger; records that share
+ * a code always share a key.
+ * <p>
+ * Empty codes are not mapped to a key.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see PhoneticIndex
+ */
+public final class PhoneticKeys {
+
+	private static final int PACKED_MAX_LENGTH = 10;
+
+	private static final int CHARACTER_BITS = 6;
+
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final long[] NO_KEYS = new long[0];
+
+	/**
+	 * Creates phonetic keys using a single code per string.
+	 *
+	 * @param simplifier
+	 *            a phonetic simplifier, e.g. {@link Soundex}
+	 * @return phonetic keys using the simplifier
+	 */
+	public static PhoneticKeys of(Simplifier simplifier) {
+		checkNotNull(simplifier);
+		return new PhoneticKeys(input -> new String[] { simplifier.simplify(input) }, simplifier.toString());
+	}
+
+	/**
+	 * Creates phonetic keys using both the primary and alternate DoubleMetaphone
+	 * codes of a string. Codes are at most four characters long.
+	 *
+	 * @return phonetic keys using DoubleMetaphone
+	 */
+	public static PhoneticKeys doubleMetaphone() {
+		return doubleMetaphone(4);
+	}
+
+	/**
+	 * Creates phonetic keys using both the primary and alternate DoubleMetaphone
+	 * codes of a string.
+	 *
+	 * @param maxCodeLength
+	 *            the maximum length of the codes
+	 * @return phonetic keys using DoubleMetaphone
+	 */
+	public static PhoneticKeys doubleMetaphone(int maxCodeLength) {
+		checkArgument(maxCodeLength > 0, "maxCodeLength must be greater then 0");
+		final org.apache.commons.codec.language.DoubleMetaphone encoder = new org.apache.commons.codec.language.DoubleMetaphone();
+		encoder.setMaxCodeLen(maxCodeLength);
+		return new PhoneticKeys(input -> new String[] {
+				encoder.doubleMetaphone(input, false),
+				encoder.doubleMetaphone(input, true)
+		}, "DoubleMetaphone [maxCodeLength=" + maxCodeLength + "]");
+	}
+
+	/**
+	 * Creates phonetic keys using all Daitch-Mokotoff Soundex codes of a string,
+	 * with ASCII-folding enabled.
+	 *
+	 * @return phonetic keys using Daitch-Mokotoff Soundex
+	 */
+	public static PhoneticKeys daitchMokotoffSoundex() {
+		return daitchMokotoffSoundex(true);
+	}
+
+	/**
+	 * Creates phonetic keys using all Daitch-Mokotoff Soundex codes of a string.
+	 * Names with multiple possible pronunciations produce a code for each.
+	 *
+	 * @param folding
+	 *            if ASCII-folding shall be performed before encoding
+	 * @return phonetic keys using Daitch-Mokotoff Soundex
+	 */
+	public static PhoneticKeys daitchMokotoffSoundex(boolean folding) {
+		final org.apache.commons.codec.language.DaitchMokotoffSoundex encoder = new org.apache.commons.codec.language.DaitchMokotoffSoundex(
+				folding);
+		return new PhoneticKeys(input -> encoder.soundex(input).split("\\|"),
+				"DaitchMokotoffSoundex [folding=" + folding + "]");
+	}
+
+	private final Function<String, String[]> codes;
+
+	private final String name;
+
+	private PhoneticKeys(Function<String, String[]> codes, String name) {
+		this.codes = codes;
+		this.name = name;
+	}
+
+	/**
+	 * Returns the distinct keys of the input in ascending order. Returns an
+	 * empty array when the input has no phonetic code.
+	 *
+	 * @param input
+	 *            the string to encode
+	 * @return the keys of the input
+	 * @throws NullPointerException
+	 *             when input is null
+	 */
+	public long[] keys(String input) {
+		checkNotNull(input);
+		final String[] codes = this.codes.apply(input);
+		final long[] keys = new long[codes.length];
+		int size = 0;
+		for (String code : codes) {
+			if (code != null && !code.isEmpty()) {
+				keys[size++] = pack(code);
+			}
+		}
+		if (size == 0) {
+			return NO_KEYS;
+		}
+		Arrays.sort(keys, 0, size);
+		int distinct = 1;
+		for (int i = 1; i < size; i++) {
+			if (keys[i] != keys[distinct - 1]) {
+				keys[distinct++] = keys[i];
+			}
+		}
+		return distinct == keys.length ? keys : Arrays.copyOf(keys, distinct);
+	}
+
+	/**
+	 * Packs a non-empty phonetic code into a key. Exact keys are positive, hashed
+	 * keys are negative.
+	 */
+	static long pack(String code) {
+		if (code.length() <= PACKED_MAX_LENGTH) {
+			long key = 0;
+			int i = 0;
+			for (; i < code.length(); i++) {
+				final int value = valueOf(code.charAt(i));
+				if (value == 0) {
+					break;
+				}
+				key = key << CHARACTER_BITS | value;
+			}
+			if (i == code.length()) {
+				return key;
+			}
+		}
+
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < code.length(); i++) {
+			hash = (hash ^ code.charAt(i)) * FNV_PRIME;
+		}
+		return hash | Long.MIN_VALUE;
+	}
+
+	private static int valueOf(char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0' + 1;
+		}
+		if (c >= 'A' && c <= 'Z') {
+			return c - 'A' + 11;
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return "PhoneticKeys [" + name + "]";
+	}
+
+}
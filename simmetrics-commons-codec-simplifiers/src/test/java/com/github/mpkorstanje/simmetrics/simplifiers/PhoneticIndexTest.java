@@ -0,0 +1,144 @@
+/*-
+ * #%L
+ * Simmetrics - Apache Commons Codec Simplifiers
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.simplifiers;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+class PhoneticIndexTest {
+
+	private static final List<String> names = asList("Smith", "Smyth", "Schmidt", "Schmitt", "Robert",
+			"Rupert", "Rubin", "Ashcraft", "Ashcroft", "Peters", "Peterson", "", "1234", "Kleinman",
+			"Chrzanowski", "Tymczak", "Smith", "Jackson", "Jaxen", "Washington");
+
+	private static List<PhoneticKeys> allKeys() {
+		return asList(
+				PhoneticKeys.of(new Soundex()),
+				PhoneticKeys.of(new RefinedSoundex()),
+				PhoneticKeys.of(new Metaphone()),
+				PhoneticKeys.of(new Nysiis()),
+				PhoneticKeys.of(new ColognePhonetic()),
+				PhoneticKeys.of(new Caverphone2()),
+				PhoneticKeys.of(new MatchRatingApproach()),
+				PhoneticKeys.doubleMetaphone(),
+				PhoneticKeys.daitchMokotoffSoundex());
+	}
+
+	private static boolean shareKey(PhoneticKeys keys, String a, String b) {
+		final Set<Long> x = new HashSet<>();
+		for (long key : keys.keys(a)) {
+			x.add(key);
+		}
+		for (long key : keys.keys(b)) {
+			if (x.contains(key)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	void candidatePairsShareAKey() {
+		for (PhoneticKeys keys : allKeys()) {
+			final Set<String> expected = new TreeSet<>();
+			for (int a = 0; a < names.size(); a++) {
+				for (int b = a + 1; b < names.size(); b++) {
+					if (shareKey(keys, names.get(a), names.get(b))) {
+						expected.add(a + "-" + b);
+					}
+				}
+			}
+
+			final PhoneticIndex index = PhoneticIndex.build(keys, names);
+			final List<String> actual = new ArrayList<>();
+			index.forEachCandidatePair((a, b) -> {
+				assertTrue(a < b);
+				actual.add(a + "-" + b);
+			});
+			assertEquals(expected, new TreeSet<>(actual), keys.toString());
+			assertEquals(expected.size(), actual.size());
+			assertEquals(expected.size(), index.candidatePairs());
+		}
+	}
+
+	@Test
+	void candidatesOfRecord() {
+		for (PhoneticKeys keys : allKeys()) {
+			final PhoneticIndex index = PhoneticIndex.build(keys, names);
+			for (int a = 0; a < names.size(); a++) {
+				final Set<Integer> expected = new TreeSet<>();
+				for (int b = 0; b < names.size(); b++) {
+					if (a != b && shareKey(keys, names.get(a), names.get(b))) {
+						expected.add(b);
+					}
+				}
+				final List<Integer> actual = new ArrayList<>();
+				index.candidates(a, actual::add);
+				assertEquals(new ArrayList<>(expected), actual);
+			}
+		}
+	}
+
+	@Test
+	void candidatesOfQuery() {
+		final PhoneticIndex index = PhoneticIndex.build(PhoneticKeys.doubleMetaphone(), names);
+		final List<Integer> smith = new ArrayList<>();
+		index.candidates("Smithe", smith::add);
+		assertEquals(asList(0, 1, 2, 3, 16), smith);
+
+		final List<Integer> schmidt = new ArrayList<>();
+		index.candidates("Schmid", schmidt::add);
+		assertEquals(asList(0, 1, 2, 3, 16), schmidt);
+
+		final List<Integer> none = new ArrayList<>();
+		index.candidates("", none::add);
+		index.candidates("Zzyzx", none::add);
+		assertEquals(0, none.size());
+	}
+
+	@Test
+	void blocks() {
+		final PhoneticIndex index = PhoneticIndex.build(PhoneticKeys.of(new Soundex()), asList("Robert", "Rupert", "Rubin", ""));
+		assertEquals(4, index.size());
+		assertEquals(2, index.blocks());
+		assertEquals(1, index.candidatePairs());
+	}
+
+	@Test
+	void illegalArguments() {
+		final PhoneticIndex index = PhoneticIndex.build(PhoneticKeys.of(new Soundex()), names);
+		assertThrows(NullPointerException.class, () -> PhoneticIndex.build(null, names));
+		assertThrows(NullPointerException.class, () -> PhoneticIndex.build(PhoneticKeys.of(new Soundex()), null));
+		assertThrows(IllegalArgumentException.class, () -> index.candidates(names.size(), id -> {
+		}));
+		assertThrows(NullPointerException.class, () -> index.forEachCandidatePair(null));
+	}
+
+}
@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * Simmetrics - Apache Commons Codec Simplifiers
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.simplifiers;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class PhoneticKeysTest {
+
+	@Test
+	void soundexKeysFitInAnInt() {
+		final long[] keys = PhoneticKeys.of(new Soundex()).keys("Robert");
+		assertEquals(1, keys.length);
+		assertEquals(PhoneticKeys.pack("R163"), keys[0]);
+		assertEquals(keys[0], (int) keys[0]);
+		assertArrayEquals(keys, PhoneticKeys.of(new Soundex()).keys("Rupert"));
+	}
+
+	@Test
+	void packsShortCodesExactly() {
+		assertNotEquals(PhoneticKeys.pack("A"), PhoneticKeys.pack("A0"));
+		assertNotEquals(PhoneticKeys.pack("0A"), PhoneticKeys.pack("A0"));
+		assertTrue(PhoneticKeys.pack("ZZZZZZZZZZ") > 0);
+		assertTrue(PhoneticKeys.pack("ZZZZZZZZZZZ") < 0);
+		assertTrue(PhoneticKeys.pack("a") < 0);
+	}
+
+	@Test
+	void doubleMetaphoneUsesBothCodes() {
+		// Primary XMT, alternate SMT
+		final PhoneticKeys keys = PhoneticKeys.doubleMetaphone();
+		assertEquals(2, keys.keys("Schmidt").length);
+		assertEquals(1, keys.keys("Robert").length);
+		assertEquals(0, keys.keys("").length);
+	}
+
+	@Test
+	void daitchMokotoffUsesAllBranches() {
+		final String[] codes = new org.apache.commons.codec.language.DaitchMokotoffSoundex().soundex("Chrzanowski")
+				.split("\\|");
+		final long[] expected = new long[codes.length];
+		for (int i = 0; i < codes.length; i++) {
+			expected[i] = PhoneticKeys.pack(codes[i]);
+		}
+		Arrays.sort(expected);
+		assertEquals(4, expected.length);
+		assertArrayEquals(expected, PhoneticKeys.daitchMokotoffSoundex().keys("Chrzanowski"));
+	}
+
+	@Test
+	void illegalArguments() {
+		assertThrows(NullPointerException.class, () -> PhoneticKeys.of(null));
+		assertThrows(NullPointerException.class, () -> PhoneticKeys.of(new Soundex()).keys(null));
+		assertThrows(IllegalArgumentException.class, () -> PhoneticKeys.doubleMetaphone(0));
+	}
+
+}
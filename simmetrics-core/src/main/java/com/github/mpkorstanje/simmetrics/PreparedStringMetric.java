@@ -0,0 +1,75 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics;
+
+/**
+ * Measures the similarity between a prepared query string and other strings.
+ * The measurement results in a value between 0 and 1 (inclusive) equal to
+ * {@code metric.compare(query, candidate)}.
+ * <p>
+ * Preparing a query allows a metric to do work that only depends on the query,
+ * such as simplification, tokenization and decoding, once rather than for every
+ * comparison. This is useful when comparing one query against many candidates.
+ * <p>
+ * Unlike a {@link StringMetric}, a prepared metric may reuse internal buffers
+ * between comparisons and is not required to be thread-safe. When used by
+ * multiple threads each thread should prepare its own.
+ *
+ * @see StringMetric#prepare(String)
+ */
+@FunctionalInterface
+public interface PreparedStringMetric {
+
+	/**
+	 * Measures the similarity between the prepared query and a candidate. The
+	 * measurement results in a value between 0 and 1 (inclusive). A value of
+	 * zero indicates that the strings are dissimilar, a value of 1 indicates
+	 * they are similar.
+	 *
+	 * @param candidate
+	 *            string to compare against the query
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when candidate is null
+	 */
+	float compare(String candidate);
+
+	/**
+	 * Measures the similarity between the prepared query and a candidate,
+	 * provided it is at least {@code minSimilarity}. When the similarity is
+	 * less than {@code minSimilarity} a metric may stop early and return any
+	 * value less than {@code minSimilarity}.
+	 * <p>
+	 * By default the similarity is always measured in full.
+	 *
+	 * @param candidate
+	 *            string to compare against the query
+	 * @param minSimilarity
+	 *            the minimum similarity of interest, between 0 and 1 inclusive
+	 * @return a value between 0 and 1 inclusive indicating similarity, less
+	 *         than {@code minSimilarity} when the similarity is below it
+	 * @throws NullPointerException
+	 *             when candidate is null
+	 */
+	default float compare(String candidate, float minSimilarity) {
+		return compare(candidate);
+	}
+
+}
@@ -19,6 +19,12 @@
  */
 package com.github.mpkorstanje.simmetrics;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Iterator;
+import java.util.List;
+
 /**
  * Measures the unnormalized dissimilarity between two Strings. The
  * measurement results in a non-negative value. A value of zero indicates that
@@ -60,4 +66,101 @@ public interface StringDistance extends Distance<String> {
 	 */
 	@Override
 	float distance(String a, String b);
+
+	/**
+	 * Measures the distance between a query and each candidate. The i-th
+	 * distance is equal to {@code distance(query, candidates.get(i))}.
+	 *
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @return the distance between the query and each candidate
+	 * @throws NullPointerException
+	 *             when query, candidates or any candidate is null
+	 * @see #distanceAll(String, List, float[])
+	 */
+	default float[] distanceAll(String query, List<String> candidates) {
+		final float[] distances = new float[candidates.size()];
+		distanceAll(query, candidates, distances);
+		return distances;
+	}
+
+	/**
+	 * Measures the distance between a query and each candidate. The i-th
+	 * distance is written to {@code distances[i]} and is equal to
+	 * {@code distance(query, candidates.get(i))}.
+	 * <p>
+	 * By default each candidate is compared to the query in turn. Distances
+	 * should override this method when work that only depends on the query
+	 * can be done once.
+	 *
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param distances
+	 *            the array to write the distances to, at least as long as the
+	 *            candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or distances is null
+	 * @throws IllegalArgumentException
+	 *             when distances is shorter than candidates
+	 */
+	default void distanceAll(String query, List<String> candidates, float[] distances) {
+		requireNonNull(query);
+		checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+		int i = 0;
+		for (String candidate : candidates) {
+			distances[i++] = distance(query, candidate);
+		}
+	}
+
+	/**
+	 * Measures the distance between pairs of strings. The i-th distance is
+	 * equal to {@code distance(a.get(i), b.get(i))}.
+	 *
+	 * @param a
+	 *            strings to compare
+	 * @param b
+	 *            strings to compare, as many as a
+	 * @return the distance between each pair of strings
+	 * @throws NullPointerException
+	 *             when a, b or any of their strings is null
+	 * @throws IllegalArgumentException
+	 *             when a and b are not of equal size
+	 * @see #distanceMany(List, List, float[])
+	 */
+	default float[] distanceMany(List<String> a, List<String> b) {
+		final float[] distances = new float[a.size()];
+		distanceMany(a, b, distances);
+		return distances;
+	}
+
+	/**
+	 * Measures the distance between pairs of strings. The i-th distance is
+	 * written to {@code distances[i]} and is equal to
+	 * {@code distance(a.get(i), b.get(i))}.
+	 *
+	 * @param a
+	 *            strings to compare
+	 * @param b
+	 *            strings to compare, as many as a
+	 * @param distances
+	 *            the array to write the distances to, at least as long as a
+	 * @throws NullPointerException
+	 *             when a, b, any of their strings or distances is null
+	 * @throws IllegalArgumentException
+	 *             when a and b are not of equal size or distances is shorter
+	 *             than a
+	 */
+	default void distanceMany(List<String> a, List<String> b, float[] distances) {
+		checkArgument(a.size() == b.size(), "a and b must be of equal size");
+		checkArgument(distances.length >= a.size(), "distances must fit all pairs");
+		final Iterator<String> bIterator = b.iterator();
+		int i = 0;
+		for (String aString : a) {
+			distances[i++] = distance(aString, bIterator.next());
+		}
+	}
 }
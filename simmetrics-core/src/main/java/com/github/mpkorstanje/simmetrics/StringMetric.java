@@ -21,6 +21,12 @@
 
 package com.github.mpkorstanje.simmetrics;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Iterator;
+import java.util.List;
+
 /**
  * Measures the similarity between two strings. The measurement results in a
  * value between 0 and 1 (inclusive). A value of zero indicates that the strings
@@ -54,4 +60,123 @@ public interface StringMetric extends Metric<String> {
 	@Override
 	float compare(String a, String b);
 
+	/**
+	 * Prepares a query to be compared against many candidates. Measuring the
+	 * similarity of a candidate with the prepared metric results in the same
+	 * value as {@code compare(query, candidate)}.
+	 * <p>
+	 * By default no work is done in advance. Metrics should override this
+	 * method when work that only depends on the query can be done once.
+	 *
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	default PreparedStringMetric prepare(String query) {
+		requireNonNull(query);
+		return candidate -> compare(query, candidate);
+	}
+
+	/**
+	 * Measures the similarity between a query and each candidate. The i-th
+	 * similarity is equal to {@code compare(query, candidates.get(i))}.
+	 *
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @return the similarity between the query and each candidate
+	 * @throws NullPointerException
+	 *             when query, candidates or any candidate is null
+	 * @see #compareAll(String, List, float[])
+	 */
+	default float[] compareAll(String query, List<String> candidates) {
+		final float[] similarities = new float[candidates.size()];
+		compareAll(query, candidates, similarities);
+		return similarities;
+	}
+
+	/**
+	 * Measures the similarity between a query and each candidate. The i-th
+	 * similarity is written to {@code similarities[i]} and is equal to
+	 * {@code compare(query, candidates.get(i))}.
+	 * <p>
+	 * By default the query is prepared once using {@link #prepare(String)}
+	 * and compared against each candidate.
+	 *
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param similarities
+	 *            the array to write the similarities to, at least as long as
+	 *            the candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or similarities is null
+	 * @throws IllegalArgumentException
+	 *             when similarities is shorter than candidates
+	 */
+	default void compareAll(String query, List<String> candidates, float[] similarities) {
+		requireNonNull(query);
+		checkArgument(similarities.length >= candidates.size(), "similarities must fit all candidates");
+		if (candidates.isEmpty()) {
+			return;
+		}
+		final PreparedStringMetric prepared = prepare(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			similarities[i++] = prepared.compare(candidate);
+		}
+	}
+
+	/**
+	 * Measures the similarity between pairs of strings. The i-th similarity
+	 * is equal to {@code compare(a.get(i), b.get(i))}.
+	 *
+	 * @param a
+	 *            strings to compare
+	 * @param b
+	 *            strings to compare, as many as a
+	 * @return the similarity between each pair of strings
+	 * @throws NullPointerException
+	 *             when a, b or any of their strings is null
+	 * @throws IllegalArgumentException
+	 *             when a and b are not of equal size
+	 * @see #compareMany(List, List, float[])
+	 */
+	default float[] compareMany(List<String> a, List<String> b) {
+		final float[] similarities = new float[a.size()];
+		compareMany(a, b, similarities);
+		return similarities;
+	}
+
+	/**
+	 * Measures the similarity between pairs of strings. The i-th similarity is
+	 * written to {@code similarities[i]} and is equal to
+	 * {@code compare(a.get(i), b.get(i))}.
+	 *
+	 * @param a
+	 *            strings to compare
+	 * @param b
+	 *            strings to compare, as many as a
+	 * @param similarities
+	 *            the array to write the similarities to, at least as long as a
+	 * @throws NullPointerException
+	 *             when a, b, any of their strings or similarities is null
+	 * @throws IllegalArgumentException
+	 *             when a and b are not of equal size or similarities is
+	 *             shorter than a
+	 */
+	default void compareMany(List<String> a, List<String> b, float[] similarities) {
+		checkArgument(a.size() == b.size(), "a and b must be of equal size");
+		checkArgument(similarities.length >= a.size(), "similarities must fit all pairs");
+		final Iterator<String> bIterator = b.iterator();
+		int i = 0;
+		for (String aString : a) {
+			similarities[i++] = compare(aString, bIterator.next());
+		}
+	}
+
 }
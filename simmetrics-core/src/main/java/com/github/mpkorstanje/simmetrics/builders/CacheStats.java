@@ -0,0 +1,135 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Statistics about the performance of a {@link SimplificationCache} or
+ * {@link TokenCache}. Statistics are a snapshot, they do not change once
+ * taken.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CacheStats {
+
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long totalLoadTime;
+
+	/**
+	 * Constructs a new snapshot of cache statistics.
+	 * 
+	 * @param hitCount
+	 *            the non-negative number of lookups that returned a cached
+	 *            value
+	 * @param missCount
+	 *            the non-negative number of lookups that loaded a value
+	 * @param evictionCount
+	 *            the non-negative number of values evicted
+	 * @param totalLoadTime
+	 *            the non-negative time spent loading values in nanoseconds
+	 */
+	public CacheStats(long hitCount, long missCount, long evictionCount, long totalLoadTime) {
+		checkArgument(hitCount >= 0);
+		checkArgument(missCount >= 0);
+		checkArgument(evictionCount >= 0);
+		checkArgument(totalLoadTime >= 0);
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.totalLoadTime = totalLoadTime;
+	}
+
+	/**
+	 * Returns the number of lookups that returned a cached value. Lookups that
+	 * waited for another thread to load the value count as hits.
+	 * 
+	 * @return the number of hits
+	 */
+	public long hitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of lookups that loaded a value.
+	 * 
+	 * @return the number of misses
+	 */
+	public long missCount() {
+		return missCount;
+	}
+
+	/**
+	 * Returns the number of lookups.
+	 * 
+	 * @return the number of hits and misses
+	 */
+	public long requestCount() {
+		return hitCount + missCount;
+	}
+
+	/**
+	 * Returns the ratio of lookups that returned a cached value. Returns 1 when
+	 * there were no lookups.
+	 * 
+	 * @return a value between 0 and 1 inclusive
+	 */
+	public double hitRate() {
+		final long requestCount = requestCount();
+		return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+	}
+
+	/**
+	 * Returns the number of values evicted to make room for others.
+	 * 
+	 * @return the number of evictions
+	 */
+	public long evictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Returns the time spent loading values in nanoseconds.
+	 * 
+	 * @return the total load time
+	 */
+	public long totalLoadTime() {
+		return totalLoadTime;
+	}
+
+	/**
+	 * Returns the average time spent loading a value in nanoseconds. Returns 0
+	 * when no values were loaded.
+	 * 
+	 * @return the average load time
+	 */
+	public double averageLoadPenalty() {
+		return missCount == 0 ? 0.0 : (double) totalLoadTime / missCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats [hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount
+				+ ", totalLoadTime=" + totalLoadTime + "]";
+	}
+
+}
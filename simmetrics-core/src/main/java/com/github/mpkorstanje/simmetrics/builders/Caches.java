@@ -0,0 +1,313 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.google.common.cache.Cache;
+
+/**
+ * Constructs caches for the caching steps of the {@link StringMetricBuilder}
+ * and {@link StringDistanceBuilder}.
+ * <p>
+ * The bounded caches created by {@link #simplificationCache(int)},
+ * {@link #tokenCache(int)} and {@link #resultCache(int)} take no locks when
+ * they find a cached value. The simplification and token caches allocate
+ * nothing on a hit. The result cache allocates a key for each lookup and
+ * boxes each loaded result. Concurrent lookups of a missing key load it only
+ * once. Entries are evicted by a CLOCK policy, an approximation of least
+ * recently used.
+ * <p>
+ * Guava caches can be used via {@link #simplificationCache(Cache)} and
+ * {@link #tokenCache(Cache)}.
+ */
+public final class Caches {
+
+	private Caches() {
+		// Utility class
+	}
+
+	/**
+	 * Creates a bounded simplification cache.
+	 * 
+	 * @param maxEntries
+	 *            the positive maximum number of entries
+	 * @return a new simplification cache
+	 */
+	public static SimplificationCache simplificationCache(int maxEntries) {
+		return new ClockSimplificationCache(maxEntries);
+	}
+
+	/**
+	 * Creates a bounded token cache.
+	 * 
+	 * @param <T>
+	 *            the type of collection holding the tokens
+	 * @param maxEntries
+	 *            the positive maximum number of entries
+	 * @return a new token cache
+	 */
+	public static <T extends Collection<String>> TokenCache<T> tokenCache(int maxEntries) {
+		return new ClockTokenCache<>(maxEntries);
+	}
+
+	/**
+	 * Creates a bounded result cache. Pairs of strings are stored unordered
+	 * and per comparison.
+	 * 
+	 * @param maxEntries
+	 *            the positive maximum number of entries
+	 * @return a new result cache
+	 */
+	public static ResultCache resultCache(int maxEntries) {
+		return new ClockResultCache(maxEntries);
+	}
+
+	/**
+	 * Adapts a Guava cache to a simplification cache. Statistics are only
+	 * available when the Guava cache records them.
+	 * 
+	 * @param cache
+	 *            the cache to adapt
+	 * @return a simplification cache backed by the Guava cache
+	 */
+	public static SimplificationCache simplificationCache(Cache<String, String> cache) {
+		return new GuavaSimplificationCache(cache);
+	}
+
+	/**
+	 * Adapts a Guava cache to a token cache. Statistics are only available
+	 * when the Guava cache records them.
+	 * 
+	 * @param <T>
+	 *            the type of collection holding the tokens
+	 * @param cache
+	 *            the cache to adapt
+	 * @return a token cache backed by the Guava cache
+	 */
+	public static <T extends Collection<String>> TokenCache<T> tokenCache(Cache<String, T> cache) {
+		return new GuavaTokenCache<>(cache);
+	}
+
+	private static CacheStats stats(Cache<?, ?> cache) {
+		final com.google.common.cache.CacheStats stats = cache.stats();
+		return new CacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.totalLoadTime());
+	}
+
+	private static final class ClockSimplificationCache extends ClockCache<String, Simplifier, String>
+			implements SimplificationCache {
+
+		ClockSimplificationCache(int maxEntries) {
+			super(maxEntries);
+		}
+
+		@Override
+		String load(Simplifier simplifier, String input) {
+			return simplifier.simplify(input);
+		}
+
+		@Override
+		public String get(String input, Simplifier simplifier) {
+			return super.get(input, simplifier);
+		}
+
+		@Override
+		public CacheStats stats() {
+			return super.stats();
+		}
+
+		@Override
+		public String toString() {
+			return "ClockSimplificationCache [" + stats() + "]";
+		}
+
+	}
+
+	private static final class ClockTokenCache<T extends Collection<String>> extends ClockCache<String, Function<String, T>, T>
+			implements TokenCache<T> {
+
+		ClockTokenCache(int maxEntries) {
+			super(maxEntries);
+		}
+
+		@Override
+		T load(Function<String, T> tokenizer, String input) {
+			return tokenizer.apply(input);
+		}
+
+		@Override
+		public T get(String input, Function<String, T> tokenizer) {
+			return super.get(input, tokenizer);
+		}
+
+		@Override
+		public CacheStats stats() {
+			return super.stats();
+		}
+
+		@Override
+		public String toString() {
+			return "ClockTokenCache [" + stats() + "]";
+		}
+
+	}
+
+	/**
+	 * An unordered pair of strings compared by a comparison. The string with
+	 * the smaller hash code comes first, ties are broken by comparing the
+	 * strings. Comparisons are compared by identity.
+	 */
+	private static final class Pair {
+
+		final ResultCache.Comparison comparison;
+		final String first;
+		final String second;
+		private final int hash;
+
+		Pair(ResultCache.Comparison comparison, String a, String b) {
+			this.comparison = comparison;
+			final int hashA = a.hashCode();
+			final int hashB = b.hashCode();
+			if (hashA < hashB || (hashA == hashB && a.compareTo(b) <= 0)) {
+				this.first = a;
+				this.second = b;
+				this.hash = 31 * (31 * System.identityHashCode(comparison) + hashA) + hashB;
+			} else {
+				this.first = b;
+				this.second = a;
+				this.hash = 31 * (31 * System.identityHashCode(comparison) + hashB) + hashA;
+			}
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Pair)) {
+				return false;
+			}
+			final Pair other = (Pair) o;
+			return hash == other.hash && comparison == other.comparison && first.equals(other.first)
+					&& second.equals(other.second);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+	}
+
+	private static final class ClockResultCache extends ClockCache<Pair, ResultCache.Comparison, Float>
+			implements ResultCache {
+
+		ClockResultCache(int maxEntries) {
+			super(maxEntries);
+		}
+
+		@Override
+		Float load(Comparison comparison, Pair pair) {
+			return comparison.compare(pair.first, pair.second);
+		}
+
+		@Override
+		public float get(String a, String b, Comparison comparison) {
+			return super.get(new Pair(comparison, a, b), comparison);
+		}
+
+		@Override
+		public CacheStats stats() {
+			return super.stats();
+		}
+
+		@Override
+		public String toString() {
+			return "ClockResultCache [" + stats() + "]";
+		}
+
+	}
+
+	private static final class GuavaSimplificationCache implements SimplificationCache {
+
+		private final Cache<String, String> cache;
+
+		GuavaSimplificationCache(Cache<String, String> cache) {
+			this.cache = requireNonNull(cache);
+		}
+
+		@Override
+		public String get(String input, Simplifier simplifier) {
+			try {
+				return cache.get(input, () -> simplifier.simplify(input));
+			} catch (ExecutionException e) {
+				// Can't happen. Simplifier may not throw checked exceptions
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public CacheStats stats() {
+			return Caches.stats(cache);
+		}
+
+		@Override
+		public String toString() {
+			return cache.toString();
+		}
+
+	}
+
+	private static final class GuavaTokenCache<T extends Collection<String>> implements TokenCache<T> {
+
+		private final Cache<String, T> cache;
+
+		GuavaTokenCache(Cache<String, T> cache) {
+			this.cache = requireNonNull(cache);
+		}
+
+		@Override
+		public T get(String input, Function<String, T> tokenizer) {
+			try {
+				return cache.get(input, () -> tokenizer.apply(input));
+			} catch (ExecutionException e) {
+				// Can't happen. Tokenizer may not throw checked exceptions
+				throw new IllegalStateException(e);
+			}
+		}
+
+		@Override
+		public CacheStats stats() {
+			return Caches.stats(cache);
+		}
+
+		@Override
+		public String toString() {
+			return cache.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,180 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache that loads each key once and evicts using the CLOCK
+ * algorithm.
+ * <p>
+ * Lookups of cached values take no locks and allocate nothing. When a key is
+ * missing, the thread that inserts it into the map loads the value. Other
+ * threads looking up the same key wait for that load rather than loading it
+ * again. When a load fails the failure is passed on to the waiting threads and
+ * the key is removed, so a later lookup tries again.
+ * <p>
+ * Loaded values are placed in a ring of {@code maxEntries} slots. A lookup
+ * marks a value as referenced. To make room, a hand sweeps the ring. It
+ * clears the mark of referenced values and evicts the first value that is not
+ * referenced. The hand and the slots are updated with atomic operations. The
+ * cache may briefly hold more than {@code maxEntries} values while values are
+ * loading.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <K>
+ *            type of the keys
+ * @param <L>
+ *            type of the loader
+ * @param <V>
+ *            type of the cached values
+ */
+abstract class ClockCache<K, L, V> {
+
+	private static final class Node<K, V> {
+		final K key;
+		final CompletableFuture<V> future = new CompletableFuture<>();
+		volatile V value;
+		volatile boolean referenced;
+
+		Node(K key) {
+			this.key = key;
+		}
+	}
+
+	private final ConcurrentHashMap<K, Node<K, V>> nodes = new ConcurrentHashMap<>();
+	private final AtomicReferenceArray<Node<K, V>> ring;
+	private final AtomicLong hand = new AtomicLong();
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+	private final LongAdder totalLoadTime = new LongAdder();
+
+	ClockCache(int maxEntries) {
+		checkArgument(maxEntries > 0, "maxEntries must be positive");
+		this.ring = new AtomicReferenceArray<>(maxEntries);
+	}
+
+	/**
+	 * Loads the value for a key.
+	 * 
+	 * @param loader
+	 *            the loader passed to {@link #get(Object, Object)}
+	 * @param key
+	 *            the key to load
+	 * @return the value for the key, never null
+	 */
+	abstract V load(L loader, K key);
+
+	V get(K key, L loader) {
+		requireNonNull(key);
+		requireNonNull(loader);
+		Node<K, V> node = nodes.get(key);
+		if (node == null) {
+			final Node<K, V> created = new Node<>(key);
+			node = nodes.putIfAbsent(key, created);
+			if (node == null) {
+				return load(created, loader);
+			}
+		}
+
+		hitCount.increment();
+		final V value = node.value;
+		if (value == null) {
+			return await(node);
+		}
+		if (!node.referenced) {
+			node.referenced = true;
+		}
+		return value;
+	}
+
+	private V load(Node<K, V> node, L loader) {
+		missCount.increment();
+		final long start = System.nanoTime();
+		final V value;
+		try {
+			value = requireNonNull(load(loader, node.key), "loader returned null");
+		} catch (RuntimeException | Error e) {
+			nodes.remove(node.key, node);
+			node.future.completeExceptionally(e);
+			throw e;
+		} finally {
+			totalLoadTime.add(System.nanoTime() - start);
+		}
+		node.value = value;
+		node.future.complete(value);
+		admit(node);
+		return value;
+	}
+
+	private static <V> V await(Node<?, V> node) {
+		try {
+			return node.future.join();
+		} catch (CompletionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw e;
+		}
+	}
+
+	private void admit(Node<K, V> node) {
+		final int capacity = ring.length();
+		while (true) {
+			final int slot = (int) Long.remainderUnsigned(hand.getAndIncrement(), capacity);
+			final Node<K, V> current = ring.get(slot);
+			if (current != null && current.referenced) {
+				// Second chance
+				current.referenced = false;
+				continue;
+			}
+			if (ring.compareAndSet(slot, current, node)) {
+				if (current != null && nodes.remove(current.key, current)) {
+					evictionCount.increment();
+				}
+				return;
+			}
+		}
+	}
+
+	final int size() {
+		return nodes.size();
+	}
+
+	CacheStats stats() {
+		return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), totalLoadTime.sum());
+	}
+
+}
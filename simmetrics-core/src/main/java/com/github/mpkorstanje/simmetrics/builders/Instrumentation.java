@@ -0,0 +1,287 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Records the number of calls to a metric or distance, their latency and the
+ * time spent in each stage of the computation.
+ * <p>
+ * Instrumentation is added to a metric or distance with
+ * {@code instrument(Instrumentation)} as the last step of a builder. The
+ * latency of each call is recorded in a histogram bucketed by the length of
+ * the longest input. The time spent in the simplifiers and tokenizers of the
+ * builder is recorded separately; the remaining time is attributed to the
+ * comparison itself.
+ * <p>
+ * Recording costs two calls to {@link System#nanoTime()} per call and per
+ * stage. All counters, including the histogram buckets, are striped
+ * {@link LongAdder}s so concurrent calls do not contend.
+ * <p>
+ * Statistics are read with {@link #snapshot()} or through JMX after
+ * {@link #register(String)}. A snapshot taken while calls are recorded may
+ * be slightly inconsistent between counters.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class Instrumentation {
+
+	/**
+	 * The stages of a call.
+	 */
+	public enum Stage {
+		/**
+		 * Time spent in the simplifiers.
+		 */
+		SIMPLIFY,
+		/**
+		 * Time spent in the tokenizers.
+		 */
+		TOKENIZE,
+		/**
+		 * Time spent in the metric or distance, and everything else not
+		 * attributed to another stage.
+		 */
+		COMPARE
+	}
+
+	/**
+	 * Number of length buckets. Bucket {@code i > 0} holds lengths in
+	 * {@code [2^(i-1), 2^i)}; the last bucket also holds all longer inputs.
+	 */
+	static final int LENGTH_BUCKETS = 16;
+
+	/**
+	 * Number of latency buckets. Bucket {@code i > 0} holds latencies in
+	 * {@code [2^(i-1), 2^i)} nanoseconds; the last bucket also holds all
+	 * longer latencies.
+	 */
+	static final int LATENCY_BUCKETS = 40;
+
+	private static final String DOMAIN = "com.github.mpkorstanje.simmetrics";
+
+	private final LongAdder calls = new LongAdder();
+	private final LongAdder nanos = new LongAdder();
+	private final LongAdder simplifyCalls = new LongAdder();
+	private final LongAdder simplifyNanos = new LongAdder();
+	private final LongAdder tokenizeCalls = new LongAdder();
+	private final LongAdder tokenizeNanos = new LongAdder();
+	private final LongAdder[] histogram = new LongAdder[LENGTH_BUCKETS * LATENCY_BUCKETS];
+
+	private Instrumentation() {
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Creates a new instrumentation without any recorded calls.
+	 *
+	 * @return a new instrumentation
+	 */
+	public static Instrumentation create() {
+		return new Instrumentation();
+	}
+
+	static int bucket(long value, int buckets) {
+		return Math.min(Long.SIZE - Long.numberOfLeadingZeros(value), buckets - 1);
+	}
+
+	void record(String a, String b, long elapsedNanos) {
+		calls.increment();
+		nanos.add(elapsedNanos);
+		final int lengthBucket = bucket(Math.max(a.length(), b.length()), LENGTH_BUCKETS);
+		final int latencyBucket = bucket(Math.max(elapsedNanos, 0), LATENCY_BUCKETS);
+		histogram[lengthBucket * LATENCY_BUCKETS + latencyBucket].increment();
+	}
+
+	/**
+	 * Time spent preparing a query counts towards the total time but is not
+	 * a call of its own.
+	 */
+	void recordPrepare(long elapsedNanos) {
+		nanos.add(elapsedNanos);
+	}
+
+	void recordSimplify(long elapsedNanos) {
+		simplifyCalls.increment();
+		simplifyNanos.add(elapsedNanos);
+	}
+
+	void recordTokenize(long elapsedNanos) {
+		tokenizeCalls.increment();
+		tokenizeNanos.add(elapsedNanos);
+	}
+
+	/**
+	 * Returns a snapshot of the statistics recorded so far.
+	 *
+	 * @return a snapshot of the statistics
+	 */
+	public InstrumentationSnapshot snapshot() {
+		final long[] counts = new long[histogram.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = histogram[i].sum();
+		}
+		return new InstrumentationSnapshot(calls.sum(), nanos.sum(), simplifyCalls.sum(), simplifyNanos.sum(),
+				tokenizeCalls.sum(), tokenizeNanos.sum(), counts);
+	}
+
+	/**
+	 * Discards all statistics recorded so far. Calls recorded concurrently
+	 * may be partially discarded.
+	 */
+	public void reset() {
+		calls.reset();
+		nanos.reset();
+		simplifyCalls.reset();
+		simplifyNanos.reset();
+		tokenizeCalls.reset();
+		tokenizeNanos.reset();
+		for (LongAdder count : histogram) {
+			count.reset();
+		}
+	}
+
+	/**
+	 * Registers this instrumentation with the platform MBean server as an
+	 * {@link InstrumentationMXBean} named
+	 * {@code com.github.mpkorstanje.simmetrics:type=Instrumentation,name=<name>}.
+	 *
+	 * @param name
+	 *            the name of the MBean
+	 * @return the object name of the registered MBean
+	 * @throws IllegalArgumentException
+	 *             when the name is not a valid object name or already
+	 *             registered
+	 */
+	public ObjectName register(String name) {
+		requireNonNull(name);
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			final ObjectName objectName = new ObjectName(DOMAIN + ":type=Instrumentation,name=" + name);
+			server.registerMBean(new MXBean(this), objectName);
+			return objectName;
+		} catch (JMException e) {
+			throw new IllegalArgumentException("could not register " + name, e);
+		}
+	}
+
+	/**
+	 * Removes an MBean registered with {@link #register(String)} from the
+	 * platform MBean server.
+	 *
+	 * @param objectName
+	 *            the name of the registered MBean
+	 * @throws IllegalArgumentException
+	 *             when the name is not registered
+	 */
+	public static void unregister(ObjectName objectName) {
+		requireNonNull(objectName);
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException e) {
+			throw new IllegalArgumentException("could not unregister " + objectName, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Instrumentation [" + snapshot() + "]";
+	}
+
+	private static final class MXBean implements InstrumentationMXBean {
+
+		private final Instrumentation instrumentation;
+
+		MXBean(Instrumentation instrumentation) {
+			this.instrumentation = instrumentation;
+		}
+
+		@Override
+		public long getCalls() {
+			return instrumentation.calls.sum();
+		}
+
+		@Override
+		public long getTotalNanos() {
+			return instrumentation.nanos.sum();
+		}
+
+		@Override
+		public double getMeanNanos() {
+			return instrumentation.snapshot().meanNanos();
+		}
+
+		@Override
+		public long getSimplifyCalls() {
+			return instrumentation.simplifyCalls.sum();
+		}
+
+		@Override
+		public long getSimplifyNanos() {
+			return instrumentation.simplifyNanos.sum();
+		}
+
+		@Override
+		public long getTokenizeCalls() {
+			return instrumentation.tokenizeCalls.sum();
+		}
+
+		@Override
+		public long getTokenizeNanos() {
+			return instrumentation.tokenizeNanos.sum();
+		}
+
+		@Override
+		public long getCompareNanos() {
+			return instrumentation.snapshot().stageNanos(Stage.COMPARE);
+		}
+
+		@Override
+		public long getLatencyMedianNanos() {
+			return instrumentation.snapshot().latencyPercentileNanos(0.5);
+		}
+
+		@Override
+		public long getLatency99thPercentileNanos() {
+			return instrumentation.snapshot().latencyPercentileNanos(0.99);
+		}
+
+		@Override
+		public long[][] getLatencyHistogram() {
+			return instrumentation.snapshot().histogram();
+		}
+
+		@Override
+		public void reset() {
+			instrumentation.reset();
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+/**
+ * Management interface of an {@link Instrumentation} registered with
+ * {@link Instrumentation#register(String)}.
+ */
+public interface InstrumentationMXBean {
+
+	/**
+	 * Returns the number of calls.
+	 *
+	 * @return the number of calls
+	 */
+	long getCalls();
+
+	/**
+	 * Returns the total time spent in calls.
+	 *
+	 * @return the total time in nanoseconds
+	 */
+	long getTotalNanos();
+
+	/**
+	 * Returns the mean time spent in a call.
+	 *
+	 * @return the mean time in nanoseconds
+	 */
+	double getMeanNanos();
+
+	/**
+	 * Returns the number of calls to the simplifiers.
+	 *
+	 * @return the number of calls to the simplifiers
+	 */
+	long getSimplifyCalls();
+
+	/**
+	 * Returns the time spent in the simplifiers.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	long getSimplifyNanos();
+
+	/**
+	 * Returns the number of calls to the tokenizers.
+	 *
+	 * @return the number of calls to the tokenizers
+	 */
+	long getTokenizeCalls();
+
+	/**
+	 * Returns the time spent in the tokenizers.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	long getTokenizeNanos();
+
+	/**
+	 * Returns the time spent in the metric or distance.
+	 *
+	 * @return the time in nanoseconds
+	 */
+	long getCompareNanos();
+
+	/**
+	 * Returns an upper bound on the median latency of a call.
+	 *
+	 * @return the latency in nanoseconds
+	 */
+	long getLatencyMedianNanos();
+
+	/**
+	 * Returns an upper bound on the 99th percentile latency of a call.
+	 *
+	 * @return the latency in nanoseconds
+	 */
+	long getLatency99thPercentileNanos();
+
+	/**
+	 * Returns the number of calls by length and latency bucket.
+	 *
+	 * @return the histogram of calls
+	 * @see InstrumentationSnapshot#histogram()
+	 */
+	long[][] getLatencyHistogram();
+
+	/**
+	 * Discards all statistics recorded so far.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,232 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.github.mpkorstanje.simmetrics.builders.Instrumentation.LATENCY_BUCKETS;
+import static com.github.mpkorstanje.simmetrics.builders.Instrumentation.LENGTH_BUCKETS;
+import static java.util.Objects.requireNonNull;
+
+import com.github.mpkorstanje.simmetrics.builders.Instrumentation.Stage;
+
+/**
+ * Statistics recorded by an {@link Instrumentation}. Statistics are a
+ * snapshot, they do not change once taken.
+ * <p>
+ * Latencies are recorded in a histogram with power of two buckets, indexed by
+ * the length of the longest input and the latency of the call. Length bucket
+ * {@code i > 0} holds inputs with a length in {@code [2^(i-1), 2^i)}, latency
+ * bucket {@code j > 0} holds calls that took {@code [2^(j-1), 2^j)}
+ * nanoseconds. Bucket 0 holds the empty inputs and calls that took no
+ * measurable time. The last buckets also hold everything longer.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class InstrumentationSnapshot {
+
+	private final long calls;
+	private final long nanos;
+	private final long simplifyCalls;
+	private final long simplifyNanos;
+	private final long tokenizeCalls;
+	private final long tokenizeNanos;
+	private final long[] histogram;
+
+	InstrumentationSnapshot(long calls, long nanos, long simplifyCalls, long simplifyNanos, long tokenizeCalls,
+			long tokenizeNanos, long[] histogram) {
+		this.calls = calls;
+		this.nanos = nanos;
+		this.simplifyCalls = simplifyCalls;
+		this.simplifyNanos = simplifyNanos;
+		this.tokenizeCalls = tokenizeCalls;
+		this.tokenizeNanos = tokenizeNanos;
+		this.histogram = histogram;
+	}
+
+	/**
+	 * Returns the number of calls.
+	 *
+	 * @return the number of calls
+	 */
+	public long calls() {
+		return calls;
+	}
+
+	/**
+	 * Returns the time spent in calls in nanoseconds.
+	 *
+	 * @return the total time
+	 */
+	public long totalNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Returns the average time spent in a call in nanoseconds. Returns 0 when
+	 * there were no calls.
+	 *
+	 * @return the average time
+	 */
+	public double meanNanos() {
+		return calls == 0 ? 0.0 : (double) nanos / calls;
+	}
+
+	/**
+	 * Returns the number of times a stage was entered. The comparison stage
+	 * is entered once per call.
+	 *
+	 * @param stage
+	 *            the stage
+	 * @return the number of times the stage was entered
+	 */
+	public long stageCalls(Stage stage) {
+		switch (requireNonNull(stage)) {
+		case SIMPLIFY:
+			return simplifyCalls;
+		case TOKENIZE:
+			return tokenizeCalls;
+		default:
+			return calls;
+		}
+	}
+
+	/**
+	 * Returns the time spent in a stage in nanoseconds. The time spent in the
+	 * comparison stage is the time spent in calls that was not spent in other
+	 * stages.
+	 *
+	 * @param stage
+	 *            the stage
+	 * @return the time spent in the stage
+	 */
+	public long stageNanos(Stage stage) {
+		switch (requireNonNull(stage)) {
+		case SIMPLIFY:
+			return simplifyNanos;
+		case TOKENIZE:
+			return tokenizeNanos;
+		default:
+			return Math.max(nanos - simplifyNanos - tokenizeNanos, 0);
+		}
+	}
+
+	/**
+	 * Returns the number of calls in a length and latency bucket.
+	 *
+	 * @param lengthBucket
+	 *            the length bucket
+	 * @param latencyBucket
+	 *            the latency bucket
+	 * @return the number of calls
+	 */
+	public long count(int lengthBucket, int latencyBucket) {
+		checkElementIndex(lengthBucket, LENGTH_BUCKETS);
+		checkElementIndex(latencyBucket, LATENCY_BUCKETS);
+		return histogram[lengthBucket * LATENCY_BUCKETS + latencyBucket];
+	}
+
+	/**
+	 * Returns the number of calls by length and latency bucket.
+	 *
+	 * @return a new array indexed by length and then latency bucket
+	 */
+	public long[][] histogram() {
+		final long[][] result = new long[LENGTH_BUCKETS][LATENCY_BUCKETS];
+		for (int i = 0; i < LENGTH_BUCKETS; i++) {
+			System.arraycopy(histogram, i * LATENCY_BUCKETS, result[i], 0, LATENCY_BUCKETS);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the length bucket of inputs of the given length.
+	 *
+	 * @param length
+	 *            the non-negative length of the longest input
+	 * @return the length bucket
+	 */
+	public static int lengthBucket(int length) {
+		checkArgument(length >= 0, "length may not be negative");
+		return Instrumentation.bucket(length, LENGTH_BUCKETS);
+	}
+
+	/**
+	 * Returns an upper bound on the latency of the given percentile of all
+	 * calls. Returns 0 when there were no calls.
+	 *
+	 * @param percentile
+	 *            the percentile, between 0 and 1 inclusive
+	 * @return the upper bound of the latency bucket of the percentile in
+	 *         nanoseconds
+	 */
+	public long latencyPercentileNanos(double percentile) {
+		return latencyPercentileNanos(0, LENGTH_BUCKETS, percentile);
+	}
+
+	/**
+	 * Returns an upper bound on the latency of the given percentile of the
+	 * calls in a length bucket. Returns 0 when there were no calls.
+	 *
+	 * @param lengthBucket
+	 *            the length bucket
+	 * @param percentile
+	 *            the percentile, between 0 and 1 inclusive
+	 * @return the upper bound of the latency bucket of the percentile in
+	 *         nanoseconds
+	 * @see #lengthBucket(int)
+	 */
+	public long latencyPercentileNanos(int lengthBucket, double percentile) {
+		checkElementIndex(lengthBucket, LENGTH_BUCKETS);
+		return latencyPercentileNanos(lengthBucket, lengthBucket + 1, percentile);
+	}
+
+	private long latencyPercentileNanos(int from, int to, double percentile) {
+		checkArgument(0.0 <= percentile && percentile <= 1.0, "percentile must be between 0 and 1");
+		final long[] latencies = new long[LATENCY_BUCKETS];
+		long total = 0;
+		for (int i = from; i < to; i++) {
+			for (int j = 0; j < LATENCY_BUCKETS; j++) {
+				latencies[j] += histogram[i * LATENCY_BUCKETS + j];
+				total += histogram[i * LATENCY_BUCKETS + j];
+			}
+		}
+		if (total == 0) {
+			return 0;
+		}
+		final long rank = Math.max((long) Math.ceil(percentile * total), 1);
+		long seen = 0;
+		for (int j = 0; j < LATENCY_BUCKETS - 1; j++) {
+			seen += latencies[j];
+			if (seen >= rank) {
+				return (1L << j) - 1;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public String toString() {
+		return "InstrumentationSnapshot [calls=" + calls + ", totalNanos=" + nanos + ", simplifyNanos="
+				+ simplifyNanos + ", tokenizeNanos=" + tokenizeNanos + ", compareNanos=" + stageNanos(Stage.COMPARE)
+				+ "]";
+	}
+
+}
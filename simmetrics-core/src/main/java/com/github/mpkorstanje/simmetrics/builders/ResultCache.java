@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+/**
+ * A cache for the results of comparing pairs of strings. Used by
+ * {@link StringMetricBuilder} and {@link StringDistanceBuilder} to avoid
+ * comparing the same pair repeatedly.
+ * <p>
+ * Pairs are unordered: the result for {@code (a, b)} is also returned for
+ * {@code (b, a)}. Only use a result cache with symmetric metrics and
+ * distances.
+ * <p>
+ * Results are cached per comparison, compared by identity. A cache may be
+ * shared between metrics and distances; each only sees its own results as
+ * long as it passes the same comparison instance on every call.
+ * <p>
+ * Implementations must be thread-safe.
+ * 
+ * @see Caches#resultCache(int)
+ */
+public interface ResultCache {
+
+	/**
+	 * Compares two strings. Used by a result cache to compute results that
+	 * are not cached.
+	 */
+	@FunctionalInterface
+	interface Comparison {
+		/**
+		 * Compares a and b.
+		 * 
+		 * @param a
+		 *            a string
+		 * @param b
+		 *            another string
+		 * @return the result of the comparison
+		 */
+		float compare(String a, String b);
+	}
+
+	/**
+	 * Returns the result of comparing a and b. When neither the pair
+	 * {@code (a, b)} nor {@code (b, a)} is in the cache for this comparison the
+	 * result is computed by the comparison and stored.
+	 * 
+	 * @param a
+	 *            a string
+	 * @param b
+	 *            another string
+	 * @param comparison
+	 *            the comparison to use when the pair is not cached
+	 * @return the result of comparing a and b
+	 */
+	float get(String a, String b, Comparison comparison);
+
+	/**
+	 * Returns a snapshot of the statistics of this cache.
+	 * 
+	 * @return statistics of this cache
+	 */
+	CacheStats stats();
+
+}
@@ -0,0 +1,54 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+
+/**
+ * A cache for the results of a simplification chain. Used by
+ * {@link StringMetricBuilder} and {@link StringDistanceBuilder} to avoid
+ * simplifying the same string repeatedly.
+ * <p>
+ * Implementations must be thread-safe.
+ * 
+ * @see Caches
+ */
+public interface SimplificationCache {
+
+	/**
+	 * Returns the simplified input. When the input is not in the cache it is
+	 * simplified by the simplifier and stored.
+	 * 
+	 * @param input
+	 *            the string to simplify
+	 * @param simplifier
+	 *            the simplifier to use when the input is not cached
+	 * @return the simplified input
+	 */
+	String get(String input, Simplifier simplifier);
+
+	/**
+	 * Returns a snapshot of the statistics of this cache.
+	 * 
+	 * @return statistics of this cache
+	 */
+	CacheStats stats();
+
+}
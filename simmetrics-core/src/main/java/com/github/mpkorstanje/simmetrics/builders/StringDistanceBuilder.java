@@ -36,7 +36,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -116,6 +115,42 @@ public final class StringDistanceBuilder {
 		 */
 		StringDistance build();
 
+		/**
+		 * Sets a cache for the results of the distance. The cache stores the
+		 * result of {@code distance(a, b)} for both {@code (a, b)} and
+		 * {@code (b, a)}. Only use this for symmetric distances.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches#resultCache(int)
+		 */
+		BuildStep cacheResults(ResultCache cache);
+
+		/**
+		 * Sets a bounded cache for the results of the distance. The cache stores
+		 * the result of {@code distance(a, b)} for both {@code (a, b)} and
+		 * {@code (b, a)}. Only use this for symmetric distances.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#resultCache(int)
+		 */
+		BuildStep cacheResults(int maxEntries);
+
+		/**
+		 * Records the calls to the distance. The latency of each call and the
+		 * time spent in the simplification and tokenization steps are
+		 * recorded by the instrumentation.
+		 * 
+		 * @param instrumentation
+		 *            the instrumentation to record calls with
+		 * @return this for fluent chaining
+		 * @see Instrumentation
+		 */
+		BuildStep instrument(Instrumentation instrumentation);
+
 	}
 
 	public interface StringDistanceInitialSimplifierStep extends BuildStep {
@@ -159,6 +194,28 @@ public final class StringDistanceBuilder {
 		 */
 		BuildStep cacheStrings(Cache<String, String> cache);
 
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches
+		 */
+		BuildStep cacheStrings(SimplificationCache cache);
+
+		/**
+		 * Sets a bounded cache for simplification chain. The cache will store
+		 * the result of all previous simplification steps.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#simplificationCache(int)
+		 */
+		BuildStep cacheStrings(int maxEntries);
+
 		/**
 		 * Builds a distance with the given simplifier.
 		 * 
@@ -212,6 +269,28 @@ public final class StringDistanceBuilder {
 		 */
 		CollectionDistanceInitialTokenizerStep<T> cacheStrings(Cache<String, String> cache);
 
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches
+		 */
+		CollectionDistanceInitialTokenizerStep<T> cacheStrings(SimplificationCache cache);
+
+		/**
+		 * Sets a bounded cache for simplification chain. The cache will store
+		 * the result of all previous simplification steps.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#simplificationCache(int)
+		 */
+		CollectionDistanceInitialTokenizerStep<T> cacheStrings(int maxEntries);
+
 		/**
 		 * Adds a tokenization step to the distance.
 		 * 
@@ -279,6 +358,28 @@ public final class StringDistanceBuilder {
 		 */
 		BuildStep cacheTokens(Cache<String, T> cache);
 
+		/**
+		 * Sets a cache for tokenization chain. The cache will store the result
+		 * of all previous tokenization steps.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches
+		 */
+		BuildStep cacheTokens(TokenCache<T> cache);
+
+		/**
+		 * Sets a bounded cache for tokenization chain. The cache will store the
+		 * result of all previous tokenization steps.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#tokenCache(int)
+		 */
+		BuildStep cacheTokens(int maxEntries);
+
 		/**
 		 * Builds a string distance metric that will use the given
 		 * simplification, tokenization and filtering steps.
@@ -296,6 +397,10 @@ public final class StringDistanceBuilder {
 
 		private final List<Simplifier> simplifiers = new ArrayList<>();
 
+		private ResultCache resultCache;
+
+		private Instrumentation instrumentation;
+
 		CompositeStringDistanceBuilder(Distance<String> distance) {
 			requireNonNull(distance);
 			this.distance = distance;
@@ -305,13 +410,33 @@ public final class StringDistanceBuilder {
 		public StringDistance build() {
 
 			if (simplifiers.isEmpty()) {
-				return create(distance);
+				return withInstrumentation(instrumentation, withResultCache(resultCache, create(distance)));
 			}
-			return create(distance, chainSimplifiers());
+			final Simplifier simplifier = instrumentSimplifier(instrumentation, chainSimplifiers());
+			return withInstrumentation(instrumentation, withResultCache(resultCache, create(distance, simplifier)));
+		}
+
+		@Override
+		public BuildStep cacheResults(int maxEntries) {
+			return cacheResults(Caches.resultCache(maxEntries));
+		}
+
+		@Override
+		public BuildStep cacheResults(ResultCache cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		@Override
+		public BuildStep instrument(Instrumentation instrumentation) {
+			requireNonNull(instrumentation);
+			this.instrumentation = instrumentation;
+			return this;
 		}
 
 		private Simplifier chainSimplifiers() {
-			final Simplifier simplifier = Simplifiers.chain(simplifiers);
+			final Simplifier simplifier = Simplifiers.compile(Simplifiers.chain(simplifiers));
 			simplifiers.clear();
 
 			return simplifier;
@@ -319,6 +444,16 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public BuildStep cacheStrings(Cache<String, String> cache) {
+			return cacheStrings(Caches.simplificationCache(cache));
+		}
+
+		@Override
+		public BuildStep cacheStrings(int maxEntries) {
+			return cacheStrings(Caches.simplificationCache(maxEntries));
+		}
+
+		@Override
+		public BuildStep cacheStrings(SimplificationCache cache) {
 			requireNonNull(cache);
 			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache, chainSimplifiers());
 			this.simplifiers.add(cachingSimplifier);
@@ -342,6 +477,10 @@ public final class StringDistanceBuilder {
 		private final List<Simplifier> simplifiers = new ArrayList<>();
 		private final List<Tokenizer> tokenizers = new ArrayList<>();
 
+		private ResultCache resultCache;
+
+		private Instrumentation instrumentation;
+
 		CompositeCollectionDistanceBuilder(Distance<T> distance) {
 			requireNonNull(distance);
 			this.distance = distance;
@@ -350,13 +489,34 @@ public final class StringDistanceBuilder {
 		@Override
 		public final StringDistance build() {
 
-			Tokenizer tokenizer = chainTokenizers();
+			Tokenizer tokenizer = instrumentTokenizer(instrumentation, chainTokenizers());
 
 			if (simplifiers.isEmpty()) {
-				return build(distance, tokenizer);
+				return withInstrumentation(instrumentation, withResultCache(resultCache, build(distance, tokenizer)));
 			}
 
-			return build(distance, chainSimplifiers(), tokenizer);
+			final Simplifier simplifier = instrumentSimplifier(instrumentation, chainSimplifiers());
+			return withInstrumentation(instrumentation,
+					withResultCache(resultCache, build(distance, simplifier, tokenizer)));
+		}
+
+		@Override
+		public final BuildStep cacheResults(int maxEntries) {
+			return cacheResults(Caches.resultCache(maxEntries));
+		}
+
+		@Override
+		public final BuildStep cacheResults(ResultCache cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		@Override
+		public final BuildStep instrument(Instrumentation instrumentation) {
+			requireNonNull(instrumentation);
+			this.instrumentation = instrumentation;
+			return this;
 		}
 
 		abstract StringDistance build(Distance<T> distance, Simplifier simplifier, Tokenizer tokenizer);
@@ -365,20 +525,38 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public final BuildStep cacheTokens(Cache<String, T> cache) {
+			return cacheTokens(Caches.tokenCache(cache));
+		}
+
+		@Override
+		public final BuildStep cacheTokens(int maxEntries) {
+			return cacheTokens(Caches.<T> tokenCache(maxEntries));
+		}
+
+		@Override
+		public final BuildStep cacheTokens(TokenCache<T> cache) {
 			requireNonNull(cache);
 			tokenizers.add(createCachingTokenizer(cache, chainTokenizers()));
 			return this;
 		}
 
-		protected abstract Tokenizer createCachingTokenizer(Cache<String, T> cache, Tokenizer tokenizer);
+		protected abstract Tokenizer createCachingTokenizer(TokenCache<T> cache, Tokenizer tokenizer);
 
 		@Override
 		public final CollectionDistanceInitialTokenizerStep<T> cacheStrings(Cache<String, String> cache) {
-			requireNonNull(cache);
+			return cacheStrings(Caches.simplificationCache(cache));
+		}
 
+		@Override
+		public final CollectionDistanceInitialTokenizerStep<T> cacheStrings(int maxEntries) {
+			return cacheStrings(Caches.simplificationCache(maxEntries));
+		}
+
+		@Override
+		public final CollectionDistanceInitialTokenizerStep<T> cacheStrings(SimplificationCache cache) {
+			requireNonNull(cache);
 			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache, chainSimplifiers());
 			this.simplifiers.add(cachingSimplifier);
-
 			return this;
 		}
 
@@ -423,7 +601,7 @@ public final class StringDistanceBuilder {
 		}
 
 		private Simplifier chainSimplifiers() {
-			final Simplifier simplifier = Simplifiers.chain(simplifiers);
+			final Simplifier simplifier = Simplifiers.compile(Simplifiers.chain(simplifiers));
 			simplifiers.clear();
 			return simplifier;
 		}
@@ -447,7 +625,7 @@ public final class StringDistanceBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(TokenCache<List<String>> cache, Tokenizer tokenizer) {
 			return new CachingListTokenizer(cache, tokenizer);
 		}
 
@@ -470,7 +648,7 @@ public final class StringDistanceBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(TokenCache<Set<String>> cache, Tokenizer tokenizer) {
 			return new CachingSetTokenizer(cache, tokenizer);
 		}
 
@@ -494,30 +672,106 @@ public final class StringDistanceBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(TokenCache<Multiset<String>> cache, Tokenizer tokenizer) {
 			return new CachingMultisetTokenizer(cache, tokenizer);
 		}
 
 	}
 
+	private static StringDistance withResultCache(ResultCache cache, StringDistance distance) {
+		if (cache == null) {
+			return distance;
+		}
+		return new CachingStringDistance(cache, distance);
+	}
+
+	private static StringDistance withInstrumentation(Instrumentation instrumentation, StringDistance distance) {
+		if (instrumentation == null) {
+			return distance;
+		}
+		return new InstrumentedStringDistance(instrumentation, distance);
+	}
+
+	private static Simplifier instrumentSimplifier(Instrumentation instrumentation, Simplifier simplifier) {
+		if (instrumentation == null) {
+			return simplifier;
+		}
+		return new InstrumentedSimplifier(instrumentation, simplifier);
+	}
+
+	private static Tokenizer instrumentTokenizer(Instrumentation instrumentation, Tokenizer tokenizer) {
+		if (instrumentation == null) {
+			return tokenizer;
+		}
+		return new InstrumentedTokenizer(instrumentation, tokenizer);
+	}
+
+	static final class InstrumentedStringDistance implements StringDistance {
+
+		private final Instrumentation instrumentation;
+		final StringDistance distance;
+
+		InstrumentedStringDistance(Instrumentation instrumentation, StringDistance distance) {
+			this.instrumentation = instrumentation;
+			this.distance = distance;
+		}
+
+		@Override
+		public float distance(String a, String b) {
+			final long start = System.nanoTime();
+			final float distance = this.distance.distance(a, b);
+			instrumentation.record(a, b, System.nanoTime() - start);
+			return distance;
+		}
+
+		@Override
+		public String toString() {
+			return "InstrumentedStringDistance [" + distance + "]";
+		}
+
+	}
+
+	static final class CachingStringDistance implements StringDistance {
+
+		private final ResultCache cache;
+		private final ResultCache.Comparison comparison;
+		final StringDistance distance;
+
+		CachingStringDistance(ResultCache cache, StringDistance distance) {
+			this.cache = cache;
+			this.distance = distance;
+			this.comparison = distance::distance;
+		}
+
+		@Override
+		public float distance(String a, String b) {
+			return cache.get(a, b, comparison);
+		}
+
+		@Override
+		public String toString() {
+			return "CachingStringDistance [" + cache + ", " + distance + "]";
+		}
+
+	}
+
 	static final class CachingSimplifier implements Simplifier {
 
-		private final Cache<String, String> cache;
+		private final SimplificationCache cache;
 		final Simplifier simplifier;
 
 		CachingSimplifier(Cache<String, String> cache, Simplifier simplifier) {
+			this(Caches.simplificationCache(cache), simplifier);
+		}
+
+		CachingSimplifier(SimplificationCache cache, Simplifier simplifier) {
 			this.cache = cache;
 			this.simplifier = simplifier;
 		}
 
 		@Override
 		public String simplify(final String input) {
-			try {
-				return cache.get(input, () -> simplifier.simplify(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Simplifier may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, simplifier);
 		}
 
 		@Override
@@ -529,12 +783,18 @@ public final class StringDistanceBuilder {
 
 	static final class CachingMultisetTokenizer implements Tokenizer {
 
-		private final Cache<String, Multiset<String>> cache;
+		private final TokenCache<Multiset<String>> cache;
+		private final Function<String, Multiset<String>> tokenize;
 		final Tokenizer tokenizer;
 
 		CachingMultisetTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
+			this(Caches.tokenCache(cache), tokenizer);
+		}
+
+		CachingMultisetTokenizer(TokenCache<Multiset<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
+			this.tokenize = tokenizer::tokenizeToMultiset;
 		}
 
 		@Override
@@ -549,12 +809,7 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public Multiset<String> tokenizeToMultiset(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToMultiset(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenize);
 		}
 
 		@Override
@@ -565,12 +820,18 @@ public final class StringDistanceBuilder {
 
 	static final class CachingSetTokenizer implements Tokenizer {
 
-		private final Cache<String, Set<String>> cache;
+		private final TokenCache<Set<String>> cache;
+		private final Function<String, Set<String>> tokenize;
 		final Tokenizer tokenizer;
 
 		CachingSetTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
+			this(Caches.tokenCache(cache), tokenizer);
+		}
+
+		CachingSetTokenizer(TokenCache<Set<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
+			this.tokenize = tokenizer::tokenizeToSet;
 		}
 
 		@Override
@@ -580,12 +841,7 @@ public final class StringDistanceBuilder {
 
 		@Override
 		public Set<String> tokenizeToSet(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToSet(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenize);
 		}
 
 		@Override
@@ -601,22 +857,23 @@ public final class StringDistanceBuilder {
 
 	static final class CachingListTokenizer implements Tokenizer {
 
-		private final Cache<String, List<String>> cache;
+		private final TokenCache<List<String>> cache;
+		private final Function<String, List<String>> tokenize;
 		final Tokenizer tokenizer;
 
 		CachingListTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
+			this(Caches.tokenCache(cache), tokenizer);
+		}
+
+		CachingListTokenizer(TokenCache<List<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
+			this.tokenize = tokenizer::tokenizeToList;
 		}
 
 		@Override
 		public List<String> tokenizeToList(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToList(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenize);
 		}
 
 		@Override
@@ -635,4 +892,70 @@ public final class StringDistanceBuilder {
 		}
 	}
 
+	static final class InstrumentedSimplifier implements Simplifier {
+
+		private final Instrumentation instrumentation;
+		final Simplifier simplifier;
+
+		InstrumentedSimplifier(Instrumentation instrumentation, Simplifier simplifier) {
+			this.instrumentation = instrumentation;
+			this.simplifier = simplifier;
+		}
+
+		@Override
+		public String simplify(String input) {
+			final long start = System.nanoTime();
+			final String simplified = simplifier.simplify(input);
+			instrumentation.recordSimplify(System.nanoTime() - start);
+			return simplified;
+		}
+
+		@Override
+		public String toString() {
+			return "InstrumentedSimplifier [" + simplifier + "]";
+		}
+
+	}
+
+	static final class InstrumentedTokenizer implements Tokenizer {
+
+		private final Instrumentation instrumentation;
+		final Tokenizer tokenizer;
+
+		InstrumentedTokenizer(Instrumentation instrumentation, Tokenizer tokenizer) {
+			this.instrumentation = instrumentation;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public List<String> tokenizeToList(String input) {
+			final long start = System.nanoTime();
+			final List<String> tokens = tokenizer.tokenizeToList(input);
+			instrumentation.recordTokenize(System.nanoTime() - start);
+			return tokens;
+		}
+
+		@Override
+		public Set<String> tokenizeToSet(String input) {
+			final long start = System.nanoTime();
+			final Set<String> tokens = tokenizer.tokenizeToSet(input);
+			instrumentation.recordTokenize(System.nanoTime() - start);
+			return tokens;
+		}
+
+		@Override
+		public Multiset<String> tokenizeToMultiset(String input) {
+			final long start = System.nanoTime();
+			final Multiset<String> tokens = tokenizer.tokenizeToMultiset(input);
+			instrumentation.recordTokenize(System.nanoTime() - start);
+			return tokens;
+		}
+
+		@Override
+		public String toString() {
+			return "InstrumentedTokenizer [" + tokenizer + "]";
+		}
+
+	}
+
 }
@@ -20,9 +20,11 @@
 
 package com.github.mpkorstanje.simmetrics.builders;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.chain;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -112,6 +114,16 @@ final class StringDistances {
 			return distance.distance(tokenizer.tokenizeToList(a), tokenizer.tokenizeToList(b));
 		}
 
+		@Override
+		public void distanceAll(String query, List<String> candidates, float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final List<String> tokens = tokenizer.tokenizeToList(query);
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = distance.distance(tokens, tokenizer.tokenizeToList(candidate));
+			}
+		}
+
 		Distance<List<String>> getDistance() {
 			return distance;
 		}
@@ -148,6 +160,16 @@ final class StringDistances {
 					tokenizer.tokenizeToList(simplifier.simplify(b)));
 		}
 
+		@Override
+		public void distanceAll(String query, List<String> candidates, float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final List<String> tokens = tokenizer.tokenizeToList(simplifier.simplify(query));
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = distance.distance(tokens, tokenizer.tokenizeToList(simplifier.simplify(candidate)));
+			}
+		}
+
 		Distance<List<String>> getDistance() {
 			return distance;
 		}
@@ -184,6 +206,16 @@ final class StringDistances {
 			return distance.distance(tokenizer.tokenizeToSet(a), tokenizer.tokenizeToSet(b));
 		}
 
+		@Override
+		public void distanceAll(String query, List<String> candidates, float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final Set<String> tokens = tokenizer.tokenizeToSet(query);
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = distance.distance(tokens, tokenizer.tokenizeToSet(candidate));
+			}
+		}
+
 		Distance<Set<String>> getDistance() {
 			return distance;
 		}
@@ -221,6 +253,16 @@ final class StringDistances {
 					tokenizer.tokenizeToSet(simplifier.simplify(b)));
 		}
 
+		@Override
+		public void distanceAll(String query, List<String> candidates, float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final Set<String> tokens = tokenizer.tokenizeToSet(simplifier.simplify(query));
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = distance.distance(tokens, tokenizer.tokenizeToSet(simplifier.simplify(candidate)));
+			}
+		}
+
 		Distance<Set<String>> getDistance() {
 			return distance;
 		}
@@ -257,6 +299,16 @@ final class StringDistances {
 			return distance.distance(tokenizer.tokenizeToMultiset(a), tokenizer.tokenizeToMultiset(b));
 		}
 
+		@Override
+		public void distanceAll(String query, List<String> candidates, float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final Multiset<String> tokens = tokenizer.tokenizeToMultiset(query);
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = distance.distance(tokens, tokenizer.tokenizeToMultiset(candidate));
+			}
+		}
+
 		Distance<Multiset<String>> getDistance() {
 			return distance;
 		}
@@ -294,6 +346,16 @@ final class StringDistances {
 					tokenizer.tokenizeToMultiset(simplifier.simplify(b)));
 		}
 
+		@Override
+		public void distanceAll(String query, List<String> candidates, float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final Multiset<String> tokens = tokenizer.tokenizeToMultiset(simplifier.simplify(query));
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = distance.distance(tokens, tokenizer.tokenizeToMultiset(simplifier.simplify(candidate)));
+			}
+		}
+
 		Distance<Multiset<String>> getDistance() {
 			return distance;
 		}
@@ -354,6 +416,24 @@ final class StringDistances {
 			return distance.distance(simplifier.simplify(a), simplifier.simplify(b));
 		}
 
+		@Override
+		public void distanceAll(String query, List<String> candidates, float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final String simplified = simplifier.simplify(query);
+			if (distance instanceof StringDistance) {
+				final List<String> simplifiedCandidates = new ArrayList<>(candidates.size());
+				for (String candidate : candidates) {
+					simplifiedCandidates.add(simplifier.simplify(candidate));
+				}
+				((StringDistance) distance).distanceAll(simplified, simplifiedCandidates, distances);
+				return;
+			}
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = distance.distance(simplified, simplifier.simplify(candidate));
+			}
+		}
+
 		Distance<String> getDistance() {
 			return distance;
 		}
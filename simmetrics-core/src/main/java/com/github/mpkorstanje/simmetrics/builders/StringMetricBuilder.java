@@ -25,6 +25,7 @@ import com.google.common.collect.Multiset;
 import com.github.mpkorstanje.simmetrics.ListMetric;
 import com.github.mpkorstanje.simmetrics.Metric;
 import com.github.mpkorstanje.simmetrics.MultisetMetric;
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.SetMetric;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
@@ -36,7 +37,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
@@ -122,6 +122,42 @@ public final class StringMetricBuilder {
 		 */
 		StringMetric build();
 
+		/**
+		 * Sets a cache for the results of the metric. The cache stores the
+		 * result of {@code compare(a, b)} for both {@code (a, b)} and
+		 * {@code (b, a)}. Only use this for symmetric metrics.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches#resultCache(int)
+		 */
+		BuildStep cacheResults(ResultCache cache);
+
+		/**
+		 * Sets a bounded cache for the results of the metric. The cache stores
+		 * the result of {@code compare(a, b)} for both {@code (a, b)} and
+		 * {@code (b, a)}. Only use this for symmetric metrics.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#resultCache(int)
+		 */
+		BuildStep cacheResults(int maxEntries);
+
+		/**
+		 * Records the calls to the metric. The latency of each call and the
+		 * time spent in the simplification and tokenization steps are
+		 * recorded by the instrumentation.
+		 * 
+		 * @param instrumentation
+		 *            the instrumentation to record calls with
+		 * @return this for fluent chaining
+		 * @see Instrumentation
+		 */
+		BuildStep instrument(Instrumentation instrumentation);
+
 	}
 
 	public interface StringMetricInitialSimplifierStep extends BuildStep {
@@ -166,6 +202,28 @@ public final class StringMetricBuilder {
 		 */
 		BuildStep cacheStrings(Cache<String, String> cache);
 
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches
+		 */
+		BuildStep cacheStrings(SimplificationCache cache);
+
+		/**
+		 * Sets a bounded cache for simplification chain. The cache will store
+		 * the result of all previous simplification steps.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#simplificationCache(int)
+		 */
+		BuildStep cacheStrings(int maxEntries);
+
 		/**
 		 * Builds a metric with the given simplifier.
 		 * 
@@ -220,6 +278,28 @@ public final class StringMetricBuilder {
 		CollectionMetricInitialTokenizerStep<T> cacheStrings(
 				Cache<String, String> cache);
 
+		/**
+		 * Sets a cache for simplification chain. The cache will store the
+		 * result of all previous simplification steps.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches
+		 */
+		CollectionMetricInitialTokenizerStep<T> cacheStrings(SimplificationCache cache);
+
+		/**
+		 * Sets a bounded cache for simplification chain. The cache will store
+		 * the result of all previous simplification steps.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#simplificationCache(int)
+		 */
+		CollectionMetricInitialTokenizerStep<T> cacheStrings(int maxEntries);
+
 		/**
 		 * Adds a tokenization step to the metric.
 		 * 
@@ -288,6 +368,28 @@ public final class StringMetricBuilder {
 		 */
 		BuildStep cacheTokens(Cache<String, T> cache);
 
+		/**
+		 * Sets a cache for tokenization chain. The cache will store the result
+		 * of all previous tokenization steps.
+		 * 
+		 * @param cache
+		 *            a cache to add
+		 * @return this for fluent chaining
+		 * @see Caches
+		 */
+		BuildStep cacheTokens(TokenCache<T> cache);
+
+		/**
+		 * Sets a bounded cache for tokenization chain. The cache will store the
+		 * result of all previous tokenization steps.
+		 * 
+		 * @param maxEntries
+		 *            the positive maximum number of entries to cache
+		 * @return this for fluent chaining
+		 * @see Caches#tokenCache(int)
+		 */
+		BuildStep cacheTokens(int maxEntries);
+
 		/**
 		 * Builds a similarity metric that will use the given simplification,
 		 * tokenization and filtering steps.
@@ -306,6 +408,10 @@ public final class StringMetricBuilder {
 
 		private final List<Simplifier> simplifiers = new ArrayList<>();
 
+		private ResultCache resultCache;
+
+		private Instrumentation instrumentation;
+
 		CompositeStringMetricBuilder(Metric<String> metric) {
 			requireNonNull(metric);
 			this.metric = metric;
@@ -315,13 +421,35 @@ public final class StringMetricBuilder {
 		public StringMetric build() {
 
 			if (simplifiers.isEmpty()) {
-				return StringMetrics.create(metric);
+				return withInstrumentation(instrumentation,
+						withResultCache(resultCache, StringMetrics.create(metric)));
 			}
-			return StringMetrics.create(metric, chainSimplifiers());
+			final Simplifier simplifier = instrumentSimplifier(instrumentation, chainSimplifiers());
+			return withInstrumentation(instrumentation,
+					withResultCache(resultCache, StringMetrics.create(metric, simplifier)));
+		}
+
+		@Override
+		public BuildStep cacheResults(int maxEntries) {
+			return cacheResults(Caches.resultCache(maxEntries));
+		}
+
+		@Override
+		public BuildStep cacheResults(ResultCache cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		@Override
+		public BuildStep instrument(Instrumentation instrumentation) {
+			requireNonNull(instrumentation);
+			this.instrumentation = instrumentation;
+			return this;
 		}
 
 		private Simplifier chainSimplifiers() {
-			final Simplifier simplifier = Simplifiers.chain(simplifiers);
+			final Simplifier simplifier = Simplifiers.compile(Simplifiers.chain(simplifiers));
 			simplifiers.clear();
 
 			return simplifier;
@@ -329,9 +457,18 @@ public final class StringMetricBuilder {
 
 		@Override
 		public BuildStep cacheStrings(Cache<String, String> cache) {
+			return cacheStrings(Caches.simplificationCache(cache));
+		}
+
+		@Override
+		public BuildStep cacheStrings(int maxEntries) {
+			return cacheStrings(Caches.simplificationCache(maxEntries));
+		}
+
+		@Override
+		public BuildStep cacheStrings(SimplificationCache cache) {
 			requireNonNull(cache);
-			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache,
-					chainSimplifiers());
+			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache, chainSimplifiers());
 			this.simplifiers.add(cachingSimplifier);
 			return this;
 		}
@@ -354,6 +491,10 @@ public final class StringMetricBuilder {
 		private final List<Simplifier> simplifiers = new ArrayList<>();
 		private final List<Tokenizer> tokenizers = new ArrayList<>();
 
+		private ResultCache resultCache;
+
+		private Instrumentation instrumentation;
+
 		CompositeCollectionMetricBuilder(Metric<T> metric) {
 			requireNonNull(metric);
 			this.metric = metric;
@@ -362,13 +503,34 @@ public final class StringMetricBuilder {
 		@Override
 		public final StringMetric build() {
 
-			Tokenizer tokenizer = chainTokenizers();
+			Tokenizer tokenizer = instrumentTokenizer(instrumentation, chainTokenizers());
 
 			if (simplifiers.isEmpty()) {
-				return build(metric, tokenizer);
+				return withInstrumentation(instrumentation, withResultCache(resultCache, build(metric, tokenizer)));
 			}
 
-			return build(metric, chainSimplifiers(), tokenizer);
+			final Simplifier simplifier = instrumentSimplifier(instrumentation, chainSimplifiers());
+			return withInstrumentation(instrumentation,
+					withResultCache(resultCache, build(metric, simplifier, tokenizer)));
+		}
+
+		@Override
+		public final BuildStep cacheResults(int maxEntries) {
+			return cacheResults(Caches.resultCache(maxEntries));
+		}
+
+		@Override
+		public final BuildStep cacheResults(ResultCache cache) {
+			requireNonNull(cache);
+			this.resultCache = cache;
+			return this;
+		}
+
+		@Override
+		public final BuildStep instrument(Instrumentation instrumentation) {
+			requireNonNull(instrumentation);
+			this.instrumentation = instrumentation;
+			return this;
 		}
 
 		abstract StringMetric build(Metric<T> metric, Simplifier simplifier,
@@ -378,23 +540,38 @@ public final class StringMetricBuilder {
 
 		@Override
 		public final BuildStep cacheTokens(Cache<String, T> cache) {
+			return cacheTokens(Caches.tokenCache(cache));
+		}
+
+		@Override
+		public final BuildStep cacheTokens(int maxEntries) {
+			return cacheTokens(Caches.<T> tokenCache(maxEntries));
+		}
+
+		@Override
+		public final BuildStep cacheTokens(TokenCache<T> cache) {
 			requireNonNull(cache);
 			tokenizers.add(createCachingTokenizer(cache, chainTokenizers()));
 			return this;
 		}
 
-		protected abstract Tokenizer createCachingTokenizer(
-				Cache<String, T> cache, Tokenizer tokenizer);
+		protected abstract Tokenizer createCachingTokenizer(TokenCache<T> cache, Tokenizer tokenizer);
 
 		@Override
-		public final CollectionMetricInitialTokenizerStep<T> cacheStrings(
-				Cache<String, String> cache) {
-			requireNonNull(cache);
+		public final CollectionMetricInitialTokenizerStep<T> cacheStrings(Cache<String, String> cache) {
+			return cacheStrings(Caches.simplificationCache(cache));
+		}
 
-			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache,
-					chainSimplifiers());
-			this.simplifiers.add(cachingSimplifier);
+		@Override
+		public final CollectionMetricInitialTokenizerStep<T> cacheStrings(int maxEntries) {
+			return cacheStrings(Caches.simplificationCache(maxEntries));
+		}
 
+		@Override
+		public final CollectionMetricInitialTokenizerStep<T> cacheStrings(SimplificationCache cache) {
+			requireNonNull(cache);
+			CachingSimplifier cachingSimplifier = new CachingSimplifier(cache, chainSimplifiers());
+			this.simplifiers.add(cachingSimplifier);
 			return this;
 		}
 
@@ -445,7 +622,7 @@ public final class StringMetricBuilder {
 		}
 
 		private Simplifier chainSimplifiers() {
-			final Simplifier simplifier = Simplifiers.chain(simplifiers);
+			final Simplifier simplifier = Simplifiers.compile(Simplifiers.chain(simplifiers));
 			simplifiers.clear();
 			return simplifier;
 		}
@@ -471,8 +648,7 @@ public final class StringMetricBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(
-				Cache<String, List<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(TokenCache<List<String>> cache, Tokenizer tokenizer) {
 			return new CachingListTokenizer(cache, tokenizer);
 		}
 
@@ -497,8 +673,7 @@ public final class StringMetricBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(
-				Cache<String, Set<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(TokenCache<Set<String>> cache, Tokenizer tokenizer) {
 			return new CachingSetTokenizer(cache, tokenizer);
 		}
 
@@ -523,31 +698,131 @@ public final class StringMetricBuilder {
 		}
 
 		@Override
-		protected Tokenizer createCachingTokenizer(
-				Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
+		protected Tokenizer createCachingTokenizer(TokenCache<Multiset<String>> cache, Tokenizer tokenizer) {
 			return new CachingMultisetTokenizer(cache, tokenizer);
 		}
 
 	}
 
+	private static StringMetric withResultCache(ResultCache cache, StringMetric metric) {
+		if (cache == null) {
+			return metric;
+		}
+		return new CachingStringMetric(cache, metric);
+	}
+
+	private static StringMetric withInstrumentation(Instrumentation instrumentation, StringMetric metric) {
+		if (instrumentation == null) {
+			return metric;
+		}
+		return new InstrumentedStringMetric(instrumentation, metric);
+	}
+
+	private static Simplifier instrumentSimplifier(Instrumentation instrumentation, Simplifier simplifier) {
+		if (instrumentation == null) {
+			return simplifier;
+		}
+		return new InstrumentedSimplifier(instrumentation, simplifier);
+	}
+
+	private static Tokenizer instrumentTokenizer(Instrumentation instrumentation, Tokenizer tokenizer) {
+		if (instrumentation == null) {
+			return tokenizer;
+		}
+		return new InstrumentedTokenizer(instrumentation, tokenizer);
+	}
+
+	static final class InstrumentedStringMetric implements StringMetric {
+
+		private final Instrumentation instrumentation;
+		final StringMetric metric;
+
+		InstrumentedStringMetric(Instrumentation instrumentation, StringMetric metric) {
+			this.instrumentation = instrumentation;
+			this.metric = metric;
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			final long start = System.nanoTime();
+			final float similarity = metric.compare(a, b);
+			instrumentation.record(a, b, System.nanoTime() - start);
+			return similarity;
+		}
+
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			final long start = System.nanoTime();
+			final PreparedStringMetric prepared = metric.prepare(query);
+			instrumentation.recordPrepare(System.nanoTime() - start);
+			return new PreparedStringMetric() {
+
+				@Override
+				public float compare(String candidate) {
+					final long start = System.nanoTime();
+					final float similarity = prepared.compare(candidate);
+					instrumentation.record(query, candidate, System.nanoTime() - start);
+					return similarity;
+				}
+
+				@Override
+				public float compare(String candidate, float minSimilarity) {
+					final long start = System.nanoTime();
+					final float similarity = prepared.compare(candidate, minSimilarity);
+					instrumentation.record(query, candidate, System.nanoTime() - start);
+					return similarity;
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return "InstrumentedStringMetric [" + metric + "]";
+		}
+
+	}
+
+	static final class CachingStringMetric implements StringMetric {
+
+		private final ResultCache cache;
+		private final ResultCache.Comparison comparison;
+		final StringMetric metric;
+
+		CachingStringMetric(ResultCache cache, StringMetric metric) {
+			this.cache = cache;
+			this.metric = metric;
+			this.comparison = metric::compare;
+		}
+
+		@Override
+		public float compare(String a, String b) {
+			return cache.get(a, b, comparison);
+		}
+
+		@Override
+		public String toString() {
+			return "CachingStringMetric [" + cache + ", " + metric + "]";
+		}
+
+	}
+
 	static final class CachingSimplifier implements Simplifier {
 
-		private final Cache<String, String> cache;
+		private final SimplificationCache cache;
 		final Simplifier simplifier;
 
 		CachingSimplifier(Cache<String, String> cache, Simplifier simplifier) {
+			this(Caches.simplificationCache(cache), simplifier);
+		}
+
+		CachingSimplifier(SimplificationCache cache, Simplifier simplifier) {
 			this.cache = cache;
 			this.simplifier = simplifier;
 		}
 
 		@Override
 		public String simplify(final String input) {
-			try {
-				return cache.get(input, () -> simplifier.simplify(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Simplifier may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, simplifier);
 		}
 
 		@Override
@@ -559,13 +834,18 @@ public final class StringMetricBuilder {
 
 	static final class CachingMultisetTokenizer implements Tokenizer {
 
-		private final Cache<String, Multiset<String>> cache;
+		private final TokenCache<Multiset<String>> cache;
+		private final Function<String, Multiset<String>> tokenize;
 		final Tokenizer tokenizer;
 
-		CachingMultisetTokenizer(Cache<String, Multiset<String>> cache,
-				Tokenizer tokenizer) {
+		CachingMultisetTokenizer(Cache<String, Multiset<String>> cache, Tokenizer tokenizer) {
+			this(Caches.tokenCache(cache), tokenizer);
+		}
+
+		CachingMultisetTokenizer(TokenCache<Multiset<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
+			this.tokenize = tokenizer::tokenizeToMultiset;
 		}
 
 		@Override
@@ -580,12 +860,7 @@ public final class StringMetricBuilder {
 
 		@Override
 		public Multiset<String> tokenizeToMultiset(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToMultiset(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenize);
 		}
 
 		@Override
@@ -597,13 +872,18 @@ public final class StringMetricBuilder {
 
 	static final class CachingSetTokenizer implements Tokenizer {
 
-		private final Cache<String, Set<String>> cache;
+		private final TokenCache<Set<String>> cache;
+		private final Function<String, Set<String>> tokenize;
 		final Tokenizer tokenizer;
 
-		CachingSetTokenizer(Cache<String, Set<String>> cache,
-				Tokenizer tokenizer) {
+		CachingSetTokenizer(Cache<String, Set<String>> cache, Tokenizer tokenizer) {
+			this(Caches.tokenCache(cache), tokenizer);
+		}
+
+		CachingSetTokenizer(TokenCache<Set<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
+			this.tokenize = tokenizer::tokenizeToSet;
 		}
 
 		@Override
@@ -613,12 +893,7 @@ public final class StringMetricBuilder {
 
 		@Override
 		public Set<String> tokenizeToSet(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToSet(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenize);
 		}
 
 		@Override
@@ -634,23 +909,23 @@ public final class StringMetricBuilder {
 
 	static final class CachingListTokenizer implements Tokenizer {
 
-		private final Cache<String, List<String>> cache;
+		private final TokenCache<List<String>> cache;
+		private final Function<String, List<String>> tokenize;
 		final Tokenizer tokenizer;
 
-		CachingListTokenizer(Cache<String, List<String>> cache,
-				Tokenizer tokenizer) {
+		CachingListTokenizer(Cache<String, List<String>> cache, Tokenizer tokenizer) {
+			this(Caches.tokenCache(cache), tokenizer);
+		}
+
+		CachingListTokenizer(TokenCache<List<String>> cache, Tokenizer tokenizer) {
 			this.cache = cache;
 			this.tokenizer = tokenizer;
+			this.tokenize = tokenizer::tokenizeToList;
 		}
 
 		@Override
 		public List<String> tokenizeToList(final String input) {
-			try {
-				return cache.get(input, () -> tokenizer.tokenizeToList(input));
-			} catch (ExecutionException e) {
-				// Can't happen. Tokenizer may not throw checked exceptions
-				throw new IllegalStateException(e);
-			}
+			return cache.get(input, tokenize);
 		}
 
 		@Override
@@ -669,4 +944,70 @@ public final class StringMetricBuilder {
 		}
 	}
 
+	static final class InstrumentedSimplifier implements Simplifier {
+
+		private final Instrumentation instrumentation;
+		final Simplifier simplifier;
+
+		InstrumentedSimplifier(Instrumentation instrumentation, Simplifier simplifier) {
+			this.instrumentation = instrumentation;
+			this.simplifier = simplifier;
+		}
+
+		@Override
+		public String simplify(String input) {
+			final long start = System.nanoTime();
+			final String simplified = simplifier.simplify(input);
+			instrumentation.recordSimplify(System.nanoTime() - start);
+			return simplified;
+		}
+
+		@Override
+		public String toString() {
+			return "InstrumentedSimplifier [" + simplifier + "]";
+		}
+
+	}
+
+	static final class InstrumentedTokenizer implements Tokenizer {
+
+		private final Instrumentation instrumentation;
+		final Tokenizer tokenizer;
+
+		InstrumentedTokenizer(Instrumentation instrumentation, Tokenizer tokenizer) {
+			this.instrumentation = instrumentation;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public List<String> tokenizeToList(String input) {
+			final long start = System.nanoTime();
+			final List<String> tokens = tokenizer.tokenizeToList(input);
+			instrumentation.recordTokenize(System.nanoTime() - start);
+			return tokens;
+		}
+
+		@Override
+		public Set<String> tokenizeToSet(String input) {
+			final long start = System.nanoTime();
+			final Set<String> tokens = tokenizer.tokenizeToSet(input);
+			instrumentation.recordTokenize(System.nanoTime() - start);
+			return tokens;
+		}
+
+		@Override
+		public Multiset<String> tokenizeToMultiset(String input) {
+			final long start = System.nanoTime();
+			final Multiset<String> tokens = tokenizer.tokenizeToMultiset(input);
+			instrumentation.recordTokenize(System.nanoTime() - start);
+			return tokens;
+		}
+
+		@Override
+		public String toString() {
+			return "InstrumentedTokenizer [" + tokenizer + "]";
+		}
+
+	}
+
 }
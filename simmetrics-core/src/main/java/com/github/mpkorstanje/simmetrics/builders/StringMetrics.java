@@ -20,16 +20,26 @@
 
 package com.github.mpkorstanje.simmetrics.builders;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Function;
 
 import com.github.mpkorstanje.simmetrics.Metric;
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.GeneralizedJaccard;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.SimonWhite;
+import com.github.mpkorstanje.simmetrics.metrics.TanimotoCoefficient;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
 
 import com.google.common.collect.Multiset;
 
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.chain;
 
@@ -112,6 +122,60 @@ final class StringMetrics {
 		// Utility class.
 	}
 
+	/**
+	 * Returns an upper bound for the similarity of two collections of the given
+	 * sizes. The bound is computed such that, after rounding, it is never less
+	 * than the similarity itself.
+	 */
+	static float sizeBound(Metric<?> metric, int a, int b) {
+		if (!(metric instanceof Jaccard || metric instanceof GeneralizedJaccard || metric instanceof Dice
+				|| metric instanceof SimonWhite || metric instanceof TanimotoCoefficient)) {
+			return 1.0f;
+		}
+		if (a == 0 && b == 0) {
+			return 1.0f;
+		}
+		if (a == 0 || b == 0) {
+			return 0.0f;
+		}
+
+		// The intersection is at most as large as the smallest collection
+		final int intersection = min(a, b);
+		if (metric instanceof Jaccard || metric instanceof GeneralizedJaccard) {
+			return intersection / (float) (a + b - intersection);
+		}
+		if (metric instanceof Dice || metric instanceof SimonWhite) {
+			return (2.0f * intersection) / (a + b);
+		}
+		return (float) (intersection / (sqrt(a) * sqrt(b)));
+	}
+
+	private static final class PreparedForCollection<C extends Collection<String>> implements PreparedStringMetric {
+
+		private final Metric<C> metric;
+		private final C tokens;
+		private final Function<String, C> tokenizer;
+
+		PreparedForCollection(Metric<C> metric, C tokens, Function<String, C> tokenizer) {
+			this.metric = metric;
+			this.tokens = tokens;
+			this.tokenizer = tokenizer;
+		}
+
+		@Override
+		public float compare(String candidate) {
+			return metric.compare(tokens, tokenizer.apply(candidate));
+		}
+
+		@Override
+		public float compare(String candidate, float minSimilarity) {
+			final C candidateTokens = tokenizer.apply(candidate);
+			if (sizeBound(metric, tokens.size(), candidateTokens.size()) < minSimilarity) {
+				return 0.0f;
+			}
+			return metric.compare(tokens, candidateTokens);
+		}
+	}
 
 	static final class ForList implements StringMetric {
 		private final Metric<List<String>> metric;
@@ -132,6 +196,13 @@ final class StringMetrics {
 					tokenizer.tokenizeToList(b));
 		}
 
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			final List<String> tokens = tokenizer.tokenizeToList(query);
+			return candidate -> metric.compare(tokens,
+					tokenizer.tokenizeToList(candidate));
+		}
+
 		Metric<List<String>> getMetric() {
 			return metric;
 		}
@@ -170,6 +241,13 @@ final class StringMetrics {
 					tokenizer.tokenizeToList(simplifier.simplify(b)));
 		}
 
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			final List<String> tokens = tokenizer.tokenizeToList(simplifier.simplify(query));
+			return candidate -> metric.compare(tokens,
+					tokenizer.tokenizeToList(simplifier.simplify(candidate)));
+		}
+
 		Metric<List<String>> getMetric() {
 			return metric;
 		}
@@ -207,6 +285,12 @@ final class StringMetrics {
 					tokenizer.tokenizeToSet(b));
 		}
 
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			return new PreparedForCollection<>(metric, tokenizer.tokenizeToSet(query),
+					tokenizer::tokenizeToSet);
+		}
+
 		Metric<Set<String>> getMetric() {
 			return metric;
 		}
@@ -246,6 +330,12 @@ final class StringMetrics {
 					tokenizer.tokenizeToSet(simplifier.simplify(b)));
 		}
 
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			return new PreparedForCollection<>(metric, tokenizer.tokenizeToSet(simplifier.simplify(query)),
+					candidate -> tokenizer.tokenizeToSet(simplifier.simplify(candidate)));
+		}
+
 		Metric<Set<String>> getMetric() {
 			return metric;
 		}
@@ -284,6 +374,12 @@ final class StringMetrics {
 					tokenizer.tokenizeToMultiset(b));
 		}
 
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			return new PreparedForCollection<>(metric, tokenizer.tokenizeToMultiset(query),
+					tokenizer::tokenizeToMultiset);
+		}
+
 		Metric<Multiset<String>> getMetric() {
 			return metric;
 		}
@@ -323,6 +419,12 @@ final class StringMetrics {
 					tokenizer.tokenizeToMultiset(simplifier.simplify(b)));
 		}
 
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			return new PreparedForCollection<>(metric, tokenizer.tokenizeToMultiset(simplifier.simplify(query)),
+					candidate -> tokenizer.tokenizeToMultiset(simplifier.simplify(candidate)));
+		}
+
 		Metric<Multiset<String>> getMetric() {
 			return metric;
 		}
@@ -385,6 +487,26 @@ final class StringMetrics {
 					simplifier.simplify(b));
 		}
 
+		@Override
+		public PreparedStringMetric prepare(String query) {
+			final String simplified = simplifier.simplify(query);
+			if (metric instanceof StringMetric) {
+				final PreparedStringMetric prepared = ((StringMetric) metric).prepare(simplified);
+				return new PreparedStringMetric() {
+					@Override
+					public float compare(String candidate) {
+						return prepared.compare(simplifier.simplify(candidate));
+					}
+
+					@Override
+					public float compare(String candidate, float minSimilarity) {
+						return prepared.compare(simplifier.simplify(candidate), minSimilarity);
+					}
+				};
+			}
+			return candidate -> metric.compare(simplified, simplifier.simplify(candidate));
+		}
+
 		Metric<String> getMetric() {
 			return metric;
 		}
@@ -0,0 +1,57 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * A cache for the results of a tokenization chain. Used by
+ * {@link StringMetricBuilder} and {@link StringDistanceBuilder} to avoid
+ * tokenizing the same string repeatedly.
+ * <p>
+ * Implementations must be thread-safe.
+ * 
+ * @param <T>
+ *            the type of collection holding the tokens
+ * @see Caches
+ */
+public interface TokenCache<T extends Collection<String>> {
+
+	/**
+	 * Returns the tokenized input. When the input is not in the cache it is
+	 * tokenized by the tokenizer and stored.
+	 * 
+	 * @param input
+	 *            the string to tokenize
+	 * @param tokenizer
+	 *            the function to tokenize with when the input is not cached
+	 * @return the tokens of the input
+	 */
+	T get(String input, Function<String, T> tokenizer);
+
+	/**
+	 * Returns a snapshot of the statistics of this cache.
+	 * 
+	 * @return statistics of this cache
+	 */
+	CacheStats stats();
+
+}
@@ -0,0 +1,317 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Arrays.binarySearch;
+import static java.util.Arrays.fill;
+import static java.util.Arrays.sort;
+
+/**
+ * Computes the unit cost Levenshtein distance using Myers' bit-vector
+ * algorithm. Each column of the distance matrix is encoded as bit vectors of
+ * vertical deltas, allowing the pattern to be processed 64 code points at a
+ * time.
+ * <p>
+ * Patterns of up to 64 code points use a single {@code long}, longer patterns
+ * are split into blocks.
+ *
+ * @see <a href="https://doi.org/10.1145/316542.316550">Myers, G. (1999). A
+ * fast bit-vector algorithm for approximate string matching based on dynamic
+ * programming</a>
+ * @see <a href="https://doi.org/10.1016/S0304-3975(03)00140-0">Hyyrö, H.
+ * (2003). A bit-vector algorithm for computing Levenshtein and Damerau edit
+ * distances</a>
+ */
+final class BitParallelLevenshtein {
+
+	private static final int LATIN_1 = 256;
+
+	private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+	private BitParallelLevenshtein() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the number of inserts, deletes and substitutions needed to
+	 * transform s into t.
+	 *
+	 * @param s code points of s
+	 * @param t code points of t
+	 * @return the unit cost Levenshtein distance
+	 */
+	static int distance(CodePoints s, CodePoints t) {
+		return distance(s, t, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the number of inserts, deletes and substitutions needed to
+	 * transform s into t, provided it is at most {@code max}. Returns
+	 * {@code max + 1} as soon as it is clear the distance will exceed
+	 * {@code max}.
+	 *
+	 * @param s code points of s
+	 * @param t code points of t
+	 * @param max the non-negative maximum distance of interest
+	 * @return the unit cost Levenshtein distance, or {@code max + 1}
+	 */
+	static int distance(CodePoints s, CodePoints t, int max) {
+		// Distance is symmetric, use the shortest as pattern
+		if (s.length() > t.length()) {
+			return distance(t, s, max);
+		}
+		if (s.isEmpty()) {
+			return t.length() <= max ? t.length() : max + 1;
+		}
+
+		// Compile the pattern into the masks of this thread
+		final Pattern pattern = WORKSPACE.get().pattern;
+		pattern.compile(s);
+		try {
+			return pattern.distance(t, max);
+		} finally {
+			pattern.clear(s);
+		}
+	}
+
+	/*
+	 * The last row of the distance matrix changes by at most one per column,
+	 * so once the score minus the remaining columns exceeds max the final
+	 * score will too.
+	 */
+	private static int distance(Pattern peq, int m, CodePoints t, int max) {
+		final long last = 1L << (m - 1);
+		long pv = -1L;
+		long mv = 0L;
+		int score = m;
+
+		for (int i = 0, n = t.length(); i < n; i++) {
+			final long eq = peq.get(peq.row(t.codePointAt(i)), 0);
+			final long xv = eq | mv;
+			final long xh = (((eq & pv) + pv) ^ pv) | eq;
+			long ph = mv | ~(xh | pv);
+			long mh = pv & xh;
+
+			if ((ph & last) != 0) {
+				score++;
+			} else if ((mh & last) != 0) {
+				score--;
+			}
+			if (score - (n - i - 1) > max) {
+				return max + 1;
+			}
+
+			// The top row of the matrix increases by one in each column
+			ph = (ph << 1) | 1L;
+			mh = mh << 1;
+			pv = mh | ~(xv | ph);
+			mv = ph & xv;
+		}
+		return score;
+	}
+
+	private static int distanceBlocked(Pattern peq, int m, CodePoints t, int max) {
+		final int blocks = peq.blocks;
+		final long last = 1L << ((m - 1) & (Long.SIZE - 1));
+		final Workspace workspace = WORKSPACE.get();
+		final long[] pvs = workspace.pvs(blocks);
+		final long[] mvs = workspace.mvs(blocks);
+		fill(pvs, 0, blocks, -1L);
+		fill(mvs, 0, blocks, 0L);
+		int score = m;
+
+		for (int i = 0, n = t.length(); i < n; i++) {
+			final int row = peq.row(t.codePointAt(i));
+			// Horizontal delta entering the block from above
+			int hin = 1;
+			for (int b = 0; b < blocks; b++) {
+				final long pv = pvs[b];
+				final long mv = mvs[b];
+				long eq = peq.get(row, b);
+				final long xv = eq | mv;
+				if (hin < 0) {
+					eq |= 1L;
+				}
+				final long xh = (((eq & pv) + pv) ^ pv) | eq;
+				long ph = mv | ~(xh | pv);
+				long mh = pv & xh;
+
+				final long high = b == blocks - 1 ? last : Long.MIN_VALUE;
+				final int hout = (ph & high) != 0 ? 1 : (mh & high) != 0 ? -1 : 0;
+
+				ph <<= 1;
+				mh <<= 1;
+				if (hin < 0) {
+					mh |= 1L;
+				} else if (hin > 0) {
+					ph |= 1L;
+				}
+				pvs[b] = mh | ~(xv | ph);
+				mvs[b] = ph & xv;
+				hin = hout;
+			}
+			score += hin;
+			if (score - (n - i - 1) > max) {
+				return max + 1;
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Scratch space reused by the calls on a single thread.
+	 */
+	private static final class Workspace {
+
+		final Pattern pattern = new Pattern();
+
+		private long[] pvs = new long[0];
+
+		private long[] mvs = new long[0];
+
+		long[] pvs(int blocks) {
+			if (pvs.length < blocks) {
+				pvs = new long[blocks];
+			}
+			return pvs;
+		}
+
+		long[] mvs(int blocks) {
+			if (mvs.length < blocks) {
+				mvs = new long[blocks];
+			}
+			return mvs;
+		}
+	}
+
+	/**
+	 * A pattern compiled into bit masks of the positions at which each code
+	 * point occurs. Latin-1 code points index their row directly, others are
+	 * found through a binary search over the distinct code points in the
+	 * pattern. Code points that do not occur in the pattern map to a row of
+	 * zeros.
+	 * <p>
+	 * A pattern can be compiled once and compared against many texts.
+	 */
+	static final class Pattern {
+
+		int blocks;
+		private int length;
+		private int[] codePoints;
+		private int unique;
+		private long[] masks;
+
+		Pattern(CodePoints pattern) {
+			this();
+			compile(pattern);
+		}
+
+		private Pattern() {
+			codePoints = new int[0];
+			masks = new long[0];
+		}
+
+		/*
+		 * Compiles the pattern, reusing the arrays of a previous pattern. The
+		 * masks must have been cleared.
+		 */
+		private void compile(CodePoints pattern) {
+			length = pattern.length();
+			blocks = (length + Long.SIZE - 1) / Long.SIZE;
+
+			if (codePoints.length < length) {
+				codePoints = new int[length];
+			}
+			int size = 0;
+			for (int i = 0; i < length; i++) {
+				final int c = pattern.codePointAt(i);
+				if (c >= LATIN_1) {
+					codePoints[size++] = c;
+				}
+			}
+			sort(codePoints, 0, size);
+			unique = 0;
+			for (int i = 0; i < size; i++) {
+				if (unique == 0 || codePoints[unique - 1] != codePoints[i]) {
+					codePoints[unique++] = codePoints[i];
+				}
+			}
+
+			final int rows = (LATIN_1 + unique + 1) * blocks;
+			if (masks.length < rows) {
+				masks = new long[rows];
+			}
+			for (int i = 0; i < length; i++) {
+				masks[row(pattern.codePointAt(i)) * blocks + i / Long.SIZE] |= 1L << (i & (Long.SIZE - 1));
+			}
+		}
+
+		/*
+		 * Resets the masks set by compiling the pattern to zero.
+		 */
+		private void clear(CodePoints pattern) {
+			for (int i = 0; i < length; i++) {
+				masks[row(pattern.codePointAt(i)) * blocks + i / Long.SIZE] = 0L;
+			}
+		}
+
+		/**
+		 * Returns the number of inserts, deletes and substitutions needed to
+		 * transform this pattern into t.
+		 *
+		 * @param t code points of t
+		 * @return the unit cost Levenshtein distance
+		 */
+		int distance(CodePoints t) {
+			return distance(t, Integer.MAX_VALUE);
+		}
+
+		/**
+		 * Returns the number of inserts, deletes and substitutions needed to
+		 * transform this pattern into t, provided it is at most {@code max}.
+		 *
+		 * @param t code points of t
+		 * @param max the non-negative maximum distance of interest
+		 * @return the unit cost Levenshtein distance, or {@code max + 1}
+		 */
+		int distance(CodePoints t, int max) {
+			if (length == 0) {
+				return t.length() <= max ? t.length() : max + 1;
+			}
+			if (blocks == 1) {
+				return BitParallelLevenshtein.distance(this, length, t, max);
+			}
+			return distanceBlocked(this, length, t, max);
+		}
+
+		int row(int c) {
+			if (c < LATIN_1) {
+				return c;
+			}
+			final int index = binarySearch(codePoints, 0, unique, c);
+			return index < 0 ? LATIN_1 + unique : LATIN_1 + index;
+		}
+
+		long get(int row, int block) {
+			return masks[row * blocks + block];
+		}
+	}
+
+}
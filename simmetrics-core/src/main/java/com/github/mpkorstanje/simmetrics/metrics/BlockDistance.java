@@ -19,6 +19,7 @@
  */
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.abs;
 
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
@@ -73,6 +74,115 @@ public final class BlockDistance<T> implements MultisetMetric<T>, MultisetDistan
 		return distance;
 	}
 
+	/**
+	 * Measures the block similarity of two multisets of token ids.
+	 * The result is identical to {@link #compare(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(TokenIdMultiset a, TokenIdMultiset b) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		return 1.0f - distance(a, b) / (a.size() + b.size());
+	}
+
+	/**
+	 * Measures the block distance of two multisets of token ids.
+	 * The result is identical to {@link #distance(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a non-negative value
+	 */
+	public float distance(TokenIdMultiset a, TokenIdMultiset b) {
+		// ∑ |a_i - b_i| = ∑ a_i + ∑ b_i - 2 * ∑ min(a_i, b_i)
+		return a.size() + b.size() - 2 * Math.intersectionSize(a, b);
+	}
+
+	/**
+	 * Measures the block similarity of two dense vectors. The distance is
+	 * normalized by the sum of the L1 norms of both vectors. Two zero
+	 * vectors are identical.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 * @throws IllegalArgumentException
+	 *             when the vectors differ in dimension
+	 */
+	public float compare(DenseVector a, DenseVector b) {
+		return similarity(distance(a, b), a.l1Norm, b.l1Norm);
+	}
+
+	/**
+	 * Measures the block distance of two dense vectors.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a non-negative value
+	 * @throws IllegalArgumentException
+	 *             when the vectors differ in dimension
+	 */
+	public float distance(DenseVector a, DenseVector b) {
+		checkArgument(a.dimension() == b.dimension(), "vectors must have the same dimension");
+		return VectorMath.absoluteDistance(a.values, b.values);
+	}
+
+	/**
+	 * Measures the block similarity of two sparse vectors. The distance is
+	 * normalized by the sum of the L1 norms of both vectors. Two zero
+	 * vectors are identical.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(SparseVector a, SparseVector b) {
+		return similarity(distance(a, b), a.l1Norm, b.l1Norm);
+	}
+
+	/**
+	 * Measures the block distance of two sparse vectors.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a non-negative value
+	 */
+	public float distance(SparseVector a, SparseVector b) {
+		return VectorMath.absoluteDistance(a, b);
+	}
+
+	private static float similarity(float distance, float normA, float normB) {
+		if (normA == 0 && normB == 0) {
+			return 1.0f;
+		}
+
+		// ||a - b|| ≤ ||a|| + ||b||
+		return 1.0f - distance / (normA + normB);
+	}
+
 	@Override
 	public String toString() {
 		return "BlockDistance";
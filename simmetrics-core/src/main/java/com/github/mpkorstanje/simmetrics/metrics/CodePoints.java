@@ -0,0 +1,173 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A string decoded into unicode code points. Decoding a string once allows it
+ * to be compared against many others without repeatedly decoding it.
+ * <p>
+ * Code points are stored as compactly as the string allows. Strings
+ * containing only Latin-1 characters use a byte per code point, strings
+ * containing only characters from the basic multilingual plane use a char per
+ * code point and all other strings use an int per code point.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see Levenshtein#compare(CodePoints, CodePoints)
+ */
+public final class CodePoints {
+
+	private static final CodePoints EMPTY = new CodePoints("", new byte[0], null, null, 0);
+
+	private final String string;
+	private final byte[] latin1;
+	private final char[] bmp;
+	private final int[] codePoints;
+	private final int length;
+
+	private CodePoints(String string, byte[] latin1, char[] bmp, int[] codePoints, int length) {
+		this.string = string;
+		this.latin1 = latin1;
+		this.bmp = bmp;
+		this.codePoints = codePoints;
+		this.length = length;
+	}
+
+	/**
+	 * Decodes a string into code points.
+	 *
+	 * @param string the string to decode
+	 * @return the code points of the string
+	 * @throws NullPointerException when string is null
+	 */
+	public static CodePoints of(String string) {
+		requireNonNull(string);
+		if (string.isEmpty()) {
+			return EMPTY;
+		}
+
+		final int length = string.length();
+		char max = 0;
+		boolean surrogates = false;
+		for (int i = 0; i < length; i++) {
+			final char c = string.charAt(i);
+			if (c > max) {
+				max = c;
+			}
+			if (Character.isSurrogate(c)) {
+				surrogates = true;
+				break;
+			}
+		}
+
+		if (surrogates) {
+			final int[] codePoints = string.codePoints().toArray();
+			return new CodePoints(string, null, null, codePoints, codePoints.length);
+		}
+
+		if (max <= 0xFF) {
+			final byte[] latin1 = new byte[length];
+			for (int i = 0; i < length; i++) {
+				latin1[i] = (byte) string.charAt(i);
+			}
+			return new CodePoints(string, latin1, null, null, length);
+		}
+
+		return new CodePoints(string, null, string.toCharArray(), null, length);
+	}
+
+	/**
+	 * Returns the number of code points.
+	 *
+	 * @return the number of code points
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns true if there are no code points.
+	 *
+	 * @return true if there are no code points
+	 */
+	public boolean isEmpty() {
+		return length == 0;
+	}
+
+	/**
+	 * Returns the code point at the given index.
+	 *
+	 * @param index the index of the code point, between 0 inclusive and
+	 *              {@link #length()} exclusive
+	 * @return the code point at the given index
+	 * @throws IndexOutOfBoundsException when index is out of bounds
+	 */
+	public int codePointAt(int index) {
+		if (latin1 != null) {
+			return latin1[index] & 0xFF;
+		}
+		if (bmp != null) {
+			return bmp[index];
+		}
+		return codePoints[index];
+	}
+
+	/**
+	 * Returns the code points as an array.
+	 *
+	 * @return a new array containing the code points
+	 */
+	public int[] toArray() {
+		final int[] array = new int[length];
+		for (int i = 0; i < length; i++) {
+			array[i] = codePointAt(i);
+		}
+		return array;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof CodePoints)) {
+			return false;
+		}
+		return string.equals(((CodePoints) o).string);
+	}
+
+	@Override
+	public int hashCode() {
+		return string.hashCode();
+	}
+
+	/**
+	 * Returns the string these code points were decoded from.
+	 *
+	 * @return the decoded string
+	 */
+	@Override
+	public String toString() {
+		return string;
+	}
+
+}
@@ -19,7 +19,10 @@
  */
 
 package com.github.mpkorstanje.simmetrics.metrics;
+
 import static com.github.mpkorstanje.simmetrics.metrics.Math.union;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.min;
 import static java.lang.Math.sqrt;
 
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
@@ -88,6 +91,125 @@ public final class CosineSimilarity<T> implements MultisetMetric<T>, MultisetDis
 		return 1.0f - compare(a, b);
 	}
 	
+	/**
+	 * Measures the cosine similarity of two multisets of token ids.
+	 * The result is identical to {@link #compare(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(TokenIdMultiset a, TokenIdMultiset b) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		final float dotProduct = Math.dotProduct(a, b);
+		final float magnitudeA = Math.sumOfSquares(a);
+		final float magnitudeB = Math.sumOfSquares(b);
+
+		//  a·b / (||a|| * ||b||)
+		return (float) (dotProduct / (sqrt(magnitudeA) * sqrt(magnitudeB)));
+	}
+
+	/**
+	 * Measures the cosine similarity distance of two multisets of token ids.
+	 * The result is identical to {@link #distance(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 0 when both are equal
+	 */
+	public float distance(TokenIdMultiset a, TokenIdMultiset b) {
+		return 1.0f - compare(a, b);
+	}
+
+	/**
+	 * Measures the cosine similarity of two dense vectors using their
+	 * precomputed norms. Vectors with non-negative values have a similarity
+	 * between 0 and 1. Two zero vectors are identical.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return the cosine similarity of both vectors
+	 * @throws IllegalArgumentException
+	 *             when the vectors differ in dimension
+	 */
+	public float compare(DenseVector a, DenseVector b) {
+		checkArgument(a.dimension() == b.dimension(), "vectors must have the same dimension");
+		return cosine(VectorMath.dotProduct(a.values, b.values), a.norm, b.norm);
+	}
+
+	/**
+	 * Measures the cosine distance of two dense vectors.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return one minus the cosine similarity of both vectors
+	 * @throws IllegalArgumentException
+	 *             when the vectors differ in dimension
+	 * @see #compare(DenseVector, DenseVector)
+	 */
+	public float distance(DenseVector a, DenseVector b) {
+		return 1.0f - compare(a, b);
+	}
+
+	/**
+	 * Measures the cosine similarity of two sparse vectors using their
+	 * precomputed norms. Vectors with non-negative values have a similarity
+	 * between 0 and 1. Two zero vectors are identical.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return the cosine similarity of both vectors
+	 */
+	public float compare(SparseVector a, SparseVector b) {
+		return cosine(VectorMath.dotProduct(a, b), a.norm, b.norm);
+	}
+
+	/**
+	 * Measures the cosine distance of two sparse vectors.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return one minus the cosine similarity of both vectors
+	 * @see #compare(SparseVector, SparseVector)
+	 */
+	public float distance(SparseVector a, SparseVector b) {
+		return 1.0f - compare(a, b);
+	}
+
+	private static float cosine(float dotProduct, float normA, float normB) {
+		if (normA == 0 && normB == 0) {
+			return 1.0f;
+		}
+
+		if (normA == 0 || normB == 0) {
+			return 0.0f;
+		}
+
+		// Rounding may put the similarity of parallel vectors just over 1
+		return min(1.0f, dotProduct / (normA * normB));
+	}
+
 	@Override
 	public String toString() {
 		return "CosineSimilarity";
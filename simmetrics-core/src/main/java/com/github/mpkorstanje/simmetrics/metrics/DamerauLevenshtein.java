@@ -21,11 +21,16 @@
 package com.github.mpkorstanje.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.fill;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.max;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.min;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -37,6 +42,11 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  * cost for substitution and/or transposition are zero Damerau-Levenshtein does
  * not satisfy the coincidence property.
  * <p>
+ * When only distances up to a bound are of interest, e.g. when matching
+ * against a threshold, {@link #distance(String, String, float)} and
+ * {@link #compare(String, String, float)} only compute a diagonal band of
+ * the distance matrix and stop as soon as the bound can not be met.
+ * <p>
  * This class is immutable and thread-safe.
  *
  * @see <a
@@ -46,6 +56,8 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  */
 public final class DamerauLevenshtein implements StringMetric, StringDistance {
 
+	private static final float BOUND_TOLERANCE = 1e-5f;
+
 	private final float maxCost;
 	private final float insertDelete;
 	private final float substitute;
@@ -80,25 +92,102 @@ public final class DamerauLevenshtein implements StringMetric, StringDistance {
 
 	@Override
 	public float compare(final String a, final String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	/**
+	 * Measures the similarity between code points a and b.
+	 *
+	 * @param a code points a to compare
+	 * @param b code points b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException when either a or b is null
+	 * @see #compare(String, String)
+	 */
+	public float compare(final CodePoints a, final CodePoints b) {
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
 		}
 
-		return 1.0f - (distance(a, b) / (maxCost * max(codePointLength(a), codePointLength(b))));
+		return 1.0f - (distance(a, b) / (maxCost * max(a.length(), b.length())));
+	}
+
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * decoded once. When compared with a minimum similarity the distance is
+	 * bounded as in {@link #compare(CodePoints, CodePoints, float)}.
+	 *
+	 * @param query the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(final String query) {
+		final CodePoints a = CodePoints.of(query);
+		return new PreparedStringMetric() {
+			@Override
+			public float compare(String candidate) {
+				return DamerauLevenshtein.this.compare(a, CodePoints.of(candidate));
+			}
+
+			@Override
+			public float compare(String candidate, float minSimilarity) {
+				return DamerauLevenshtein.this.compare(a, CodePoints.of(candidate), minSimilarity);
+			}
+		};
 	}
 
 	@Override
 	public float distance(final String s, final String t) {
+		return distance(CodePoints.of(s), CodePoints.of(t));
+	}
+
+	/**
+	 * Measures the distance between a query and each candidate. The query is
+	 * decoded once.
+	 * 
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param distances
+	 *            the array to write the distances to, at least as long as the
+	 *            candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or distances is null
+	 * @throws IllegalArgumentException
+	 *             when distances is shorter than candidates
+	 */
+	@Override
+	public void distanceAll(final String query, final List<String> candidates, final float[] distances) {
+		checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+		final CodePoints s = CodePoints.of(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			distances[i++] = distance(s, CodePoints.of(candidate));
+		}
+	}
+
+	/**
+	 * Measures the distance between code points s and t.
+	 *
+	 * @param s code points s to compare
+	 * @param t code points t to compare
+	 * @return a non-negative value
+	 * @throws NullPointerException when either a or b is null
+	 * @see #distance(String, String)
+	 */
+	public float distance(final CodePoints s, final CodePoints t) {
 
 		if (s.isEmpty())
-			return codePointLength(t) * insertDelete;
+			return t.length() * insertDelete;
 		if (t.isEmpty())
-			return codePointLength(s) * insertDelete;
+			return s.length() * insertDelete;
 		if (s.equals(t))
 			return 0;
 
-		final int tLength = codePointLength(t);
-		final int sLength = codePointLength(s);
+		final int tLength = t.length();
+		final int sLength = s.length();
 
 		float[] swap;
 		float[] v0 = new float[tLength + 1];
@@ -113,28 +202,31 @@ public final class DamerauLevenshtein implements StringMetric, StringDistance {
 		}
 
 		for (int i = 0; i < sLength; i++) {
+			final int sI = s.codePointAt(i);
+			final int sIMinus1 = i > 0 ? s.codePointAt(i - 1) : -1;
 
 			// first element of v2 is A[i+1][0]
 			// edit distance is delete (i+1) chars from s to match empty t
 			v2[0] = (i + 1) * insertDelete;
 
 			for (int j = 0; j < tLength; j++) {
+				final int tJ = t.codePointAt(j);
 				final boolean match =
 						j > 0 && i > 0
-								&& s.codePointAt(i - 1) == t.codePointAt(j)
-								&& s.codePointAt(i) == t.codePointAt(j - 1);
+								&& sIMinus1 == tJ
+								&& sI == t.codePointAt(j - 1);
 				if (match) {
 					v2[j + 1] = min(
 							v2[j] + insertDelete,
 							v1[j + 1] + insertDelete,
-							v1[j] + (s.codePointAt(i) == t.codePointAt(j) ? 0.0f : substitute),
+							v1[j] + (sI == tJ ? 0.0f : substitute),
 							v0[j - 1] + transpose
 					);
 				} else {
 					v2[j + 1] = min(
 							v2[j] + insertDelete,
 							v1[j + 1] + insertDelete,
-							v1[j] + (s.codePointAt(i) == t.codePointAt(j) ? 0.0f : substitute)
+							v1[j] + (sI == tJ ? 0.0f : substitute)
 					);
 				}
 			}
@@ -149,6 +241,180 @@ public final class DamerauLevenshtein implements StringMetric, StringDistance {
 		return v1[tLength];
 	}
 
+	/**
+	 * Measures the similarity between strings a and b, provided it is at least
+	 * {@code minSimilarity}. Returns {@code 0.0} as soon as it is clear the
+	 * similarity will be lower than {@code minSimilarity}.
+	 * <p>
+	 * When the similarity is at least {@code minSimilarity} the result is
+	 * equal to {@link #compare(String, String)}.
+	 *
+	 * @param a             string a to compare
+	 * @param b             string b to compare
+	 * @param minSimilarity the minimum similarity of interest, between 0 and 1
+	 *                      inclusive
+	 * @return a value between 0 and 1 inclusive indicating similarity, or
+	 * {@code 0.0} when the similarity is below {@code minSimilarity}
+	 * @throws NullPointerException     when either a or b is null
+	 * @throws IllegalArgumentException when minSimilarity is not between 0 and 1
+	 *                                  inclusive
+	 */
+	public float compare(final String a, final String b, final float minSimilarity) {
+		return compare(CodePoints.of(a), CodePoints.of(b), minSimilarity);
+	}
+
+	/**
+	 * Measures the similarity between code points a and b, provided it is at
+	 * least {@code minSimilarity}.
+	 *
+	 * @param a             code points a to compare
+	 * @param b             code points b to compare
+	 * @param minSimilarity the minimum similarity of interest, between 0 and 1
+	 *                      inclusive
+	 * @return a value between 0 and 1 inclusive indicating similarity, or
+	 * {@code 0.0} when the similarity is below {@code minSimilarity}
+	 * @throws NullPointerException     when either a or b is null
+	 * @throws IllegalArgumentException when minSimilarity is not between 0 and 1
+	 *                                  inclusive
+	 * @see #compare(String, String, float)
+	 */
+	public float compare(final CodePoints a, final CodePoints b, final float minSimilarity) {
+		checkArgument(0.0f <= minSimilarity && minSimilarity <= 1.0f, "minSimilarity must be between 0 and 1");
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		final float maxLength = maxCost * max(a.length(), b.length());
+		// Allow for rounding, the similarity is checked exactly afterwards
+		final float maxDistance = (1.0f - minSimilarity) * maxLength * (1.0f + BOUND_TOLERANCE);
+		final float distance = distance(a, b, maxDistance);
+		if (distance == Float.POSITIVE_INFINITY) {
+			return 0.0f;
+		}
+
+		final float similarity = 1.0f - (distance / maxLength);
+		return similarity >= minSimilarity ? similarity : 0.0f;
+	}
+
+	/**
+	 * Measures the distance between string a and b, provided it is at most
+	 * {@code maxDistance}. Returns {@link Float#POSITIVE_INFINITY} as soon as
+	 * it is clear the distance will exceed {@code maxDistance}.
+	 * <p>
+	 * Only cells of the distance matrix within {@code maxDistance / insertDelete}
+	 * of the diagonal are computed. Computation stops when every cell in two
+	 * consecutive rows exceeds {@code maxDistance}. When the distance is at most
+	 * {@code maxDistance} the result is equal to
+	 * {@link #distance(String, String)}.
+	 *
+	 * @param s           string s to compare
+	 * @param t           string t to compare
+	 * @param maxDistance the non-negative maximum distance of interest
+	 * @return a non-negative value, or {@link Float#POSITIVE_INFINITY} when the
+	 * distance exceeds {@code maxDistance}
+	 * @throws NullPointerException     when either a or b is null
+	 * @throws IllegalArgumentException when maxDistance is negative
+	 */
+	public float distance(final String s, final String t, final float maxDistance) {
+		return distance(CodePoints.of(s), CodePoints.of(t), maxDistance);
+	}
+
+	/**
+	 * Measures the distance between code points s and t, provided it is at
+	 * most {@code maxDistance}.
+	 *
+	 * @param s           code points s to compare
+	 * @param t           code points t to compare
+	 * @param maxDistance the non-negative maximum distance of interest
+	 * @return a non-negative value, or {@link Float#POSITIVE_INFINITY} when the
+	 * distance exceeds {@code maxDistance}
+	 * @throws NullPointerException     when either a or b is null
+	 * @throws IllegalArgumentException when maxDistance is negative
+	 * @see #distance(String, String, float)
+	 */
+	public float distance(final CodePoints s, final CodePoints t, final float maxDistance) {
+		checkArgument(maxDistance >= 0, "maxDistance must be non-negative");
+
+		if (s.isEmpty() || t.isEmpty() || s.equals(t)) {
+			return bounded(distance(s, t), maxDistance);
+		}
+
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		// Every cell (i, j) takes at least |i - j| inserts or deletes to reach
+		// so only cells within the band |i - j| <= k can be within maxDistance.
+		final int k = (int) min(maxDistance / insertDelete, max(sLength, tLength));
+		if (abs(sLength - tLength) > k) {
+			return Float.POSITIVE_INFINITY;
+		}
+
+		// Cells outside the band are never written and remain infinite.
+		float[] swap;
+		float[] v0 = new float[tLength + 1];
+		float[] v1 = new float[tLength + 1];
+		float[] v2 = new float[tLength + 1];
+		fill(v0, Float.POSITIVE_INFINITY);
+		fill(v1, Float.POSITIVE_INFINITY);
+		fill(v2, Float.POSITIVE_INFINITY);
+
+		for (int j = 0, to = min(tLength, k); j <= to; j++) {
+			v1[j] = j * insertDelete;
+		}
+
+		float previousRowMin = 0.0f;
+		for (int i = 0; i < sLength; i++) {
+			final int sI = s.codePointAt(i);
+			final int sIMinus1 = i > 0 ? s.codePointAt(i - 1) : -1;
+			final int from = max(0, i + 1 - k);
+			final int to = min(tLength, i + 1 + k);
+
+			float rowMin;
+			if (from == 0) {
+				v2[0] = (i + 1) * insertDelete;
+				rowMin = v2[0];
+			} else {
+				// Left of the band, this still holds a value from three rows ago
+				v2[from - 1] = Float.POSITIVE_INFINITY;
+				rowMin = Float.POSITIVE_INFINITY;
+			}
+
+			for (int j = max(from, 1); j <= to; j++) {
+				final int tJ = t.codePointAt(j - 1);
+				final float cost = min(
+						v2[j - 1] + insertDelete,
+						v1[j] + insertDelete,
+						v1[j - 1] + (sI == tJ ? 0.0f : substitute));
+				if (j > 1 && i > 0 && sIMinus1 == tJ && sI == t.codePointAt(j - 2)) {
+					v2[j] = min(cost, v0[j - 2] + transpose);
+				} else {
+					v2[j] = cost;
+				}
+				rowMin = min(rowMin, v2[j]);
+			}
+
+			// A transposition can skip a row, so only when two consecutive
+			// rows exceed maxDistance does every path.
+			if (rowMin > maxDistance && previousRowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+			previousRowMin = rowMin;
+
+			swap = v0;
+			v0 = v1;
+			v1 = v2;
+			v2 = swap;
+		}
+
+		// latest results was in v2 which was swapped to v1
+		return bounded(v1[tLength], maxDistance);
+	}
+
+	private static float bounded(float distance, float maxDistance) {
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
 	@Override
 	public String toString() {
 		return "DamerauLevenshtein [insertDelete=" + insertDelete
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.lang.Math.sqrt;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * A dense vector of floats. The L1 and L2 norms of the vector are computed
+ * once when it is created so comparing one vector against many others only
+ * requires a single pass over both vectors.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see CosineSimilarity#compare(DenseVector, DenseVector)
+ * @see EuclideanDistance#distance(DenseVector, DenseVector)
+ * @see BlockDistance#distance(DenseVector, DenseVector)
+ */
+public final class DenseVector {
+
+	final float[] values;
+	final float norm;
+	final float l1Norm;
+
+	private DenseVector(float[] values) {
+		this.values = values;
+		this.norm = (float) sqrt(VectorMath.dotProduct(values, values));
+		this.l1Norm = VectorMath.absoluteSum(values);
+	}
+
+	/**
+	 * Creates a vector with the given values.
+	 *
+	 * @param values
+	 *            the values of the vector, the array is copied
+	 * @return a vector
+	 * @throws NullPointerException
+	 *             when values is null
+	 */
+	public static DenseVector of(float... values) {
+		return new DenseVector(requireNonNull(values).clone());
+	}
+
+	/**
+	 * Returns the number of dimensions of this vector.
+	 *
+	 * @return the number of dimensions
+	 */
+	public int dimension() {
+		return values.length;
+	}
+
+	/**
+	 * Returns the value at the given dimension.
+	 *
+	 * @param index
+	 *            the dimension
+	 * @return the value at the given dimension
+	 * @throws IndexOutOfBoundsException
+	 *             when the index is out of bounds
+	 */
+	public float get(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Returns the euclidean (L2) norm of this vector.
+	 *
+	 * @return the euclidean norm
+	 */
+	public float norm() {
+		return norm;
+	}
+
+	/**
+	 * Returns the values of this vector.
+	 *
+	 * @return the values of this vector
+	 */
+	public float[] toArray() {
+		return values.clone();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof DenseVector)) {
+			return false;
+		}
+		return Arrays.equals(values, ((DenseVector) o).values);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(values);
+	}
+
+}
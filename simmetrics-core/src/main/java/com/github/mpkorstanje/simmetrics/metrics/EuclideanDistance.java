@@ -20,6 +20,7 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.sqrt;
 
 import com.github.mpkorstanje.simmetrics.MultisetDistance;
@@ -71,6 +72,114 @@ public final class EuclideanDistance<T> implements MultisetMetric<T>, MultisetDi
 		return (float) sqrt(distance);
 	}
 
+	/**
+	 * Measures the euclidean similarity of two multisets of token ids.
+	 * The result is identical to {@link #compare(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(TokenIdMultiset a, TokenIdMultiset b) {
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		float maxDistance = (float) sqrt((a.size() * a.size()) + (b.size() * b.size()));
+		return 1.0f - distance(a, b) / maxDistance;
+	}
+
+	/**
+	 * Measures the euclidean distance of two multisets of token ids.
+	 * The result is identical to {@link #distance(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a non-negative value
+	 */
+	public float distance(TokenIdMultiset a, TokenIdMultiset b) {
+		// ∑ (a_i - b_i)² = ∑ a_i² + ∑ b_i² - 2 * ∑ a_i * b_i
+		final float distance = Math.sumOfSquares(a) + Math.sumOfSquares(b) - 2 * Math.dotProduct(a, b);
+		return (float) sqrt(distance);
+	}
+
+	/**
+	 * Measures the euclidean similarity of two dense vectors. The distance is
+	 * normalized by the sum of the euclidean norms of both vectors. Two zero
+	 * vectors are identical.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 * @throws IllegalArgumentException
+	 *             when the vectors differ in dimension
+	 */
+	public float compare(DenseVector a, DenseVector b) {
+		return similarity(distance(a, b), a.norm, b.norm);
+	}
+
+	/**
+	 * Measures the euclidean distance of two dense vectors.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a non-negative value
+	 * @throws IllegalArgumentException
+	 *             when the vectors differ in dimension
+	 */
+	public float distance(DenseVector a, DenseVector b) {
+		checkArgument(a.dimension() == b.dimension(), "vectors must have the same dimension");
+		return (float) sqrt(VectorMath.squaredDistance(a.values, b.values));
+	}
+
+	/**
+	 * Measures the euclidean similarity of two sparse vectors. The distance is
+	 * normalized by the sum of the euclidean norms of both vectors. Two zero
+	 * vectors are identical.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(SparseVector a, SparseVector b) {
+		return similarity(distance(a, b), a.norm, b.norm);
+	}
+
+	/**
+	 * Measures the euclidean distance of two sparse vectors.
+	 *
+	 * @param a
+	 *            vector a to compare
+	 * @param b
+	 *            vector b to compare
+	 * @return a non-negative value
+	 */
+	public float distance(SparseVector a, SparseVector b) {
+		return (float) sqrt(VectorMath.squaredDistance(a, b));
+	}
+
+	private static float similarity(float distance, float normA, float normB) {
+		if (normA == 0 && normB == 0) {
+			return 1.0f;
+		}
+
+		// ||a - b|| ≤ ||a|| + ||b||
+		return 1.0f - distance / (normA + normB);
+	}
+
 	@Override
 	public String toString() {
 		return "EuclideanDistance";
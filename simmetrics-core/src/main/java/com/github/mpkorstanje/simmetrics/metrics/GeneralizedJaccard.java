@@ -83,6 +83,45 @@ public final class GeneralizedJaccard<T> implements MultisetMetric<T>,
 		return 1.0f - compare(a, b);
 	}
 
+	/**
+	 * Measures the generalized Jaccard similarity of two multisets of token ids.
+	 * The result is identical to {@link #compare(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(TokenIdMultiset a, TokenIdMultiset b) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		final int intersection = Math.intersectionSize(a, b);
+		return intersection / (float) (a.size() + b.size() - intersection);
+	}
+
+	/**
+	 * Measures the generalized Jaccard similarity distance of two multisets of token ids.
+	 * The result is identical to {@link #distance(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 0 when both are equal
+	 */
+	public float distance(TokenIdMultiset a, TokenIdMultiset b) {
+		return 1.0f - compare(a, b);
+	}
+
 	@Override
 	public String toString() {
 		return "GeneralizedJaccard";
@@ -22,12 +22,12 @@
 package com.github.mpkorstanje.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 
+import com.github.mpkorstanje.simmetrics.Distance;
 import com.github.mpkorstanje.simmetrics.ListDistance;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 
@@ -138,12 +138,80 @@ public final class HammingDistance {
 		 */
 		@Override
 		public float distance(String a, String b) {
-			int length = codePointLength(a);
-			checkArgument( length == codePointLength(b));
+			return HammingCodePointDistance.hamming(CodePoints.of(a), CodePoints.of(b));
+		}
 
-			if (a.isEmpty()) {
-				return 0;
+		/**
+		 * Measures the distance between a query and each candidate. The query is
+		 * decoded once.
+		 * 
+		 * @param query
+		 *            the query to compare
+		 * @param candidates
+		 *            the candidates to compare against the query
+		 * @param distances
+		 *            the array to write the distances to, at least as long as the
+		 *            candidates
+		 * @throws NullPointerException
+		 *             when query, candidates, any candidate or distances is null
+		 * @throws IllegalArgumentException
+		 *             when distances is shorter than candidates or a candidate
+		 *             differs in length from the query
+		 */
+		@Override
+		public void distanceAll(final String query, final List<String> candidates, final float[] distances) {
+			checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+			final CodePoints a = CodePoints.of(query);
+			int i = 0;
+			for (String candidate : candidates) {
+				distances[i++] = HammingCodePointDistance.hamming(a, CodePoints.of(candidate));
 			}
+		}
+
+		@Override
+		public String toString() {
+			return "HammingStringDistance";
+		}
+	}
+
+	/**
+	 * Hamming Distance algorithm to calculate distance between code points of
+	 * equal length.
+	 *
+	 * <p>
+	 * This class is immutable and thread-safe.
+	 * 
+	 */
+	private static final class HammingCodePointDistance implements Distance<CodePoints> {
+
+		HammingCodePointDistance() {
+			// avoid synthetics
+		}
+
+		/**
+		 * Measures the distance between code points {@code a} and {@code b}
+		 * of equal length. The measurement results in a non-negative value. A
+		 * value of {@code 0.0} indicates that {@code a} and {@code b} are
+		 * similar.
+		 * 
+		 * @param a
+		 *            code points a to compare
+		 * @param b
+		 *            code points b to compare
+		 * @return a non-negative value
+		 * @throws NullPointerException
+		 *             when either a or b is null
+		 * @throws IllegalArgumentException
+		 *             when a and b differ in length
+		 */
+		@Override
+		public float distance(CodePoints a, CodePoints b) {
+			return hamming(a, b);
+		}
+
+		static int hamming(CodePoints a, CodePoints b) {
+			final int length = a.length();
+			checkArgument(length == b.length());
 
 			int distance = 0;
 			for (int i = 0; i < length; i++) {
@@ -156,7 +224,7 @@ public final class HammingDistance {
 
 		@Override
 		public String toString() {
-			return "HammingStringDistance";
+			return "HammingCodePointDistance";
 		}
 	}
 
@@ -180,4 +248,15 @@ public final class HammingDistance {
 	public static StringDistance forString() {
 		return new HammingStringDistance();
 	}
+
+	/**
+	 * Returns a Hamming distance to compare code points. Useful when comparing
+	 * one string against many.
+	 * 
+	 * @return a new Hamming distance to compare code points
+	 * @see CodePoints
+	 */
+	public static Distance<CodePoints> forCodePoints() {
+		return new HammingCodePointDistance();
+	}
 }
@@ -20,9 +20,14 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.util.Arrays.fill;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -46,11 +51,42 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  *
  */
 public final class Jaro implements StringMetric, StringDistance {
-	
+
+	/**
+	 * Buffers are reused between comparisons made by the same thread.
+	 */
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
 	@Override
 	public float distance(String a, String b) {
 		return 1.0f - compare(a, b);
 	}
+
+	/**
+	 * Measures the distance between a query and each candidate. The query is
+	 * prepared once.
+	 * 
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param distances
+	 *            the array to write the distances to, at least as long as the
+	 *            candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or distances is null
+	 * @throws IllegalArgumentException
+	 *             when distances is shorter than candidates
+	 */
+	@Override
+	public void distanceAll(final String query, final List<String> candidates, final float[] distances) {
+		checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+		final PreparedStringMetric prepared = prepare(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			distances[i++] = 1.0f - prepared.compare(candidate);
+		}
+	}
 	
 	@Override
 	public float compare(final String a, final String b) {
@@ -63,69 +99,144 @@ public final class Jaro implements StringMetric, StringDistance {
 			return 0.0f;
 		}
 
-		final int[] charsA = a.codePoints().toArray();
-		final int[] charsB = b.codePoints().toArray();
+		final Scratch scratch = SCRATCH.get();
+		scratch.decodeA(a);
+		scratch.decodeB(b);
+		return scratch.jaro(scratch.charsA, scratch.lengthA, scratch.charsB, scratch.lengthB);
+	}
+
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * decoded once and the buffers used to find common code points are reused
+	 * between comparisons. When compared with a minimum similarity, candidates
+	 * whose length alone rules out the minimum similarity are rejected.
+	 * <p>
+	 * The prepared metric is not thread-safe.
+	 * 
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(final String query) {
+		return new PreparedJaro(query.codePoints().toArray());
+	}
+
+	/*
+	 * Jaro similarity for strings of at most 64 code points. Matched code
+	 * points are tracked as bits in a long rather than in arrays.
+	 */
+	private static float jaro(final int[] charsA, final int lengthA, final int[] charsB, final int lengthB) {
 
 		// Intentional integer division to round down.
-		final int halfLength = max(0, max(charsA.length, charsB.length) / 2 - 1);
+		final int halfLength = max(0, max(lengthA, lengthB) / 2 - 1);
 
-		final int[] commonA = getCommonCodePoints(charsA, charsB, halfLength);
-		final int[] commonB = getCommonCodePoints(charsB, charsA, halfLength);
+		final long commonA = getCommonCodePoints(charsA, lengthA, charsB, lengthB, halfLength);
+		final long commonB = getCommonCodePoints(charsB, lengthB, charsA, lengthA, halfLength);
 
-		// commonA and commonB will always contain the same multi-set of
-		// characters. Because getCommonCharacters has been optimized, commonA
-		// and commonB are -1-padded. So in this loop we count transposition
-		// and use commonCharacters to determine the length of the multi-set.
+		final int commonCharacters = Long.bitCount(commonA);
+		if (commonCharacters == 0) {
+			return 0.0f;
+		}
+
+		// The common code points of a and b will always be the same
+		// multi-set. So walking both in order we count transpositions.
 		float transpositions = 0;
-		int commonCharacters = 0;
-		for (int length = commonA.length; commonCharacters < length
-				&& commonA[commonCharacters] > -1; commonCharacters++) {
-			if (commonA[commonCharacters] != commonB[commonCharacters]) {
+		for (long x = commonA, y = commonB; x != 0; x &= x - 1, y &= y - 1) {
+			if (charsA[Long.numberOfTrailingZeros(x)] != charsB[Long.numberOfTrailingZeros(y)]) {
 				transpositions++;
 			}
 		}
 
+		return jaro(commonCharacters, transpositions, lengthA, lengthB);
+	}
+
+	private static float jaro(final int[] charsA, final int lengthA, final int[] charsB, final int lengthB,
+			final int[] commonA, final int[] commonB, final boolean[] matched) {
+
+		// Intentional integer division to round down.
+		final int halfLength = max(0, max(lengthA, lengthB) / 2 - 1);
+
+		final int commonCharacters = getCommonCodePoints(charsA, lengthA, charsB, lengthB, halfLength, commonA,
+				matched);
+		getCommonCodePoints(charsB, lengthB, charsA, lengthA, halfLength, commonB, matched);
+
 		if (commonCharacters == 0) {
 			return 0.0f;
 		}
 
-		float aCommonRatio = commonCharacters / (float) charsA.length;
-		float bCommonRatio = commonCharacters / (float) charsB.length;
+		// commonA and commonB will always contain the same multi-set of
+		// characters. So in this loop we count transpositions.
+		float transpositions = 0;
+		for (int i = 0; i < commonCharacters; i++) {
+			if (commonA[i] != commonB[i]) {
+				transpositions++;
+			}
+		}
+
+		return jaro(commonCharacters, transpositions, lengthA, lengthB);
+	}
+
+	private static float jaro(final int commonCharacters, final float transpositions, final int lengthA,
+			final int lengthB) {
+		float aCommonRatio = commonCharacters / (float) lengthA;
+		float bCommonRatio = commonCharacters / (float) lengthB;
 		float transpositionRatio = (commonCharacters - transpositions / 2.0f) / commonCharacters;
 
 		return (aCommonRatio + bCommonRatio + transpositionRatio) / 3.0f;
 	}
 
 	/*
-	 * Returns an array of code points from a within b. A character in b is
-	 * counted as common when it is within separation distance from the position
-	 * in a.
+	 * Returns the positions of the code points from a within b as bits. A
+	 * character in b is counted as common when it is within separation
+	 * distance from the position in a. Both strings are at most 64 code points
+	 * long.
+	 */
+	private static long getCommonCodePoints(final int[] charsA, final int lengthA, final int[] charsB,
+			final int lengthB, final int separation) {
+		long common = 0;
+		long matched = 0;
+		for (int i = 0; i < lengthA; i++) {
+			final int character = charsA[i];
+			for (int j = max(0, i - separation), end = min(i + separation + 1, lengthB); j < end; j++) {
+				final long bit = 1L << j;
+				if (charsB[j] == character && (matched & bit) == 0) {
+					common |= 1L << i;
+					matched |= bit;
+					break;
+				}
+			}
+		}
+		return common;
+	}
+
+	/*
+	 * Collects the code points from a within b into common and returns their
+	 * number. A character in b is counted as common when it is within
+	 * separation distance from the position in a.
 	 */
-	private static int[] getCommonCodePoints(final int[] charsA, final int[] charsB, final int separation) {
-		final int[] common = new int[min(charsA.length, charsB.length)];
-		final boolean[] matched = new boolean[charsB.length];
+	private static int getCommonCodePoints(final int[] charsA, final int lengthA, final int[] charsB,
+			final int lengthB, final int separation, final int[] common, final boolean[] matched) {
+		fill(matched, 0, lengthB, false);
 
 		// Iterate of string a and find all characters that occur in b within
 		// the separation distance. Mark any matches found to avoid
 		// duplicate matchings.
 		int commonIndex = 0;
-		for (int i = 0, length = charsA.length; i < length; i++) {
+		for (int i = 0; i < lengthA; i++) {
 			final int character = charsA[i];
-			final int index = indexOf(character, charsB, i - separation, i
-					+ separation + 1, matched);
+			final int index = indexOf(character, charsB, lengthB, i - separation, i + separation + 1, matched);
 			if (index > -1) {
 				common[commonIndex++] = character;
 				matched[index] = true;
 			}
 		}
 
-		if (commonIndex < common.length) {
-			common[commonIndex] = -1;
-		}
-
-		// Both invocations will yield the same multi-set terminated by -1, so
-		// they can be compared for transposition without making a copy.
-		return common;
+		// Both invocations will yield the same multi-set, so they can be
+		// compared for transposition without making a copy.
+		return commonIndex;
 	}
 
 	/*
@@ -133,10 +244,11 @@ public final class Jaro implements StringMetric, StringDistance {
 	 * 
 	 * Returns -1 when not found.
 	 */
-	private static int indexOf(int character, int[] buffer, int fromIndex, int toIndex, boolean[] matched) {
+	private static int indexOf(int character, int[] buffer, int length, int fromIndex, int toIndex,
+			boolean[] matched) {
 
 		// compare char with range of characters to either side
-		for (int j = max(0, fromIndex), length = min(toIndex, buffer.length); j < length; j++) {
+		for (int j = max(0, fromIndex), end = min(toIndex, length); j < end; j++) {
 			// check if found
 			if (buffer[j] == character && !matched[j]) {
 				return j;
@@ -150,4 +262,100 @@ public final class Jaro implements StringMetric, StringDistance {
 	public String toString() {
 		return "Jaro";
 	}
+
+	/**
+	 * Buffers for decoded strings and common code points. Comparisons of
+	 * strings up to 64 code points only use the decoded strings.
+	 */
+	private static final class Scratch {
+
+		private int[] charsA = new int[Long.SIZE];
+		private int[] charsB = new int[Long.SIZE];
+		private int lengthA;
+		private int lengthB;
+
+		private int[] commonA = new int[0];
+		private int[] commonB = new int[0];
+		private boolean[] matched = new boolean[0];
+
+		void decodeA(String a) {
+			charsA = ensureCapacity(charsA, a.length());
+			lengthA = decode(a, charsA);
+		}
+
+		void decodeB(String b) {
+			charsB = ensureCapacity(charsB, b.length());
+			lengthB = decode(b, charsB);
+		}
+
+		private static int[] ensureCapacity(int[] buffer, int capacity) {
+			// A string has at most as many code points as chars
+			return buffer.length < capacity ? new int[capacity] : buffer;
+		}
+
+		private static int decode(String string, int[] chars) {
+			int length = 0;
+			for (int i = 0; i < string.length();) {
+				final int codePoint = string.codePointAt(i);
+				chars[length++] = codePoint;
+				i += Character.charCount(codePoint);
+			}
+			return length;
+		}
+
+		float jaro(int[] charsA, int lengthA, int[] charsB, int lengthB) {
+			if (lengthA <= Long.SIZE && lengthB <= Long.SIZE) {
+				return Jaro.jaro(charsA, lengthA, charsB, lengthB);
+			}
+
+			final int common = min(lengthA, lengthB);
+			if (commonA.length < common) {
+				commonA = new int[common];
+				commonB = new int[common];
+			}
+			final int length = max(lengthA, lengthB);
+			if (matched.length < length) {
+				matched = new boolean[length];
+			}
+			return Jaro.jaro(charsA, lengthA, charsB, lengthB, commonA, commonB, matched);
+		}
+	}
+
+	private static final class PreparedJaro implements PreparedStringMetric {
+
+		private final int[] query;
+		private final Scratch scratch = new Scratch();
+
+		PreparedJaro(int[] query) {
+			this.query = query;
+		}
+
+		@Override
+		public float compare(String candidate) {
+			return compare(candidate, 0.0f);
+		}
+
+		@Override
+		public float compare(String candidate, float minSimilarity) {
+			if (query.length == 0 && candidate.isEmpty()) {
+				return 1.0f;
+			}
+
+			if (query.length == 0 || candidate.isEmpty()) {
+				return 0.0f;
+			}
+
+			scratch.decodeB(candidate);
+			final int lengthB = scratch.lengthB;
+
+			// At best all code points of the shortest string are common and
+			// none are transposed.
+			final int common = min(query.length, lengthB);
+			if ((common / (float) query.length + common / (float) lengthB + 1.0f) / 3.0f < minSimilarity) {
+				return 0.0f;
+			}
+
+			return scratch.jaro(query, query.length, scratch.charsB, lengthB);
+		}
+	}
 }
@@ -21,10 +21,10 @@
 package com.github.mpkorstanje.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static com.google.common.base.Strings.commonPrefix;
-import static java.lang.Math.min;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -106,6 +106,32 @@ public final class JaroWinkler implements StringMetric, StringDistance {
 	public float distance(String a, String b) {
 		return 1.0f - compare(a, b);
 	}
+
+	/**
+	 * Measures the distance between a query and each candidate. The query is
+	 * prepared once.
+	 * 
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param distances
+	 *            the array to write the distances to, at least as long as the
+	 *            candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or distances is null
+	 * @throws IllegalArgumentException
+	 *             when distances is shorter than candidates
+	 */
+	@Override
+	public void distanceAll(final String query, final List<String> candidates, final float[] distances) {
+		checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+		final PreparedStringMetric prepared = prepare(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			distances[i++] = 1.0f - prepared.compare(candidate);
+		}
+	}
 	
 	@Override
 	public float compare(final String a, final String b) {
@@ -115,11 +141,54 @@ public final class JaroWinkler implements StringMetric, StringDistance {
 			return jaroScore;
 		}
 
-		int prefixLength = min(codePointLength(commonPrefix(a, b)), maxPrefixLength);
+		int prefixLength = commonPrefixLength(a, b, maxPrefixLength);
 
 		return jaroScore + (prefixLength * prefixScale * (1.0f - jaroScore));
 	}
 
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * prepared for Jaro once.
+	 * <p>
+	 * The prepared metric is not thread-safe.
+	 * 
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(final String query) {
+		final PreparedStringMetric preparedJaro = jaro.prepare(query);
+		return candidate -> {
+			final float jaroScore = preparedJaro.compare(candidate);
+
+			if (jaroScore < boostThreshold) {
+				return jaroScore;
+			}
+
+			int prefixLength = commonPrefixLength(query, candidate, maxPrefixLength);
+
+			return jaroScore + (prefixLength * prefixScale * (1.0f - jaroScore));
+		};
+	}
+
+	/*
+	 * Counts the code points in the common prefix of a and b, up to max.
+	 */
+	private static int commonPrefixLength(String a, String b, int max) {
+		int prefixLength = 0;
+		for (int i = 0; prefixLength < max && i < a.length() && i < b.length(); prefixLength++) {
+			final int codePoint = a.codePointAt(i);
+			if (codePoint != b.codePointAt(i)) {
+				break;
+			}
+			i += Character.charCount(codePoint);
+		}
+		return prefixLength;
+	}
+
 	@Override
 	public String toString() {
 		return "JaroWinkler [boostThreshold=" + boostThreshold
@@ -21,10 +21,15 @@
 package com.github.mpkorstanje.simmetrics.metrics;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.abs;
 import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Arrays.fill;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.min;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -34,6 +39,14 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  * Insert/delete and substitute operations can be weighted. When the cost for
  * substitution is zero Levenshtein does not satisfy the coincidence property.
  * <p>
+ * When the cost of insert/delete and substitute are equal the distance is
+ * computed with a bit-parallel algorithm in {@code O(n * m / 64)} time.
+ * <p>
+ * When only distances up to a bound are of interest, e.g. when matching
+ * against a threshold, {@link #distance(String, String, float)} and
+ * {@link #compare(String, String, float)} only compute a diagonal band of
+ * the distance matrix and stop as soon as the bound can not be met.
+ * <p>
  * This class is immutable and thread-safe.
  * 
  * @see <a href="http://en.wikipedia.org/wiki/Levenshtein_distance">Wikipedia -
@@ -43,6 +56,8 @@ import com.github.mpkorstanje.simmetrics.StringMetric;
  */
 public final class Levenshtein implements StringMetric, StringDistance {
 
+	private static final float BOUND_TOLERANCE = 1e-5f;
+
 	private final float maxCost;
 	private final float insertDelete;
 	private final float substitute;
@@ -74,38 +89,101 @@ public final class Levenshtein implements StringMetric, StringDistance {
 
 	@Override
 	public float compare(final String a, final String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	/**
+	 * Measures the similarity between code points a and b.
+	 * 
+	 * @param a
+	 *            code points a to compare
+	 * @param b
+	 *            code points b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @see #compare(String, String)
+	 */
+	public float compare(final CodePoints a, final CodePoints b) {
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
 		}
 
-		return 1.0f - (distance(a, b) / (maxCost * max(codePointLength(a), codePointLength(b))));
+		return 1.0f - (distance(a, b) / (maxCost * max(a.length(), b.length())));
+	}
+
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * decoded once and, when the cost of insert/delete and substitute are
+	 * equal, compiled for the bit-parallel algorithm once.
+	 * <p>
+	 * When compared with a minimum similarity, candidates whose length alone
+	 * rules out the minimum similarity are rejected before computing the
+	 * distance.
+	 * 
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(final String query) {
+		return new PreparedLevenshtein(CodePoints.of(query));
 	}
 
 	@Override
 	public float distance(final String s, final String t) {
+		return distance(CodePoints.of(s), CodePoints.of(t));
+	}
+
+	/**
+	 * Measures the distance between code points s and t.
+	 * 
+	 * @param s
+	 *            code points s to compare
+	 * @param t
+	 *            code points t to compare
+	 * @return a non-negative value
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @see #distance(String, String)
+	 */
+	public float distance(final CodePoints s, final CodePoints t) {
 
 		if (s.isEmpty())
-			return codePointLength(t);
+			return t.length();
 		if (t.isEmpty())
-			return codePointLength(s);
+			return s.length();
 		if (s.equals(t))
 			return 0;
 
-		final int tLength = codePointLength(t);
-		final int sLength = codePointLength(s);
+		if (insertDelete == substitute) {
+			return BitParallelLevenshtein.distance(s, t) * insertDelete;
+		}
+
+		return weightedDistance(s, t, new float[t.length() + 1], new float[t.length() + 1]);
+	}
+
+	/*
+	 * Distance between non-empty code points s and t using rows v0 and v1 of
+	 * at least t.length() + 1 elements.
+	 */
+	private float weightedDistance(final CodePoints s, final CodePoints t, float[] v0, float[] v1) {
+		final int tLength = t.length();
+		final int sLength = s.length();
 
 		float[] swap;
-		float[] v0 = new float[tLength + 1];
-		float[] v1 = new float[tLength + 1];
 
 		// initialize v0 (the previous row of distances)
 		// this row is A[0][i]: edit distance for an empty s
 		// the distance is just the number of characters to delete from t
-		for (int i = 0; i < v0.length; i++) {
+		for (int i = 0; i <= tLength; i++) {
 			v0[i] = i * insertDelete;
 		}
 
 		for (int i = 0; i < sLength; i++) {
+			final int sI = s.codePointAt(i);
 
 			// first element of v1 is A[i+1][0]
 			// edit distance is delete (i+1) chars from s to match empty t
@@ -115,7 +193,7 @@ public final class Levenshtein implements StringMetric, StringDistance {
 				v1[j + 1] = min(
 						v1[j] + insertDelete,
 						v0[j + 1] + insertDelete,
-						v0[j] + (s.codePointAt(i) == t.codePointAt(j) ? 0.0f : substitute));
+						v0[j] + (sI == t.codePointAt(j) ? 0.0f : substitute));
 			}
 
 			swap = v0;
@@ -127,6 +205,289 @@ public final class Levenshtein implements StringMetric, StringDistance {
 		return v0[tLength];
 	}
 
+	/**
+	 * Measures the distance between a query and each candidate. The query is
+	 * decoded once and, when the cost of insert/delete and substitute are
+	 * equal, compiled for the bit-parallel algorithm once. Otherwise the rows
+	 * of the distance matrix are reused between candidates.
+	 * 
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param distances
+	 *            the array to write the distances to, at least as long as the
+	 *            candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or distances is null
+	 * @throws IllegalArgumentException
+	 *             when distances is shorter than candidates
+	 */
+	@Override
+	public void distanceAll(final String query, final List<String> candidates, final float[] distances) {
+		checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+		final CodePoints s = CodePoints.of(query);
+		final BitParallelLevenshtein.Pattern pattern = insertDelete == substitute && !s.isEmpty()
+				? new BitParallelLevenshtein.Pattern(s)
+				: null;
+		float[] v0 = new float[0];
+		float[] v1 = new float[0];
+		int i = 0;
+		for (String candidate : candidates) {
+			final CodePoints t = CodePoints.of(candidate);
+			if (s.isEmpty() || t.isEmpty() || s.equals(t)) {
+				distances[i++] = distance(s, t);
+			} else if (pattern != null) {
+				distances[i++] = pattern.distance(t) * insertDelete;
+			} else {
+				if (v0.length <= t.length()) {
+					v0 = new float[t.length() + 1];
+					v1 = new float[t.length() + 1];
+				}
+				distances[i++] = weightedDistance(s, t, v0, v1);
+			}
+		}
+	}
+
+	/**
+	 * Measures the similarity between strings a and b, provided it is at least
+	 * {@code minSimilarity}. Returns {@code 0.0} as soon as it is clear the
+	 * similarity will be lower than {@code minSimilarity}.
+	 * <p>
+	 * When the similarity is at least {@code minSimilarity} the result is
+	 * equal to {@link #compare(String, String)}.
+	 * 
+	 * @param a
+	 *            string a to compare
+	 * @param b
+	 *            string b to compare
+	 * @param minSimilarity
+	 *            the minimum similarity of interest, between 0 and 1 inclusive
+	 * @return a value between 0 and 1 inclusive indicating similarity, or
+	 *         {@code 0.0} when the similarity is below {@code minSimilarity}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when minSimilarity is not between 0 and 1 inclusive
+	 */
+	public float compare(final String a, final String b, final float minSimilarity) {
+		return compare(CodePoints.of(a), CodePoints.of(b), minSimilarity);
+	}
+
+	/**
+	 * Measures the similarity between code points a and b, provided it is at
+	 * least {@code minSimilarity}.
+	 * 
+	 * @param a
+	 *            code points a to compare
+	 * @param b
+	 *            code points b to compare
+	 * @param minSimilarity
+	 *            the minimum similarity of interest, between 0 and 1 inclusive
+	 * @return a value between 0 and 1 inclusive indicating similarity, or
+	 *         {@code 0.0} when the similarity is below {@code minSimilarity}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when minSimilarity is not between 0 and 1 inclusive
+	 * @see #compare(String, String, float)
+	 */
+	public float compare(final CodePoints a, final CodePoints b, final float minSimilarity) {
+		checkArgument(0.0f <= minSimilarity && minSimilarity <= 1.0f, "minSimilarity must be between 0 and 1");
+
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		final float maxLength = maxCost * max(a.length(), b.length());
+		// Allow for rounding, the similarity is checked exactly afterwards
+		final float maxDistance = (1.0f - minSimilarity) * maxLength * (1.0f + BOUND_TOLERANCE);
+		final float distance = distance(a, b, maxDistance);
+		if (distance == Float.POSITIVE_INFINITY) {
+			return 0.0f;
+		}
+
+		final float similarity = 1.0f - (distance / maxLength);
+		return similarity >= minSimilarity ? similarity : 0.0f;
+	}
+
+	/**
+	 * Measures the distance between string a and b, provided it is at most
+	 * {@code maxDistance}. Returns {@link Float#POSITIVE_INFINITY} as soon as
+	 * it is clear the distance will exceed {@code maxDistance}.
+	 * <p>
+	 * When the cost of insert/delete and substitute differ only cells of the
+	 * distance matrix within {@code maxDistance / insertDelete} of the diagonal
+	 * are computed. Computation stops when every cell in a row exceeds
+	 * {@code maxDistance}. When the costs are equal the bit-parallel kernel
+	 * stops as soon as the remaining columns can no longer bring the distance
+	 * back within {@code maxDistance}. When the distance is at most
+	 * {@code maxDistance} the result is equal to
+	 * {@link #distance(String, String)}.
+	 * 
+	 * @param s
+	 *            string s to compare
+	 * @param t
+	 *            string t to compare
+	 * @param maxDistance
+	 *            the non-negative maximum distance of interest
+	 * @return a non-negative value, or {@link Float#POSITIVE_INFINITY} when
+	 *         the distance exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when maxDistance is negative
+	 */
+	public float distance(final String s, final String t, final float maxDistance) {
+		return distance(CodePoints.of(s), CodePoints.of(t), maxDistance);
+	}
+
+	/**
+	 * Measures the distance between code points a and b, provided it is at
+	 * most {@code maxDistance}.
+	 * 
+	 * @param s
+	 *            code points s to compare
+	 * @param t
+	 *            code points t to compare
+	 * @param maxDistance
+	 *            the non-negative maximum distance of interest
+	 * @return a non-negative value, or {@link Float#POSITIVE_INFINITY} when
+	 *         the distance exceeds {@code maxDistance}
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @throws IllegalArgumentException
+	 *             when maxDistance is negative
+	 * @see #distance(String, String, float)
+	 */
+	public float distance(final CodePoints s, final CodePoints t, final float maxDistance) {
+		checkArgument(maxDistance >= 0, "maxDistance must be non-negative");
+
+		if (s.isEmpty() || t.isEmpty() || s.equals(t)) {
+			return bounded(distance(s, t), maxDistance);
+		}
+
+		// Strings of different length take at least as many inserts or deletes
+		if (abs(s.length() - t.length()) * insertDelete > maxDistance) {
+			return Float.POSITIVE_INFINITY;
+		}
+
+		final int sLength = s.length();
+		final int tLength = t.length();
+
+		if (insertDelete == substitute) {
+			// Stops as soon as the distance is known to exceed k edits
+			final int k = (int) min(maxDistance / insertDelete, max(sLength, tLength));
+			final int edits = BitParallelLevenshtein.distance(s, t, k);
+			return edits > k ? Float.POSITIVE_INFINITY : bounded(edits * insertDelete, maxDistance);
+		}
+
+		// Every cell (i, j) takes at least |i - j| inserts or deletes to reach
+		// so only cells within the band |i - j| <= k can be within maxDistance.
+		final int k = (int) min(maxDistance / insertDelete, max(sLength, tLength));
+		if (abs(sLength - tLength) > k) {
+			return Float.POSITIVE_INFINITY;
+		}
+
+		// Cells outside the band are never written and remain infinite.
+		float[] swap;
+		float[] v0 = new float[tLength + 1];
+		float[] v1 = new float[tLength + 1];
+		fill(v0, Float.POSITIVE_INFINITY);
+		fill(v1, Float.POSITIVE_INFINITY);
+
+		for (int j = 0, to = min(tLength, k); j <= to; j++) {
+			v0[j] = j * insertDelete;
+		}
+
+		for (int i = 0; i < sLength; i++) {
+			final int sI = s.codePointAt(i);
+			final int from = max(0, i + 1 - k);
+			final int to = min(tLength, i + 1 + k);
+
+			float rowMin;
+			if (from == 0) {
+				v1[0] = (i + 1) * insertDelete;
+				rowMin = v1[0];
+			} else {
+				// Left of the band, this still holds a value from two rows ago
+				v1[from - 1] = Float.POSITIVE_INFINITY;
+				rowMin = Float.POSITIVE_INFINITY;
+			}
+
+			for (int j = max(from, 1); j <= to; j++) {
+				v1[j] = min(
+						v1[j - 1] + insertDelete,
+						v0[j] + insertDelete,
+						v0[j - 1] + (sI == t.codePointAt(j - 1) ? 0.0f : substitute));
+				rowMin = min(rowMin, v1[j]);
+			}
+
+			// Costs are non-negative, every path through this row exceeds
+			// maxDistance.
+			if (rowMin > maxDistance) {
+				return Float.POSITIVE_INFINITY;
+			}
+
+			swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+
+		// latest results was in v1 which was swapped with v0
+		return bounded(v0[tLength], maxDistance);
+	}
+
+	private static float bounded(float distance, float maxDistance) {
+		return distance <= maxDistance ? distance : Float.POSITIVE_INFINITY;
+	}
+
+	private final class PreparedLevenshtein implements PreparedStringMetric {
+
+		private final CodePoints a;
+
+		private final BitParallelLevenshtein.Pattern pattern;
+
+		PreparedLevenshtein(CodePoints a) {
+			this.a = a;
+			this.pattern = insertDelete == substitute && !a.isEmpty() ? new BitParallelLevenshtein.Pattern(a) : null;
+		}
+
+		@Override
+		public float compare(String candidate) {
+			final CodePoints b = CodePoints.of(candidate);
+			if (pattern == null || b.isEmpty() || a.equals(b)) {
+				return Levenshtein.this.compare(a, b);
+			}
+			return 1.0f - (pattern.distance(b) * insertDelete / (maxCost * max(a.length(), b.length())));
+		}
+
+		@Override
+		public float compare(String candidate, float minSimilarity) {
+			final CodePoints b = CodePoints.of(candidate);
+			if (pattern == null || b.isEmpty() || a.equals(b)) {
+				return Levenshtein.this.compare(a, b, minSimilarity);
+			}
+			checkArgument(0.0f <= minSimilarity && minSimilarity <= 1.0f, "minSimilarity must be between 0 and 1");
+
+			// Strings of different length take at least as many inserts or
+			// deletes
+			final float maxLength = maxCost * max(a.length(), b.length());
+			if (1.0f - (abs(a.length() - b.length()) * insertDelete / maxLength) < minSimilarity) {
+				return 0.0f;
+			}
+			// Allow for rounding, the similarity is checked exactly afterwards
+			final float maxDistance = (1.0f - minSimilarity) * maxLength * (1.0f + BOUND_TOLERANCE);
+			final int k = (int) min(maxDistance / insertDelete, max(a.length(), b.length()));
+			final int edits = pattern.distance(b, k);
+			if (edits > k) {
+				return 0.0f;
+			}
+			final float similarity = 1.0f - (edits * insertDelete / maxLength);
+			return similarity >= minSimilarity ? similarity : 0.0f;
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "Levenshtein [insertDelete=" + insertDelete + ", substitute="
@@ -19,9 +19,13 @@
  */
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.Math.max;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
+import static java.lang.Math.min;
 
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
@@ -46,6 +50,22 @@ public final class LongestCommonSubSequence implements StringMetric,
 
 	@Override
 	public float compare(String a, String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	/**
+	 * Measures the similarity between code points a and b.
+	 * 
+	 * @param a
+	 *            code points a to compare
+	 * @param b
+	 *            code points b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @see #compare(String, String)
+	 */
+	public float compare(CodePoints a, CodePoints b) {
 
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
@@ -55,28 +75,103 @@ public final class LongestCommonSubSequence implements StringMetric,
 			return 0.0f;
 		}
 
-		return lcs(a, b) / (float)max(codePointLength(a), codePointLength(b));
+		return lcs(a, b) / (float)max(a.length(), b.length());
+	}
+
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * decoded once. When compared with a minimum similarity, candidates whose
+	 * length alone rules out the minimum similarity are rejected.
+	 * 
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(final String query) {
+		final CodePoints a = CodePoints.of(query);
+		return new PreparedStringMetric() {
+			@Override
+			public float compare(String candidate) {
+				return LongestCommonSubSequence.this.compare(a, CodePoints.of(candidate));
+			}
+
+			@Override
+			public float compare(String candidate, float minSimilarity) {
+				final CodePoints b = CodePoints.of(candidate);
+				// The longest common subsequence is at most as long as the shortest
+				if (!a.isEmpty() && !b.isEmpty()
+						&& min(a.length(), b.length()) / (float)max(a.length(), b.length()) < minSimilarity) {
+					return 0.0f;
+				}
+				return LongestCommonSubSequence.this.compare(a, b);
+			}
+		};
 	}
 
 	@Override
 	public float distance(String a, String b) {
+		return distance(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	/**
+	 * Measures the distance between a query and each candidate. The query is
+	 * decoded once.
+	 * 
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param distances
+	 *            the array to write the distances to, at least as long as the
+	 *            candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or distances is null
+	 * @throws IllegalArgumentException
+	 *             when distances is shorter than candidates
+	 */
+	@Override
+	public void distanceAll(final String query, final List<String> candidates, final float[] distances) {
+		checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+		final CodePoints a = CodePoints.of(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			distances[i++] = distance(a, CodePoints.of(candidate));
+		}
+	}
+
+	/**
+	 * Measures the distance between code points a and b.
+	 * 
+	 * @param a
+	 *            code points a to compare
+	 * @param b
+	 *            code points b to compare
+	 * @return a non-negative value
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @see #distance(String, String)
+	 */
+	public float distance(CodePoints a, CodePoints b) {
 
 		if (a.isEmpty() && b.isEmpty()) {
 			return 0.0f;
 		}
 		if (a.isEmpty()) {
-			return codePointLength(b);
+			return b.length();
 		}
 		if (b.isEmpty()) {
-			return codePointLength(a);
+			return a.length();
 		}
-		return codePointLength(a) + codePointLength(b) - 2 * lcs(a, b);
+		return a.length() + b.length() - 2 * lcs(a, b);
 	}
 
-	private static int lcs(String a, String b) {
+	private static int lcs(CodePoints a, CodePoints b) {
 
-		final int n = codePointLength(a);
-		final int m = codePointLength(b);
+		final int n = a.length();
+		final int m = b.length();
 
 		// We're only interested in the actual longest common subsequence This
 		// means we don't have to backtrack through the n-by-m matrix and can
@@ -85,8 +180,9 @@ public final class LongestCommonSubSequence implements StringMetric,
 		int[] v1 = new int[m + 1];
 
 		for (int i = 1; i <= n; i++) {
+			final int aI = a.codePointAt(i - 1);
 			for (int j = 1; j <= m; j++) {
-				if (a.codePointAt(i - 1) == b.codePointAt(j - 1)) {
+				if (aI == b.codePointAt(j - 1)) {
 					v1[j] = v0[j - 1] + 1;
 				} else {
 					v1[j] = max(v1[j - 1], v0[j]);
@@ -72,7 +72,7 @@ final class Math {
 
 	static <T> Multiset<T> union(Multiset<T> a, Multiset<T> b) {
 		// Lager set first for performance improvement.
-		// See: MathCaliper
+		// See: MathBenchmark
 		if (a.size() < b.size()) {
 			return Multisets.union(b, a);
 		}
@@ -82,7 +82,7 @@ final class Math {
 
 	static <T> Multiset<T> intersection(Multiset<T> a, Multiset<T> b) {
 		// Smaller set first for performance improvement.
-		// See: MathCaliper
+		// See: MathBenchmark
 		if (a.size() < b.size()) {
 			return Multisets.intersection(a, b);
 		}
@@ -92,11 +92,94 @@ final class Math {
 
 	static <T> Set<T> intersection(Set<T> a, Set<T> b) {
 		// Smaller set first for performance improvement.
-		// See: MathCaliper and note at Sets.intersection
+		// See: MathBenchmark and note at Sets.intersection
 		if (a.size() < b.size()) {
 			return Sets.intersection(a, b);
 		}
 
 		return Sets.intersection(b, a);
 	}
+
+	/**
+	 * Returns the size of the intersection of two sets by merging their
+	 * sorted ids.
+	 */
+	static int intersectionSize(TokenIdSet a, TokenIdSet b) {
+		final long[] x = a.ids;
+		final long[] y = b.ids;
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < x.length && j < y.length) {
+			if (x[i] < y[j]) {
+				i++;
+			} else if (x[i] > y[j]) {
+				j++;
+			} else {
+				intersection++;
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	/**
+	 * Returns the size of the intersection of two multisets by merging their
+	 * sorted ids. The intersection contains each id as often as it occurs in
+	 * both multisets.
+	 */
+	static int intersectionSize(TokenIdMultiset a, TokenIdMultiset b) {
+		final long[] x = a.ids;
+		final long[] y = b.ids;
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < x.length && j < y.length) {
+			if (x[i] < y[j]) {
+				i++;
+			} else if (x[i] > y[j]) {
+				j++;
+			} else {
+				intersection += java.lang.Math.min(a.counts[i], b.counts[j]);
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	/**
+	 * Returns the dot product of two multisets as vectors of counts.
+	 */
+	static long dotProduct(TokenIdMultiset a, TokenIdMultiset b) {
+		final long[] x = a.ids;
+		final long[] y = b.ids;
+		long dotProduct = 0;
+		int i = 0;
+		int j = 0;
+		while (i < x.length && j < y.length) {
+			if (x[i] < y[j]) {
+				i++;
+			} else if (x[i] > y[j]) {
+				j++;
+			} else {
+				dotProduct += (long) a.counts[i] * b.counts[j];
+				i++;
+				j++;
+			}
+		}
+		return dotProduct;
+	}
+
+	/**
+	 * Returns the sum of the squared counts of a multiset.
+	 */
+	static long sumOfSquares(TokenIdMultiset a) {
+		long sumOfSquares = 0;
+		for (int count : a.counts) {
+			sumOfSquares += (long) count * count;
+		}
+		return sumOfSquares;
+	}
 }
@@ -25,12 +25,11 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.min;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
-
-import java.util.Objects;
 
 import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+import com.github.mpkorstanje.simmetrics.metrics.functions.SubstitutionTable;
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
 /**
@@ -81,13 +80,29 @@ public final class NeedlemanWunch implements StringMetric {
 
 	@Override
 	public float compare(String a, String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	/**
+	 * Measures the similarity between code points a and b.
+	 * 
+	 * @param a
+	 *            code points a to compare
+	 * @param b
+	 *            code points b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @see #compare(String, String)
+	 */
+	public float compare(CodePoints a, CodePoints b) {
 
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
 		}
 
-		int aLength = codePointLength(a);
-		int bLength = codePointLength(b);
+		int aLength = a.length();
+		int bLength = b.length();
 
 		float maxDistance = max(aLength, bLength) * max(substitution.max(), gapValue);
 		float minDistance = max(aLength, bLength) * min(substitution.min(), gapValue);
@@ -96,21 +111,38 @@ public final class NeedlemanWunch implements StringMetric {
 
 	}
 
-	private float needlemanWunch(final String s, final String t) {
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * decoded once.
+	 * 
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(final String query) {
+		final CodePoints a = CodePoints.of(query);
+		return candidate -> compare(a, CodePoints.of(candidate));
+	}
+
+	private float needlemanWunch(final CodePoints s, final CodePoints t) {
 
-		if (Objects.equals(s, t)) {
+		if (s.equals(t)) {
 			return 0;
 		}
 
 		if (s.isEmpty()) {
-			return -gapValue * codePointLength(t);
+			return -gapValue * t.length();
 		}
 		if (t.isEmpty()) {
-			return -gapValue * codePointLength(s);
+			return -gapValue * s.length();
 		}
 		
-		final int n = codePointLength(s);
-		final int m = codePointLength(t);
+		final int n = s.length();
+		final int m = t.length();
+		final SubstitutionTable table = SubstitutionTable.compile(substitution, s.toArray(), t.toArray());
 
 		// We're only interested in the alignment penalty between s and t
 		// and not their actual alignment. This means we don't have to backtrack
@@ -130,7 +162,7 @@ public final class NeedlemanWunch implements StringMetric {
 				v1[j] = min(
 						v0[j]     - gapValue, 
 						v1[j - 1] - gapValue, 
-						v0[j - 1] - substitution.compare(s, i - 1, t, j - 1));
+						v0[j - 1] - table.compare(i - 1, j - 1));
 			}
 			
 			final float[] swap = v0; v0 = v1; v1 = swap;
@@ -83,6 +83,44 @@ public final class OverlapCoefficient<T> implements SetMetric<T>, SetDistance<T>
 		return intersection(a, b).size() / (float) min(a.size(), b.size());
 	}
 
+	/**
+	 * Measures the overlap coefficient of two sets of token ids.
+	 * The result is identical to {@link #compare(Set, Set)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            set of token ids a to compare
+	 * @param b
+	 *            set of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(TokenIdSet a, TokenIdSet b) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		return Math.intersectionSize(a, b) / (float) min(a.size(), b.size());
+	}
+
+	/**
+	 * Measures the overlap coefficient distance of two sets of token ids.
+	 * The result is identical to {@link #distance(Set, Set)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            set of token ids a to compare
+	 * @param b
+	 *            set of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 0 when both are equal
+	 */
+	public float distance(TokenIdSet a, TokenIdSet b) {
+		return 1.0f - compare(a, b);
+	}
+
 	@Override
 	public String toString() {
 		return "OverlapCoefficient";
@@ -0,0 +1,278 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.repeat;
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.LongConsumer;
+
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Computes a long fingerprint for each q-gram in a string without creating
+ * the q-grams themselves. The fingerprints of a string correspond one to one,
+ * in order, to the tokens of the equivalent q-gram tokenizer. Padding is
+ * hashed in place rather than concatenated to the input.
+ * <p>
+ * For {@code q <= 3} the code points of a q-gram are packed into its
+ * fingerprint, so distinct q-grams have distinct fingerprints. For larger
+ * {@code q} fingerprints are computed with a rolling polynomial hash and
+ * distinct q-grams may occasionally share a fingerprint.
+ * <p>
+ * The fingerprints are meant to be compared as token ids by the set and
+ * multiset metrics, e.g. {@link Jaccard#compare(TokenIdSet, TokenIdSet)}.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see Tokenizers#qGram(int)
+ * @see Tokenizers#qGramWithPadding(int)
+ */
+public final class QGramHasher {
+
+	/**
+	 * Largest q for which the code points of a q-gram fit in a long.
+	 */
+	private static final int PACKED_MAX_Q = 3;
+
+	private static final int CODE_POINT_BITS = 21;
+
+	private static final long BASE = 0x9E3779B97F4A7C15L;
+
+	private final int q;
+	private final String startPadding;
+	private final String endPadding;
+	private final int paddingLength;
+	private final long mask;
+	private final long outgoingFactor;
+
+	private QGramHasher(int q, String startPadding, String endPadding) {
+		checkArgument(q > 0, "q must be greater then 0");
+		requireNonNull(startPadding);
+		requireNonNull(endPadding);
+		this.q = q;
+		this.startPadding = startPadding;
+		this.endPadding = endPadding;
+		this.paddingLength = startPadding.codePointCount(0, startPadding.length())
+				+ endPadding.codePointCount(0, endPadding.length());
+		this.mask = q <= PACKED_MAX_Q ? (1L << CODE_POINT_BITS * q) - 1 : -1L;
+
+		long factor = 1;
+		for (int i = 1; i < q; i++) {
+			factor *= BASE;
+		}
+		this.outgoingFactor = factor;
+	}
+
+	/**
+	 * Returns a q-gram hasher for a variable {@code q}. The hasher computes a
+	 * fingerprint for each token of {@link Tokenizers#qGram(int)} without
+	 * creating the tokens.
+	 * <p>
+	 * The hasher takes care to split the string on Unicode code points, not
+	 * separating valid surrogate pairs.
+	 *
+	 * @param q
+	 *            size of the tokens
+	 * @return a q-gram hasher
+	 */
+	public static QGramHasher qGram(int q) {
+		return new QGramHasher(q, "", "");
+	}
+
+	/**
+	 * Returns a q-gram hasher for a variable {@code q}. The hasher computes a
+	 * fingerprint for each token of {@link Tokenizers#qGramWithPadding(int)}
+	 * without creating the tokens. Uses {@code #} as the default padding.
+	 * <p>
+	 * The hasher takes care to split the string on Unicode code points, not
+	 * separating valid surrogate pairs.
+	 *
+	 * @param q
+	 *            size of the tokens
+	 * @return a q-gram hasher
+	 */
+	public static QGramHasher qGramWithPadding(int q) {
+		return qGramWithPadding(q, "#");
+	}
+
+	/**
+	 * Returns a q-gram hasher for a variable {@code q}. The hasher computes a
+	 * fingerprint for each token of
+	 * {@link Tokenizers#qGramWithPadding(int, String)} without creating the
+	 * tokens.
+	 * <p>
+	 * The hasher takes care to split the string on Unicode code points, not
+	 * separating valid surrogate pairs.
+	 *
+	 * @param q
+	 *            size of the tokens
+	 * @param padding
+	 *            padding to pad start and end of string with
+	 * @return a q-gram hasher
+	 */
+	public static QGramHasher qGramWithPadding(int q, String padding) {
+		return qGramWithPadding(q, padding, padding);
+	}
+
+	/**
+	 * Returns a q-gram hasher for a variable {@code q}. The hasher computes a
+	 * fingerprint for each token of
+	 * {@link Tokenizers#qGramWithPadding(int, String, String)} without
+	 * creating the tokens.
+	 * <p>
+	 * The hasher takes care to split the string on Unicode code points, not
+	 * separating valid surrogate pairs.
+	 *
+	 * @param q
+	 *            size of the tokens
+	 * @param startPadding
+	 *            padding to pad start of string with
+	 * @param endPadding
+	 *            padding to pad end of string with
+	 * @return a q-gram hasher
+	 */
+	public static QGramHasher qGramWithPadding(int q, String startPadding, String endPadding) {
+		checkArgument(!startPadding.isEmpty(), "startPadding may not be empty");
+		checkArgument(!endPadding.isEmpty(), "endPadding may not be empty");
+		return new QGramHasher(q, repeat(startPadding, q - 1), repeat(endPadding, q - 1));
+	}
+
+	/**
+	 * Returns the fingerprints of the q-grams in the input. Returns an empty
+	 * array if the input is empty. A single fingerprint of the whole input is
+	 * returned when it is shorter than {@code q}.
+	 *
+	 * @param input
+	 *            the string to hash
+	 * @return the fingerprints of the q-grams in order of occurrence
+	 * @throws NullPointerException
+	 *             when input is null
+	 */
+	public long[] hash(String input) {
+		if (input.isEmpty()) {
+			return new long[0];
+		}
+		final int length = input.codePointCount(0, input.length()) + paddingLength;
+		final Buffer buffer = new Buffer(length < q ? 1 : length - q + 1);
+		hash(input, buffer);
+		return buffer.fingerprints;
+	}
+
+	/**
+	 * Passes the fingerprints of the q-grams in the input to the sink in
+	 * order of occurrence. Nothing is passed if the input is empty. A single
+	 * fingerprint of the whole input is passed when it is shorter than
+	 * {@code q}.
+	 *
+	 * @param input
+	 *            the string to hash
+	 * @param sink
+	 *            receives each fingerprint
+	 * @throws NullPointerException
+	 *             when input or sink is null
+	 */
+	public void hash(String input, LongConsumer sink) {
+		requireNonNull(sink);
+		if (input.isEmpty()) {
+			return;
+		}
+
+		final int[] window = q > PACKED_MAX_Q ? new int[q] : null;
+		long hash = 0;
+		int n = 0;
+		for (int segment = 0; segment < 3; segment++) {
+			final String s = segment == 0 ? startPadding : segment == 1 ? input : endPadding;
+			for (int i = 0; i < s.length();) {
+				final int codePoint = s.codePointAt(i);
+				i += Character.charCount(codePoint);
+
+				if (window == null) {
+					hash = (hash << CODE_POINT_BITS | codePoint) & mask;
+				} else {
+					final int slot = n % q;
+					if (n >= q) {
+						hash -= window[slot] * outgoingFactor;
+					}
+					hash = hash * BASE + codePoint;
+					window[slot] = codePoint;
+				}
+
+				if (++n >= q) {
+					sink.accept(hash);
+				}
+			}
+		}
+
+		if (n < q) {
+			// Shorter than a q-gram. Mark the length to keep the fingerprint
+			// apart from those of full q-grams.
+			sink.accept(window == null ? Long.MIN_VALUE | (long) n << 61 | hash : hash * BASE + n);
+		}
+	}
+
+	/**
+	 * Returns the set of fingerprints of the q-grams in the input.
+	 *
+	 * @param input
+	 *            the string to hash
+	 * @return the set of fingerprints
+	 * @throws NullPointerException
+	 *             when input is null
+	 */
+	public TokenIdSet hashToSet(String input) {
+		return TokenIdSet.of(hash(input));
+	}
+
+	/**
+	 * Returns the multiset of fingerprints of the q-grams in the input.
+	 *
+	 * @param input
+	 *            the string to hash
+	 * @return the multiset of fingerprints
+	 * @throws NullPointerException
+	 *             when input is null
+	 */
+	public TokenIdMultiset hashToMultiset(String input) {
+		return TokenIdMultiset.of(hash(input));
+	}
+
+	@Override
+	public String toString() {
+		return "QGramHasher [startPadding=" + startPadding + ", endPadding=" + endPadding + ", q=" + q + "]";
+	}
+
+	private static final class Buffer implements LongConsumer {
+
+		final long[] fingerprints;
+		private int size;
+
+		Buffer(int capacity) {
+			this.fingerprints = new long[capacity];
+		}
+
+		@Override
+		public void accept(long fingerprint) {
+			fingerprints[size++] = fingerprint;
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.List;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Block distance over the padded tri-grams of two strings. Equivalent to
+ * {@link BlockDistance} with {@link Tokenizers#qGramWithPadding(int)} for
+ * {@code q=3} but compares tri-gram fingerprints rather than tri-grams.
+ * Tri-gram fingerprints are exact so the results are identical.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see StringMetrics#qGramsDistance()
+ * @see StringDistances#qGramsDistance()
+ */
+final class QGramsDistance implements StringMetric, StringDistance {
+
+	private final QGramHasher hasher = QGramHasher.qGramWithPadding(3);
+
+	private final BlockDistance<String> metric = new BlockDistance<>();
+
+	@Override
+	public float compare(String a, String b) {
+		return metric.compare(hasher.hashToMultiset(a), hasher.hashToMultiset(b));
+	}
+
+	@Override
+	public float distance(String a, String b) {
+		return metric.distance(hasher.hashToMultiset(a), hasher.hashToMultiset(b));
+	}
+
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * hashed once.
+	 *
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(String query) {
+		final TokenIdMultiset prepared = hasher.hashToMultiset(query);
+		return candidate -> metric.compare(prepared, hasher.hashToMultiset(candidate));
+	}
+
+	/**
+	 * Measures the distance between a query and each candidate. The query is
+	 * hashed once.
+	 *
+	 * @param query
+	 *            the query to compare
+	 * @param candidates
+	 *            the candidates to compare against the query
+	 * @param distances
+	 *            the array to write the distances to, at least as long as the
+	 *            candidates
+	 * @throws NullPointerException
+	 *             when query, candidates, any candidate or distances is null
+	 * @throws IllegalArgumentException
+	 *             when distances is shorter than candidates
+	 */
+	@Override
+	public void distanceAll(String query, List<String> candidates, float[] distances) {
+		checkArgument(distances.length >= candidates.size(), "distances must fit all candidates");
+		final TokenIdMultiset prepared = hasher.hashToMultiset(query);
+		int i = 0;
+		for (String candidate : candidates) {
+			distances[i++] = metric.distance(prepared, hasher.hashToMultiset(candidate));
+		}
+	}
+
+	@Override
+	public String toString() {
+		return metric + " [" + hasher + "]";
+	}
+
+}
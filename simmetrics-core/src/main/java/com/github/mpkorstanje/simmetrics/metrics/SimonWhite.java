@@ -93,6 +93,44 @@ public final class SimonWhite<T> implements MultisetMetric<T>, MultisetDistance<
 	public float distance(Multiset<T> a, Multiset<T> b) {
 		return 1.0f - compare(a, b);
 	}
+	/**
+	 * Measures the Simon White similarity of two multisets of token ids.
+	 * The result is identical to {@link #compare(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 1 when both are equal
+	 */
+	public float compare(TokenIdMultiset a, TokenIdMultiset b) {
+		if (a.isEmpty() && b.isEmpty()) {
+			return 1.0f;
+		}
+
+		if (a.isEmpty() || b.isEmpty()) {
+			return 0.0f;
+		}
+
+		return (2.0f * Math.intersectionSize(a, b)) / (a.size() + b.size());
+	}
+
+	/**
+	 * Measures the Simon White similarity distance of two multisets of token ids.
+	 * The result is identical to {@link #distance(Multiset, Multiset)} over the same tokens,
+	 * unless distinct tokens share an id.
+	 *
+	 * @param a
+	 *            multiset of token ids a to compare
+	 * @param b
+	 *            multiset of token ids b to compare
+	 * @return a value between 0 and 1 inclusive, 0 when both are equal
+	 */
+	public float distance(TokenIdMultiset a, TokenIdMultiset b) {
+		return 1.0f - compare(a, b);
+	}
+
 	@Override
 	public String toString() {
 		return "SimonWhite";
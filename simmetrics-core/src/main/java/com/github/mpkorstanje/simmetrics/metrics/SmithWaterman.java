@@ -25,12 +25,12 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.max;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
 
 import com.github.mpkorstanje.simmetrics.metrics.functions.AffineGap;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Gap;
 import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+import com.github.mpkorstanje.simmetrics.metrics.functions.SubstitutionTable;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
 /**
@@ -91,19 +91,22 @@ public final class SmithWaterman implements StringMetric {
 		if (a.isEmpty() || b.isEmpty()) {
 			return 0.0f;
 		}
-		float maxDistance = min(codePointLength(a), codePointLength(b)) * max(substitution.max(), gap.min());
-		return smithWaterman(a, b) / maxDistance;
+		final int[] x = a.codePoints().toArray();
+		final int[] y = b.codePoints().toArray();
+		float maxDistance = min(x.length, y.length) * max(substitution.max(), gap.min());
+		return smithWaterman(x, y) / maxDistance;
 
 	}
 
-	private float smithWaterman(String a, String b) {
-		final int n = codePointLength(a);
-		final int m = codePointLength(b);
+	private float smithWaterman(int[] a, int[] b) {
+		final int n = a.length;
+		final int m = b.length;
+		final SubstitutionTable table = SubstitutionTable.compile(substitution, a, b);
 
 		final float[][] d = new float[n][m];
 
 		// Initialize corner
-		float max = d[0][0] = max(0, substitution.compare(a, 0, b, 0));
+		float max = d[0][0] = max(0, table.compare(0, 0));
 
 		// Initialize edge
 		for (int i = 0; i < n; i++) {
@@ -114,7 +117,7 @@ public final class SmithWaterman implements StringMetric {
 				maxGapCost = max(maxGapCost, d[i - k][0] + gap.value(i - k, i));
 			}
 
-			d[i][0] = max(0, maxGapCost, substitution.compare(a, i, b, 0));
+			d[i][0] = max(0, maxGapCost, table.compare(i, 0));
 
 			max = max(max, d[i][0]);
 
@@ -129,7 +132,7 @@ public final class SmithWaterman implements StringMetric {
 				maxGapCost = max(maxGapCost, d[0][j - k] + gap.value(j - k, j));
 			}
 
-			d[0][j] = max(0, maxGapCost, substitution.compare(a, 0, b, j));
+			d[0][j] = max(0, maxGapCost, table.compare(0, j));
 
 			max = max(max, d[0][j]);
 
@@ -154,7 +157,7 @@ public final class SmithWaterman implements StringMetric {
 
 				// Find most optimal of insertion, deletion and substitution
 				d[i][j] = max(0, maxGapCost,
-						d[i - 1][j - 1] + substitution.compare(a, i, b, j));
+						d[i - 1][j - 1] + table.compare(i, j));
 
 				max = max(max, d[i][j]);
 			}
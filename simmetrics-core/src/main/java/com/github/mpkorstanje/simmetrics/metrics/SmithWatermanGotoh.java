@@ -26,10 +26,14 @@ import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.util.Objects.requireNonNull;
 import static com.github.mpkorstanje.simmetrics.metrics.Math.max;
-import static com.github.mpkorstanje.simmetrics.metrics.Unicode.codePointLength;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
 import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+import com.github.mpkorstanje.simmetrics.metrics.functions.SubstitutionTable;
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 
 /**
@@ -83,6 +87,22 @@ public final class SmithWatermanGotoh implements StringMetric {
 
 	@Override
 	public float compare(final String a, final String b) {
+		return compare(CodePoints.of(a), CodePoints.of(b));
+	}
+
+	/**
+	 * Measures the similarity between code points a and b.
+	 * 
+	 * @param a
+	 *            code points a to compare
+	 * @param b
+	 *            code points b to compare
+	 * @return a value between 0 and 1 inclusive indicating similarity
+	 * @throws NullPointerException
+	 *             when either a or b is null
+	 * @see #compare(String, String)
+	 */
+	public float compare(final CodePoints a, final CodePoints b) {
 
 		if (a.isEmpty() && b.isEmpty()) {
 			return 1.0f;
@@ -92,43 +112,199 @@ public final class SmithWatermanGotoh implements StringMetric {
 			return 0.0f;
 		}
 
-		float maxDistance = min(codePointLength(a), codePointLength(b)) * max(substitution.max(), gapValue);
-		return smithWatermanGotoh(a, b) / maxDistance;
+		if (isMatchMismatch()) {
+			return normalize(matchMismatch(a, b), a.length(), b.length());
+		}
+
+		return normalize(smithWatermanGotoh(a, b), a.length(), b.length());
+	}
+
+	/**
+	 * Prepares a query to be compared against many candidates. The query is
+	 * decoded once. When the substitution function is a
+	 * {@link MatchMismatch}, and not a subclass of it, a query profile is
+	 * computed once as well.
+	 * 
+	 * @param query
+	 *            the query to prepare
+	 * @return a metric comparing candidates to the query
+	 * @throws NullPointerException
+	 *             when query is null
+	 */
+	@Override
+	public PreparedStringMetric prepare(final String query) {
+		final CodePoints a = CodePoints.of(query);
+		if (a.isEmpty() || !isMatchMismatch()) {
+			return candidate -> compare(a, CodePoints.of(candidate));
+		}
+
+		final Profile profile = new Profile(a.toArray(), (MatchMismatch) substitution, gapValue);
+		return candidate -> {
+			final CodePoints b = CodePoints.of(candidate);
+			if (b.isEmpty()) {
+				return 0.0f;
+			}
+			return normalize(profile.align(b), a.length(), b.length());
+		};
+	}
+
+	/*
+	 * Subclasses of MatchMismatch may override compare, so only the class
+	 * itself is known to score by equality alone.
+	 */
+	private boolean isMatchMismatch() {
+		return substitution.getClass() == MatchMismatch.class;
 	}
 
-	private float smithWatermanGotoh(final String s, final String t) {
-		
-		float[] v0 = new float[codePointLength(t)];
+	private float normalize(float score, int lengthA, int lengthB) {
+		float maxDistance = min(lengthA, lengthB) * max(substitution.max(), gapValue);
+		return score / maxDistance;
+	}
+
+	/**
+	 * Aligns a and b without calling the substitution function. Only used for
+	 * single comparisons, building a {@link Profile} would not pay off.
+	 */
+	private float matchMismatch(final CodePoints a, final CodePoints b) {
+		final int[] query = b.toArray();
+		final float match = substitution.max();
+		final float mismatch = substitution.min();
+		final float gapValue = this.gapValue;
+		final float[] row = new float[query.length + 1];
+		float max = 0;
+
+		for (int i = 0, length = a.length(); i < length; i++) {
+			final int codePoint = a.codePointAt(i);
+			float diagonal = 0;
+			float left = 0;
+			for (int j = 0; j < query.length; j++) {
+				final float up = row[j + 1];
+				final float score = query[j] == codePoint ? match : mismatch;
+				final float h = maxScore(maxScore(diagonal + score, up + gapValue), maxScore(left + gapValue, 0));
+				diagonal = up;
+				row[j + 1] = h;
+				left = h;
+				max = maxScore(max, h);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Comparison based maximum. Scores are never NaN or negative zero so
+	 * unlike {@link java.lang.Math#max(float, float)} these cases need not be
+	 * handled.
+	 */
+	private static float maxScore(float a, float b) {
+		return a >= b ? a : b;
+	}
+
+	private float smithWatermanGotoh(final CodePoints a, final CodePoints b) {
+		final SubstitutionTable table = SubstitutionTable.compile(substitution, a.toArray(), b.toArray());
+
+		float[] v0 = new float[b.length()];
 		float[] v1 = new float[v0.length];
 
-		float max = v0[0] = max(0, gapValue, substitution.compare(s, 0, t, 0));
+		float max = v0[0] = max(0, gapValue, table.compare(0, 0));
 
 		for (int j = 1; j < v0.length; j++) {
 			v0[j] = max(0, v0[j - 1] + gapValue,
-					substitution.compare(s, 0, t, j));
+					table.compare(0, j));
 
 			max = max(max, v0[j]);
 		}
 
 		// Find max
-		for (int i = 1, length = codePointLength(s) ; i < length; i++) {
-			v1[0] = max(0, v0[0] + gapValue, substitution.compare(s, i, t, 0));
+		for (int i = 1, length = a.length(); i < length; i++) {
+			v1[0] = max(0, v0[0] + gapValue, table.compare(i, 0));
 
 			max = max(max, v1[0]);
 
 			for (int j = 1; j < v0.length; j++) {
 				v1[j] = max(0, v0[j] + gapValue, v1[j - 1] + gapValue,
-						v0[j - 1] + substitution.compare(s, i, t, j));
+						v0[j - 1] + table.compare(i, j));
 
 				max = max(max, v1[j]);
 			}
 
-			System.arraycopy(v1, 0, v0, 0, v0.length);
+			final float[] swap = v0;
+			v0 = v1;
+			v1 = swap;
 		}
 
 		return max;
 	}
 
+	/**
+	 * A query profile for a match-mismatch substitution function.
+	 * <p>
+	 * For each distinct code point in the query the profile holds the score of
+	 * substituting it for each position in the query. Code points that do not
+	 * occur in the query share a row of mismatches. This replaces the call to
+	 * the substitution function in the inner loop with an array load.
+	 * <p>
+	 * The profile produces exactly the same scores as
+	 * {@link SmithWatermanGotoh#smithWatermanGotoh(CodePoints, CodePoints)}.
+	 * <p>
+	 * This class is immutable and thread-safe.
+	 */
+	private static final class Profile {
+
+		private final int length;
+		private final float gapValue;
+		private final int[] symbols;
+		private final float[][] scores;
+		private final float[] mismatches;
+
+		Profile(int[] query, MatchMismatch substitution, float gapValue) {
+			this.length = query.length;
+			this.gapValue = gapValue;
+			this.symbols = IntStream.of(query).distinct().sorted().toArray();
+			this.scores = new float[symbols.length][query.length];
+			this.mismatches = new float[query.length];
+
+			final float match = substitution.max();
+			final float mismatch = substitution.min();
+			for (int s = 0; s < symbols.length; s++) {
+				for (int j = 0; j < query.length; j++) {
+					scores[s][j] = query[j] == symbols[s] ? match : mismatch;
+				}
+			}
+			Arrays.fill(mismatches, mismatch);
+		}
+
+		private float[] scores(int codePoint) {
+			final int index = Arrays.binarySearch(symbols, codePoint);
+			return index < 0 ? mismatches : scores[index];
+		}
+
+		float align(CodePoints target) {
+			// Row of the previous iteration, offset by one so the left border
+			// is always 0. Each cell is overwritten once it is no longer
+			// needed as the diagonal.
+			final float[] row = new float[length + 1];
+			final float gapValue = this.gapValue;
+			float max = 0;
+
+			for (int i = 0, targetLength = target.length(); i < targetLength; i++) {
+				final float[] profile = scores(target.codePointAt(i));
+				float diagonal = 0;
+				float left = 0;
+				for (int j = 0; j < length; j++) {
+					final float up = row[j + 1];
+					final float h = maxScore(maxScore(diagonal + profile[j], up + gapValue),
+							maxScore(left + gapValue, 0));
+					diagonal = up;
+					row[j + 1] = h;
+					left = h;
+					max = maxScore(max, h);
+				}
+			}
+			return max;
+		}
+
+	}
+
 	@Override
 	public String toString() {
 		return "SmithWatermanGotoh [substitution=" + substitution + ", gapValue="
@@ -0,0 +1,191 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.sqrt;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * A sparse vector of floats. Only the non-zero dimensions are stored as
+ * parallel arrays of ascending indices and values. The L1 and L2 norms of the
+ * vector are computed once when it is created so comparing one vector against
+ * many others only requires merging the stored dimensions.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see CosineSimilarity#compare(SparseVector, SparseVector)
+ * @see EuclideanDistance#distance(SparseVector, SparseVector)
+ * @see BlockDistance#distance(SparseVector, SparseVector)
+ */
+public final class SparseVector {
+
+	final int[] indices;
+	final float[] values;
+	final float norm;
+	final float l1Norm;
+
+	private SparseVector(int[] indices, float[] values) {
+		this.indices = indices;
+		this.values = values;
+		this.norm = (float) sqrt(VectorMath.dotProduct(values, values));
+		this.l1Norm = VectorMath.absoluteSum(values);
+	}
+
+	/**
+	 * Creates a vector with the given values at the given indices. All other
+	 * dimensions are zero.
+	 *
+	 * @param indices
+	 *            the non-negative indices, the array is copied
+	 * @param values
+	 *            the values at the indices, the array is copied
+	 * @return a vector
+	 * @throws NullPointerException
+	 *             when either indices or values is null
+	 * @throws IllegalArgumentException
+	 *             when indices and values differ in length, an index is
+	 *             negative or an index occurs more then once
+	 */
+	public static SparseVector of(int[] indices, float[] values) {
+		requireNonNull(indices);
+		requireNonNull(values);
+		checkArgument(indices.length == values.length, "indices and values must have the same length");
+
+		final int[] sortedIndices = indices.clone();
+		final float[] sortedValues = values.clone();
+		if (!isAscending(sortedIndices)) {
+			sort(sortedIndices, sortedValues);
+		}
+		for (int i = 0; i < sortedIndices.length; i++) {
+			checkArgument(sortedIndices[i] >= 0, "indices must be non-negative");
+			checkArgument(i == 0 || sortedIndices[i - 1] != sortedIndices[i], "indices must be distinct");
+		}
+		return new SparseVector(sortedIndices, sortedValues);
+	}
+
+	/**
+	 * Creates a vector of token counts. Each token id becomes a dimension with
+	 * its number of occurrences as value.
+	 *
+	 * @param multiset
+	 *            the multiset of token ids
+	 * @return a vector of token counts
+	 * @throws IllegalArgumentException
+	 *             when an id is negative or larger than the largest int, as
+	 *             fingerprints typically are
+	 */
+	public static SparseVector of(TokenIdMultiset multiset) {
+		final int[] indices = new int[multiset.ids.length];
+		final float[] values = new float[multiset.counts.length];
+		for (int i = 0; i < values.length; i++) {
+			final long id = multiset.ids[i];
+			checkArgument(id >= 0 && id <= Integer.MAX_VALUE, "ids must be non-negative ints");
+			indices[i] = (int) id;
+			values[i] = multiset.counts[i];
+		}
+		return new SparseVector(indices, values);
+	}
+
+	private static boolean isAscending(int[] indices) {
+		for (int i = 1; i < indices.length; i++) {
+			if (indices[i - 1] > indices[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void sort(int[] indices, float[] values) {
+		final long[] pairs = new long[indices.length];
+		for (int i = 0; i < pairs.length; i++) {
+			// Index in the high bits, position in the low bits
+			pairs[i] = ((long) indices[i] << 32) | i;
+		}
+		Arrays.sort(pairs);
+		final float[] unsorted = values.clone();
+		for (int i = 0; i < pairs.length; i++) {
+			indices[i] = (int) (pairs[i] >> 32);
+			values[i] = unsorted[(int) pairs[i]];
+		}
+	}
+
+	/**
+	 * Returns the number of stored dimensions.
+	 *
+	 * @return the number of stored dimensions
+	 */
+	public int size() {
+		return indices.length;
+	}
+
+	/**
+	 * Returns the value at the given dimension.
+	 *
+	 * @param index
+	 *            the dimension
+	 * @return the value at the given dimension, zero when not stored
+	 */
+	public float get(int index) {
+		final int i = Arrays.binarySearch(indices, index);
+		return i < 0 ? 0.0f : values[i];
+	}
+
+	/**
+	 * Returns the euclidean (L2) norm of this vector.
+	 *
+	 * @return the euclidean norm
+	 */
+	public float norm() {
+		return norm;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof SparseVector)) {
+			return false;
+		}
+		final SparseVector that = (SparseVector) o;
+		return Arrays.equals(indices, that.indices) && Arrays.equals(values, that.values);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(indices) + Arrays.hashCode(values);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("{");
+		for (int i = 0; i < indices.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(indices[i]).append('=').append(values[i]);
+		}
+		return builder.append('}').toString();
+	}
+
+}
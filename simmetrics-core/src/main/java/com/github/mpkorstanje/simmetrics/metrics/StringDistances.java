@@ -167,12 +167,13 @@ public final class StringDistances {
 	/**
 	 * Returns a string distance metric that uses a
 	 * {@link Tokenizers#qGramWithPadding(int)} for {@code q=3} and the
-	 * {@link BlockDistance} metric.
+	 * {@link BlockDistance} metric. The tri-grams are compared by fingerprint
+	 * rather than as strings.
 	 * 
 	 * @return a q-grams distance metric
 	 */
 	public static StringDistance qGramsDistance() {
-		return with(new BlockDistance<>()).tokenize(Tokenizers.qGramWithPadding(3)).build();
+		return new QGramsDistance();
 	}
 
 	/**
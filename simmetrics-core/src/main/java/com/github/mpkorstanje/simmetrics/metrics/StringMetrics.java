@@ -226,15 +226,15 @@ public final class StringMetrics {
 	/**
 	 * Returns a q-grams distance similarity metric. Q-grams distance applies a
 	 * block distance similarity similarity metric over all tri-grams in a
-	 * string.
+	 * string. The tri-grams are compared by fingerprint rather than as
+	 * strings.
 	 * 
 	 * @return a q-grams distance similarity metric
 	 * 
 	 * @see BlockDistance
 	 */
 	public static StringMetric qGramsDistance() {
-		return with(new BlockDistance<>()).tokenize(Tokenizers.qGramWithPadding(3))
-				.build();
+		return new QGramsDistance();
 	}
 
 	/**
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * Assigns dense integer ids to the tokens produced by a tokenizer. Strings are
+ * tokenized into sets or multisets of ids which set and multiset metrics
+ * compare by merging sorted arrays rather than by hashing strings.
+ * <p>
+ * Ids are assigned in the order in which tokens are first seen, starting at
+ * zero. Profiles created by different dictionaries can not be compared.
+ * <p>
+ * The dictionary grows with every new token it sees. It is thread-safe; when
+ * used concurrently each token is still assigned exactly one id.
+ *
+ * @see Jaccard#compare(TokenIdSet, TokenIdSet)
+ */
+public final class TokenDictionary {
+
+	private final Tokenizer tokenizer;
+
+	private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+	private final AtomicInteger nextId = new AtomicInteger();
+
+	/**
+	 * Constructs a new dictionary for the tokens produced by the tokenizer.
+	 *
+	 * @param tokenizer
+	 *            the tokenizer
+	 */
+	public TokenDictionary(Tokenizer tokenizer) {
+		this.tokenizer = requireNonNull(tokenizer);
+	}
+
+	/**
+	 * Returns the id of a token, assigning a new id if the token was not seen
+	 * before.
+	 *
+	 * @param token
+	 *            the token
+	 * @return the id of the token
+	 */
+	public int id(String token) {
+		requireNonNull(token);
+		final Integer id = ids.get(token);
+		if (id != null) {
+			return id;
+		}
+		return ids.computeIfAbsent(token, t -> nextId.getAndIncrement());
+	}
+
+	/**
+	 * Returns the number of distinct tokens seen by this dictionary.
+	 *
+	 * @return the number of distinct tokens
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Tokenizes the input into a set of token ids.
+	 *
+	 * @param input
+	 *            the input to tokenize
+	 * @return a set of token ids
+	 */
+	public TokenIdSet tokenizeToSet(String input) {
+		return TokenIdSet.of(tokenizeToIds(input));
+	}
+
+	/**
+	 * Tokenizes the input into a multiset of token ids.
+	 *
+	 * @param input
+	 *            the input to tokenize
+	 * @return a multiset of token ids
+	 */
+	public TokenIdMultiset tokenizeToMultiset(String input) {
+		return TokenIdMultiset.of(tokenizeToIds(input));
+	}
+
+	private long[] tokenizeToIds(String input) {
+		final List<String> tokens = tokenizer.tokenizeToList(input);
+		final long[] result = new long[tokens.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = id(tokens.get(i));
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "TokenDictionary [tokenizer=" + tokenizer + ", size=" + size() + "]";
+	}
+
+}
@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * A multiset of tokens represented by long ids. The distinct ids are kept in a
+ * sorted array together with the number of occurrences of each id so two
+ * multisets can be compared by merging their arrays rather than by hashing
+ * each token.
+ * <p>
+ * Ids are typically assigned by a {@link TokenDictionary} or computed as
+ * fingerprints by a {@link QGramHasher}. Multisets can only be compared when
+ * their ids were assigned by the same dictionary or computed by the same
+ * hasher.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see CosineSimilarity#compare(TokenIdMultiset, TokenIdMultiset)
+ */
+public final class TokenIdMultiset {
+
+	private static final TokenIdMultiset EMPTY = new TokenIdMultiset(new long[0], new int[0], 0);
+
+	final long[] ids;
+	final int[] counts;
+	private final int size;
+
+	private TokenIdMultiset(long[] ids, int[] counts, int size) {
+		this.ids = ids;
+		this.counts = counts;
+		this.size = size;
+	}
+
+	/**
+	 * Creates a multiset of the given token ids. Each occurrence of an id is
+	 * counted.
+	 *
+	 * @param ids
+	 *            the token ids, the array is not modified
+	 * @return a multiset of token ids
+	 * @throws NullPointerException
+	 *             when ids is null
+	 */
+	public static TokenIdMultiset of(long... ids) {
+		requireNonNull(ids);
+		if (ids.length == 0) {
+			return EMPTY;
+		}
+
+		final long[] sorted = ids.clone();
+		Arrays.sort(sorted);
+		final int[] counts = new int[sorted.length];
+		int distinct = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (distinct > 0 && sorted[i] == sorted[distinct - 1]) {
+				counts[distinct - 1]++;
+			} else {
+				sorted[distinct] = sorted[i];
+				counts[distinct++] = 1;
+			}
+		}
+		return new TokenIdMultiset(Arrays.copyOf(sorted, distinct), Arrays.copyOf(counts, distinct), ids.length);
+	}
+
+	/**
+	 * Returns the number of tokens in this multiset, including duplicates.
+	 *
+	 * @return the number of tokens in this multiset
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns true if this multiset contains no tokens.
+	 *
+	 * @return true if this multiset contains no tokens
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of occurrences of the token id.
+	 *
+	 * @param id
+	 *            the token id
+	 * @return the number of occurrences of the token id
+	 */
+	public int count(long id) {
+		final int index = Arrays.binarySearch(ids, id);
+		return index < 0 ? 0 : counts[index];
+	}
+
+	/**
+	 * Returns the set of distinct token ids.
+	 *
+	 * @return the set of distinct token ids
+	 */
+	public TokenIdSet elementSet() {
+		return TokenIdSet.of(ids);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof TokenIdMultiset)) {
+			return false;
+		}
+		final TokenIdMultiset that = (TokenIdMultiset) o;
+		return Arrays.equals(ids, that.ids) && Arrays.equals(counts, that.counts);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Arrays.hashCode(ids) + Arrays.hashCode(counts);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder builder = new StringBuilder("[");
+		for (int i = 0; i < ids.length; i++) {
+			if (i > 0) {
+				builder.append(", ");
+			}
+			builder.append(ids[i]);
+			if (counts[i] > 1) {
+				builder.append(" x ").append(counts[i]);
+			}
+		}
+		return builder.append(']').toString();
+	}
+
+}
@@ -0,0 +1,134 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * A set of tokens represented by long ids. The ids are kept in a sorted array
+ * so two sets can be compared by merging their arrays rather than by hashing
+ * each token.
+ * <p>
+ * Ids are typically assigned by a {@link TokenDictionary} or computed as
+ * fingerprints by a {@link QGramHasher}. Sets can only be compared when their
+ * ids were assigned by the same dictionary or computed by the same hasher.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see Jaccard#compare(TokenIdSet, TokenIdSet)
+ */
+public final class TokenIdSet {
+
+	private static final TokenIdSet EMPTY = new TokenIdSet(new long[0]);
+
+	final long[] ids;
+
+	private TokenIdSet(long[] ids) {
+		this.ids = ids;
+	}
+
+	/**
+	 * Creates a set of the given token ids. Duplicate ids are ignored.
+	 *
+	 * @param ids
+	 *            the token ids, the array is not modified
+	 * @return a set of token ids
+	 * @throws NullPointerException
+	 *             when ids is null
+	 */
+	public static TokenIdSet of(long... ids) {
+		requireNonNull(ids);
+		if (ids.length == 0) {
+			return EMPTY;
+		}
+
+		final long[] sorted = ids.clone();
+		Arrays.sort(sorted);
+		int distinct = 1;
+		for (int i = 1; i < sorted.length; i++) {
+			if (sorted[i] != sorted[distinct - 1]) {
+				sorted[distinct++] = sorted[i];
+			}
+		}
+		return new TokenIdSet(distinct == sorted.length ? sorted : Arrays.copyOf(sorted, distinct));
+	}
+
+	/**
+	 * Returns the number of tokens in this set.
+	 *
+	 * @return the number of tokens in this set
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns true if this set contains no tokens.
+	 *
+	 * @return true if this set contains no tokens
+	 */
+	public boolean isEmpty() {
+		return ids.length == 0;
+	}
+
+	/**
+	 * Returns true if this set contains the token id.
+	 *
+	 * @param id
+	 *            the token id
+	 * @return true if this set contains the token id
+	 */
+	public boolean contains(long id) {
+		return Arrays.binarySearch(ids, id) >= 0;
+	}
+
+	/**
+	 * Returns the token ids in ascending order.
+	 *
+	 * @return the token ids in ascending order
+	 */
+	public long[] toArray() {
+		return ids.clone();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof TokenIdSet)) {
+			return false;
+		}
+		return Arrays.equals(ids, ((TokenIdSet) o).ids);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(ids);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(ids);
+	}
+
+}
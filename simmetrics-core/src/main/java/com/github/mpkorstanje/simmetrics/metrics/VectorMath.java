@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.lang.Math.abs;
+
+/**
+ * Kernels over dense and sparse vectors. Dense kernels accumulate into four
+ * independent sums so consecutive iterations do not wait on each other.
+ */
+final class VectorMath {
+
+	private VectorMath() {
+		// Utility class
+	}
+
+	static float dotProduct(float[] a, float[] b) {
+		float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		final int length = a.length;
+		final int unrolled = length & ~3;
+		int i = 0;
+		for (; i < unrolled; i += 4) {
+			s0 += a[i] * b[i];
+			s1 += a[i + 1] * b[i + 1];
+			s2 += a[i + 2] * b[i + 2];
+			s3 += a[i + 3] * b[i + 3];
+		}
+		for (; i < length; i++) {
+			s0 += a[i] * b[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	static float squaredDistance(float[] a, float[] b) {
+		float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		final int length = a.length;
+		final int unrolled = length & ~3;
+		int i = 0;
+		for (; i < unrolled; i += 4) {
+			final float d0 = a[i] - b[i];
+			final float d1 = a[i + 1] - b[i + 1];
+			final float d2 = a[i + 2] - b[i + 2];
+			final float d3 = a[i + 3] - b[i + 3];
+			s0 += d0 * d0;
+			s1 += d1 * d1;
+			s2 += d2 * d2;
+			s3 += d3 * d3;
+		}
+		for (; i < length; i++) {
+			final float d = a[i] - b[i];
+			s0 += d * d;
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	static float absoluteDistance(float[] a, float[] b) {
+		float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		final int length = a.length;
+		final int unrolled = length & ~3;
+		int i = 0;
+		for (; i < unrolled; i += 4) {
+			s0 += abs(a[i] - b[i]);
+			s1 += abs(a[i + 1] - b[i + 1]);
+			s2 += abs(a[i + 2] - b[i + 2]);
+			s3 += abs(a[i + 3] - b[i + 3]);
+		}
+		for (; i < length; i++) {
+			s0 += abs(a[i] - b[i]);
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+	static float absoluteSum(float[] a) {
+		float sum = 0;
+		for (float value : a) {
+			sum += abs(value);
+		}
+		return sum;
+	}
+
+	static float dotProduct(SparseVector a, SparseVector b) {
+		final int[] x = a.indices;
+		final int[] y = b.indices;
+		float dotProduct = 0;
+		int i = 0;
+		int j = 0;
+		while (i < x.length && j < y.length) {
+			if (x[i] < y[j]) {
+				i++;
+			} else if (x[i] > y[j]) {
+				j++;
+			} else {
+				dotProduct += a.values[i++] * b.values[j++];
+			}
+		}
+		return dotProduct;
+	}
+
+	static float squaredDistance(SparseVector a, SparseVector b) {
+		final int[] x = a.indices;
+		final int[] y = b.indices;
+		float sum = 0;
+		int i = 0;
+		int j = 0;
+		while (i < x.length || j < y.length) {
+			final float d;
+			if (j == y.length || (i < x.length && x[i] < y[j])) {
+				d = a.values[i++];
+			} else if (i == x.length || x[i] > y[j]) {
+				d = b.values[j++];
+			} else {
+				d = a.values[i++] - b.values[j++];
+			}
+			sum += d * d;
+		}
+		return sum;
+	}
+
+	static float absoluteDistance(SparseVector a, SparseVector b) {
+		final int[] x = a.indices;
+		final int[] y = b.indices;
+		float sum = 0;
+		int i = 0;
+		int j = 0;
+		while (i < x.length || j < y.length) {
+			if (j == y.length || (i < x.length && x[i] < y[j])) {
+				sum += abs(a.values[i++]);
+			} else if (i == x.length || x[i] > y[j]) {
+				sum += abs(b.values[j++]);
+			} else {
+				sum += abs(a.values[i++] - b.values[j++]);
+			}
+		}
+		return sum;
+	}
+
+}
@@ -56,7 +56,12 @@ public class MatchMismatch implements Substitution {
 
 	@Override
 	public float compare(String a, int aIndex, String b, int bIndex) {
-		return a.codePointAt(aIndex) == b.codePointAt(bIndex) ? matchValue : mismatchValue;
+		return compare(a.codePointAt(aIndex), b.codePointAt(bIndex));
+	}
+
+	@Override
+	public float compare(int a, int b) {
+		return a == b ? matchValue : mismatchValue;
 	}
 
 	@Override
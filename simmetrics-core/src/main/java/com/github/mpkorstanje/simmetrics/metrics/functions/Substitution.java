@@ -54,6 +54,25 @@ public interface Substitution {
 	 */
 	float compare(String a, int aIndex, String b, int bIndex);
 
+	/**
+	 * Rates the substitution of code point <code>a</code> against code point
+	 * <code>b</code>.
+	 * <p>
+	 * The default implementation compares the code points as strings of a
+	 * single code point using {@link #compare(String, int, String, int)}.
+	 * Functions that do not look at the surrounding characters may override
+	 * this to avoid creating the strings.
+	 * 
+	 * @param a
+	 *            a code point
+	 * @param b
+	 *            another code point
+	 * @return a score indicating the code points (dis) similarity
+	 */
+	default float compare(int a, int b) {
+		return compare(new String(Character.toChars(a)), 0, new String(Character.toChars(b)), 0);
+	}
+
 	/**
 	 * Returns the maximum value a gap can have
 	 * 
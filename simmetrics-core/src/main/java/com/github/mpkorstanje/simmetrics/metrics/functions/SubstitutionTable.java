@@ -0,0 +1,164 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics.functions;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+
+/**
+ * A substitution function compiled into a dense table for a pair of code point
+ * sequences.
+ * <p>
+ * For the built-in {@link MatchMismatch} function the code points of both
+ * sequences are remapped to a compact alphabet. The table holds the score of
+ * substituting each symbol of the first alphabet for each symbol of the
+ * second. Scoring a pair of positions is then a lookup rather than a call to
+ * the substitution function. Because each alphabet is no larger than its
+ * sequence, compiling the table never takes more calls to the substitution
+ * function than aligning the sequences would.
+ * <p>
+ * Other substitution functions may look at the characters surrounding the
+ * compared characters. These are called for each pair of positions using
+ * {@link Substitution#compare(String, int, String, int)} with the sequences
+ * and the char indices of the code points.
+ * <p>
+ * This class is immutable and thread-safe.
+ * 
+ * @see Substitution
+ */
+public final class SubstitutionTable {
+
+	private final int[] rows;
+	private final int[] columns;
+	private final float[] scores;
+
+	private final Substitution substitution;
+	private final String a;
+	private final String b;
+
+	private SubstitutionTable(int[] rows, int[] columns, float[] scores) {
+		this.rows = rows;
+		this.columns = columns;
+		this.scores = scores;
+		this.substitution = null;
+		this.a = null;
+		this.b = null;
+	}
+
+	private SubstitutionTable(Substitution substitution, String a, int[] rows, String b, int[] columns) {
+		this.rows = rows;
+		this.columns = columns;
+		this.scores = null;
+		this.substitution = substitution;
+		this.a = a;
+		this.b = b;
+	}
+
+	/**
+	 * Compiles a substitution function for the code points of a and b.
+	 * 
+	 * @param substitution
+	 *            the substitution function to compile
+	 * @param a
+	 *            code points of the first sequence
+	 * @param b
+	 *            code points of the second sequence
+	 * @return a table of substitution scores
+	 * @throws NullPointerException
+	 *             when either argument is null
+	 */
+	public static SubstitutionTable compile(Substitution substitution, int[] a, int[] b) {
+		requireNonNull(substitution);
+		if (substitution.getClass() != MatchMismatch.class) {
+			return new SubstitutionTable(substitution,
+					new String(a, 0, a.length), charIndices(a),
+					new String(b, 0, b.length), charIndices(b));
+		}
+
+		final int[] alphabetA = alphabet(a);
+		final int[] alphabetB = alphabet(b);
+
+		final float[] scores = new float[alphabetA.length * alphabetB.length];
+		for (int i = 0; i < alphabetA.length; i++) {
+			for (int j = 0; j < alphabetB.length; j++) {
+				scores[i * alphabetB.length + j] = substitution.compare(alphabetA[i], alphabetB[j]);
+			}
+		}
+
+		final int[] rows = new int[a.length];
+		for (int i = 0; i < a.length; i++) {
+			rows[i] = Arrays.binarySearch(alphabetA, a[i]) * alphabetB.length;
+		}
+		final int[] columns = new int[b.length];
+		for (int j = 0; j < b.length; j++) {
+			columns[j] = Arrays.binarySearch(alphabetB, b[j]);
+		}
+		return new SubstitutionTable(rows, columns, scores);
+	}
+
+	private static int[] charIndices(int[] codePoints) {
+		final int[] indices = new int[codePoints.length];
+		int index = 0;
+		for (int i = 0; i < codePoints.length; i++) {
+			indices[i] = index;
+			index += Character.charCount(codePoints[i]);
+		}
+		return indices;
+	}
+
+	private static int[] alphabet(int[] codePoints) {
+		final int[] sorted = codePoints.clone();
+		Arrays.sort(sorted);
+		int size = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (size == 0 || sorted[size - 1] != sorted[i]) {
+				sorted[size++] = sorted[i];
+			}
+		}
+		return Arrays.copyOf(sorted, size);
+	}
+
+	/**
+	 * Rates the substitution of the code point at <code>aIndex</code> in the
+	 * first sequence against the code point at <code>bIndex</code> in the
+	 * second sequence.
+	 * 
+	 * @param aIndex
+	 *            index of a code point in the first sequence
+	 * @param bIndex
+	 *            index of a code point in the second sequence
+	 * @return a score indicating the code points (dis) similarity
+	 * @throws IndexOutOfBoundsException
+	 *             when either index is out of bounds
+	 */
+	public float compare(int aIndex, int bIndex) {
+		if (scores == null) {
+			return substitution.compare(a, rows[aIndex], b, columns[bIndex]);
+		}
+		return scores[rows[aIndex] + columns[bIndex]];
+	}
+
+	@Override
+	public String toString() {
+		return "SubstitutionTable [rows=" + rows.length + ", columns=" + columns.length + "]";
+	}
+
+}
@@ -0,0 +1,314 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+
+/**
+ * A Burkhard-Keller tree over a collection of strings. The tree answers
+ * radius and nearest neighbour queries for any distance that satisfies the
+ * triangle inequality, e.g. Levenshtein, Damerau-Levenshtein or Hamming
+ * distance.
+ * <p>
+ * Each node holds a string. The children of a node are grouped by their
+ * distance to it. By the triangle inequality a query at distance {@code d}
+ * from a node can only be within {@code r} of strings in the groups with a
+ * distance between {@code d - r} and {@code d + r}. Other groups are never
+ * visited.
+ * <p>
+ * The tree is built at once from a collection of strings and stored in flat
+ * arrays. Results are ordered by distance. Strings at the same distance are
+ * ordered by their position in the collection.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see <a href="https://doi.org/10.1145/362003.362025">Burkhard and Keller.
+ *      Some approaches to best-match file searching</a>
+ */
+public final class BkTree {
+
+	private static final Comparator<Neighbour> CLOSEST_FIRST = Comparator
+			.comparingDouble((Neighbour n) -> n.distance)
+			.thenComparingInt(n -> n.index);
+
+	private final StringDistance distance;
+
+	private final String[] strings;
+
+	/**
+	 * Node 0 is the root. The children of each node are stored consecutively
+	 * and ordered by their distance to the parent.
+	 */
+	private final int[] indices;
+	private final float[] parentDistances;
+	private final int[] firstChild;
+	private final int[] childCount;
+
+	private BkTree(StringDistance distance, String[] strings) {
+		this.distance = distance;
+		this.strings = strings;
+
+		final int size = strings.length;
+		this.indices = new int[size];
+		this.parentDistances = new float[size];
+		this.firstChild = new int[size];
+		this.childCount = new int[size];
+
+		if (size == 0) {
+			return;
+		}
+
+		// Built breadth first without recursion; degenerate trees are deep
+		final Deque<Subtree> pending = new ArrayDeque<>();
+		indices[0] = 0;
+		final int[] rest = new int[size - 1];
+		Arrays.setAll(rest, i -> i + 1);
+		pending.add(new Subtree(0, rest));
+
+		int nodes = 1;
+		while (!pending.isEmpty()) {
+			final Subtree subtree = pending.poll();
+			final int node = subtree.node;
+			final int[] members = subtree.members;
+			firstChild[node] = nodes;
+			if (members.length == 0) {
+				continue;
+			}
+
+			final String value = strings[indices[node]];
+			final Neighbour[] byDistance = new Neighbour[members.length];
+			for (int i = 0; i < members.length; i++) {
+				byDistance[i] = new Neighbour(members[i], distance.distance(value, strings[members[i]]));
+			}
+			Arrays.sort(byDistance, CLOSEST_FIRST);
+
+			// The first member of each group becomes a child, the rest its subtree
+			int start = 0;
+			while (start < byDistance.length) {
+				int end = start + 1;
+				while (end < byDistance.length && byDistance[end].distance == byDistance[start].distance) {
+					end++;
+				}
+				final int child = nodes++;
+				indices[child] = byDistance[start].index;
+				parentDistances[child] = byDistance[start].distance;
+				childCount[node]++;
+
+				final int[] grandChildren = new int[end - start - 1];
+				for (int i = start + 1; i < end; i++) {
+					grandChildren[i - start - 1] = byDistance[i].index;
+				}
+				pending.add(new Subtree(child, grandChildren));
+				start = end;
+			}
+		}
+	}
+
+	/**
+	 * Creates a tree over the given strings.
+	 *
+	 * @param strings
+	 *            the strings to index
+	 * @param distance
+	 *            the distance; must satisfy the triangle inequality
+	 * @return a new tree
+	 */
+	public static BkTree create(Collection<String> strings, StringDistance distance) {
+		requireNonNull(distance);
+		final String[] array = strings.toArray(new String[0]);
+		for (String string : array) {
+			requireNonNull(string);
+		}
+		return new BkTree(distance, array);
+	}
+
+	/**
+	 * Returns the number of indexed strings.
+	 *
+	 * @return the number of indexed strings
+	 */
+	public int size() {
+		return strings.length;
+	}
+
+	/**
+	 * Finds all strings within the given distance of the query.
+	 *
+	 * @param query
+	 *            the query
+	 * @param radius
+	 *            the maximum distance, inclusive
+	 * @return the strings within the radius and their distance to the query,
+	 *         ordered from closest to furthest
+	 * @throws IllegalArgumentException
+	 *             when the radius is negative
+	 */
+	public List<ScoredCandidate> within(String query, float radius) {
+		requireNonNull(query);
+		checkArgument(radius >= 0, "radius must be non-negative");
+
+		final List<Neighbour> result = new ArrayList<>();
+		if (strings.length == 0) {
+			return toList(result);
+		}
+
+		final Deque<Integer> pending = new ArrayDeque<>();
+		pending.push(0);
+		while (!pending.isEmpty()) {
+			final int node = pending.pop();
+			final float d = distance.distance(query, strings[indices[node]]);
+			if (d <= radius) {
+				result.add(new Neighbour(indices[node], d));
+			}
+			final int to = firstChild[node] + childCount[node];
+			for (int child = firstWithDistance(node, d - radius); child < to
+					&& parentDistances[child] <= d + radius; child++) {
+				pending.push(child);
+			}
+		}
+		result.sort(CLOSEST_FIRST);
+		return toList(result);
+	}
+
+	/**
+	 * Finds the k strings closest to the query.
+	 *
+	 * @param query
+	 *            the query
+	 * @param k
+	 *            the maximum number of strings to return
+	 * @return at most k strings and their distance to the query, ordered from
+	 *         closest to furthest
+	 * @throws IllegalArgumentException
+	 *             when k is not positive
+	 */
+	public List<ScoredCandidate> nearest(String query, int k) {
+		requireNonNull(query);
+		checkArgument(k > 0, "k must be positive");
+
+		// Furthest neighbour at the head
+		final PriorityQueue<Neighbour> best = new PriorityQueue<>(CLOSEST_FIRST.reversed());
+		if (strings.length == 0) {
+			return toList(new ArrayList<>(best));
+		}
+
+		// Subtrees and a lower bound for the distance of their strings
+		final Deque<Neighbour> pending = new ArrayDeque<>();
+		pending.push(new Neighbour(0, 0.0f));
+		while (!pending.isEmpty()) {
+			final Neighbour next = pending.pop();
+			if (best.size() == k && next.distance > best.peek().distance) {
+				continue;
+			}
+			final int node = next.index;
+			final float d = distance.distance(query, strings[indices[node]]);
+			final Neighbour candidate = new Neighbour(indices[node], d);
+			if (best.size() < k) {
+				best.add(candidate);
+			} else if (CLOSEST_FIRST.compare(candidate, best.peek()) < 0) {
+				best.poll();
+				best.add(candidate);
+			}
+
+			final float radius = best.size() == k ? best.peek().distance : Float.POSITIVE_INFINITY;
+			final int from = firstWithDistance(node, d - radius);
+			int to = from;
+			while (to < firstChild[node] + childCount[node] && parentDistances[to] <= d + radius) {
+				to++;
+			}
+			// Push the furthest groups first so the closest are visited first
+			for (int lo = from, hi = to - 1; lo <= hi;) {
+				final float lower = d - parentDistances[lo];
+				final float upper = parentDistances[hi] - d;
+				if (lower >= upper) {
+					pending.push(new Neighbour(lo, lower));
+					lo++;
+				} else {
+					pending.push(new Neighbour(hi, upper));
+					hi--;
+				}
+			}
+		}
+
+		final List<Neighbour> result = new ArrayList<>(best);
+		result.sort(CLOSEST_FIRST);
+		return toList(result);
+	}
+
+	private int firstWithDistance(int node, float distance) {
+		int low = firstChild[node];
+		int high = low + childCount[node];
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (parentDistances[middle] < distance) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private List<ScoredCandidate> toList(List<Neighbour> neighbours) {
+		final List<ScoredCandidate> result = new ArrayList<>(neighbours.size());
+		for (Neighbour neighbour : neighbours) {
+			result.add(new ScoredCandidate(strings[neighbour.index], neighbour.distance));
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "BkTree [distance=" + distance + ", size=" + strings.length + "]";
+	}
+
+	private static final class Subtree {
+		final int node;
+		final int[] members;
+
+		Subtree(int node, int[] members) {
+			this.node = node;
+			this.members = members;
+		}
+	}
+
+	private static final class Neighbour {
+		final int index;
+		final float distance;
+
+		Neighbour(int index, float distance) {
+			this.index = index;
+			this.distance = distance;
+		}
+	}
+
+}
@@ -0,0 +1,474 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+
+/**
+ * The distances between all pairs of strings in a list.
+ * <p>
+ * Because distances are symmetric only the pairs {@code i < j} are computed
+ * and stored. They are packed row by row into {@code n * (n - 1) / 2} floats,
+ * the distance of {@code (i, j)} being stored at
+ * {@code i * (2n - i - 1) / 2 + (j - i - 1)}. The distance of a string to
+ * itself is zero.
+ * <p>
+ * The matrix is computed in parallel. The pairs are divided into square
+ * tiles on and above the diagonal. A tile compares a block of rows against a
+ * block of columns so the columns stay in cache, using
+ * {@link StringDistance#distanceAll(String, List, float[])} to do work that
+ * only depends on the row once.
+ * <p>
+ * A matrix is stored on the heap, or, when it is too large for the heap, in
+ * a memory-mapped file. A file contains the packed distances as big-endian
+ * floats. The mapping of a file is only released once the matrix has been
+ * garbage collected. Until then the file remains open, so on some platforms
+ * it can not be deleted or overwritten while the matrix is reachable.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class DistanceMatrix {
+
+	/**
+	 * Number of rows and columns in a tile.
+	 */
+	private static final int TILE_SIZE = 256;
+
+	/**
+	 * Number of tiles below which the computation is not split further.
+	 */
+	private static final int PARTITION_SIZE = 4;
+
+	/**
+	 * Largest number of distances stored in an array.
+	 */
+	private static final long MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Number of distances in a single mapped region of a file, 1 GiB.
+	 */
+	private static final int SEGMENT_LENGTH = 1 << 28;
+
+	private final int size;
+
+	private final Storage storage;
+
+	private DistanceMatrix(int size, Storage storage) {
+		this.size = size;
+		this.storage = storage;
+	}
+
+	/**
+	 * Computes the distance between all pairs of strings in the common
+	 * fork-join pool. The matrix is stored on the heap.
+	 *
+	 * @param items
+	 *            the strings to compare
+	 * @param distance
+	 *            the distance to measure
+	 * @return the distances between all pairs of strings
+	 * @throws IllegalArgumentException
+	 *             when there are too many strings to store the matrix on the
+	 *             heap, as a single array or within the maximum heap size
+	 */
+	public static DistanceMatrix compute(List<String> items, StringDistance distance) {
+		return compute(items, distance, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the distance between all pairs of strings in the given pool.
+	 * The matrix is stored on the heap.
+	 *
+	 * @param items
+	 *            the strings to compare
+	 * @param distance
+	 *            the distance to measure
+	 * @param pool
+	 *            the pool to compute in
+	 * @return the distances between all pairs of strings
+	 * @throws IllegalArgumentException
+	 *             when there are too many strings to store the matrix on the
+	 *             heap, as a single array or within the maximum heap size
+	 */
+	public static DistanceMatrix compute(List<String> items, StringDistance distance, ForkJoinPool pool) {
+		requireNonNull(distance);
+		return computeOnHeap(items, distance::distanceAll, pool);
+	}
+
+	/**
+	 * Computes the distance between all pairs of strings in the given pool.
+	 * The matrix is stored in a memory-mapped file. An existing file is
+	 * overwritten. The file stays mapped until the matrix is garbage
+	 * collected.
+	 *
+	 * @param items
+	 *            the strings to compare
+	 * @param distance
+	 *            the distance to measure
+	 * @param pool
+	 *            the pool to compute in
+	 * @param file
+	 *            the file to store the matrix in
+	 * @return the distances between all pairs of strings
+	 * @throws IOException
+	 *             when the file could not be mapped
+	 */
+	public static DistanceMatrix compute(List<String> items, StringDistance distance, ForkJoinPool pool, Path file)
+			throws IOException {
+		requireNonNull(distance);
+		return computeMapped(items, distance::distanceAll, pool, file, SEGMENT_LENGTH);
+	}
+
+	/**
+	 * Computes the distance between all pairs of strings in the common
+	 * fork-join pool. The distance between a pair is
+	 * {@code 1 - metric.compare(a, b)}. The matrix is stored on the heap.
+	 *
+	 * @param items
+	 *            the strings to compare
+	 * @param metric
+	 *            the metric to measure
+	 * @return the distances between all pairs of strings
+	 * @throws IllegalArgumentException
+	 *             when there are too many strings to store the matrix on the
+	 *             heap, as a single array or within the maximum heap size
+	 */
+	public static DistanceMatrix computeFromMetric(List<String> items, StringMetric metric) {
+		return computeFromMetric(items, metric, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Computes the distance between all pairs of strings in the given pool.
+	 * The distance between a pair is {@code 1 - metric.compare(a, b)}. The
+	 * matrix is stored on the heap.
+	 *
+	 * @param items
+	 *            the strings to compare
+	 * @param metric
+	 *            the metric to measure
+	 * @param pool
+	 *            the pool to compute in
+	 * @return the distances between all pairs of strings
+	 * @throws IllegalArgumentException
+	 *             when there are too many strings to store the matrix on the
+	 *             heap, as a single array or within the maximum heap size
+	 */
+	public static DistanceMatrix computeFromMetric(List<String> items, StringMetric metric, ForkJoinPool pool) {
+		return computeOnHeap(items, rows(metric), pool);
+	}
+
+	/**
+	 * Computes the distance between all pairs of strings in the given pool.
+	 * The distance between a pair is {@code 1 - metric.compare(a, b)}. The
+	 * matrix is stored in a memory-mapped file. An existing file is
+	 * overwritten. The file stays mapped until the matrix is garbage
+	 * collected.
+	 *
+	 * @param items
+	 *            the strings to compare
+	 * @param metric
+	 *            the metric to measure
+	 * @param pool
+	 *            the pool to compute in
+	 * @param file
+	 *            the file to store the matrix in
+	 * @return the distances between all pairs of strings
+	 * @throws IOException
+	 *             when the file could not be mapped
+	 */
+	public static DistanceMatrix computeFromMetric(List<String> items, StringMetric metric, ForkJoinPool pool, Path file)
+			throws IOException {
+		return computeMapped(items, rows(metric), pool, file, SEGMENT_LENGTH);
+	}
+
+	private static Row rows(StringMetric metric) {
+		requireNonNull(metric);
+		return (query, candidates, distances) -> {
+			metric.compareAll(query, candidates, distances);
+			for (int i = 0; i < candidates.size(); i++) {
+				distances[i] = 1.0f - distances[i];
+			}
+		};
+	}
+
+	private static DistanceMatrix computeOnHeap(List<String> items, Row row, ForkJoinPool pool) {
+		final List<String> list = randomAccess(requireNonNull(items));
+		final long length = length(list.size());
+		checkFitsOnHeap(length, Runtime.getRuntime().maxMemory());
+		return compute(list, row, pool, new HeapStorage(new float[(int) length]));
+	}
+
+	/**
+	 * Checks that the distances fit in a single array and in the maximum
+	 * heap. Memory already in use is not taken into account, so a matrix close
+	 * to the maximum may still fail to allocate.
+	 */
+	static void checkFitsOnHeap(long length, long maxMemory) {
+		checkArgument(length <= MAX_ARRAY_LENGTH && length * Float.BYTES <= maxMemory,
+				"too many items to store on the heap, use a file instead");
+	}
+
+	static DistanceMatrix computeMapped(List<String> items, Row row, ForkJoinPool pool, Path file, int segmentLength)
+			throws IOException {
+		final List<String> list = randomAccess(requireNonNull(items));
+		requireNonNull(file);
+		final MappedStorage storage = MappedStorage.map(file, length(list.size()), segmentLength);
+		final DistanceMatrix matrix = compute(list, row, pool, storage);
+		storage.force();
+		return matrix;
+	}
+
+	private static DistanceMatrix compute(List<String> items, Row row, ForkJoinPool pool, Storage storage) {
+		requireNonNull(pool);
+		final Computation computation = new Computation(items, row, storage);
+		pool.invoke(new Tiles(computation, 0, computation.tiles()));
+		return new DistanceMatrix(items.size(), storage);
+	}
+
+	private static List<String> randomAccess(List<String> list) {
+		return list instanceof RandomAccess ? list : new ArrayList<>(list);
+	}
+
+	/**
+	 * Returns the number of distances stored for a matrix of the given size.
+	 */
+	private static long length(int size) {
+		return (long) size * (size - 1) / 2;
+	}
+
+	/**
+	 * Returns the position of the distance of (i, j) for i < j.
+	 */
+	private static long index(int size, int i, int j) {
+		return (long) i * (2L * size - i - 1) / 2 + (j - i - 1);
+	}
+
+	/**
+	 * Returns the number of strings in the matrix.
+	 *
+	 * @return the number of strings in the matrix
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the distance between the i-th and j-th string.
+	 *
+	 * @param i
+	 *            the index of a string
+	 * @param j
+	 *            the index of another string
+	 * @return the distance between the i-th and j-th string
+	 * @throws IndexOutOfBoundsException
+	 *             when either i or j is not an index of a string
+	 */
+	public float get(int i, int j) {
+		checkElementIndex(i, size);
+		checkElementIndex(j, size);
+		if (i == j) {
+			return 0.0f;
+		}
+		return i < j ? storage.get(index(size, i, j)) : storage.get(index(size, j, i));
+	}
+
+	@Override
+	public String toString() {
+		return "DistanceMatrix [size=" + size + "]";
+	}
+
+	/**
+	 * Computes the distances between a query and a consecutive run of
+	 * candidates.
+	 */
+	@FunctionalInterface
+	interface Row {
+		void compute(String query, List<String> candidates, float[] distances);
+	}
+
+	private interface Storage {
+		float get(long index);
+
+		void put(long index, float[] distances, int length);
+	}
+
+	private static final class HeapStorage implements Storage {
+		private final float[] distances;
+
+		HeapStorage(float[] distances) {
+			this.distances = distances;
+		}
+
+		@Override
+		public float get(long index) {
+			return distances[(int) index];
+		}
+
+		@Override
+		public void put(long index, float[] distances, int length) {
+			System.arraycopy(distances, 0, this.distances, (int) index, length);
+		}
+	}
+
+	private static final class MappedStorage implements Storage {
+		private final MappedByteBuffer[] regions;
+		private final FloatBuffer[] segments;
+		private final int segmentLength;
+
+		private MappedStorage(MappedByteBuffer[] regions, int segmentLength) {
+			this.regions = regions;
+			this.segments = new FloatBuffer[regions.length];
+			for (int i = 0; i < regions.length; i++) {
+				this.segments[i] = regions[i].asFloatBuffer();
+			}
+			this.segmentLength = segmentLength;
+		}
+
+		static MappedStorage map(Path file, long length, int segmentLength) throws IOException {
+			final int count = (int) ((length + segmentLength - 1) / segmentLength);
+			final MappedByteBuffer[] regions = new MappedByteBuffer[count];
+			try (FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE, TRUNCATE_EXISTING)) {
+				for (int i = 0; i < count; i++) {
+					final long from = (long) i * segmentLength;
+					final long to = min(from + segmentLength, length);
+					regions[i] = channel.map(READ_WRITE, from * Float.BYTES, (to - from) * Float.BYTES);
+				}
+			}
+			return new MappedStorage(regions, segmentLength);
+		}
+
+		@Override
+		public float get(long index) {
+			return segments[(int) (index / segmentLength)].get((int) (index % segmentLength));
+		}
+
+		@Override
+		public void put(long index, float[] distances, int length) {
+			// Runs of distances may cross from one segment into the next
+			for (int i = 0; i < length; i++) {
+				final long position = index + i;
+				segments[(int) (position / segmentLength)].put((int) (position % segmentLength), distances[i]);
+			}
+		}
+
+		void force() {
+			for (MappedByteBuffer region : regions) {
+				region.force();
+			}
+		}
+	}
+
+	private static final class Computation {
+		private final List<String> items;
+		private final Row row;
+		private final Storage storage;
+		private final int blocks;
+
+		Computation(List<String> items, Row row, Storage storage) {
+			this.items = items;
+			this.row = row;
+			this.storage = storage;
+			this.blocks = (items.size() + TILE_SIZE - 1) / TILE_SIZE;
+		}
+
+		/**
+		 * Tiles are numbered row block major. Only the tiles on and above the
+		 * diagonal are computed.
+		 */
+		long tiles() {
+			return (long) blocks * blocks;
+		}
+
+		boolean isTile(long tile) {
+			return tile % blocks >= tile / blocks;
+		}
+
+		void tile(long tile, float[] distances) {
+			final int size = items.size();
+			final int rowFrom = (int) (tile / blocks) * TILE_SIZE;
+			final int rowTo = min(rowFrom + TILE_SIZE, size);
+			final int columnFrom = (int) (tile % blocks) * TILE_SIZE;
+			final int columnTo = min(columnFrom + TILE_SIZE, size);
+
+			for (int i = rowFrom; i < rowTo; i++) {
+				final int from = max(columnFrom, i + 1);
+				if (from >= columnTo) {
+					continue;
+				}
+				row.compute(items.get(i), items.subList(from, columnTo), distances);
+				storage.put(index(size, i, from), distances, columnTo - from);
+			}
+		}
+	}
+
+	private static final class Tiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Computation computation;
+		private final long from;
+		private final long to;
+
+		Tiles(Computation computation, long from, long to) {
+			this.computation = computation;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARTITION_SIZE) {
+				final float[] distances = new float[TILE_SIZE];
+				for (long tile = from; tile < to; tile++) {
+					if (computation.isTile(tile)) {
+						computation.tile(tile, distances);
+					}
+				}
+				return;
+			}
+			final long middle = (from + to) >>> 1;
+			invokeAll(new Tiles(computation, from, middle), new Tiles(computation, middle, to));
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Objects;
+
+/**
+ * A candidate and its score against a query. Depending on the search the
+ * score is either the similarity of or the distance to the query.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ScoredCandidate {
+
+	private final String candidate;
+	private final float score;
+
+	/**
+	 * Constructs a new scored candidate.
+	 *
+	 * @param candidate
+	 *            the candidate
+	 * @param score
+	 *            the score of the candidate
+	 */
+	public ScoredCandidate(String candidate, float score) {
+		this.candidate = requireNonNull(candidate);
+		this.score = score;
+	}
+
+	/**
+	 * Returns the candidate.
+	 *
+	 * @return the candidate
+	 */
+	public String getCandidate() {
+		return candidate;
+	}
+
+	/**
+	 * Returns the score of the candidate.
+	 *
+	 * @return the score of the candidate
+	 */
+	public float getScore() {
+		return score;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ScoredCandidate)) {
+			return false;
+		}
+		ScoredCandidate that = (ScoredCandidate) o;
+		return Float.compare(that.score, score) == 0 && candidate.equals(that.candidate);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(candidate, score);
+	}
+
+	@Override
+	public String toString() {
+		return "ScoredCandidate [candidate=" + candidate + ", score=" + score + "]";
+	}
+
+}
@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Objects;
+
+/**
+ * A pair of strings and their similarity. The pair records the position of
+ * each string in the list it was taken from.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class ScoredPair {
+
+	private final int leftIndex;
+	private final String left;
+	private final int rightIndex;
+	private final String right;
+	private final float score;
+
+	/**
+	 * Constructs a new scored pair.
+	 *
+	 * @param leftIndex
+	 *            the position of the left string
+	 * @param left
+	 *            the left string
+	 * @param rightIndex
+	 *            the position of the right string
+	 * @param right
+	 *            the right string
+	 * @param score
+	 *            the similarity of the strings
+	 */
+	public ScoredPair(int leftIndex, String left, int rightIndex, String right, float score) {
+		this.leftIndex = leftIndex;
+		this.left = requireNonNull(left);
+		this.rightIndex = rightIndex;
+		this.right = requireNonNull(right);
+		this.score = score;
+	}
+
+	/**
+	 * Returns the position of the left string.
+	 *
+	 * @return the position of the left string
+	 */
+	public int getLeftIndex() {
+		return leftIndex;
+	}
+
+	/**
+	 * Returns the left string.
+	 *
+	 * @return the left string
+	 */
+	public String getLeft() {
+		return left;
+	}
+
+	/**
+	 * Returns the position of the right string.
+	 *
+	 * @return the position of the right string
+	 */
+	public int getRightIndex() {
+		return rightIndex;
+	}
+
+	/**
+	 * Returns the right string.
+	 *
+	 * @return the right string
+	 */
+	public String getRight() {
+		return right;
+	}
+
+	/**
+	 * Returns the similarity of the strings.
+	 *
+	 * @return the similarity of the strings
+	 */
+	public float getScore() {
+		return score;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ScoredPair)) {
+			return false;
+		}
+		ScoredPair that = (ScoredPair) o;
+		return leftIndex == that.leftIndex && rightIndex == that.rightIndex && Float.compare(that.score, score) == 0
+				&& left.equals(that.left) && right.equals(that.right);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(leftIndex, left, rightIndex, right, score);
+	}
+
+	@Override
+	public String toString() {
+		return "ScoredPair [leftIndex=" + leftIndex + ", left=" + left + ", rightIndex=" + rightIndex + ", right="
+				+ right + ", score=" + score + "]";
+	}
+
+}
@@ -0,0 +1,560 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.ceil;
+import static java.lang.Math.floor;
+import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.mpkorstanje.simmetrics.SetMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.OverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.metrics.TanimotoCoefficient;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+
+/**
+ * An inverted index over the tokens of a collection of strings. The index
+ * finds all strings whose similarity to a query is at least a threshold
+ * without comparing the query to every string.
+ * <p>
+ * Strings are tokenized into sets, typically with
+ * {@link com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers#qGram(int)}
+ * or
+ * {@link com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers#qGramWithPadding(int)}.
+ * Tokens are ordered by their frequency in the collection, rarest first, and
+ * each token refers to the strings containing it. Candidates are found using
+ * the filters described by Bayardo et al. (All-Pairs) and Xiao et al.
+ * (PPJoin):
+ * <ul>
+ * <li>length filtering; a string can only be similar enough when it has a
+ * similar number of tokens.</li>
+ * <li>prefix filtering; two sets sharing at least {@code α} tokens must share
+ * a token among the first {@code |x| - α + 1} tokens of the query. Only the
+ * rare tokens in this prefix are looked up.</li>
+ * <li>positional filtering; a candidate is dropped when the tokens that
+ * follow the position of a shared token can no longer provide the required
+ * overlap.</li>
+ * </ul>
+ * The remaining candidates are verified by computing their exact similarity.
+ * The results are identical to comparing the query against each string using
+ * the metric.
+ * <p>
+ * Supported metrics are {@link Jaccard}, {@link Dice},
+ * {@link OverlapCoefficient} and {@link TanimotoCoefficient} (the cosine
+ * similarity over sets).
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @see <a href="https://doi.org/10.1145/1242572.1242591">Bayardo et al.
+ *      Scaling up all pairs similarity search</a>
+ * @see <a href="https://doi.org/10.1145/1367497.1367516">Xiao et al.
+ *      Efficient similarity joins for near duplicate detection</a>
+ */
+public final class SetSimilarityIndex {
+
+	private static final Comparator<Result> BEST_FIRST = Comparator
+			.comparingDouble((Result r) -> -r.score)
+			.thenComparingInt(r -> r.index);
+
+	private final Measure measure;
+	private final Simplifier simplifier;
+	private final Tokenizer tokenizer;
+
+	private final String[] strings;
+
+	/**
+	 * Rank of each token in the global order. Rare tokens come first.
+	 */
+	private final Map<String, Integer> ranks;
+
+	/**
+	 * Records ordered by size. Each record is the sorted ranks of its tokens.
+	 */
+	private final int[][] records;
+	private final int[] originalIndex;
+
+	/**
+	 * For each token rank the records containing it, in record order, and the
+	 * position of the token in each record.
+	 */
+	private final int[][] postingRecords;
+	private final int[][] postingPositions;
+
+	private SetSimilarityIndex(Measure measure, Simplifier simplifier, Tokenizer tokenizer,
+			Collection<String> strings) {
+		this.measure = measure;
+		this.simplifier = simplifier;
+		this.tokenizer = tokenizer;
+		this.strings = strings.toArray(new String[0]);
+
+		final List<Set<String>> tokenSets = new ArrayList<>(this.strings.length);
+		final Map<String, Integer> frequencies = new HashMap<>();
+		for (String string : this.strings) {
+			final Set<String> tokens = tokenize(requireNonNull(string));
+			for (String token : tokens) {
+				frequencies.merge(token, 1, Integer::sum);
+			}
+			tokenSets.add(tokens);
+		}
+
+		final String[] tokens = frequencies.keySet().toArray(new String[0]);
+		Arrays.sort(tokens, Comparator.comparingInt((String t) -> frequencies.get(t))
+				.thenComparing(Comparator.naturalOrder()));
+		this.ranks = new HashMap<>(tokens.length * 2);
+		for (int i = 0; i < tokens.length; i++) {
+			ranks.put(tokens[i], i);
+		}
+
+		final Integer[] order = new Integer[this.strings.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingInt((Integer i) -> tokenSets.get(i).size())
+				.thenComparingInt(i -> i));
+
+		this.records = new int[order.length][];
+		this.originalIndex = new int[order.length];
+		for (int i = 0; i < order.length; i++) {
+			records[i] = toRanks(tokenSets.get(order[i]));
+			originalIndex[i] = order[i];
+		}
+
+		this.postingRecords = new int[tokens.length][];
+		this.postingPositions = new int[tokens.length][];
+		for (int i = 0; i < tokens.length; i++) {
+			final int frequency = frequencies.get(tokens[i]);
+			postingRecords[i] = new int[frequency];
+			postingPositions[i] = new int[frequency];
+		}
+		final int[] postingSizes = new int[tokens.length];
+		for (int record = 0; record < records.length; record++) {
+			final int[] recordTokens = records[record];
+			for (int position = 0; position < recordTokens.length; position++) {
+				final int rank = recordTokens[position];
+				postingRecords[rank][postingSizes[rank]] = record;
+				postingPositions[rank][postingSizes[rank]] = position;
+				postingSizes[rank]++;
+			}
+		}
+	}
+
+	/**
+	 * Creates an index over the given strings.
+	 *
+	 * @param strings
+	 *            the strings to index
+	 * @param metric
+	 *            the metric; one of Jaccard, Dice, OverlapCoefficient or
+	 *            TanimotoCoefficient
+	 * @param tokenizer
+	 *            the tokenizer used to split strings into sets of tokens
+	 * @return a new index
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported
+	 */
+	public static SetSimilarityIndex create(Collection<String> strings, SetMetric<String> metric,
+			Tokenizer tokenizer) {
+		return create(strings, metric, input -> input, tokenizer);
+	}
+
+	/**
+	 * Creates an index over the given strings. Strings and queries are
+	 * simplified before they are tokenized.
+	 *
+	 * @param strings
+	 *            the strings to index
+	 * @param metric
+	 *            the metric; one of Jaccard, Dice, OverlapCoefficient or
+	 *            TanimotoCoefficient
+	 * @param simplifier
+	 *            the simplifier applied before tokenization
+	 * @param tokenizer
+	 *            the tokenizer used to split strings into sets of tokens
+	 * @return a new index
+	 * @throws IllegalArgumentException
+	 *             when the metric is not supported
+	 */
+	public static SetSimilarityIndex create(Collection<String> strings, SetMetric<String> metric,
+			Simplifier simplifier, Tokenizer tokenizer) {
+		requireNonNull(strings);
+		requireNonNull(simplifier);
+		requireNonNull(tokenizer);
+		return new SetSimilarityIndex(Measure.of(requireNonNull(metric)), simplifier, tokenizer, strings);
+	}
+
+	/**
+	 * Returns the number of indexed strings.
+	 *
+	 * @return the number of indexed strings
+	 */
+	public int size() {
+		return strings.length;
+	}
+
+	/**
+	 * Finds all indexed strings with a similarity to the query of at least the
+	 * given threshold.
+	 *
+	 * @param query
+	 *            the query
+	 * @param threshold
+	 *            the minimum similarity, greater than 0 and at most 1
+	 * @return the matching strings ordered from most to least similar, ties
+	 *         ordered by their position in the indexed collection
+	 * @throws IllegalArgumentException
+	 *             when the threshold is not in (0, 1]
+	 */
+	public List<ScoredCandidate> search(String query, float threshold) {
+		requireNonNull(query);
+		checkArgument(0.0f < threshold && threshold <= 1.0f, "threshold must be greater than 0 and at most 1");
+
+		final int[] q = toRanks(tokenize(query));
+		final int n = q.length;
+		final List<Result> results = new ArrayList<>();
+
+		if (n == 0) {
+			// Only empty sets are similar to an empty set
+			for (int record = 0; record < records.length && records[record].length == 0; record++) {
+				results.add(new Result(originalIndex[record], 1.0f));
+			}
+			return toList(results);
+		}
+
+		final int minSize = Math.max(1, measure.minSize(n, threshold));
+		final int maxSize = measure.maxSize(n, threshold);
+		final int prefix = n - measure.requiredOverlap(n, minSize, threshold) + 1;
+
+		final Overlaps overlaps = new Overlaps();
+		for (int i = 0; i < prefix; i++) {
+			final int rank = q[i];
+			if (rank < 0) {
+				continue;
+			}
+			final int[] postings = postingRecords[rank];
+			final int[] positions = postingPositions[rank];
+			for (int p = firstWithSize(postings, minSize); p < postings.length; p++) {
+				final int record = postings[p];
+				final int size = records[record].length;
+				if (size > maxSize) {
+					break;
+				}
+				final int overlap = overlaps.get(record);
+				if (overlap == Overlaps.PRUNED) {
+					continue;
+				}
+				final int bound = overlap + 1 + min(n - i - 1, size - positions[p] - 1);
+				if (bound < measure.requiredOverlap(n, size, threshold)) {
+					overlaps.put(record, Overlaps.PRUNED);
+				} else {
+					overlaps.put(record, overlap + 1);
+				}
+			}
+		}
+
+		for (int c = 0; c < overlaps.keys.length; c++) {
+			final int record = overlaps.keys[c];
+			if (record == Overlaps.EMPTY || overlaps.values[c] == Overlaps.PRUNED) {
+				continue;
+			}
+			final int[] candidate = records[record];
+			final float score = measure.similarity(intersection(q, candidate), n, candidate.length);
+			if (score >= threshold) {
+				results.add(new Result(originalIndex[record], score));
+			}
+		}
+		return toList(results);
+	}
+
+	private Set<String> tokenize(String input) {
+		return tokenizer.tokenizeToSet(simplifier.simplify(input));
+	}
+
+	/**
+	 * Returns the sorted ranks of the tokens. Unknown tokens are assigned -1
+	 * and sort first; like rare tokens they are matched by nothing.
+	 */
+	private int[] toRanks(Set<String> tokens) {
+		final int[] result = new int[tokens.size()];
+		int i = 0;
+		for (String token : tokens) {
+			result[i++] = ranks.getOrDefault(token, -1);
+		}
+		Arrays.sort(result);
+		return result;
+	}
+
+	private int firstWithSize(int[] postings, int size) {
+		int low = 0;
+		int high = postings.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (records[postings[middle]].length < size) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static int intersection(int[] a, int[] b) {
+		int intersection = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] < b[j]) {
+				i++;
+			} else if (a[i] > b[j]) {
+				j++;
+			} else {
+				intersection++;
+				i++;
+				j++;
+			}
+		}
+		return intersection;
+	}
+
+	private List<ScoredCandidate> toList(List<Result> results) {
+		results.sort(BEST_FIRST);
+		final List<ScoredCandidate> candidates = new ArrayList<>(results.size());
+		for (Result result : results) {
+			candidates.add(new ScoredCandidate(strings[result.index], result.score));
+		}
+		return candidates;
+	}
+
+	@Override
+	public String toString() {
+		return "SetSimilarityIndex [measure=" + measure + ", simplifier=" + simplifier + ", tokenizer=" + tokenizer
+				+ ", size=" + strings.length + "]";
+	}
+
+	private static final class Result {
+		final int index;
+		final float score;
+
+		Result(int index, float score) {
+			this.index = index;
+			this.score = score;
+		}
+	}
+
+	/**
+	 * Bounds on the size and overlap of sets similar to a set of size
+	 * {@code n}. The bounds are widened slightly so rounding in the float
+	 * similarity never causes a match to be filtered.
+	 */
+	private enum Measure {
+		JACCARD {
+			@Override
+			int minSize(int n, double t) {
+				return lower(t * n);
+			}
+
+			@Override
+			int maxSize(int n, double t) {
+				return upper(n / t);
+			}
+
+			@Override
+			int requiredOverlap(int n, int size, double t) {
+				return lower(t / (1 + t) * (n + size));
+			}
+
+			@Override
+			float similarity(int intersection, int a, int b) {
+				return intersection / (float) (a + b - intersection);
+			}
+		},
+		DICE {
+			@Override
+			int minSize(int n, double t) {
+				return lower(t * n / (2 - t));
+			}
+
+			@Override
+			int maxSize(int n, double t) {
+				return upper((2 - t) * n / t);
+			}
+
+			@Override
+			int requiredOverlap(int n, int size, double t) {
+				return lower(t * (n + size) / 2);
+			}
+
+			@Override
+			float similarity(int intersection, int a, int b) {
+				return (2.0f * intersection) / (a + b);
+			}
+		},
+		OVERLAP_COEFFICIENT {
+			@Override
+			int minSize(int n, double t) {
+				return 1;
+			}
+
+			@Override
+			int maxSize(int n, double t) {
+				return Integer.MAX_VALUE;
+			}
+
+			@Override
+			int requiredOverlap(int n, int size, double t) {
+				return lower(t * min(n, size));
+			}
+
+			@Override
+			float similarity(int intersection, int a, int b) {
+				return intersection / (float) min(a, b);
+			}
+		},
+		TANIMOTO_COEFFICIENT {
+			@Override
+			int minSize(int n, double t) {
+				return lower(t * t * n);
+			}
+
+			@Override
+			int maxSize(int n, double t) {
+				return upper(n / (t * t));
+			}
+
+			@Override
+			int requiredOverlap(int n, int size, double t) {
+				return lower(t * sqrt((double) n * size));
+			}
+
+			@Override
+			float similarity(int intersection, int a, int b) {
+				return (float) (intersection / (sqrt(a) * sqrt(b)));
+			}
+		};
+
+		private static final double SLACK = 1e-5;
+
+		static Measure of(SetMetric<String> metric) {
+			if (metric instanceof Jaccard) {
+				return JACCARD;
+			}
+			if (metric instanceof Dice) {
+				return DICE;
+			}
+			if (metric instanceof OverlapCoefficient) {
+				return OVERLAP_COEFFICIENT;
+			}
+			if (metric instanceof TanimotoCoefficient) {
+				return TANIMOTO_COEFFICIENT;
+			}
+			throw new IllegalArgumentException(
+					"metric must be Jaccard, Dice, OverlapCoefficient or TanimotoCoefficient but was " + metric);
+		}
+
+		private static int lower(double bound) {
+			return Math.max(1, (int) ceil(bound * (1 - SLACK)));
+		}
+
+		private static int upper(double bound) {
+			return (int) min(Integer.MAX_VALUE, floor(bound * (1 + SLACK)));
+		}
+
+		abstract int minSize(int n, double t);
+
+		abstract int maxSize(int n, double t);
+
+		abstract int requiredOverlap(int n, int size, double t);
+
+		abstract float similarity(int intersection, int a, int b);
+	}
+
+	/**
+	 * Open addressing map from record to the overlap counted so far.
+	 */
+	private static final class Overlaps {
+		static final int EMPTY = -1;
+		static final int PRUNED = -1;
+
+		int[] keys = newKeys(16);
+		int[] values = new int[16];
+		int size;
+
+		private static int[] newKeys(int capacity) {
+			final int[] keys = new int[capacity];
+			Arrays.fill(keys, EMPTY);
+			return keys;
+		}
+
+		private int slot(int[] keys, int key) {
+			final int mask = keys.length - 1;
+			int slot = (key * 0x9E3779B9) >>> 1 & mask;
+			while (keys[slot] != EMPTY && keys[slot] != key) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		int get(int key) {
+			final int slot = slot(keys, key);
+			return keys[slot] == EMPTY ? 0 : values[slot];
+		}
+
+		void put(int key, int value) {
+			int slot = slot(keys, key);
+			if (keys[slot] == EMPTY) {
+				if (2 * (size + 1) > keys.length) {
+					grow();
+					slot = slot(keys, key);
+				}
+				keys[slot] = key;
+				size++;
+			}
+			values[slot] = value;
+		}
+
+		private void grow() {
+			final int[] oldKeys = keys;
+			final int[] oldValues = values;
+			keys = newKeys(oldKeys.length * 2);
+			values = new int[oldKeys.length * 2];
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != EMPTY) {
+					final int slot = slot(keys, oldKeys[i]);
+					keys[slot] = oldKeys[i];
+					values[slot] = oldValues[i];
+				}
+			}
+		}
+	}
+
+}
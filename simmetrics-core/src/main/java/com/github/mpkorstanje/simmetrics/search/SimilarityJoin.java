@@ -0,0 +1,271 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+
+/**
+ * Finds all pairs of strings with a similarity of at least a threshold.
+ * <p>
+ * The pair space is divided into square tiles. A tile compares a block of
+ * rows against a block of columns so the columns stay in cache while each row
+ * is compared against them. Each row is prepared once per tile, allowing the
+ * metric to reuse its buffers, and the threshold is passed to
+ * {@link PreparedStringMetric#compare(String, float)} so the metric can
+ * reject pairs early.
+ * <p>
+ * Pairs are produced in no particular order, either through a callback or as
+ * a stream. Pairs are never collected in memory beyond a single tile so large
+ * joins can be processed as they are found.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class SimilarityJoin {
+
+	/**
+	 * Number of rows and columns in a tile.
+	 */
+	private static final int TILE_SIZE = 256;
+
+	/**
+	 * Number of tiles below which a parallel join is not split further.
+	 */
+	private static final int PARTITION_SIZE = 4;
+
+	private SimilarityJoin() {
+		// Utility class
+	}
+
+	/**
+	 * Returns all pairs of distinct positions {@code i < j} in the list with a
+	 * similarity of at least the threshold. The returned stream is
+	 * sequential; it can be processed in parallel using
+	 * {@link Stream#parallel()}.
+	 *
+	 * @param items
+	 *            the strings to join
+	 * @param metric
+	 *            the metric measuring similarity
+	 * @param threshold
+	 *            the minimum similarity, between 0 and 1 inclusive
+	 * @return a stream of similar pairs
+	 * @throws IllegalArgumentException
+	 *             when the threshold is not in [0, 1]
+	 */
+	public static Stream<ScoredPair> selfJoin(List<String> items, StringMetric metric, float threshold) {
+		final Join join = new Join(items, items, metric, threshold, true);
+		return join.tiles().mapToObj(join::tile).flatMap(List::stream);
+	}
+
+	/**
+	 * Finds all pairs of distinct positions {@code i < j} in the list with a
+	 * similarity of at least the threshold. The pairs are found in parallel
+	 * in the given pool and passed to the consumer as they are found.
+	 *
+	 * @param items
+	 *            the strings to join
+	 * @param metric
+	 *            the metric measuring similarity
+	 * @param threshold
+	 *            the minimum similarity, between 0 and 1 inclusive
+	 * @param pool
+	 *            the pool to join in
+	 * @param consumer
+	 *            the consumer of similar pairs, must be thread-safe
+	 * @throws IllegalArgumentException
+	 *             when the threshold is not in [0, 1]
+	 */
+	public static void selfJoin(List<String> items, StringMetric metric, float threshold, ForkJoinPool pool,
+			Consumer<ScoredPair> consumer) {
+		new Join(items, items, metric, threshold, true).run(pool, consumer);
+	}
+
+	/**
+	 * Returns all pairs of a string from the left and a string from the right
+	 * list with a similarity of at least the threshold. The returned stream is
+	 * sequential; it can be processed in parallel using
+	 * {@link Stream#parallel()}.
+	 *
+	 * @param left
+	 *            the left strings
+	 * @param right
+	 *            the right strings
+	 * @param metric
+	 *            the metric measuring similarity
+	 * @param threshold
+	 *            the minimum similarity, between 0 and 1 inclusive
+	 * @return a stream of similar pairs
+	 * @throws IllegalArgumentException
+	 *             when the threshold is not in [0, 1]
+	 */
+	public static Stream<ScoredPair> join(List<String> left, List<String> right, StringMetric metric,
+			float threshold) {
+		final Join join = new Join(left, right, metric, threshold, false);
+		return join.tiles().mapToObj(join::tile).flatMap(List::stream);
+	}
+
+	/**
+	 * Finds all pairs of a string from the left and a string from the right
+	 * list with a similarity of at least the threshold. The pairs are found in
+	 * parallel in the given pool and passed to the consumer as they are found.
+	 *
+	 * @param left
+	 *            the left strings
+	 * @param right
+	 *            the right strings
+	 * @param metric
+	 *            the metric measuring similarity
+	 * @param threshold
+	 *            the minimum similarity, between 0 and 1 inclusive
+	 * @param pool
+	 *            the pool to join in
+	 * @param consumer
+	 *            the consumer of similar pairs, must be thread-safe
+	 * @throws IllegalArgumentException
+	 *             when the threshold is not in [0, 1]
+	 */
+	public static void join(List<String> left, List<String> right, StringMetric metric, float threshold,
+			ForkJoinPool pool, Consumer<ScoredPair> consumer) {
+		new Join(left, right, metric, threshold, false).run(pool, consumer);
+	}
+
+	private static List<String> randomAccess(List<String> list) {
+		return list instanceof RandomAccess ? list : new ArrayList<>(list);
+	}
+
+	private static final class Join {
+		private final List<String> left;
+		private final List<String> right;
+		private final StringMetric metric;
+		private final float threshold;
+		private final boolean self;
+		private final int rowBlocks;
+		private final int columnBlocks;
+
+		Join(List<String> left, List<String> right, StringMetric metric, float threshold, boolean self) {
+			checkArgument(0.0f <= threshold && threshold <= 1.0f, "threshold must be between 0 and 1");
+			this.left = randomAccess(requireNonNull(left));
+			this.right = self ? this.left : randomAccess(requireNonNull(right));
+			this.metric = requireNonNull(metric);
+			this.threshold = threshold;
+			this.self = self;
+			this.rowBlocks = blocks(this.left.size());
+			this.columnBlocks = blocks(this.right.size());
+		}
+
+		private static int blocks(int size) {
+			return (size + TILE_SIZE - 1) / TILE_SIZE;
+		}
+
+		/**
+		 * Tiles are numbered row block major. A self join only uses the tiles
+		 * on and above the diagonal.
+		 */
+		LongStream tiles() {
+			return LongStream.range(0, size()).filter(this::isTile);
+		}
+
+		long size() {
+			return (long) rowBlocks * columnBlocks;
+		}
+
+		boolean isTile(long tile) {
+			return !self || tile % columnBlocks >= tile / columnBlocks;
+		}
+
+		List<ScoredPair> tile(long tile) {
+			final List<ScoredPair> pairs = new ArrayList<>();
+			tile(tile, pairs::add);
+			return pairs;
+		}
+
+		void tile(long tile, Consumer<ScoredPair> consumer) {
+			final int rowFrom = (int) (tile / columnBlocks) * TILE_SIZE;
+			final int rowTo = min(rowFrom + TILE_SIZE, left.size());
+			final int columnFrom = (int) (tile % columnBlocks) * TILE_SIZE;
+			final int columnTo = min(columnFrom + TILE_SIZE, right.size());
+
+			for (int i = rowFrom; i < rowTo; i++) {
+				final String a = left.get(i);
+				final PreparedStringMetric prepared = metric.prepare(a);
+				for (int j = self ? max(columnFrom, i + 1) : columnFrom; j < columnTo; j++) {
+					final String b = right.get(j);
+					final float score = prepared.compare(b, threshold);
+					if (score >= threshold) {
+						consumer.accept(new ScoredPair(i, a, j, b, score));
+					}
+				}
+			}
+		}
+
+		void run(ForkJoinPool pool, Consumer<ScoredPair> consumer) {
+			requireNonNull(pool);
+			requireNonNull(consumer);
+			pool.invoke(new Tiles(this, 0, size(), consumer));
+		}
+	}
+
+	private static final class Tiles extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Join join;
+		private final long from;
+		private final long to;
+		private final Consumer<ScoredPair> consumer;
+
+		Tiles(Join join, long from, long to, Consumer<ScoredPair> consumer) {
+			this.join = join;
+			this.from = from;
+			this.to = to;
+			this.consumer = consumer;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARTITION_SIZE) {
+				for (long tile = from; tile < to; tile++) {
+					if (join.isTile(tile)) {
+						join.tile(tile, consumer);
+					}
+				}
+				return;
+			}
+			final long middle = (from + to) >>> 1;
+			invokeAll(new Tiles(join, from, middle, consumer), new Tiles(join, middle, to, consumer));
+		}
+	}
+
+}
@@ -0,0 +1,243 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+
+/**
+ * Finds the k candidates most similar to a query.
+ * <p>
+ * Candidates are kept in a bounded heap. Once the heap is full only candidates
+ * more similar than the least similar candidate in the heap can enter. This
+ * minimum is passed to {@link PreparedStringMetric#compare(String, float)}
+ * allowing metrics to reject candidates cheaply. E.g. edit distance metrics
+ * reject candidates by the difference in length and set metrics by the
+ * difference in size.
+ * <p>
+ * Candidates with equal similarity are ordered by their position in the
+ * collection of candidates. The result does not depend on whether the search
+ * is executed sequentially or in parallel.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class TopK {
+
+	/**
+	 * Number of candidates below which a parallel search is not split further.
+	 */
+	private static final int PARTITION_SIZE = 1024;
+
+	private static final Comparator<Entry> WORST_FIRST = Comparator
+			.comparingDouble((Entry e) -> e.score)
+			.thenComparing(Comparator.comparingInt((Entry e) -> e.index).reversed());
+
+	private TopK() {
+		// Utility class
+	}
+
+	/**
+	 * Finds the k candidates most similar to the query.
+	 *
+	 * @param query
+	 *            the query
+	 * @param candidates
+	 *            the candidates to search
+	 * @param metric
+	 *            the metric measuring similarity
+	 * @param k
+	 *            the maximum number of candidates to return
+	 * @return at most k candidates ordered from most to least similar
+	 * @throws NullPointerException
+	 *             when any argument or candidate is null
+	 * @throws IllegalArgumentException
+	 *             when k is not positive
+	 */
+	public static List<ScoredCandidate> search(String query, Collection<String> candidates, StringMetric metric,
+			int k) {
+		checkArguments(query, candidates, metric, k);
+
+		final Heap heap = new Heap(k);
+		final PreparedStringMetric prepared = metric.prepare(query);
+		int index = 0;
+		for (String candidate : candidates) {
+			heap.offer(prepared, candidate, index++);
+		}
+		return heap.toList();
+	}
+
+	/**
+	 * Finds the k candidates most similar to the query. The candidates are
+	 * partitioned and searched in parallel in the given pool.
+	 * <p>
+	 * The metric is prepared once for each partition.
+	 *
+	 * @param query
+	 *            the query
+	 * @param candidates
+	 *            the candidates to search
+	 * @param metric
+	 *            the metric measuring similarity
+	 * @param k
+	 *            the maximum number of candidates to return
+	 * @param pool
+	 *            the pool to search in
+	 * @return at most k candidates ordered from most to least similar
+	 * @throws NullPointerException
+	 *             when any argument or candidate is null
+	 * @throws IllegalArgumentException
+	 *             when k is not positive
+	 */
+	public static List<ScoredCandidate> search(String query, Collection<String> candidates, StringMetric metric,
+			int k, ForkJoinPool pool) {
+		checkArguments(query, candidates, metric, k);
+		requireNonNull(pool);
+
+		final List<String> list = candidates instanceof List && candidates instanceof RandomAccess
+				? (List<String>) candidates
+				: new ArrayList<>(candidates);
+
+		return pool.invoke(new Search(query, list, metric, k, 0, list.size())).toList();
+	}
+
+	private static void checkArguments(String query, Collection<String> candidates, StringMetric metric, int k) {
+		requireNonNull(query);
+		requireNonNull(candidates);
+		requireNonNull(metric);
+		checkArgument(k > 0, "k must be positive");
+	}
+
+	private static final class Search extends RecursiveTask<Heap> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final String query;
+		private final List<String> candidates;
+		private final StringMetric metric;
+		private final int k;
+		private final int from;
+		private final int to;
+
+		Search(String query, List<String> candidates, StringMetric metric, int k, int from, int to) {
+			this.query = query;
+			this.candidates = candidates;
+			this.metric = metric;
+			this.k = k;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Heap compute() {
+			if (to - from <= PARTITION_SIZE) {
+				final Heap heap = new Heap(k);
+				final PreparedStringMetric prepared = metric.prepare(query);
+				for (int i = from; i < to; i++) {
+					heap.offer(prepared, candidates.get(i), i);
+				}
+				return heap;
+			}
+
+			final int middle = (from + to) >>> 1;
+			final Search left = new Search(query, candidates, metric, k, from, middle);
+			final Search right = new Search(query, candidates, metric, k, middle, to);
+			left.fork();
+			final Heap heap = right.compute();
+			heap.addAll(left.join());
+			return heap;
+		}
+	}
+
+	private static final class Entry {
+		final String candidate;
+		final float score;
+		final int index;
+
+		Entry(String candidate, float score, int index) {
+			this.candidate = candidate;
+			this.score = score;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Bounded heap keeping the k best entries. The worst entry is at the head.
+	 */
+	private static final class Heap {
+
+		private final int k;
+		private final PriorityQueue<Entry> queue;
+
+		Heap(int k) {
+			this.k = k;
+			this.queue = new PriorityQueue<>(WORST_FIRST);
+		}
+
+		void offer(PreparedStringMetric prepared, String candidate, int index) {
+			requireNonNull(candidate);
+			if (queue.size() < k) {
+				queue.add(new Entry(candidate, prepared.compare(candidate), index));
+				return;
+			}
+
+			// Candidates are offered in order so an equal score never wins
+			final float minimum = queue.peek().score;
+			final float score = prepared.compare(candidate, minimum);
+			if (score > minimum) {
+				queue.poll();
+				queue.add(new Entry(candidate, score, index));
+			}
+		}
+
+		void addAll(Heap other) {
+			for (Entry entry : other.queue) {
+				if (queue.size() < k) {
+					queue.add(entry);
+				} else if (WORST_FIRST.compare(entry, queue.peek()) > 0) {
+					queue.poll();
+					queue.add(entry);
+				}
+			}
+		}
+
+		List<ScoredCandidate> toList() {
+			final List<Entry> entries = new ArrayList<>(queue);
+			entries.sort(WORST_FIRST.reversed());
+			final List<ScoredCandidate> result = new ArrayList<>(entries.size());
+			for (Entry entry : entries) {
+				result.add(new ScoredCandidate(entry.candidate, entry.score));
+			}
+			return result;
+		}
+	}
+
+}
@@ -28,6 +28,7 @@ import static java.util.Objects.requireNonNull;
 import java.text.Normalizer;
 import java.text.Normalizer.Form;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
@@ -79,7 +80,261 @@ public final class Simplifiers {
 		
 	}
 
-	
+	/**
+	 * A chain of built-in simplifiers fused into a single pass over the input.
+	 * <p>
+	 * Each simplifier is compiled into a stage that maps an ASCII character to
+	 * at most one ASCII character, or that replaces the members of an ASCII
+	 * character class. Consecutive mapping stages are combined into one. Each
+	 * character of the input is pushed through all stages into a buffer that
+	 * is reused by the same thread, unless a long input grew it beyond a few
+	 * thousand characters. When the result equals the input, the input is
+	 * returned.
+	 * <p>
+	 * Inputs that contain non-ASCII characters are simplified by each
+	 * simplifier in turn.
+	 * <p>
+	 * This class is thread-safe and immutable.
+	 */
+	static final class FusedSimplifier implements Simplifier {
+
+		private static final int ASCII = 128;
+
+		private static final char REMOVE = '\uFFFF';
+
+		/**
+		 * A single character class, optionally repeated.
+		 */
+		private static final Pattern CHARACTER_CLASS = Pattern
+				.compile("(\\\\[wWdDsS]|\\\\[pP]\\{\\w+\\}|\\[[^\\[\\]]+\\])(\\+?)");
+
+		/**
+		 * Buffers that grew beyond this capacity are replaced after use, so a
+		 * single long input does not pin memory in every thread.
+		 */
+		private static final int MAX_BUFFER_CAPACITY = 1 << 13;
+
+		private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+		/**
+		 * The output and the run flags of each stage, reused by a thread.
+		 */
+		private static final class Buffer {
+			StringBuilder output = new StringBuilder();
+			boolean[] inRun = new boolean[0];
+		}
+
+		private static final class Stage {
+			final char[] map;
+			final boolean[] members;
+			final String replacement;
+			final boolean runs;
+
+			Stage(char[] map, boolean[] members, String replacement, boolean runs) {
+				this.map = map;
+				this.members = members;
+				this.replacement = replacement;
+				this.runs = runs;
+			}
+
+			Stage andThen(Stage next) {
+				if (map == null || next.map == null) {
+					return null;
+				}
+				final char[] combined = new char[ASCII];
+				for (int c = 0; c < ASCII; c++) {
+					combined[c] = map[c] == REMOVE ? REMOVE : next.map[map[c]];
+				}
+				return new Stage(combined, null, null, false);
+			}
+		}
+
+		private final List<Simplifier> simplifiers;
+
+		private final Stage[] stages;
+
+		private FusedSimplifier(List<Simplifier> simplifiers, List<Stage> stages) {
+			this.simplifiers = ImmutableList.copyOf(simplifiers);
+			final List<Stage> combined = new ArrayList<>(stages.size());
+			for (Stage stage : stages) {
+				final Stage last = combined.isEmpty() ? null : combined.get(combined.size() - 1);
+				final Stage both = last == null ? null : last.andThen(stage);
+				if (both != null) {
+					combined.set(combined.size() - 1, both);
+				} else {
+					combined.add(stage);
+				}
+			}
+			this.stages = combined.toArray(new Stage[0]);
+		}
+
+		/**
+		 * Returns the stage of a built-in simplifier, or null when the
+		 * simplifier can not be fused.
+		 */
+		static Stage stage(Simplifier simplifier) {
+			if (simplifier instanceof ReplaceAll) {
+				final ReplaceAll replaceAll = (ReplaceAll) simplifier;
+				return replaceStage(replaceAll.getPattern(), replaceAll.getReplacement());
+			}
+			if (simplifier instanceof ToLowerCase || simplifier instanceof ToUpperCase
+					|| simplifier instanceof Normalize || simplifier instanceof RemoveDiacritics) {
+				return mapStage(simplifier);
+			}
+			return null;
+		}
+
+		/*
+		 * Case conversion, normalization and diacritic removal treat each
+		 * ASCII character on its own. So the stage can be derived from the
+		 * simplifier itself. Locales that map ASCII outside of ASCII can not
+		 * be fused.
+		 */
+		private static Stage mapStage(Simplifier simplifier) {
+			final char[] map = new char[ASCII];
+			for (char c = 0; c < ASCII; c++) {
+				final String simplified = simplifier.simplify(String.valueOf(c));
+				if (simplified.isEmpty()) {
+					map[c] = REMOVE;
+				} else if (simplified.length() == 1 && simplified.charAt(0) < ASCII) {
+					map[c] = simplified.charAt(0);
+				} else {
+					return null;
+				}
+			}
+			return new Stage(map, null, null, false);
+		}
+
+		/*
+		 * A single character class matches one ASCII character at a time. So
+		 * its members can be derived from the pattern. Replacements with
+		 * group references or escapes can not be fused.
+		 */
+		private static Stage replaceStage(Pattern pattern, String replacement) {
+			if ((pattern.flags() & (Pattern.COMMENTS | Pattern.LITERAL)) != 0) {
+				return null;
+			}
+			for (int i = 0; i < replacement.length(); i++) {
+				final char c = replacement.charAt(i);
+				if (c >= ASCII || c == '$' || c == '\\') {
+					return null;
+				}
+			}
+			final Matcher matcher = CHARACTER_CLASS.matcher(pattern.pattern());
+			if (!matcher.matches()) {
+				return null;
+			}
+			final Pattern characterClass = Pattern.compile(matcher.group(1), pattern.flags());
+			final boolean[] members = new boolean[ASCII];
+			for (char c = 0; c < ASCII; c++) {
+				members[c] = characterClass.matcher(String.valueOf(c)).matches();
+			}
+			return new Stage(null, members, replacement, !matcher.group(2).isEmpty());
+		}
+
+		static Simplifier compile(Simplifier simplifier) {
+			final List<Simplifier> simplifiers = simplifier instanceof ChainSimplifier
+					? ((ChainSimplifier) simplifier).getSimplifiers()
+					: ImmutableList.of(simplifier);
+
+			final List<Simplifier> compiled = new ArrayList<>(simplifiers.size());
+			final List<Simplifier> fusable = new ArrayList<>();
+			final List<Stage> stages = new ArrayList<>();
+			boolean fused = false;
+			for (Simplifier s : simplifiers) {
+				final Stage stage = stage(s);
+				if (stage != null) {
+					fusable.add(s);
+					stages.add(stage);
+					continue;
+				}
+				if (!fusable.isEmpty()) {
+					compiled.add(new FusedSimplifier(fusable, stages));
+					fusable.clear();
+					stages.clear();
+					fused = true;
+				}
+				compiled.add(s);
+			}
+			if (!fusable.isEmpty()) {
+				compiled.add(new FusedSimplifier(fusable, stages));
+				fused = true;
+			}
+
+			if (!fused) {
+				return simplifier;
+			}
+			return compiled.size() == 1 ? compiled.get(0) : new ChainSimplifier(compiled);
+		}
+
+		List<Simplifier> getSimplifiers() {
+			return simplifiers;
+		}
+
+		@Override
+		public String simplify(String input) {
+			final int length = input.length();
+			for (int i = 0; i < length; i++) {
+				if (input.charAt(i) >= ASCII) {
+					String output = input;
+					for (Simplifier s : simplifiers) {
+						output = s.simplify(output);
+					}
+					return output;
+				}
+			}
+
+			final Buffer buffer = BUFFER.get();
+			final StringBuilder output = buffer.output;
+			output.setLength(0);
+			if (buffer.inRun.length < stages.length) {
+				buffer.inRun = new boolean[stages.length];
+			} else {
+				Arrays.fill(buffer.inRun, 0, stages.length, false);
+			}
+			for (int i = 0; i < length; i++) {
+				push(0, input.charAt(i), output, buffer.inRun);
+			}
+
+			final String result = input.contentEquals(output) ? input : output.toString();
+			if (output.capacity() > MAX_BUFFER_CAPACITY) {
+				buffer.output = new StringBuilder();
+			}
+			return result;
+		}
+
+		private void push(int from, char c, StringBuilder output, boolean[] inRun) {
+			for (int i = from; i < stages.length; i++) {
+				final Stage stage = stages[i];
+				if (stage.map != null) {
+					c = stage.map[c];
+					if (c == REMOVE) {
+						return;
+					}
+				} else if (stage.members[c]) {
+					// A repeated class replaces a run of members only once
+					if (stage.runs && inRun[i]) {
+						return;
+					}
+					inRun[i] = true;
+					for (int j = 0; j < stage.replacement.length(); j++) {
+						push(i + 1, stage.replacement.charAt(j), output, inRun);
+					}
+					return;
+				} else {
+					inRun[i] = false;
+				}
+			}
+			output.append(c);
+		}
+
+		@Override
+		public String toString() {
+			return "Fused [" + on(" -> ").join(simplifiers) + "]";
+		}
+
+	}
+
 	/**
 	 * A simplifier that normalizes a string into a composed or decomposed form.
 	 * <p>
@@ -95,8 +350,15 @@ public final class Simplifiers {
 			this.form = form;
 		}
 
+		/**
+		 * Normalizes the input. Input that is already normalized, such as
+		 * ASCII, is returned as is.
+		 */
 		@Override
 		public String simplify(String input) {
+			if (Normalizer.isNormalized(input, form)) {
+				return input;
+			}
 			return Normalizer.normalize(input, form);
 		}
 
@@ -120,6 +382,62 @@ public final class Simplifiers {
 		private static final Pattern DIACRITICS_AND_FRIENDS = Pattern
 				.compile("[\\p{InCombiningDiacriticalMarks}\\p{IsLm}\\p{IsSk}]+");
 
+		/**
+		 * Folding table for the Latin, Greek and Cyrillic blocks from
+		 * {@code U+0000} to {@code U+04FF} and the Latin and Greek extended
+		 * blocks from {@code U+1E00} to {@code U+1FFF}. Holds the folded
+		 * character, {@link #REMOVE} when the character is removed entirely
+		 * or {@link #NOT_IN_TABLE}.
+		 */
+		private static final char[] TABLE = new char[0x2000];
+
+		private static final char NOT_IN_TABLE = '\uFFFE';
+
+		private static final char REMOVE = '\uFFFF';
+
+		static {
+			Arrays.fill(TABLE, NOT_IN_TABLE);
+			for (char c = 0; c < 0x0500; c++) {
+				TABLE[c] = fold(c);
+			}
+			for (char c = 0x1E00; c < 0x2000; c++) {
+				TABLE[c] = fold(c);
+			}
+		}
+
+		/*
+		 * Only characters that fold into at most one character can be
+		 * folded on their own. Combining marks are excluded because canonical
+		 * decomposition may reorder them with their neighbours.
+		 */
+		private static char fold(char c) {
+			if (isMark(c)) {
+				return NOT_IN_TABLE;
+			}
+			final String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+			if (isMark(decomposed.charAt(0))) {
+				return NOT_IN_TABLE;
+			}
+			final String folded = DIACRITICS_AND_FRIENDS.matcher(decomposed).replaceAll("");
+			if (folded.isEmpty()) {
+				return REMOVE;
+			}
+			if (folded.length() > 1 || isMark(folded.charAt(0))) {
+				return NOT_IN_TABLE;
+			}
+			return folded.charAt(0);
+		}
+
+		private static boolean isMark(char c) {
+			final int type = Character.getType(c);
+			return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+					|| type == Character.COMBINING_SPACING_MARK;
+		}
+
+		private static boolean inTable(char c) {
+			return c < TABLE.length && TABLE[c] != NOT_IN_TABLE;
+		}
+
 		RemoveDiacritics() {
 		}
 
@@ -132,6 +450,10 @@ public final class Simplifiers {
 		 * removed. The resulting string will be in canonical decomposition
 		 * form.
 		 * <p>
+		 * Characters from the Latin, Greek and Cyrillic blocks are folded
+		 * using a precomputed table. Input that the table leaves unchanged,
+		 * such as most ASCII, is returned as is. Only runs of other
+		 * characters are decomposed and matched against the regex.
 		 * 
 		 * @return the input string in canonical decomposition form without
 		 *         diacritics
@@ -139,9 +461,44 @@ public final class Simplifiers {
 		 */
 		@Override
 		public String simplify(String input) {
-			return DIACRITICS_AND_FRIENDS.matcher(
-					Normalizer.normalize(input, Normalizer.Form.NFD))
-					.replaceAll("");
+			final int length = input.length();
+			int i = 0;
+			while (i < length) {
+				final char c = input.charAt(i);
+				if (c >= TABLE.length || TABLE[c] != c) {
+					break;
+				}
+				i++;
+			}
+			if (i == length) {
+				return input;
+			}
+
+			final StringBuilder output = new StringBuilder(length);
+			output.append(input, 0, i);
+			while (i < length) {
+				final char c = input.charAt(i);
+				if (inTable(c)) {
+					if (TABLE[c] != REMOVE) {
+						output.append(TABLE[c]);
+					}
+					i++;
+					continue;
+				}
+
+				// Canonical reordering never crosses a character from the
+				// table, so runs of other characters can be decomposed on
+				// their own.
+				int end = i + 1;
+				while (end < length && !inTable(input.charAt(end))) {
+					end++;
+				}
+				output.append(DIACRITICS_AND_FRIENDS
+						.matcher(Normalizer.normalize(input.substring(i, end), Normalizer.Form.NFD))
+						.replaceAll(""));
+				i = end;
+			}
+			return output.toString();
 		}
 
 		@Override
@@ -172,6 +529,14 @@ public final class Simplifiers {
 		public String toString() {
 			return "Replace [" + pattern + " -> '" + repplacement + "' ]";
 		}
+
+		Pattern getPattern() {
+			return pattern;
+		}
+
+		String getReplacement() {
+			return repplacement;
+		}
 	}
 
 	static final class ToLowerCase implements Simplifier {
@@ -266,6 +631,26 @@ public final class Simplifiers {
 
 		return flattend;
 	}
+	/**
+	 * Compiles a simplifier into an equivalent simplifier that is faster to
+	 * apply. Consecutive built-in simplifiers in a chain, i.e. those created
+	 * by {@link #toLowerCase()}, {@link #toUpperCase()},
+	 * {@link #normalize(Form)}, {@link #removeDiacritics()} and
+	 * {@link #replaceAll(Pattern, String)} with a single, optionally repeated,
+	 * character class such as {@link #replaceNonWord()}, are fused into a
+	 * single pass over the input. Other simplifiers are applied as is.
+	 * <p>
+	 * The simplifier is returned when nothing can be fused.
+	 * 
+	 * @param simplifier
+	 *            the simplifier to compile
+	 * @return an equivalent simplifier
+	 */
+	public static Simplifier compile(Simplifier simplifier) {
+		requireNonNull(simplifier);
+		return FusedSimplifier.compile(simplifier);
+	}
+
 	/**
 	 * Returns a simplifier that normalizes the input into a composed or 
 	 * decomposed form
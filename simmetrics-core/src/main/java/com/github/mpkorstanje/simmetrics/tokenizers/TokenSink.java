@@ -0,0 +1,49 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.tokenizers;
+
+/**
+ * Receives tokens from a {@link Tokenizer} as they are found. A token is
+ * passed as a range of characters in a source sequence rather than as a
+ * string. The source is usually the input of the tokenizer but may be a
+ * sequence derived from it, e.g. a padded or transformed token.
+ * <p>
+ * The source is only valid for the duration of the call. A sink that keeps a
+ * token must copy it, e.g. with
+ * {@code source.subSequence(start, end).toString()}.
+ *
+ * @see Tokenizer#tokenize(CharSequence, TokenSink)
+ */
+@FunctionalInterface
+public interface TokenSink {
+
+	/**
+	 * Receives a token.
+	 *
+	 * @param source
+	 *            the sequence containing the token
+	 * @param start
+	 *            the index of the first character of the token, inclusive
+	 * @param end
+	 *            the index of the last character of the token, exclusive
+	 */
+	void accept(CharSequence source, int start, int end);
+
+}
@@ -21,6 +21,8 @@
 
 package com.github.mpkorstanje.simmetrics.tokenizers;
 
+import static java.util.Objects.requireNonNull;
+
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -63,4 +65,23 @@ public interface Tokenizer {
 		return new HashSet<>(tokenizeToList(input));
 	}
 
+	/**
+	 * Passes each token of a string to a sink in order. Unlike the collection
+	 * methods no intermediate collection is created, so chained tokenizers
+	 * can be applied in a single pass.
+	 * <p>
+	 * By default the input is tokenized with {@link #tokenizeToList(String)}.
+	 * Tokenizers should override this method when tokens can be found without
+	 * creating a list.
+	 *
+	 * @param input input string to tokenize
+	 * @param sink  receives each token
+	 */
+	default void tokenize(CharSequence input, TokenSink sink) {
+		requireNonNull(sink);
+		for (String token : tokenizeToList(input.toString())) {
+			sink.accept(token, 0, token.length());
+		}
+	}
+
 }
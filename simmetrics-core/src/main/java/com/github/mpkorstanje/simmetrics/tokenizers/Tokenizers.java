@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collector;
 import java.util.stream.Collector.Characteristics;
@@ -40,11 +41,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.repeat;
 import static com.google.common.collect.Lists.asList;
 import static java.util.Arrays.asList;
-import static java.util.Arrays.copyOfRange;
-import static java.util.Collections.emptyList;
-import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 /**
@@ -284,11 +281,6 @@ public final class Tokenizers {
                 return tokenizer;
             }
 
-            @Override
-            Stream<String> tokenizeToFilteredList(String input) {
-                return tokenizer.tokenizeToTransformedList(input).filter(predicate);
-            }
-
             @Override
             Stream<String> tokenizeToFilteredMultiset(String input) {
                 return tokenizer.tokenizeToTransformedMultiset(input).filter(predicate);
@@ -299,11 +291,6 @@ public final class Tokenizers {
                 return tokenizer.tokenizeToTransformedSet(input).filter(predicate);
             }
 
-            @Override
-            public List<String> tokenizeToList(String input) {
-                return tokenizer.tokenizeToTransformedList(input).filter(predicate).collect(toList());
-            }
-
             @Override
             public Multiset<String> tokenizeToMultiset(String input) {
                 return tokenizer.tokenizeToTransformedMultiset(input).filter(predicate).collect(toMultiset());
@@ -311,7 +298,7 @@ public final class Tokenizers {
 
             @Override
             public Set<String> tokenizeToSet(String input) {
-                return tokenizer.tokenizeToTransformedList(input).filter(predicate).collect(toSet());
+                return tokenizer.tokenizeToTransformedSet(input).filter(predicate).collect(toSet());
             }
 
         }
@@ -353,10 +340,6 @@ public final class Tokenizers {
             return tokenizer;
         }
 
-        Stream<String> tokenizeToFilteredList(String input) {
-            return tokenizer.tokenizeToList(input).stream().filter(predicate);
-        }
-
         Stream<String> tokenizeToFilteredMultiset(String input) {
             return tokenizer.tokenizeToMultiset(input).stream().filter(predicate);
         }
@@ -365,9 +348,19 @@ public final class Tokenizers {
             return tokenizer.tokenizeToSet(input).stream().filter(predicate);
         }
 
+        @Override
+        public void tokenize(CharSequence input, TokenSink sink) {
+            requireNonNull(sink);
+            tokenizer.tokenize(input, (source, start, end) -> {
+                if (predicate.test(source.subSequence(start, end).toString())) {
+                    sink.accept(source, start, end);
+                }
+            });
+        }
+
         @Override
         public List<String> tokenizeToList(String input) {
-            return tokenizer.tokenizeToList(input).stream().filter(predicate).collect(toList());
+            return collect(this, input);
         }
 
         @Override
@@ -400,22 +393,23 @@ public final class Tokenizers {
         }
 
         @Override
-        public List<String> tokenizeToList(final String input) {
-            List<String> tokens = new ArrayList<>(input.length());
-            tokens.add(input);
-
-            List<String> newTokens = new ArrayList<>(input.length());
-            for (Tokenizer t : tokenizers) {
-                for (String token : tokens) {
-                    newTokens.addAll(t.tokenizeToList(token));
-                }
-                List<String> swap = tokens;
-                tokens = newTokens;
-                newTokens = swap;
-                newTokens.clear();
+        public void tokenize(CharSequence input, TokenSink sink) {
+            requireNonNull(sink);
+
+            // Each token is passed down the chain as soon as it is found so
+            // no intermediate collections are created.
+            TokenSink next = sink;
+            for (int i = tokenizers.size() - 1; i > 0; i--) {
+                final Tokenizer tokenizer = tokenizers.get(i);
+                final TokenSink downstream = next;
+                next = (source, start, end) -> tokenizer.tokenize(source.subSequence(start, end), downstream);
             }
+            tokenizers.get(0).tokenize(input, next);
+        }
 
-            return tokens;
+        @Override
+        public List<String> tokenizeToList(final String input) {
+            return collect(this, input);
         }
 
         @Override
@@ -483,9 +477,28 @@ public final class Tokenizers {
             this.pattern = pattern;
         }
 
+        @Override
+        public void tokenize(CharSequence input, TokenSink sink) {
+            requireNonNull(sink);
+
+            // Mirrors pattern.split(input, -1)
+            final Matcher matcher = pattern.matcher(input);
+            int index = 0;
+            while (matcher.find()) {
+                // A zero-width match at the beginning never produces an
+                // empty leading token
+                if (index == 0 && matcher.start() == 0 && matcher.end() == 0) {
+                    continue;
+                }
+                sink.accept(input, index, matcher.start());
+                index = matcher.end();
+            }
+            sink.accept(input, index, input.length());
+        }
+
         @Override
         public List<String> tokenizeToList(final String input) {
-            return asList(pattern.split(input, -1));
+            return collect(this, input);
         }
 
         @Override
@@ -517,11 +530,6 @@ public final class Tokenizers {
                 return tokenizer;
             }
 
-            @Override
-            public List<String> tokenizeToList(String input) {
-                return tokenizer.tokenizeToFilteredList(input).map(function).collect(toList());
-            }
-
             @Override
             public Multiset<String> tokenizeToMultiset(String input) {
                 return tokenizer.tokenizeToFilteredMultiset(input).map(function).collect(toMultiset());
@@ -532,11 +540,6 @@ public final class Tokenizers {
                 return tokenizer.tokenizeToFilteredSet(input).map(function).collect(toSet());
             }
 
-            @Override
-            Stream<String> tokenizeToTransformedList(String input) {
-                return tokenizer.tokenizeToFilteredList(input).map(function);
-            }
-
             @Override
             Stream<String> tokenizeToTransformedMultiset(String input) {
                 return tokenizer.tokenizeToFilteredMultiset(input).map(function);
@@ -585,9 +588,18 @@ public final class Tokenizers {
             return tokenizer;
         }
 
+        @Override
+        public void tokenize(CharSequence input, TokenSink sink) {
+            requireNonNull(sink);
+            tokenizer.tokenize(input, (source, start, end) -> {
+                final String token = function.apply(source.subSequence(start, end).toString());
+                sink.accept(token, 0, token.length());
+            });
+        }
+
         @Override
         public List<String> tokenizeToList(String input) {
-            return tokenizer.tokenizeToList(input).stream().map(function).collect(toList());
+            return collect(this, input);
         }
 
         @Override
@@ -601,10 +613,6 @@ public final class Tokenizers {
 
         }
 
-        Stream<String> tokenizeToTransformedList(String input) {
-            return tokenizer.tokenizeToList(input).stream().map(function);
-        }
-
         Stream<String> tokenizeToTransformedMultiset(String input) {
             return tokenizer.tokenizeToMultiset(input).stream().map(function);
         }
@@ -622,25 +630,39 @@ public final class Tokenizers {
 
     static final class Whitespace implements Tokenizer {
 
-        private final Pattern pattern = Pattern.compile("\\s+");
-
         Whitespace() {
         }
 
         @Override
-        public List<String> tokenizeToList(final String input) {
-            if (input.isEmpty()) {
-                return emptyList();
+        public void tokenize(CharSequence input, TokenSink sink) {
+            requireNonNull(sink);
+            final int length = input.length();
+            int start = -1;
+            for (int i = 0; i < length; i++) {
+                if (isWhitespace(input.charAt(i))) {
+                    if (start >= 0) {
+                        sink.accept(input, start, i);
+                        start = -1;
+                    }
+                } else if (start < 0) {
+                    start = i;
+                }
             }
-
-            String[] tokens = pattern.split(input);
-
-            // Remove leading empty token if any
-            if (tokens.length > 0 && tokens[0].isEmpty()) {
-                tokens = copyOfRange(tokens, 1, tokens.length);
+            if (start >= 0) {
+                sink.accept(input, start, length);
             }
+        }
 
-            return asList(tokens);
+        /*
+         * The characters matched by \s in a regular expression.
+         */
+        private static boolean isWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+        }
+
+        @Override
+        public List<String> tokenizeToList(final String input) {
+            return collect(this, input);
         }
 
         @Override
@@ -686,43 +708,40 @@ public final class Tokenizers {
         }
 
         @Override
-        public List<String> tokenizeToList(final String input) {
-            if (input.isEmpty()) {
-                return emptyList();
-            }
-
-            // Minor optimization. Because characters are either equal to or
-            // smaller then codepoints a string must contain at least q
-            // characters.
-            if (filter && input.length() < q) {
-                return new ArrayList<>();
-            } else if (input.length() < q) {
-                return singletonList(input);
+        public void tokenize(CharSequence input, TokenSink sink) {
+            requireNonNull(sink);
+            final int length = input.length();
+            if (length == 0) {
+                return;
             }
 
-            // To create a q-gram set of tokens we move a q-codepoints-wide
-            // sliding windows across the string. So the final index of the left
-            // side of the window lies q code points to the left of end of the
-            // string
-            int codePointLength = input.codePointCount(0, input.length());
-            if (codePointLength < q) {
+            // Because characters are either equal to or smaller then
+            // codepoints a string must contain at least q characters.
+            if (length < q || Character.codePointCount(input, 0, length) < q) {
                 // When the window doesn't fit act according to the filter
                 // setting.
-                if (filter) {
-                    return new ArrayList<>();
+                if (!filter) {
+                    sink.accept(input, 0, length);
                 }
-                return singletonList(input);
+                return;
             }
 
-            final int lastQGramStart = input.offsetByCodePoints(0, codePointLength - q);
-            final List<String> ret = new ArrayList<>(input.length());
-            for (int qGramStart = 0;
-                 qGramStart <= lastQGramStart;
-                 qGramStart = input.offsetByCodePoints(qGramStart, 1)) {
-                ret.add(input.substring(qGramStart, input.offsetByCodePoints(qGramStart, q)));
+            // Move a q-codepoints-wide sliding window across the string.
+            int start = 0;
+            int end = Character.offsetByCodePoints(input, 0, q);
+            while (true) {
+                sink.accept(input, start, end);
+                if (end == length) {
+                    return;
+                }
+                start += Character.charCount(Character.codePointAt(input, start));
+                end += Character.charCount(Character.codePointAt(input, end));
             }
+        }
 
-            return ret;
+        @Override
+        public List<String> tokenizeToList(final String input) {
+            return collect(this, input);
         }
 
         @Override
@@ -783,12 +802,18 @@ public final class Tokenizers {
         }
 
         @Override
-        public List<String> tokenizeToList(String input) {
-            if (input.isEmpty()) {
-                return emptyList();
+        public void tokenize(CharSequence input, TokenSink sink) {
+            requireNonNull(sink);
+            if (input.length() == 0) {
+                return;
             }
 
-            return tokenizer.tokenizeToList(startPadding + input + endPadding);
+            tokenizer.tokenize(startPadding + input + endPadding, sink);
+        }
+
+        @Override
+        public List<String> tokenizeToList(String input) {
+            return collect(this, input);
         }
 
         @Override
@@ -812,6 +837,13 @@ public final class Tokenizers {
 
     }
 
+    private static List<String> collect(Tokenizer tokenizer, String input) {
+        final List<String> tokens = new ArrayList<>();
+        tokenizer.tokenize(input, (source, start, end) ->
+                tokens.add(source.subSequence(start, end).toString()));
+        return tokens;
+    }
+
     private static <T> Collector<T, Multiset<T>, Multiset<T>> toMultiset() {
         return Collector.of(
                 HashMultiset::create,
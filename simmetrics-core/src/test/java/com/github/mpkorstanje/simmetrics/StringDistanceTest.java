@@ -19,6 +19,16 @@
  */
 package com.github.mpkorstanje.simmetrics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
 public abstract class StringDistanceTest extends DistanceTest<String> {
 	
 	protected static final class T extends TestCase<String>{
@@ -34,4 +44,48 @@ public abstract class StringDistanceTest extends DistanceTest<String> {
 	protected final String getEmpty() {
 		return "";
 	}
+
+	@Test
+	final void distanceAll() {
+		if (!(metric instanceof StringDistance)) {
+			return;
+		}
+		final StringDistance stringDistance = (StringDistance) metric;
+		for (T t : getTests()) {
+			// Candidates of equal length, some distances require it
+			final List<String> candidates = Arrays.asList(t.a, t.b, t.a);
+			final float[] distances = stringDistance.distanceAll(t.a, candidates);
+			assertEquals(candidates.size(), distances.length);
+			for (int i = 0; i < candidates.size(); i++) {
+				assertEquals(metric.distance(t.a, candidates.get(i)), distances[i], 0.0f);
+			}
+		}
+		assertEquals(0, stringDistance.distanceAll("", new ArrayList<>()).length);
+		assertThrows(IllegalArgumentException.class,
+				() -> stringDistance.distanceAll("", Arrays.asList(""), new float[0]));
+		assertThrows(NullPointerException.class,
+				() -> stringDistance.distanceAll(null, Arrays.asList("")));
+	}
+
+	@Test
+	final void distanceMany() {
+		if (!(metric instanceof StringDistance)) {
+			return;
+		}
+		final StringDistance stringDistance = (StringDistance) metric;
+		final List<String> a = new LinkedList<>();
+		final List<String> b = new LinkedList<>();
+		for (T t : getTests()) {
+			a.add(t.a);
+			b.add(t.b);
+		}
+
+		final float[] distances = stringDistance.distanceMany(a, b);
+		assertEquals(a.size(), distances.length);
+		for (int i = 0; i < a.size(); i++) {
+			assertEquals(metric.distance(a.get(i), b.get(i)), distances[i], 0.0f);
+		}
+		assertThrows(IllegalArgumentException.class,
+				() -> stringDistance.distanceMany(a, b.subList(1, b.size())));
+	}
 }
@@ -20,6 +20,17 @@
 
 package com.github.mpkorstanje.simmetrics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
 public abstract class StringMetricTest extends MetricTest<String> {
 
 	protected static final class T extends TestCase<String>{
@@ -36,4 +47,119 @@ public abstract class StringMetricTest extends MetricTest<String> {
 		return "";
 	}
 
+	@Test
+	final void prepared() {
+		if (!(metric instanceof StringMetric)) {
+			return;
+		}
+		final StringMetric stringMetric = (StringMetric) metric;
+		final T[] tests = getTests();
+
+		for (T query : tests) {
+			// Prepared metrics may reuse buffers between candidates
+			final PreparedStringMetric preparedA = stringMetric.prepare(query.a);
+			final PreparedStringMetric preparedB = stringMetric.prepare(query.b);
+			for (T candidate : tests) {
+				assertEquals(metric.compare(query.a, candidate.a), preparedA.compare(candidate.a), 0.0f);
+				assertEquals(metric.compare(query.a, candidate.b), preparedA.compare(candidate.b), 0.0f);
+				assertEquals(metric.compare(query.b, candidate.a), preparedB.compare(candidate.a), 0.0f);
+				assertEquals(metric.compare(query.b, candidate.b), preparedB.compare(candidate.b), 0.0f);
+			}
+			assertEquals(metric.compare(query.a, ""), preparedA.compare(""), 0.0f);
+			assertEquals(metric.compare("", query.a), stringMetric.prepare("").compare(query.a), 0.0f);
+		}
+		assertEquals(metric.compare("", ""), stringMetric.prepare("").compare(""), 0.0f);
+	}
+
+	@Test
+	final void preparedBounded() {
+		if (!(metric instanceof StringMetric)) {
+			return;
+		}
+		final StringMetric stringMetric = (StringMetric) metric;
+		final T[] tests = getTests();
+		final float[] bounds = { 0.0f, 0.25f, 0.5f, 0.75f, 0.9f, 1.0f };
+
+		for (T query : tests) {
+			final PreparedStringMetric prepared = stringMetric.prepare(query.a);
+			for (T candidate : tests) {
+				for (String b : new String[] { candidate.a, candidate.b }) {
+					final float expected = metric.compare(query.a, b);
+					for (float bound : bounds) {
+						final float actual = prepared.compare(b, bound);
+						if (expected >= bound) {
+							assertEquals(expected, actual, 0.0f);
+						} else {
+							assertTrue(actual < bound, () -> "expected below " + bound + " but was " + actual);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	final void compareAll() {
+		if (!(metric instanceof StringMetric)) {
+			return;
+		}
+		final StringMetric stringMetric = (StringMetric) metric;
+		final List<String> candidates = new ArrayList<>();
+		for (T t : getTests()) {
+			candidates.add(t.a);
+			candidates.add(t.b);
+		}
+		candidates.add("");
+
+		for (String query : candidates) {
+			final float[] similarities = stringMetric.compareAll(query, candidates);
+			assertEquals(candidates.size(), similarities.length);
+			for (int i = 0; i < candidates.size(); i++) {
+				assertEquals(metric.compare(query, candidates.get(i)), similarities[i], 0.0f);
+			}
+		}
+		assertEquals(0, stringMetric.compareAll("", new ArrayList<>()).length);
+		assertThrows(IllegalArgumentException.class,
+				() -> stringMetric.compareAll("", candidates, new float[candidates.size() - 1]));
+	}
+
+	@Test
+	final void compareMany() {
+		if (!(metric instanceof StringMetric)) {
+			return;
+		}
+		final StringMetric stringMetric = (StringMetric) metric;
+		final List<String> a = new LinkedList<>();
+		final List<String> b = new LinkedList<>();
+		for (T t : getTests()) {
+			a.add(t.a);
+			b.add(t.b);
+		}
+
+		final float[] similarities = new float[a.size() + 1];
+		Arrays.fill(similarities, -1.0f);
+		stringMetric.compareMany(a, b, similarities);
+		for (int i = 0; i < a.size(); i++) {
+			assertEquals(metric.compare(a.get(i), b.get(i)), similarities[i], 0.0f);
+		}
+		assertEquals(-1.0f, similarities[a.size()], 0.0f);
+		assertThrows(IllegalArgumentException.class,
+				() -> stringMetric.compareMany(a, b.subList(1, b.size())));
+	}
+
+	@Test
+	final void preparedNullPointerException() {
+		if (!(metric instanceof StringMetric)) {
+			return;
+		}
+		final StringMetric stringMetric = (StringMetric) metric;
+
+		assertThrows(NullPointerException.class, () -> stringMetric.prepare(null));
+		for (T t : getTests()) {
+			assertThrows(NullPointerException.class, () -> stringMetric.prepare(t.a).compare(null));
+			assertThrows(NullPointerException.class, () -> stringMetric.compareAll(null, Arrays.asList(t.a)));
+			assertThrows(NullPointerException.class, () -> stringMetric.compareAll(t.a, Arrays.asList(t.b, null)));
+		}
+	}
+
 }
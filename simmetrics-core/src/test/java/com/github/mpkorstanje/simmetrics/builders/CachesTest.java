@@ -0,0 +1,280 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.google.common.cache.CacheBuilder;
+
+final class CachesTest {
+
+	private static final class CountingSimplifier implements Simplifier {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public String simplify(String input) {
+			calls.incrementAndGet();
+			return input.toLowerCase();
+		}
+	}
+
+	@Test
+	void simplificationCacheLoadsOnce() {
+		final SimplificationCache cache = Caches.simplificationCache(10);
+		final CountingSimplifier simplifier = new CountingSimplifier();
+
+		assertEquals("abc", cache.get("ABC", simplifier));
+		assertEquals("abc", cache.get("ABC", simplifier));
+		assertEquals("def", cache.get("DEF", simplifier));
+		assertEquals(2, simplifier.calls.get());
+
+		final CacheStats stats = cache.stats();
+		assertEquals(1, stats.hitCount());
+		assertEquals(2, stats.missCount());
+		assertEquals(3, stats.requestCount());
+		assertEquals(0, stats.evictionCount());
+		assertEquals(1.0 / 3.0, stats.hitRate(), 1e-9);
+		assertTrue(stats.totalLoadTime() >= 0);
+	}
+
+	@Test
+	void tokenCacheLoadsOnce() {
+		final TokenCache<List<String>> cache = Caches.tokenCache(10);
+		final AtomicInteger calls = new AtomicInteger();
+		final Function<String, List<String>> tokenizer = input -> {
+			calls.incrementAndGet();
+			return singletonList(input);
+		};
+
+		final List<String> tokens = cache.get("ABC", tokenizer);
+		assertSame(tokens, cache.get("ABC", tokenizer));
+		assertEquals(1, calls.get());
+		assertEquals(1, cache.stats().hitCount());
+		assertEquals(1, cache.stats().missCount());
+	}
+
+	@Test
+	void resultCacheIgnoresOrder() {
+		final ResultCache cache = Caches.resultCache(10);
+		final AtomicInteger calls = new AtomicInteger();
+		final ResultCache.Comparison comparison = (a, b) -> {
+			calls.incrementAndGet();
+			return a.length() - b.length();
+		};
+
+		final float result = cache.get("abc", "de", comparison);
+		assertEquals(result, cache.get("abc", "de", comparison));
+		assertEquals(result, cache.get("de", "abc", comparison));
+		assertEquals(1, calls.get());
+
+		cache.get("abc", "abc", comparison);
+		cache.get("", "", comparison);
+		assertEquals(3, calls.get());
+		assertEquals(2, cache.stats().hitCount());
+		assertEquals(3, cache.stats().missCount());
+	}
+
+	@Test
+	void resultCacheDistinguishesCollidingPairs() {
+		final ResultCache cache = Caches.resultCache(10);
+		// "Aa" and "BB" have the same hash code
+		assertEquals("Aa".hashCode(), "BB".hashCode());
+		final ResultCache.Comparison comparison = (a, b) -> a.equals(b) ? 1 : 0;
+
+		assertEquals(0, cache.get("Aa", "BB", comparison));
+		assertEquals(0, cache.get("BB", "Aa", comparison));
+		assertEquals(1, cache.get("Aa", "Aa", comparison));
+		assertEquals(1, cache.get("BB", "BB", comparison));
+		assertEquals(3, cache.stats().missCount());
+	}
+
+	@Test
+	void resultCacheSeparatesComparisons() {
+		final ResultCache cache = Caches.resultCache(10);
+		final ResultCache.Comparison zero = (a, b) -> 0;
+		final ResultCache.Comparison one = (a, b) -> 1;
+
+		assertEquals(0, cache.get("a", "b", zero));
+		assertEquals(1, cache.get("a", "b", one));
+		assertEquals(0, cache.get("b", "a", zero));
+		assertEquals(1, cache.stats().hitCount());
+		assertEquals(2, cache.stats().missCount());
+	}
+
+	@Test
+	void resultCacheSharedBetweenBuilders() {
+		final ResultCache cache = Caches.resultCache(10);
+		final StringMetric metric = StringMetricBuilder.with(new Levenshtein()).cacheResults(cache).build();
+		final StringDistance distance = StringDistanceBuilder.with(new Levenshtein()).cacheResults(cache).build();
+
+		assertEquals(0.75f, metric.compare("test", "tent"), 0.0f);
+		assertEquals(1.0f, distance.distance("test", "tent"), 0.0f);
+		assertEquals(0.75f, metric.compare("tent", "test"), 0.0f);
+		assertEquals(1.0f, distance.distance("tent", "test"), 0.0f);
+	}
+
+	@Test
+	void resultCacheIsBounded() {
+		final ResultCache cache = Caches.resultCache(4);
+		for (int i = 0; i < 100; i++) {
+			cache.get(Integer.toString(i), "x", (a, b) -> 0);
+		}
+		assertEquals(96, cache.stats().evictionCount());
+	}
+
+	@Test
+	void evictsUnreferencedEntries() {
+		final SimplificationCache cache = Caches.simplificationCache(2);
+		final CountingSimplifier simplifier = new CountingSimplifier();
+
+		cache.get("A", simplifier);
+		cache.get("B", simplifier);
+		cache.get("A", simplifier);
+		// A was referenced and gets a second chance, B is evicted
+		cache.get("C", simplifier);
+		assertEquals(1, cache.stats().evictionCount());
+
+		cache.get("A", simplifier);
+		assertEquals(3, simplifier.calls.get());
+		cache.get("B", simplifier);
+		assertEquals(4, simplifier.calls.get());
+	}
+
+	@Test
+	void staysBounded() {
+		final SimplificationCache cache = Caches.simplificationCache(16);
+		final CountingSimplifier simplifier = new CountingSimplifier();
+		for (int i = 0; i < 1000; i++) {
+			cache.get(Integer.toString(i % 100), simplifier);
+		}
+		final CacheStats stats = cache.stats();
+		assertEquals(1000, stats.requestCount());
+		assertEquals(stats.missCount() - 16, stats.evictionCount());
+	}
+
+	@Test
+	void loadsOnceUnderContention() throws Exception {
+		final SimplificationCache cache = Caches.simplificationCache(10);
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch loading = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final Simplifier slow = input -> {
+			calls.incrementAndGet();
+			loading.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return input.toLowerCase();
+		};
+
+		final ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			final List<Future<String>> results = new ArrayList<>();
+			results.add(executor.submit(() -> cache.get("ABC", slow)));
+			loading.await();
+			for (int i = 0; i < 7; i++) {
+				results.add(executor.submit(() -> cache.get("ABC", slow)));
+			}
+			release.countDown();
+			for (Future<String> result : results) {
+				assertEquals("abc", result.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, calls.get());
+		assertEquals(1, cache.stats().missCount());
+		assertEquals(7, cache.stats().hitCount());
+	}
+
+	@Test
+	void failedLoadIsNotCached() {
+		final SimplificationCache cache = Caches.simplificationCache(10);
+		final AtomicInteger calls = new AtomicInteger();
+		final Simplifier failing = input -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new IllegalArgumentException();
+			}
+			return input;
+		};
+
+		assertThrows(IllegalArgumentException.class, () -> cache.get("ABC", failing));
+		assertEquals("ABC", cache.get("ABC", failing));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void nullValue() {
+		final SimplificationCache cache = Caches.simplificationCache(10);
+		assertThrows(NullPointerException.class, () -> cache.get("ABC", input -> null));
+	}
+
+	@Test
+	void nonPositiveMaxEntries() {
+		assertThrows(IllegalArgumentException.class, () -> Caches.simplificationCache(0));
+		assertThrows(IllegalArgumentException.class, () -> Caches.tokenCache(-1));
+	}
+
+	@Test
+	void guavaCache() {
+		final SimplificationCache cache = Caches.simplificationCache(
+				CacheBuilder.newBuilder().maximumSize(2).recordStats().<String, String> build());
+		final CountingSimplifier simplifier = new CountingSimplifier();
+		cache.get("ABC", simplifier);
+		cache.get("ABC", simplifier);
+		assertEquals(1, simplifier.calls.get());
+		assertEquals(1, cache.stats().hitCount());
+		assertEquals(1, cache.stats().missCount());
+	}
+
+	@Test
+	void statsToString() {
+		assertEquals("CacheStats [hitCount=1, missCount=2, evictionCount=3, totalLoadTime=4]",
+				new CacheStats(1, 2, 3, 4).toString());
+		assertEquals(1.0, new CacheStats(0, 0, 0, 0).hitRate(), 0.0);
+		assertEquals(0.0, new CacheStats(0, 0, 0, 0).averageLoadPenalty(), 0.0);
+		assertEquals(2.0, new CacheStats(0, 2, 0, 4).averageLoadPenalty(), 0.0);
+		assertThrows(IllegalArgumentException.class, () -> new CacheStats(-1, 0, 0, 0));
+	}
+
+}
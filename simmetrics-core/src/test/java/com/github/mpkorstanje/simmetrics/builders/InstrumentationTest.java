@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.builders;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.builders.Instrumentation.Stage;
+
+final class InstrumentationTest {
+
+	private static String repeat(int length) {
+		final StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < length; i++) {
+			builder.append('a');
+		}
+		return builder.toString();
+	}
+
+	@Test
+	void emptySnapshot() {
+		final InstrumentationSnapshot snapshot = Instrumentation.create().snapshot();
+		assertEquals(0, snapshot.calls());
+		assertEquals(0.0, snapshot.meanNanos(), 0.0);
+		assertEquals(0, snapshot.stageNanos(Stage.COMPARE));
+		assertEquals(0, snapshot.latencyPercentileNanos(0.5));
+	}
+
+	@Test
+	void lengthBuckets() {
+		assertEquals(0, InstrumentationSnapshot.lengthBucket(0));
+		assertEquals(1, InstrumentationSnapshot.lengthBucket(1));
+		assertEquals(2, InstrumentationSnapshot.lengthBucket(2));
+		assertEquals(2, InstrumentationSnapshot.lengthBucket(3));
+		assertEquals(3, InstrumentationSnapshot.lengthBucket(4));
+		assertEquals(15, InstrumentationSnapshot.lengthBucket(Integer.MAX_VALUE));
+		assertThrows(IllegalArgumentException.class, () -> InstrumentationSnapshot.lengthBucket(-1));
+	}
+
+	@Test
+	void histogramByLongestInput() {
+		final Instrumentation instrumentation = Instrumentation.create();
+		instrumentation.record("", "", 0);
+		instrumentation.record("aaa", "a", 100);
+		instrumentation.record("a", repeat(1000), 3000);
+
+		final InstrumentationSnapshot snapshot = instrumentation.snapshot();
+		assertEquals(3, snapshot.calls());
+		assertEquals(3100, snapshot.totalNanos());
+		assertEquals(1, snapshot.count(0, 0));
+		assertEquals(1, snapshot.count(2, 7));
+		assertEquals(1, snapshot.count(10, 12));
+		assertEquals(1, snapshot.histogram()[10][12]);
+	}
+
+	@Test
+	void percentiles() {
+		final Instrumentation instrumentation = Instrumentation.create();
+		for (int i = 0; i < 98; i++) {
+			instrumentation.record("a", "a", 100);
+		}
+		instrumentation.record("aaaa", "a", 5000);
+		instrumentation.record("aaaa", "a", 5000);
+
+		final InstrumentationSnapshot snapshot = instrumentation.snapshot();
+		assertEquals(127, snapshot.latencyPercentileNanos(0.0));
+		assertEquals(127, snapshot.latencyPercentileNanos(0.5));
+		assertEquals(127, snapshot.latencyPercentileNanos(0.98));
+		assertEquals(8191, snapshot.latencyPercentileNanos(0.99));
+		assertEquals(8191, snapshot.latencyPercentileNanos(3, 0.5));
+		assertEquals(0, snapshot.latencyPercentileNanos(4, 0.5));
+		assertThrows(IllegalArgumentException.class, () -> snapshot.latencyPercentileNanos(1.5));
+	}
+
+	@Test
+	void stages() {
+		final Instrumentation instrumentation = Instrumentation.create();
+		instrumentation.recordSimplify(10);
+		instrumentation.recordSimplify(20);
+		instrumentation.recordTokenize(30);
+		instrumentation.recordPrepare(40);
+		instrumentation.record("a", "b", 100);
+
+		final InstrumentationSnapshot snapshot = instrumentation.snapshot();
+		assertEquals(1, snapshot.calls());
+		assertEquals(140, snapshot.totalNanos());
+		assertEquals(2, snapshot.stageCalls(Stage.SIMPLIFY));
+		assertEquals(30, snapshot.stageNanos(Stage.SIMPLIFY));
+		assertEquals(1, snapshot.stageCalls(Stage.TOKENIZE));
+		assertEquals(30, snapshot.stageNanos(Stage.TOKENIZE));
+		assertEquals(80, snapshot.stageNanos(Stage.COMPARE));
+	}
+
+	@Test
+	void reset() {
+		final Instrumentation instrumentation = Instrumentation.create();
+		instrumentation.recordSimplify(10);
+		instrumentation.record("a", "b", 100);
+		instrumentation.reset();
+
+		final InstrumentationSnapshot snapshot = instrumentation.snapshot();
+		assertEquals(0, snapshot.calls());
+		assertEquals(0, snapshot.stageCalls(Stage.SIMPLIFY));
+		assertEquals(0, snapshot.count(1, 7));
+	}
+
+	@Test
+	void mxBean() throws JMException {
+		final Instrumentation instrumentation = Instrumentation.create();
+		instrumentation.recordTokenize(30);
+		instrumentation.record("a", "b", 100);
+
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final ObjectName name = instrumentation.register("InstrumentationTest");
+		try {
+			assertEquals("com.github.mpkorstanje.simmetrics:type=Instrumentation,name=InstrumentationTest",
+					name.toString());
+			assertEquals(1L, server.getAttribute(name, "Calls"));
+			assertEquals(100L, server.getAttribute(name, "TotalNanos"));
+			assertEquals(30L, server.getAttribute(name, "TokenizeNanos"));
+			assertEquals(70L, server.getAttribute(name, "CompareNanos"));
+			assertEquals(127L, server.getAttribute(name, "LatencyMedianNanos"));
+			assertArrayEquals(instrumentation.snapshot().histogram(),
+					(long[][]) server.getAttribute(name, "LatencyHistogram"));
+
+			assertThrows(IllegalArgumentException.class, () -> instrumentation.register("InstrumentationTest"));
+
+			server.invoke(name, "reset", new Object[0], new String[0]);
+			assertEquals(0, instrumentation.snapshot().calls());
+		} finally {
+			Instrumentation.unregister(name);
+		}
+		assertThrows(IllegalArgumentException.class, () -> Instrumentation.unregister(name));
+	}
+
+}
@@ -34,14 +34,23 @@ import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingL
 import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingMultisetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingSetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.CachingSimplifier;
+import com.github.mpkorstanje.simmetrics.builders.Instrumentation.Stage;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
 
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 import static com.github.mpkorstanje.simmetrics.builders.StringDistanceBuilder.with;
 
 final class StringDistanceBuilderTest {
@@ -196,6 +205,76 @@ final class StringDistanceBuilderTest {
 					.build();
 		}
 		
+		@Test
+		void testStringDistanceWithBoundedCache() {
+			with(stringDistance)
+					.simplify(simplifier)
+					.cacheStrings(100)
+					.build();
+		}
+
+		@Test
+		void testStringDistanceWithResultCache() {
+			with(stringDistance)
+					.cacheResults(100)
+					.build();
+		}
+
+		@Test
+		void testStringDistanceWithInstrumentation() {
+			with(stringDistance)
+					.simplify(simplifier)
+					.cacheStrings(100)
+					.cacheResults(100)
+					.instrument(Instrumentation.create())
+					.build();
+		}
+
+		@Test
+		void testListDistanceWithInstrumentation() {
+			with(listDistance)
+					.simplify(simplifier)
+					.tokenize(tokenizer)
+					.instrument(Instrumentation.create())
+					.build();
+		}
+
+		@Test
+		void testStringDistanceWithSimplifierAndResultCache() {
+			with(stringDistance)
+					.simplify(simplifier)
+					.cacheStrings(100)
+					.cacheResults(Caches.resultCache(100))
+					.build();
+		}
+
+		@Test
+		void testListDistanceWithResultCache() {
+			with(listDistance)
+					.tokenize(tokenizer)
+					.cacheTokens(100)
+					.cacheResults(100)
+					.build();
+		}
+
+		@Test
+		void testListDistanceWithCaches() {
+			with(listDistance)
+					.simplify(simplifier)
+					.cacheStrings(Caches.simplificationCache(100))
+					.tokenize(tokenizer)
+					.cacheTokens(Caches.tokenCache(100))
+					.build();
+		}
+
+		@Test
+		void testListDistanceWithBoundedCache() {
+			with(listDistance)
+					.tokenize(tokenizer)
+					.cacheTokens(100)
+					.build();
+		}
+
 		@Test
 		void testListDistance01WithCache() {
 			with(listDistance)
@@ -417,6 +496,50 @@ final class StringDistanceBuilderTest {
 		}
 	}
 	
+	@ExtendWith(MockitoExtension.class)
+	public static class CachingStringDistanceTest {
+
+		@Mock
+		private StringDistance distance;
+
+		@Test
+		void comparesEachPairOnce() {
+			when(distance.distance("ABC", "abd")).thenReturn(0.5f);
+			final StringDistance cached = with(distance).cacheResults(10).build();
+
+			assertEquals(0.5f, cached.distance("ABC", "abd"));
+			assertEquals(0.5f, cached.distance("abd", "ABC"));
+			assertEquals(0.5f, cached.distance("ABC", "abd"));
+			verify(distance, times(1)).distance("ABC", "abd");
+			verifyNoMoreInteractions(distance);
+		}
+
+	}
+
+	public static class InstrumentedStringDistanceTest {
+
+		private final Instrumentation instrumentation = Instrumentation.create();
+
+		private final StringDistance distance = with(new CosineSimilarity<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(Tokenizers.whitespace())
+				.instrument(instrumentation)
+				.build();
+
+		@Test
+		void recordsCallsAndStages() {
+			assertEquals(0.5f, distance.distance("A B", "a c"), 0.0001f);
+
+			final InstrumentationSnapshot snapshot = instrumentation.snapshot();
+			assertEquals(1, snapshot.calls());
+			assertEquals(2, snapshot.stageCalls(Stage.SIMPLIFY));
+			assertEquals(2, snapshot.stageCalls(Stage.TOKENIZE));
+			assertEquals(snapshot.totalNanos(), snapshot.stageNanos(Stage.SIMPLIFY)
+					+ snapshot.stageNanos(Stage.TOKENIZE) + snapshot.stageNanos(Stage.COMPARE));
+		}
+
+	}
+
 	public static class CachingListTokenizerTest extends CachingTokenizerTest<List<String>> {
 
 		@Override
@@ -34,14 +34,24 @@ import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingLis
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingMultisetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingSetTokenizer;
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.CachingSimplifier;
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
+import com.github.mpkorstanje.simmetrics.builders.Instrumentation.Stage;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
 import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
 
 import java.util.List;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.with;
 
 final class StringMetricBuilderTest {
@@ -196,6 +206,76 @@ final class StringMetricBuilderTest {
 					.build();
 		}
 		
+		@Test
+		void testStringMetricWithBoundedCache() {
+			with(stringMetric)
+					.simplify(simplifier)
+					.cacheStrings(100)
+					.build();
+		}
+
+		@Test
+		void testStringMetricWithResultCache() {
+			with(stringMetric)
+					.cacheResults(100)
+					.build();
+		}
+
+		@Test
+		void testStringMetricWithInstrumentation() {
+			with(stringMetric)
+					.simplify(simplifier)
+					.cacheStrings(100)
+					.cacheResults(100)
+					.instrument(Instrumentation.create())
+					.build();
+		}
+
+		@Test
+		void testListMetricWithInstrumentation() {
+			with(listMetric)
+					.simplify(simplifier)
+					.tokenize(tokenizer)
+					.instrument(Instrumentation.create())
+					.build();
+		}
+
+		@Test
+		void testStringMetricWithSimplifierAndResultCache() {
+			with(stringMetric)
+					.simplify(simplifier)
+					.cacheStrings(100)
+					.cacheResults(Caches.resultCache(100))
+					.build();
+		}
+
+		@Test
+		void testListMetricWithResultCache() {
+			with(listMetric)
+					.tokenize(tokenizer)
+					.cacheTokens(100)
+					.cacheResults(100)
+					.build();
+		}
+
+		@Test
+		void testListMetricWithCaches() {
+			with(listMetric)
+					.simplify(simplifier)
+					.cacheStrings(Caches.simplificationCache(100))
+					.tokenize(tokenizer)
+					.cacheTokens(Caches.tokenCache(100))
+					.build();
+		}
+
+		@Test
+		void testListMetricWithBoundedCache() {
+			with(listMetric)
+					.tokenize(tokenizer)
+					.cacheTokens(100)
+					.build();
+		}
+
 		@Test
 		void testListMetric01WithCache() {
 			with(listMetric)
@@ -416,6 +496,65 @@ final class StringMetricBuilderTest {
 					.build();
 		}
 	}
+	@ExtendWith(MockitoExtension.class)
+	public static class CachingStringMetricTest {
+
+		@Mock
+		private StringMetric metric;
+
+		@Test
+		void comparesEachPairOnce() {
+			when(metric.compare("ABC", "abd")).thenReturn(0.5f);
+			final StringMetric cached = with(metric).cacheResults(10).build();
+
+			assertEquals(0.5f, cached.compare("ABC", "abd"));
+			assertEquals(0.5f, cached.compare("abd", "ABC"));
+			assertEquals(0.5f, cached.compare("ABC", "abd"));
+			verify(metric, times(1)).compare("ABC", "abd");
+			verifyNoMoreInteractions(metric);
+		}
+
+	}
+
+	public static class InstrumentedStringMetricTest {
+
+		private final Instrumentation instrumentation = Instrumentation.create();
+
+		private final StringMetric metric = with(new CosineSimilarity<String>())
+				.simplify(Simplifiers.toLowerCase())
+				.tokenize(Tokenizers.whitespace())
+				.instrument(instrumentation)
+				.build();
+
+		@Test
+		void recordsCallsAndStages() {
+			assertEquals(0.5f, metric.compare("A B", "a c"), 0.0001f);
+
+			final InstrumentationSnapshot snapshot = instrumentation.snapshot();
+			assertEquals(1, snapshot.calls());
+			assertEquals(2, snapshot.stageCalls(Stage.SIMPLIFY));
+			assertEquals(2, snapshot.stageCalls(Stage.TOKENIZE));
+			assertEquals(1, snapshot.stageCalls(Stage.COMPARE));
+			assertEquals(snapshot.totalNanos(), snapshot.stageNanos(Stage.SIMPLIFY)
+					+ snapshot.stageNanos(Stage.TOKENIZE) + snapshot.stageNanos(Stage.COMPARE));
+
+			long calls = 0;
+			for (int latency = 0; latency < snapshot.histogram()[0].length; latency++) {
+				calls += snapshot.count(InstrumentationSnapshot.lengthBucket(3), latency);
+			}
+			assertEquals(1, calls);
+		}
+
+		@Test
+		void recordsPreparedCalls() {
+			final PreparedStringMetric prepared = metric.prepare("a b");
+			assertEquals(metric.compare("a b", "a c"), prepared.compare("a c"));
+			assertEquals(metric.compare("a b", "b"), prepared.compare("b", 0.1f));
+			assertEquals(4, instrumentation.snapshot().calls());
+		}
+
+	}
+
 	public static class CachingListTokenizerTest extends CachingTokenizerTest<List<String>> {
 
 		@Override
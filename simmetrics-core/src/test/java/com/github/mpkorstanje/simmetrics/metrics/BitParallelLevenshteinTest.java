@@ -0,0 +1,150 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class BitParallelLevenshteinTest {
+
+	private static final int[] ALPHABET = { 'a', 'b', 'c', 0xE9, 0x4E00, 0x4E01, 0x10400, 0x10401 };
+
+	private static int[] random(Random random, int length, int alphabet) {
+		final int[] codePoints = new int[length];
+		for (int i = 0; i < length; i++) {
+			codePoints[i] = ALPHABET[random.nextInt(alphabet)];
+		}
+		return codePoints;
+	}
+
+	private static int[] mutate(Random random, int[] codePoints, int alphabet) {
+		final int[] mutated = codePoints.clone();
+		for (int i = 0; i < mutated.length; i++) {
+			if (random.nextInt(5) == 0) {
+				mutated[i] = ALPHABET[random.nextInt(alphabet)];
+			}
+		}
+		return mutated;
+	}
+
+	private static int dynamicProgramming(int[] s, int[] t) {
+		int[] v0 = new int[t.length + 1];
+		int[] v1 = new int[t.length + 1];
+		for (int j = 0; j <= t.length; j++) {
+			v0[j] = j;
+		}
+		for (int i = 0; i < s.length; i++) {
+			v1[0] = i + 1;
+			for (int j = 0; j < t.length; j++) {
+				v1[j + 1] = Math.min(v1[j] + 1, v0[j + 1] + 1, v0[j] + (s[i] == t[j] ? 0 : 1));
+			}
+			final int[] swap = v0;
+			v0 = v1;
+			v1 = swap;
+		}
+		return v0[t.length];
+	}
+
+	private static int distance(int[] s, int[] t) {
+		return BitParallelLevenshtein.distance(CodePoints.of(new String(s, 0, s.length)),
+				CodePoints.of(new String(t, 0, t.length)));
+	}
+
+	@Test
+	void empty() {
+		assertEquals(0, distance(new int[0], new int[0]));
+		assertEquals(3, distance(new int[0], new int[] { 'a', 'b', 'c' }));
+		assertEquals(3, distance(new int[] { 'a', 'b', 'c' }, new int[0]));
+	}
+
+	@Test
+	void singleBlock() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			final int alphabet = 2 + random.nextInt(ALPHABET.length - 1);
+			final int[] s = random(random, 1 + random.nextInt(64), alphabet);
+			final int[] t = random.nextBoolean() ? mutate(random, s, alphabet)
+					: random(random, random.nextInt(80), alphabet);
+			assertEquals(dynamicProgramming(s, t), distance(s, t));
+		}
+	}
+
+	@Test
+	void multipleBlocks() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 500; i++) {
+			final int alphabet = 2 + random.nextInt(ALPHABET.length - 1);
+			final int[] s = random(random, 60 + random.nextInt(200), alphabet);
+			final int[] t = random.nextBoolean() ? mutate(random, s, alphabet)
+					: random(random, 60 + random.nextInt(200), alphabet);
+			assertEquals(dynamicProgramming(s, t), distance(s, t));
+		}
+	}
+
+	@Test
+	void bounded() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 2000; i++) {
+			final int alphabet = 2 + random.nextInt(ALPHABET.length - 1);
+			final int[] s = random(random, 1 + random.nextInt(150), alphabet);
+			final int[] t = random.nextBoolean() ? mutate(random, s, alphabet)
+					: random(random, 1 + random.nextInt(150), alphabet);
+			final int expected = dynamicProgramming(s, t);
+			final int max = random.nextInt(expected + 10);
+			final int actual = BitParallelLevenshtein.distance(CodePoints.of(new String(s, 0, s.length)),
+					CodePoints.of(new String(t, 0, t.length)), max);
+			assertEquals(expected <= max ? expected : max + 1, actual);
+		}
+	}
+
+	@Test
+	void reusesMasksBetweenPatterns() {
+		// Alternate between long, short and non Latin-1 patterns on one thread
+		final Random random = new Random(42);
+		for (int i = 0; i < 500; i++) {
+			final int alphabet = 2 + random.nextInt(ALPHABET.length - 1);
+			final int[] s = random(random, 1 + random.nextInt(i % 2 == 0 ? 200 : 10), alphabet);
+			final int[] t = random(random, 1 + random.nextInt(200), alphabet);
+			final BitParallelLevenshtein.Pattern pattern = new BitParallelLevenshtein.Pattern(
+					CodePoints.of(new String(s, 0, s.length)));
+			assertEquals(dynamicProgramming(s, t), distance(s, t));
+			assertEquals(dynamicProgramming(s, t), pattern.distance(CodePoints.of(new String(t, 0, t.length))));
+		}
+	}
+
+	@Test
+	void blockBoundaries() {
+		final Random random = new Random(42);
+		for (int length : new int[] { 63, 64, 65, 127, 128, 129 }) {
+			final int[] s = random(random, length, 3);
+			final int[] t = mutate(random, s, 3);
+			assertEquals(dynamicProgramming(s, t), distance(s, t));
+			assertEquals(dynamicProgramming(s, new int[0]), distance(s, new int[0]));
+			final int[] disjoint = new int[length];
+			Arrays.fill(disjoint, 0x10401);
+			assertEquals(length, distance(s, disjoint));
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+final class CodePointsTest {
+
+	private static final String[] STRINGS = {
+			"",
+			"Healed",
+			"Sealed",
+			"café",
+			"café",
+			"中文",
+			"中文字",
+			"𐐀𐐁",
+			"𐐀𐐂",
+			"a𐐀b",
+			"a\ud801c",
+	};
+
+	@Test
+	void empty() {
+		final CodePoints codePoints = CodePoints.of("");
+		assertTrue(codePoints.isEmpty());
+		assertEquals(0, codePoints.length());
+		assertArrayEquals(new int[0], codePoints.toArray());
+	}
+
+	@Test
+	void nullString() {
+		assertThrows(NullPointerException.class, () -> CodePoints.of(null));
+	}
+
+	@Test
+	void decodes() {
+		for (String string : STRINGS) {
+			final CodePoints codePoints = CodePoints.of(string);
+			assertEquals(string.codePointCount(0, string.length()), codePoints.length());
+			assertArrayEquals(string.codePoints().toArray(), codePoints.toArray());
+			for (int i = 0; i < codePoints.length(); i++) {
+				assertEquals(string.codePoints().toArray()[i], codePoints.codePointAt(i));
+			}
+			assertEquals(string, codePoints.toString());
+		}
+	}
+
+	@Test
+	void outOfBounds() {
+		assertThrows(IndexOutOfBoundsException.class, () -> CodePoints.of("abc").codePointAt(3));
+		assertThrows(IndexOutOfBoundsException.class, () -> CodePoints.of("中").codePointAt(1));
+		assertThrows(IndexOutOfBoundsException.class, () -> CodePoints.of("𐐀").codePointAt(1));
+	}
+
+	@Test
+	void equality() {
+		assertEquals(CodePoints.of("Healed"), CodePoints.of("Healed"));
+		assertEquals(CodePoints.of("Healed").hashCode(), CodePoints.of("Healed").hashCode());
+		assertNotEquals(CodePoints.of("Healed"), CodePoints.of("Sealed"));
+		assertNotEquals(CodePoints.of("café"), CodePoints.of("café"));
+	}
+
+	@Test
+	void surrogatePairsAreSingleCodePoints() {
+		final String a = "𐐀𐐁𐐂";
+		final String b = "𐐀𐐃𐐂";
+		assertEquals(1.0f, new Levenshtein().distance(a, b), 0.0f);
+		assertEquals(1.0f, new Levenshtein(1.0f, 0.5f).distance(a, b) * 2, 0.0f);
+		assertEquals(1.0f, new DamerauLevenshtein().distance(a, b), 0.0f);
+		assertEquals(1.0f, HammingDistance.forString().distance(a, b), 0.0f);
+		assertEquals(2.0f, new LongestCommonSubSequence().distance(a, b), 0.0f);
+		assertEquals(4.0f, new LongestCommonSubstring().distance(a, b), 0.0f);
+		assertEquals(1.0f, new DamerauLevenshtein().distance(
+				"𐐀𐐁", "𐐁𐐀"), 0.0f);
+		assertEquals(new NeedlemanWunch().compare("xyz", "xwz"), new NeedlemanWunch().compare(a, b), 0.0f);
+		assertEquals(new SmithWaterman().compare("xyz", "xwz"), new SmithWaterman().compare(a, b), 0.0f);
+		assertEquals(new SmithWatermanGotoh().compare("xyz", "xwz"), new SmithWatermanGotoh().compare(a, b), 0.0f);
+	}
+
+	@Test
+	void codePointsAndStringsAgree() {
+		final Levenshtein levenshtein = new Levenshtein();
+		final Levenshtein weightedLevenshtein = new Levenshtein(0.5f, 1.0f);
+		final DamerauLevenshtein damerauLevenshtein = new DamerauLevenshtein();
+		final NeedlemanWunch needlemanWunch = new NeedlemanWunch();
+		final SmithWatermanGotoh smithWatermanGotoh = new SmithWatermanGotoh();
+		final LongestCommonSubSequence subSequence = new LongestCommonSubSequence();
+		final LongestCommonSubstring substring = new LongestCommonSubstring();
+
+		for (String a : STRINGS) {
+			for (String b : STRINGS) {
+				final CodePoints x = CodePoints.of(a);
+				final CodePoints y = CodePoints.of(b);
+				assertEquals(levenshtein.compare(a, b), levenshtein.compare(x, y), 0.0f);
+				assertEquals(levenshtein.distance(a, b), levenshtein.distance(x, y), 0.0f);
+				assertEquals(weightedLevenshtein.distance(a, b), weightedLevenshtein.distance(x, y), 0.0f);
+				assertEquals(damerauLevenshtein.compare(a, b), damerauLevenshtein.compare(x, y), 0.0f);
+				assertEquals(damerauLevenshtein.distance(a, b), damerauLevenshtein.distance(x, y), 0.0f);
+				assertEquals(needlemanWunch.compare(a, b), needlemanWunch.compare(x, y), 0.0f);
+				assertEquals(smithWatermanGotoh.compare(a, b), smithWatermanGotoh.compare(x, y), 0.0f);
+				assertEquals(subSequence.compare(a, b), subSequence.compare(x, y), 0.0f);
+				assertEquals(subSequence.distance(a, b), subSequence.distance(x, y), 0.0f);
+				assertEquals(substring.compare(a, b), substring.compare(x, y), 0.0f);
+				assertEquals(substring.distance(a, b), substring.distance(x, y), 0.0f);
+				if (x.length() == y.length()) {
+					assertEquals(HammingDistance.forString().distance(a, b),
+							HammingDistance.forCodePoints().distance(x, y), 0.0f);
+				}
+			}
+		}
+	}
+
+}
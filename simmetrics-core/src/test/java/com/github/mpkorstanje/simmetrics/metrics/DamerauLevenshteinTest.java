@@ -20,6 +20,8 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 import com.github.mpkorstanje.simmetrics.Metric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
@@ -27,6 +29,7 @@ import com.github.mpkorstanje.simmetrics.StringDistanceTest;
 import com.github.mpkorstanje.simmetrics.StringMetric;
 import com.github.mpkorstanje.simmetrics.StringMetricTest;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class DamerauLevenshteinTest {
@@ -53,6 +56,95 @@ class DamerauLevenshteinTest {
 		}
 	}
 
+	static final class Bounded {
+
+		private static final float[] MAX_DISTANCES = { 0.0f, 0.1f, 0.5f, 1.0f, 2.0f, 3.5f, 8.0f, 100.0f };
+
+		private static final float[] MIN_SIMILARITIES = { 0.0f, 0.25f, 0.5f, 0.8f, 0.9f, 1.0f };
+
+		private static final DamerauLevenshtein[] METRICS = {
+				new DamerauLevenshtein(),
+				new DamerauLevenshtein(0.1f, 1.0f, 1.0f),
+				new DamerauLevenshtein(1.0f, 0.2f, 1.0f),
+				new DamerauLevenshtein(1.0f, 1.0f, 0.1f),
+				new DamerauLevenshtein(1.0f, 1.0f, 0.0f),
+		};
+
+		private static String[][] pairs() {
+			final Random random = new Random(42);
+			final String[][] pairs = new String[500][];
+			for (int i = 0; i < pairs.length; i++) {
+				pairs[i] = new String[] { random(random), random(random) };
+			}
+			return pairs;
+		}
+
+		private static String random(Random random) {
+			final char[] chars = new char[random.nextInt(12)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = "abc".charAt(random.nextInt(3));
+			}
+			return new String(chars);
+		}
+
+		@Test
+		void negativeMaxDistance() {
+			assertThrows(IllegalArgumentException.class, () -> new DamerauLevenshtein().distance("a", "b", -Float.MIN_VALUE));
+		}
+
+		@Test
+		void minSimilarityOutOfRange() {
+			assertThrows(IllegalArgumentException.class, () -> new DamerauLevenshtein().compare("a", "b", -Float.MIN_VALUE));
+			assertThrows(IllegalArgumentException.class, () -> new DamerauLevenshtein().compare("a", "b", java.lang.Math.nextUp(1.0f)));
+		}
+
+		@Test
+		void distanceExceedingBound() {
+			final DamerauLevenshtein metric = new DamerauLevenshtein();
+			assertEquals(Float.POSITIVE_INFINITY, metric.distance("test", "test string2", 7.0f), 0.0f);
+			assertEquals(8.0f, metric.distance("test", "test string2", 8.0f), 0.0f);
+			assertEquals(Float.POSITIVE_INFINITY, metric.distance("", "test", 3.0f), 0.0f);
+			assertEquals(0.0f, metric.distance("test", "test", 0.0f), 0.0f);
+		}
+
+		@Test
+		void distanceEqualsUnboundedWithinBound() {
+			for (DamerauLevenshtein metric : METRICS) {
+				for (String[] pair : pairs()) {
+					final float expected = metric.distance(pair[0], pair[1]);
+					for (float maxDistance : MAX_DISTANCES) {
+						final float actual = metric.distance(pair[0], pair[1], maxDistance);
+						final String message = metric + " " + pair[0] + " " + pair[1] + " " + maxDistance;
+						if (expected <= maxDistance) {
+							assertEquals(expected, actual, 0.0f, message);
+						} else {
+							assertEquals(Float.POSITIVE_INFINITY, actual, 0.0f, message);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void compareEqualsUnboundedAboveMinimum() {
+			for (DamerauLevenshtein metric : METRICS) {
+				for (String[] pair : pairs()) {
+					final float expected = metric.compare(pair[0], pair[1]);
+					final String message = metric + " " + pair[0] + " " + pair[1];
+					assertEquals(expected, metric.compare(pair[0], pair[1], expected), 0.0f, message);
+					for (float minSimilarity : MIN_SIMILARITIES) {
+						final float actual = metric.compare(pair[0], pair[1], minSimilarity);
+						if (expected >= minSimilarity) {
+							assertEquals(expected, actual, 0.0f, message + " " + minSimilarity);
+						} else {
+							assertEquals(0.0f, actual, 0.0f, message + " " + minSimilarity);
+						}
+					}
+				}
+			}
+		}
+	}
+
 	static final class DistanceString {
 
 		static final class UnitCost extends StringDistanceTest {
@@ -0,0 +1,135 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+final class DenseVectorTest {
+
+	private static final float DELTA = 1e-5f;
+
+	private static float[] random(Random random, int dimension) {
+		final float[] values = new float[dimension];
+		for (int i = 0; i < dimension; i++) {
+			values[i] = random.nextInt(4) == 0 ? 0.0f : random.nextFloat();
+		}
+		return values;
+	}
+
+	private static double dotProduct(float[] a, float[] b) {
+		double sum = 0;
+		for (int i = 0; i < a.length; i++) {
+			sum += (double) a[i] * b[i];
+		}
+		return sum;
+	}
+
+	@Test
+	void values() {
+		final float[] values = { 3.0f, 0.0f, -4.0f };
+		final DenseVector vector = DenseVector.of(values);
+		values[0] = 1.0f;
+		assertEquals(3, vector.dimension());
+		assertEquals(3.0f, vector.get(0));
+		assertEquals(5.0f, vector.norm());
+		assertArrayEquals(new float[] { 3.0f, 0.0f, -4.0f }, vector.toArray());
+		assertEquals("[3.0, 0.0, -4.0]", vector.toString());
+	}
+
+	@Test
+	void equality() {
+		assertEquals(DenseVector.of(1.0f, 2.0f), DenseVector.of(1.0f, 2.0f));
+		assertEquals(DenseVector.of(1.0f, 2.0f).hashCode(), DenseVector.of(1.0f, 2.0f).hashCode());
+		assertNotEquals(DenseVector.of(1.0f, 2.0f), DenseVector.of(1.0f, 2.0f, 0.0f));
+	}
+
+	@Test
+	void metricsEqualReference() {
+		final Random random = new Random(42);
+		final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+		final EuclideanDistance<String> euclidean = new EuclideanDistance<>();
+		final BlockDistance<String> block = new BlockDistance<>();
+
+		for (int dimension : new int[] { 1, 3, 4, 7, 64, 301 }) {
+			final float[] a = random(random, dimension);
+			final float[] b = random(random, dimension);
+			final DenseVector x = DenseVector.of(a);
+			final DenseVector y = DenseVector.of(b);
+
+			final double normA = java.lang.Math.sqrt(dotProduct(a, a));
+			final double normB = java.lang.Math.sqrt(dotProduct(b, b));
+			double squares = 0;
+			double absolutes = 0;
+			double l1A = 0;
+			double l1B = 0;
+			for (int i = 0; i < dimension; i++) {
+				squares += (a[i] - b[i]) * (a[i] - b[i]);
+				absolutes += java.lang.Math.abs(a[i] - b[i]);
+				l1A += java.lang.Math.abs(a[i]);
+				l1B += java.lang.Math.abs(b[i]);
+			}
+
+			assertEquals(dotProduct(a, b) / (normA * normB), cosine.compare(x, y), DELTA);
+			assertEquals(1 - dotProduct(a, b) / (normA * normB), cosine.distance(x, y), DELTA);
+			assertEquals(java.lang.Math.sqrt(squares), euclidean.distance(x, y), DELTA * dimension);
+			assertEquals(1 - java.lang.Math.sqrt(squares) / (normA + normB), euclidean.compare(x, y), DELTA);
+			assertEquals(absolutes, block.distance(x, y), DELTA * dimension);
+			assertEquals(1 - absolutes / (l1A + l1B), block.compare(x, y), DELTA);
+
+			assertEquals(1.0f, cosine.compare(x, x), DELTA);
+			assertEquals(0.0f, euclidean.distance(x, x));
+			assertEquals(1.0f, block.compare(x, x));
+		}
+	}
+
+	@Test
+	void zeroVectors() {
+		final DenseVector zero = DenseVector.of(0.0f, 0.0f);
+		final DenseVector one = DenseVector.of(1.0f, 0.0f);
+		assertEquals(1.0f, new CosineSimilarity<String>().compare(zero, zero));
+		assertEquals(0.0f, new CosineSimilarity<String>().compare(zero, one));
+		assertEquals(1.0f, new EuclideanDistance<String>().compare(zero, zero));
+		assertEquals(0.0f, new EuclideanDistance<String>().compare(zero, one));
+		assertEquals(1.0f, new BlockDistance<String>().compare(zero, zero));
+		assertEquals(0.0f, new BlockDistance<String>().compare(zero, one));
+	}
+
+	@Test
+	void differentDimensions() {
+		final DenseVector a = DenseVector.of(1.0f, 2.0f);
+		final DenseVector b = DenseVector.of(1.0f, 2.0f, 3.0f);
+		assertThrows(IllegalArgumentException.class, () -> new CosineSimilarity<String>().compare(a, b));
+		assertThrows(IllegalArgumentException.class, () -> new EuclideanDistance<String>().distance(a, b));
+		assertThrows(IllegalArgumentException.class, () -> new BlockDistance<String>().distance(a, b));
+	}
+
+	@Test
+	void nullValues() {
+		assertThrows(NullPointerException.class, () -> DenseVector.of((float[]) null));
+	}
+
+}
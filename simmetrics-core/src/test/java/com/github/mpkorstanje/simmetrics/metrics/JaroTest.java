@@ -20,6 +20,13 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
 import com.github.mpkorstanje.simmetrics.StringMetricTest;
 import com.github.mpkorstanje.simmetrics.Metric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
@@ -194,4 +201,91 @@ static final class DistanceTest extends StringDistanceTest {
 					new T(0.2500f, "Healed", "Help"), };
 		}
 	}
+
+	/**
+	 * Strings of up to 64 code points use a bitmask kernel, longer strings the
+	 * array based kernel. Both must agree with the textbook implementation.
+	 */
+	static final class Kernels {
+
+		private static float reference(String a, String b) {
+			final int[] x = a.codePoints().toArray();
+			final int[] y = b.codePoints().toArray();
+			if (x.length == 0 && y.length == 0) {
+				return 1.0f;
+			}
+			if (x.length == 0 || y.length == 0) {
+				return 0.0f;
+			}
+			final int halfLength = java.lang.Math.max(0, java.lang.Math.max(x.length, y.length) / 2 - 1);
+			final int[] commonX = common(x, y, halfLength);
+			final int[] commonY = common(y, x, halfLength);
+			if (commonX.length == 0) {
+				return 0.0f;
+			}
+			float transpositions = 0;
+			for (int i = 0; i < commonX.length; i++) {
+				if (commonX[i] != commonY[i]) {
+					transpositions++;
+				}
+			}
+			final int m = commonX.length;
+			return (m / (float) x.length + m / (float) y.length + (m - transpositions / 2.0f) / m) / 3.0f;
+		}
+
+		private static int[] common(int[] x, int[] y, int halfLength) {
+			final boolean[] matched = new boolean[y.length];
+			final int[] common = new int[x.length];
+			int size = 0;
+			for (int i = 0; i < x.length; i++) {
+				for (int j = java.lang.Math.max(0, i - halfLength); j < java.lang.Math.min(y.length,
+						i + halfLength + 1); j++) {
+					if (y[j] == x[i] && !matched[j]) {
+						matched[j] = true;
+						common[size++] = x[i];
+						break;
+					}
+				}
+			}
+			return java.util.Arrays.copyOf(common, size);
+		}
+
+		private static String random(Random random, int length) {
+			final StringBuilder builder = new StringBuilder();
+			for (int i = 0; i < length; i++) {
+				final int choice = random.nextInt(8);
+				builder.appendCodePoint(choice == 0 ? 0x10400 + random.nextInt(3) : 'a' + random.nextInt(4));
+			}
+			return builder.toString();
+		}
+
+		@Test
+		void equalsReference() {
+			final Random random = new Random(42);
+			final Jaro jaro = new Jaro();
+			final int[] lengths = { 0, 1, 2, 7, 31, 63, 64, 65, 100, 130 };
+			for (int lengthA : lengths) {
+				for (int lengthB : lengths) {
+					for (int i = 0; i < 20; i++) {
+						final String a = random(random, lengthA);
+						final String b = random(random, lengthB);
+						final PreparedStringMetric prepared = jaro.prepare(a);
+						assertEquals(reference(a, b), jaro.compare(a, b), 0.0f, a + " " + b);
+						assertEquals(reference(a, b), prepared.compare(b), 0.0f, a + " " + b);
+					}
+				}
+			}
+		}
+
+		@Test
+		void reusesBuffersAfterLongStrings() {
+			final Jaro jaro = new Jaro();
+			final Random random = new Random(42);
+			final String longA = random(random, 200);
+			final String longB = random(random, 150);
+			assertEquals(reference(longA, longB), jaro.compare(longA, longB), 0.0f);
+			assertEquals(reference("MARTHA", "MARHTA"), jaro.compare("MARTHA", "MARHTA"), 0.0f);
+			assertEquals(reference(longB, "MARHTA"), jaro.compare(longB, "MARHTA"), 0.0f);
+		}
+	}
 }
@@ -20,6 +20,15 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
 import com.github.mpkorstanje.simmetrics.Metric;
 import com.github.mpkorstanje.simmetrics.StringDistance;
 import com.github.mpkorstanje.simmetrics.StringDistanceTest;
@@ -28,6 +37,113 @@ import com.github.mpkorstanje.simmetrics.StringMetricTest;
 
 final class LevenshteinTest {
 
+	static final class Bounded {
+
+		private static final float[] MAX_DISTANCES = { 0.0f, 0.1f, 0.5f, 1.0f, 2.0f, 3.5f, 8.0f, 100.0f };
+
+		private static final float[] MIN_SIMILARITIES = { 0.0f, 0.25f, 0.5f, 0.8f, 0.9f, 1.0f };
+
+		private static final Levenshtein[] METRICS = {
+				new Levenshtein(),
+				new Levenshtein(0.1f, 1.0f),
+				new Levenshtein(1.0f, 0.1f),
+				new Levenshtein(1.0f, 0.0f),
+		};
+
+		private static String[][] pairs() {
+			final Random random = new Random(42);
+			final String[][] pairs = new String[500][];
+			for (int i = 0; i < pairs.length; i++) {
+				pairs[i] = new String[] { random(random), random(random) };
+			}
+			return pairs;
+		}
+
+		private static String random(Random random) {
+			final char[] chars = new char[random.nextInt(12)];
+			for (int i = 0; i < chars.length; i++) {
+				chars[i] = "abc".charAt(random.nextInt(3));
+			}
+			return new String(chars);
+		}
+
+		@Test
+		void negativeMaxDistance() {
+			assertThrows(IllegalArgumentException.class, () -> new Levenshtein().distance("a", "b", -Float.MIN_VALUE));
+		}
+
+		@Test
+		void minSimilarityOutOfRange() {
+			assertThrows(IllegalArgumentException.class, () -> new Levenshtein().compare("a", "b", -Float.MIN_VALUE));
+			assertThrows(IllegalArgumentException.class, () -> new Levenshtein().compare("a", "b", java.lang.Math.nextUp(1.0f)));
+		}
+
+		@Test
+		void distanceExceedingBound() {
+			final Levenshtein metric = new Levenshtein();
+			assertEquals(Float.POSITIVE_INFINITY, metric.distance("test", "test string2", 7.0f), 0.0f);
+			assertEquals(8.0f, metric.distance("test", "test string2", 8.0f), 0.0f);
+			assertEquals(Float.POSITIVE_INFINITY, metric.distance("", "test", 3.0f), 0.0f);
+			assertEquals(0.0f, metric.distance("test", "test", 0.0f), 0.0f);
+		}
+
+		@Test
+		void distanceEqualsUnboundedWithinBound() {
+			for (Levenshtein metric : METRICS) {
+				for (String[] pair : pairs()) {
+					final float expected = metric.distance(pair[0], pair[1]);
+					for (float maxDistance : MAX_DISTANCES) {
+						final float actual = metric.distance(pair[0], pair[1], maxDistance);
+						final String message = metric + " " + pair[0] + " " + pair[1] + " " + maxDistance;
+						if (expected <= maxDistance) {
+							assertEquals(expected, actual, 0.0f, message);
+						} else {
+							assertEquals(Float.POSITIVE_INFINITY, actual, 0.0f, message);
+						}
+					}
+				}
+			}
+		}
+
+		@Test
+		void distanceAllEqualsDistance() {
+			final String[][] pairs = pairs();
+			final List<String> candidates = new ArrayList<>();
+			for (String[] pair : pairs) {
+				candidates.add(pair[1]);
+			}
+			for (Levenshtein metric : METRICS) {
+				for (int j = 0; j < 50; j++) {
+					final String query = pairs[j][0];
+					final float[] distances = metric.distanceAll(query, candidates);
+					for (int i = 0; i < candidates.size(); i++) {
+						assertEquals(metric.distance(query, candidates.get(i)), distances[i], 0.0f,
+								metric + " " + query + " " + candidates.get(i));
+					}
+				}
+			}
+		}
+
+		@Test
+		void compareEqualsUnboundedAboveMinimum() {
+			for (Levenshtein metric : METRICS) {
+				for (String[] pair : pairs()) {
+					final float expected = metric.compare(pair[0], pair[1]);
+					final String message = metric + " " + pair[0] + " " + pair[1];
+					assertEquals(expected, metric.compare(pair[0], pair[1], expected), 0.0f, message);
+					for (float minSimilarity : MIN_SIMILARITIES) {
+						final float actual = metric.compare(pair[0], pair[1], minSimilarity);
+						if (expected >= minSimilarity) {
+							assertEquals(expected, actual, 0.0f, message + " " + minSimilarity);
+						} else {
+							assertEquals(0.0f, actual, 0.0f, message + " " + minSimilarity);
+						}
+					}
+				}
+			}
+		}
+	}
+
 	static final class DistanceString {
 
 		static final class UnitCost extends StringDistanceTest {
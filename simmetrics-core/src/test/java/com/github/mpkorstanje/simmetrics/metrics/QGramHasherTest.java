@@ -0,0 +1,164 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+import com.google.common.collect.Multiset;
+
+final class QGramHasherTest {
+
+	// Surrogate pair from Linear A (U+10600)
+	private static final String linearAOne = new String(new int[] { 0x10600 }, 0, 1);
+
+	private static List<String> strings() {
+		final Random random = new Random(42);
+		final List<String> strings = new ArrayList<>();
+		strings.add("");
+		strings.add("a");
+		strings.add(linearAOne);
+		strings.add("a" + linearAOne + "b" + linearAOne);
+		for (int i = 0; i < 40; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(20);
+			for (int j = 0; j < length; j++) {
+				builder.append(random.nextInt(5) == 0 ? ' ' : (char) ('a' + random.nextInt(3)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+
+	private static void assertOneToOne(Tokenizer tokenizer, QGramHasher hasher) {
+		final Map<String, Long> fingerprints = new HashMap<>();
+		final Map<Long, String> tokens = new HashMap<>();
+		for (String string : strings()) {
+			final List<String> expected = tokenizer.tokenizeToList(string);
+			final long[] actual = hasher.hash(string);
+			assertEquals(expected.size(), actual.length, hasher + " " + string);
+			for (int i = 0; i < actual.length; i++) {
+				final String token = expected.get(i);
+				final long fingerprint = actual[i];
+				assertEquals(fingerprint, (long) fingerprints.computeIfAbsent(token, t -> fingerprint), token);
+				assertEquals(token, tokens.computeIfAbsent(fingerprint, f -> token), token);
+			}
+		}
+	}
+
+	@Test
+	void fingerprintsCorrespondToTokens() {
+		for (int q = 1; q <= 5; q++) {
+			assertOneToOne(Tokenizers.qGram(q), QGramHasher.qGram(q));
+			assertOneToOne(Tokenizers.qGramWithPadding(q), QGramHasher.qGramWithPadding(q));
+			assertOneToOne(Tokenizers.qGramWithPadding(q, "<", ">"), QGramHasher.qGramWithPadding(q, "<", ">"));
+		}
+	}
+
+	@Test
+	void sink() {
+		final QGramHasher hasher = QGramHasher.qGramWithPadding(3);
+		final List<Long> fingerprints = new ArrayList<>();
+		hasher.hash("hello", fingerprints::add);
+		final long[] expected = hasher.hash("hello");
+		assertEquals(7, expected.length);
+		assertArrayEquals(expected, fingerprints.stream().mapToLong(Long::longValue).toArray());
+	}
+
+	@Test
+	void setMetricsEqualTokenSetMetrics() {
+		final Tokenizer tokenizer = Tokenizers.qGramWithPadding(3);
+		final QGramHasher hasher = QGramHasher.qGramWithPadding(3);
+		final Jaccard<String> jaccard = new Jaccard<>();
+		final Dice<String> dice = new Dice<>();
+		final OverlapCoefficient<String> overlap = new OverlapCoefficient<>();
+
+		for (String a : strings()) {
+			for (String b : strings()) {
+				final Set<String> x = tokenizer.tokenizeToSet(a);
+				final Set<String> y = tokenizer.tokenizeToSet(b);
+				final TokenIdSet p = hasher.hashToSet(a);
+				final TokenIdSet q = hasher.hashToSet(b);
+
+				assertEquals(jaccard.compare(x, y), jaccard.compare(p, q), 0.0f);
+				assertEquals(jaccard.distance(x, y), jaccard.distance(p, q), 0.0f);
+				assertEquals(dice.compare(x, y), dice.compare(p, q), 0.0f);
+				assertEquals(dice.distance(x, y), dice.distance(p, q), 0.0f);
+				assertEquals(overlap.compare(x, y), overlap.compare(p, q), 0.0f);
+				assertEquals(overlap.distance(x, y), overlap.distance(p, q), 0.0f);
+			}
+		}
+	}
+
+	@Test
+	void multisetMetricsEqualTokenMultisetMetrics() {
+		for (int n : asList(1, 2, 4)) {
+			final Tokenizer tokenizer = Tokenizers.qGram(n);
+			final QGramHasher hasher = QGramHasher.qGram(n);
+			final SimonWhite<String> simonWhite = new SimonWhite<>();
+			final GeneralizedJaccard<String> generalizedJaccard = new GeneralizedJaccard<>();
+			final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+			final BlockDistance<String> block = new BlockDistance<>();
+			final EuclideanDistance<String> euclidean = new EuclideanDistance<>();
+
+			for (String a : strings()) {
+				for (String b : strings()) {
+					final Multiset<String> x = tokenizer.tokenizeToMultiset(a);
+					final Multiset<String> y = tokenizer.tokenizeToMultiset(b);
+					final TokenIdMultiset p = hasher.hashToMultiset(a);
+					final TokenIdMultiset q = hasher.hashToMultiset(b);
+
+					assertEquals(simonWhite.compare(x, y), simonWhite.compare(p, q), 0.0f);
+					assertEquals(simonWhite.distance(x, y), simonWhite.distance(p, q), 0.0f);
+					assertEquals(generalizedJaccard.compare(x, y), generalizedJaccard.compare(p, q), 0.0f);
+					assertEquals(generalizedJaccard.distance(x, y), generalizedJaccard.distance(p, q), 0.0f);
+					assertEquals(cosine.compare(x, y), cosine.compare(p, q), 0.0f);
+					assertEquals(cosine.distance(x, y), cosine.distance(p, q), 0.0f);
+					assertEquals(block.compare(x, y), block.compare(p, q), 0.0f);
+					assertEquals(block.distance(x, y), block.distance(p, q), 0.0f);
+					assertEquals(euclidean.compare(x, y), euclidean.compare(p, q), 0.0f);
+					assertEquals(euclidean.distance(x, y), euclidean.distance(p, q), 0.0f);
+				}
+			}
+		}
+	}
+
+	@Test
+	void illegalArguments() {
+		assertThrows(IllegalArgumentException.class, () -> QGramHasher.qGram(0));
+		assertThrows(IllegalArgumentException.class, () -> QGramHasher.qGramWithPadding(2, ""));
+		assertThrows(NullPointerException.class, () -> QGramHasher.qGram(2).hash(null));
+		assertThrows(NullPointerException.class, () -> QGramHasher.qGram(2).hash("a", null));
+	}
+
+}
@@ -20,8 +20,16 @@
 
 package com.github.mpkorstanje.simmetrics.metrics;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
 import com.github.mpkorstanje.simmetrics.StringMetric;
 import com.github.mpkorstanje.simmetrics.StringMetricTest;
+import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
+import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
 
 final class SmithWatermanGotohTest extends StringMetricTest {
 	
@@ -101,4 +109,75 @@ final class SmithWatermanGotohTest extends StringMetricTest {
 
 		};
 	}
+
+	@Test
+	void profileEqualsSubstitutionFunction() {
+		final Random random = new Random(42);
+		final int[] lengths = { 1, 2, 7, 8, 9, 15, 16, 17, 63, 200 };
+		final MatchMismatch[] substitutions = {
+				new MatchMismatch(1.0f, -2.0f),
+				new MatchMismatch(2.0f, 0.5f),
+				new MatchMismatch(1.0f, -0.25f),
+		};
+		final float[] gapValues = { -0.5f, 0.0f, -3.0f };
+
+		for (MatchMismatch substitution : substitutions) {
+			for (float gapValue : gapValues) {
+				final SmithWatermanGotoh profiled = new SmithWatermanGotoh(gapValue, substitution);
+				final SmithWatermanGotoh scalar = new SmithWatermanGotoh(gapValue, delegate(substitution));
+				for (int lengthA : lengths) {
+					for (int lengthB : lengths) {
+						final String a = random(random, lengthA);
+						final String b = random(random, lengthB);
+						final float expected = scalar.compare(a, b);
+						assertEquals(expected, profiled.compare(a, b), 0.0f, a + " " + b);
+						assertEquals(expected, profiled.prepare(a).compare(b), 0.0f, a + " " + b);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void subclassOfMatchMismatchIsNotProfiled() {
+		// Ignores case, which the match-mismatch kernel would not
+		final MatchMismatch caseInsensitive = new MatchMismatch(1.0f, -2.0f) {
+			@Override
+			public float compare(int a, int b) {
+				return super.compare(Character.toLowerCase(a), Character.toLowerCase(b));
+			}
+		};
+		final SmithWatermanGotoh metric = new SmithWatermanGotoh(-0.5f, caseInsensitive);
+		final SmithWatermanGotoh scalar = new SmithWatermanGotoh(-0.5f, delegate(caseInsensitive));
+		assertEquals(1.0f, metric.compare("HELLO", "hello"), 0.0f);
+		assertEquals(scalar.compare("Hello World", "hello world"), metric.compare("Hello World", "hello world"), 0.0f);
+		assertEquals(1.0f, metric.prepare("HELLO").compare("hello"), 0.0f);
+	}
+
+	private static Substitution delegate(Substitution substitution) {
+		return new Substitution() {
+			@Override
+			public float compare(String a, int aIndex, String b, int bIndex) {
+				return substitution.compare(a, aIndex, b, bIndex);
+			}
+
+			@Override
+			public float max() {
+				return substitution.max();
+			}
+
+			@Override
+			public float min() {
+				return substitution.min();
+			}
+		};
+	}
+
+	private static String random(Random random, int length) {
+		final char[] chars = new char[length];
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = "abcd ".charAt(random.nextInt(5));
+		}
+		return new String(chars);
+	}
 }
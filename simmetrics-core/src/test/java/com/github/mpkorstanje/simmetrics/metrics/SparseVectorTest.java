@@ -0,0 +1,116 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+final class SparseVectorTest {
+
+	private static final float DELTA = 1e-5f;
+
+	private static SparseVector sparse(float[] dense) {
+		int size = 0;
+		for (float value : dense) {
+			if (value != 0.0f) {
+				size++;
+			}
+		}
+		final int[] indices = new int[size];
+		final float[] values = new float[size];
+		// Reversed order to exercise sorting
+		for (int i = dense.length - 1, j = 0; i >= 0; i--) {
+			if (dense[i] != 0.0f) {
+				indices[j] = i;
+				values[j++] = dense[i];
+			}
+		}
+		return SparseVector.of(indices, values);
+	}
+
+	@Test
+	void values() {
+		final SparseVector vector = SparseVector.of(new int[] { 7, 2 }, new float[] { -4.0f, 3.0f });
+		assertEquals(2, vector.size());
+		assertEquals(3.0f, vector.get(2));
+		assertEquals(-4.0f, vector.get(7));
+		assertEquals(0.0f, vector.get(5));
+		assertEquals(5.0f, vector.norm());
+		assertEquals("{2=3.0, 7=-4.0}", vector.toString());
+		assertEquals(SparseVector.of(new int[] { 2, 7 }, new float[] { 3.0f, -4.0f }), vector);
+	}
+
+	@Test
+	void metricsEqualDenseMetrics() {
+		final Random random = new Random(42);
+		final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+		final EuclideanDistance<String> euclidean = new EuclideanDistance<>();
+		final BlockDistance<String> block = new BlockDistance<>();
+
+		for (int dimension : new int[] { 1, 5, 64, 301 }) {
+			final float[] a = new float[dimension];
+			final float[] b = new float[dimension];
+			for (int i = 0; i < dimension; i++) {
+				a[i] = random.nextInt(3) == 0 ? random.nextFloat() : 0.0f;
+				b[i] = random.nextInt(3) == 0 ? random.nextFloat() : 0.0f;
+			}
+			final DenseVector x = DenseVector.of(a);
+			final DenseVector y = DenseVector.of(b);
+			final SparseVector p = sparse(a);
+			final SparseVector q = sparse(b);
+
+			assertEquals(cosine.compare(x, y), cosine.compare(p, q), DELTA);
+			assertEquals(euclidean.distance(x, y), euclidean.distance(p, q), DELTA);
+			assertEquals(euclidean.compare(x, y), euclidean.compare(p, q), DELTA);
+			assertEquals(block.distance(x, y), block.distance(p, q), DELTA * dimension);
+			assertEquals(block.compare(x, y), block.compare(p, q), DELTA);
+		}
+	}
+
+	@Test
+	void tokenCounts() {
+		final TokenDictionary dictionary = new TokenDictionary(Tokenizers.whitespace());
+		final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+		final TokenIdMultiset a = dictionary.tokenizeToMultiset("to be or not to be");
+		final TokenIdMultiset b = dictionary.tokenizeToMultiset("to be is to do");
+
+		assertEquals(SparseVector.of(new int[] { 0, 1, 2, 3 }, new float[] { 2, 2, 1, 1 }), SparseVector.of(a));
+		assertEquals(cosine.compare(a, b), cosine.compare(SparseVector.of(a), SparseVector.of(b)), DELTA);
+	}
+
+	@Test
+	void illegalArguments() {
+		assertThrows(NullPointerException.class, () -> SparseVector.of(null, new float[0]));
+		assertThrows(NullPointerException.class, () -> SparseVector.of(new int[0], null));
+		assertThrows(IllegalArgumentException.class, () -> SparseVector.of(new int[] { 1 }, new float[0]));
+		assertThrows(IllegalArgumentException.class,
+				() -> SparseVector.of(new int[] { 1, 1 }, new float[] { 1, 2 }));
+		assertThrows(IllegalArgumentException.class, () -> SparseVector.of(new int[] { -1 }, new float[] { 1 }));
+		assertThrows(IllegalArgumentException.class, () -> SparseVector.of(TokenIdMultiset.of(1L << 32)));
+		assertThrows(IllegalArgumentException.class, () -> SparseVector.of(TokenIdMultiset.of(-1)));
+	}
+
+}
@@ -0,0 +1,140 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+import com.google.common.collect.Multiset;
+
+final class TokenDictionaryTest {
+
+	private static List<String> strings() {
+		final Random random = new Random(42);
+		final List<String> strings = new ArrayList<>();
+		strings.add("");
+		for (int i = 0; i < 40; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(20);
+			for (int j = 0; j < length; j++) {
+				builder.append(random.nextInt(5) == 0 ? ' ' : (char) ('a' + random.nextInt(3)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+
+	@Test
+	void assignsDenseIds() {
+		final TokenDictionary dictionary = new TokenDictionary(Tokenizers.whitespace());
+		assertEquals(TokenIdSet.of(0, 1), dictionary.tokenizeToSet("hello world hello"));
+		assertEquals(TokenIdMultiset.of(1, 2, 1), dictionary.tokenizeToMultiset("world again world"));
+		assertEquals(3, dictionary.size());
+		assertEquals(0, dictionary.id("hello"));
+		assertEquals(3, dictionary.id("new"));
+	}
+
+	@Test
+	void concurrentIds() {
+		final TokenDictionary dictionary = new TokenDictionary(Tokenizers.whitespace());
+		final Set<Integer> ids = ConcurrentHashMap.newKeySet();
+		IntStream.range(0, 10_000).parallel().forEach(i -> ids.add(dictionary.id(String.valueOf(i % 1000))));
+		assertEquals(1000, dictionary.size());
+		assertEquals(1000, ids.size());
+		IntStream.range(0, 1000).forEach(i -> assertTrue(ids.contains(i)));
+	}
+
+	@Test
+	void setMetricsEqualTokenSetMetrics() {
+		final Tokenizer tokenizer = Tokenizers.qGram(2);
+		final TokenDictionary dictionary = new TokenDictionary(tokenizer);
+		final Jaccard<String> jaccard = new Jaccard<>();
+		final Dice<String> dice = new Dice<>();
+		final OverlapCoefficient<String> overlap = new OverlapCoefficient<>();
+
+		for (String a : strings()) {
+			for (String b : strings()) {
+				final Set<String> x = tokenizer.tokenizeToSet(a);
+				final Set<String> y = tokenizer.tokenizeToSet(b);
+				final TokenIdSet p = dictionary.tokenizeToSet(a);
+				final TokenIdSet q = dictionary.tokenizeToSet(b);
+
+				assertEquals(jaccard.compare(x, y), jaccard.compare(p, q), 0.0f);
+				assertEquals(jaccard.distance(x, y), jaccard.distance(p, q), 0.0f);
+				assertEquals(dice.compare(x, y), dice.compare(p, q), 0.0f);
+				assertEquals(dice.distance(x, y), dice.distance(p, q), 0.0f);
+				assertEquals(overlap.compare(x, y), overlap.compare(p, q), 0.0f);
+				assertEquals(overlap.distance(x, y), overlap.distance(p, q), 0.0f);
+			}
+		}
+	}
+
+	@Test
+	void multisetMetricsEqualTokenMultisetMetrics() {
+		for (Tokenizer tokenizer : asList(Tokenizers.qGram(1), Tokenizers.whitespace())) {
+			final TokenDictionary dictionary = new TokenDictionary(tokenizer);
+			final SimonWhite<String> simonWhite = new SimonWhite<>();
+			final GeneralizedJaccard<String> generalizedJaccard = new GeneralizedJaccard<>();
+			final CosineSimilarity<String> cosine = new CosineSimilarity<>();
+			final BlockDistance<String> block = new BlockDistance<>();
+			final EuclideanDistance<String> euclidean = new EuclideanDistance<>();
+
+			for (String a : strings()) {
+				for (String b : strings()) {
+					final Multiset<String> x = tokenizer.tokenizeToMultiset(a);
+					final Multiset<String> y = tokenizer.tokenizeToMultiset(b);
+					final TokenIdMultiset p = dictionary.tokenizeToMultiset(a);
+					final TokenIdMultiset q = dictionary.tokenizeToMultiset(b);
+
+					assertEquals(simonWhite.compare(x, y), simonWhite.compare(p, q), 0.0f);
+					assertEquals(simonWhite.distance(x, y), simonWhite.distance(p, q), 0.0f);
+					assertEquals(generalizedJaccard.compare(x, y), generalizedJaccard.compare(p, q), 0.0f);
+					assertEquals(generalizedJaccard.distance(x, y), generalizedJaccard.distance(p, q), 0.0f);
+					assertEquals(cosine.compare(x, y), cosine.compare(p, q), 0.0f);
+					assertEquals(cosine.distance(x, y), cosine.distance(p, q), 0.0f);
+					assertEquals(block.compare(x, y), block.compare(p, q), 0.0f);
+					assertEquals(block.distance(x, y), block.distance(p, q), 0.0f);
+					assertEquals(euclidean.compare(x, y), euclidean.compare(p, q), 0.0f);
+					assertEquals(euclidean.distance(x, y), euclidean.distance(p, q), 0.0f);
+				}
+			}
+		}
+	}
+
+	@Test
+	void nullPointerException() {
+		assertThrows(NullPointerException.class, () -> new TokenDictionary(null));
+		assertThrows(NullPointerException.class, () -> new TokenDictionary(Tokenizers.whitespace()).id(null));
+	}
+
+}
@@ -0,0 +1,63 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+final class TokenIdMultisetTest {
+
+	@Test
+	void empty() {
+		final TokenIdMultiset multiset = TokenIdMultiset.of();
+		assertTrue(multiset.isEmpty());
+		assertEquals(0, multiset.size());
+		assertEquals(TokenIdSet.of(), multiset.elementSet());
+	}
+
+	@Test
+	void countsOccurrences() {
+		final TokenIdMultiset multiset = TokenIdMultiset.of(5, 3, 5, 1, 3, 3);
+		assertEquals(6, multiset.size());
+		assertEquals(1, multiset.count(1));
+		assertEquals(3, multiset.count(3));
+		assertEquals(2, multiset.count(5));
+		assertEquals(0, multiset.count(4));
+		assertEquals(TokenIdSet.of(1, 3, 5), multiset.elementSet());
+	}
+
+	@Test
+	void equality() {
+		assertEquals(TokenIdMultiset.of(1, 2, 2), TokenIdMultiset.of(2, 1, 2));
+		assertEquals(TokenIdMultiset.of(1, 2, 2).hashCode(), TokenIdMultiset.of(2, 1, 2).hashCode());
+		assertNotEquals(TokenIdMultiset.of(1, 2), TokenIdMultiset.of(1, 2, 2));
+		assertEquals("[1, 2 x 2]", TokenIdMultiset.of(2, 1, 2).toString());
+	}
+
+	@Test
+	void nullIds() {
+		assertThrows(NullPointerException.class, () -> TokenIdMultiset.of((long[]) null));
+	}
+
+}
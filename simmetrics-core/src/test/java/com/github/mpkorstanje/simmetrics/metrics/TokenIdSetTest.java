@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+final class TokenIdSetTest {
+
+	@Test
+	void empty() {
+		final TokenIdSet set = TokenIdSet.of();
+		assertTrue(set.isEmpty());
+		assertEquals(0, set.size());
+		assertArrayEquals(new long[0], set.toArray());
+	}
+
+	@Test
+	void sortsAndRemovesDuplicates() {
+		final long[] ids = { 5, 3, 5, Long.MIN_VALUE, 3, 3 };
+		final TokenIdSet set = TokenIdSet.of(ids);
+		assertEquals(3, set.size());
+		assertArrayEquals(new long[] { Long.MIN_VALUE, 3, 5 }, set.toArray());
+		assertArrayEquals(new long[] { 5, 3, 5, Long.MIN_VALUE, 3, 3 }, ids);
+		assertTrue(set.contains(3));
+		assertTrue(set.contains(Long.MIN_VALUE));
+		assertFalse(set.contains(4));
+	}
+
+	@Test
+	void equality() {
+		assertEquals(TokenIdSet.of(1, 2, 3), TokenIdSet.of(3, 2, 1, 1));
+		assertEquals(TokenIdSet.of(1, 2, 3).hashCode(), TokenIdSet.of(3, 2, 1, 1).hashCode());
+		assertNotEquals(TokenIdSet.of(1, 2), TokenIdSet.of(1, 2, 3));
+		assertEquals("[1, 2, 3]", TokenIdSet.of(3, 1, 2).toString());
+	}
+
+	@Test
+	void nullIds() {
+		assertThrows(NullPointerException.class, () -> TokenIdSet.of((long[]) null));
+	}
+
+}
@@ -0,0 +1,128 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.metrics.costfunctions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.metrics.functions.MatchMismatch;
+import com.github.mpkorstanje.simmetrics.metrics.functions.Substitution;
+import com.github.mpkorstanje.simmetrics.metrics.functions.SubstitutionTable;
+
+final class SubstitutionTableTest {
+
+	private static final class Distance implements Substitution {
+
+		@Override
+		public float compare(String a, int aIndex, String b, int bIndex) {
+			return -java.lang.Math.abs(a.codePointAt(aIndex) - b.codePointAt(bIndex));
+		}
+
+		@Override
+		public float max() {
+			return 0;
+		}
+
+		@Override
+		public float min() {
+			return -Float.MAX_VALUE;
+		}
+	}
+
+	private static int[] random(Random random, int length) {
+		final int[] codePoints = new int[length];
+		for (int i = 0; i < length; i++) {
+			codePoints[i] = random.nextInt(4) == 0 ? 0x10400 + random.nextInt(4) : 'a' + random.nextInt(6);
+		}
+		return codePoints;
+	}
+
+	@Test
+	void equalsSubstitution() {
+		final Random random = new Random(42);
+		final Substitution matchMismatch = new MatchMismatch(1.0f, -2.0f);
+		for (int n = 0; n < 20; n++) {
+			final int[] a = random(random, random.nextInt(30));
+			final int[] b = random(random, random.nextInt(30));
+			final Distance distance = new Distance();
+			final SubstitutionTable distances = SubstitutionTable.compile(distance, a, b);
+			final SubstitutionTable matches = SubstitutionTable.compile(matchMismatch, a, b);
+			for (int i = 0; i < a.length; i++) {
+				for (int j = 0; j < b.length; j++) {
+					assertEquals(-java.lang.Math.abs(a[i] - b[j]), distances.compare(i, j), 0.0f);
+					assertEquals(matchMismatch.compare(a[i], b[j]), matches.compare(i, j), 0.0f);
+				}
+			}
+		}
+	}
+
+	@Test
+	void callsCustomFunctionWithCharIndices() {
+		// Scores a match higher when the preceding characters match too
+		final Substitution neighbours = new Substitution() {
+			@Override
+			public float compare(String a, int aIndex, String b, int bIndex) {
+				if (a.codePointAt(aIndex) != b.codePointAt(bIndex)) {
+					return -1.0f;
+				}
+				if (aIndex > 0 && bIndex > 0 && a.codePointBefore(aIndex) == b.codePointBefore(bIndex)) {
+					return 2.0f;
+				}
+				return 1.0f;
+			}
+
+			@Override
+			public float max() {
+				return 2.0f;
+			}
+
+			@Override
+			public float min() {
+				return -1.0f;
+			}
+		};
+		final int[] a = "\uD801\uDC00ab".codePoints().toArray();
+		final int[] b = "a\uD801\uDC00ab".codePoints().toArray();
+		final SubstitutionTable table = SubstitutionTable.compile(neighbours, a, b);
+		assertEquals(1.0f, table.compare(0, 1), 0.0f);
+		assertEquals(2.0f, table.compare(1, 2), 0.0f);
+		assertEquals(2.0f, table.compare(2, 3), 0.0f);
+		assertEquals(1.0f, table.compare(1, 0), 0.0f);
+		assertEquals(-1.0f, table.compare(0, 0), 0.0f);
+	}
+
+	@Test
+	void empty() {
+		final SubstitutionTable table = SubstitutionTable.compile(new Distance(), new int[0], new int[] { 'a' });
+		assertThrows(IndexOutOfBoundsException.class, () -> table.compare(0, 0));
+		assertTrue(table.toString().contains("SubstitutionTable"));
+	}
+
+	@Test
+	void nullSubstitution() {
+		assertThrows(NullPointerException.class, () -> SubstitutionTable.compile(null, new int[0], new int[0]));
+	}
+
+}
@@ -89,6 +89,17 @@ public abstract class SubstitutionTest {
         }
     }
 
+    @Test
+    void testCompareCodePoints() {
+        for (T t : getTests()) {
+            float expected = cost.compare(t.string1, t.string1Index, t.string2,
+                    t.string2Index);
+            float actual = cost.compare(t.string1.codePointAt(t.string1Index),
+                    t.string2.codePointAt(t.string2Index));
+            assertEquals(expected, actual, 0.0f);
+        }
+    }
+
     public void generateTest() {
         for (T t : getTests()) {
             float actuall = cost.compare(t.string1, t.string1Index, t.string2,
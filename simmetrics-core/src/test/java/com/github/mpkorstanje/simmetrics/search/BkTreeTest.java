@@ -0,0 +1,180 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.metrics.DamerauLevenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.HammingDistance;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+
+final class BkTreeTest {
+
+	private static final List<StringDistance> DISTANCES = asList(
+			new Levenshtein(),
+			new Levenshtein(1.0f, 1.5f),
+			new DamerauLevenshtein());
+
+	private static List<String> strings(int size, int maxLength) {
+		final Random random = new Random(42);
+		final List<String> strings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(maxLength + 1);
+			for (int j = 0; j < length; j++) {
+				builder.append((char) ('a' + random.nextInt(4)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+
+	private static List<ScoredCandidate> bruteForce(List<String> strings, StringDistance distance, String query) {
+		return IntStream.range(0, strings.size()).boxed()
+				.sorted(Comparator.comparing((Integer i) -> distance.distance(query, strings.get(i)))
+						.thenComparing(i -> i))
+				.map(i -> new ScoredCandidate(strings.get(i), distance.distance(query, strings.get(i))))
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void withinEqualsBruteForce() {
+		final List<String> strings = strings(1000, 8);
+		for (StringDistance distance : DISTANCES) {
+			final BkTree tree = BkTree.create(strings, distance);
+			for (String query : asList("", "a", "abcd", "dddddddd", "abcdabcdabcd")) {
+				for (float radius : new float[] { 0.0f, 1.0f, 2.5f, 3.0f, 100.0f }) {
+					final List<ScoredCandidate> expected = bruteForce(strings, distance, query).stream()
+							.filter(c -> c.getScore() <= radius)
+							.collect(Collectors.toList());
+					assertEquals(expected, tree.within(query, radius), distance + " " + query + " " + radius);
+				}
+			}
+		}
+	}
+
+	@Test
+	void nearestEqualsBruteForce() {
+		final List<String> strings = strings(1000, 8);
+		for (StringDistance distance : DISTANCES) {
+			final BkTree tree = BkTree.create(strings, distance);
+			for (String query : asList("", "a", "abcd", "dddddddd", "abcdabcdabcd")) {
+				for (int k : new int[] { 1, 3, 10, 2000 }) {
+					final List<ScoredCandidate> expected = bruteForce(strings, distance, query).stream()
+							.limit(k)
+							.collect(Collectors.toList());
+					assertEquals(expected, tree.nearest(query, k), distance + " " + query + " " + k);
+				}
+			}
+		}
+	}
+
+	@Test
+	void hammingDistance() {
+		final List<String> strings = asList("karolin", "kathrin", "kerstin", "1011101", "1001001");
+		final BkTree tree = BkTree.create(strings, HammingDistance.forString());
+
+		assertEquals(asList(
+				new ScoredCandidate("karolin", 0.0f),
+				new ScoredCandidate("kathrin", 3.0f),
+				new ScoredCandidate("kerstin", 3.0f)), tree.within("karolin", 3.0f));
+		assertEquals(asList(
+				new ScoredCandidate("1011101", 0.0f),
+				new ScoredCandidate("1001001", 2.0f)), tree.nearest("1011101", 2));
+	}
+
+	@Test
+	void duplicates() {
+		final BkTree tree = BkTree.create(asList("cat", "cat", "hat", "cat"), new Levenshtein());
+		assertEquals(asList(
+				new ScoredCandidate("cat", 0.0f),
+				new ScoredCandidate("cat", 0.0f),
+				new ScoredCandidate("cat", 0.0f),
+				new ScoredCandidate("hat", 1.0f)), tree.within("cat", 1.0f));
+	}
+
+	@Test
+	void deepTree() {
+		// Every string is at the same distance of all others
+		final List<String> strings = IntStream.range(0, 2000)
+				.mapToObj(i -> String.valueOf((char) (0x4E00 + i)))
+				.collect(Collectors.toList());
+		final BkTree tree = BkTree.create(strings, new Levenshtein());
+		assertEquals(strings.size(), tree.within("x", 1.0f).size());
+		assertEquals(asList(new ScoredCandidate(strings.get(42), 0.0f)), tree.nearest(strings.get(42), 1));
+	}
+
+	@Test
+	void concurrentReads() throws Exception {
+		final List<String> strings = strings(2000, 10);
+		final BkTree tree = BkTree.create(strings, new Levenshtein());
+		final List<String> queries = strings(50, 10);
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Future<List<ScoredCandidate>>> futures = new ArrayList<>();
+			for (String query : queries) {
+				futures.add(executor.submit(() -> tree.nearest(query, 5)));
+			}
+			for (int i = 0; i < queries.size(); i++) {
+				assertEquals(tree.nearest(queries.get(i), 5), futures.get(i).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void empty() {
+		final BkTree tree = BkTree.create(emptyList(), new Levenshtein());
+		assertEquals(0, tree.size());
+		assertEquals(emptyList(), tree.within("cat", 1.0f));
+		assertEquals(emptyList(), tree.nearest("cat", 1));
+	}
+
+	@Test
+	void illegalArguments() {
+		final BkTree tree = BkTree.create(asList("cat", "hat"), new Levenshtein());
+		assertThrows(IllegalArgumentException.class, () -> tree.within("cat", -1.0f));
+		assertThrows(IllegalArgumentException.class, () -> tree.nearest("cat", 0));
+		assertThrows(NullPointerException.class, () -> tree.within(null, 1.0f));
+		assertThrows(NullPointerException.class, () -> tree.nearest(null, 1));
+		assertThrows(NullPointerException.class, () -> BkTree.create(null, new Levenshtein()));
+		assertThrows(NullPointerException.class, () -> BkTree.create(asList("cat"), null));
+		assertThrows(NullPointerException.class, () -> BkTree.create(asList("cat", null), new Levenshtein()));
+	}
+
+}
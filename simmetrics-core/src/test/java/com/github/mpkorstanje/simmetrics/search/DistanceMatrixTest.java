@@ -0,0 +1,171 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.mpkorstanje.simmetrics.StringDistance;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.StringMetrics;
+
+final class DistanceMatrixTest {
+
+	private static List<String> strings(int size, long seed) {
+		final Random random = new Random(seed);
+		final List<String> strings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(8);
+			for (int j = 0; j < length; j++) {
+				builder.append(random.nextInt(5) == 0 ? ' ' : (char) ('a' + random.nextInt(4)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+
+	private static void assertMatrix(List<String> items, StringDistance distance, DistanceMatrix matrix) {
+		assertEquals(items.size(), matrix.size());
+		for (int i = 0; i < items.size(); i++) {
+			assertEquals(0.0f, matrix.get(i, i), 0.0f);
+			for (int j = i + 1; j < items.size(); j++) {
+				final float expected = distance.distance(items.get(i), items.get(j));
+				assertEquals(expected, matrix.get(i, j), 0.0f, i + " " + j);
+				assertEquals(expected, matrix.get(j, i), 0.0f, j + " " + i);
+			}
+		}
+	}
+
+	@Test
+	void distanceEqualsBruteForce() {
+		// Spans several tiles, including a partial tile
+		final List<String> items = strings(600, 1);
+		final StringDistance distance = new Levenshtein();
+		assertMatrix(items, distance, DistanceMatrix.compute(items, distance));
+	}
+
+	@Test
+	void weightedDistanceEqualsBruteForce() {
+		final List<String> items = strings(300, 2);
+		final StringDistance distance = new Levenshtein(0.5f, 1.0f);
+		final ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			assertMatrix(items, distance, DistanceMatrix.compute(items, distance, pool));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void metricIsOneMinusSimilarity() {
+		final List<String> items = strings(300, 3);
+		final StringMetric metric = StringMetrics.dice();
+		final DistanceMatrix matrix = DistanceMatrix.computeFromMetric(items, metric);
+		assertMatrix(items, (a, b) -> 1.0f - metric.compare(a, b), matrix);
+	}
+
+	@Test
+	void notRandomAccess() {
+		final List<String> items = new LinkedList<>(strings(50, 4));
+		final StringDistance distance = new Levenshtein();
+		assertMatrix(items, distance, DistanceMatrix.compute(items, distance));
+	}
+
+	@Test
+	void smallMatrices() {
+		final StringDistance distance = new Levenshtein();
+		assertEquals(0, DistanceMatrix.compute(emptyList(), distance).size());
+		assertEquals(0.0f, DistanceMatrix.compute(asList("a"), distance).get(0, 0), 0.0f);
+		assertEquals(1.0f, DistanceMatrix.compute(asList("a", "b"), distance).get(1, 0), 0.0f);
+	}
+
+	@Test
+	void indexOutOfBounds() {
+		final DistanceMatrix matrix = DistanceMatrix.compute(asList("a", "b"), new Levenshtein());
+		assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(2, 0));
+		assertThrows(IndexOutOfBoundsException.class, () -> matrix.get(0, -1));
+	}
+
+	@Test
+	void tooLargeForHeap() {
+		// 50k strings pack into 1.25e9 floats, within the array limit
+		final long length = 50_000L * 49_999 / 2;
+		DistanceMatrix.checkFitsOnHeap(length, length * Float.BYTES);
+		assertThrows(IllegalArgumentException.class,
+				() -> DistanceMatrix.checkFitsOnHeap(length, length * Float.BYTES - 1));
+		assertThrows(IllegalArgumentException.class,
+				() -> DistanceMatrix.checkFitsOnHeap(Integer.MAX_VALUE, Long.MAX_VALUE));
+	}
+
+	@Test
+	void mappedFile(@TempDir Path directory) throws IOException {
+		final List<String> items = strings(400, 5);
+		final StringDistance distance = new Levenshtein();
+		final Path file = directory.resolve("matrix");
+		final DistanceMatrix matrix = DistanceMatrix.compute(items, distance, ForkJoinPool.commonPool(), file);
+		assertMatrix(items, distance, matrix);
+
+		// The file holds the packed upper triangle as big-endian floats
+		assertEquals(4L * 400 * 399 / 2, Files.size(file));
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+			for (int i = 0; i < items.size(); i++) {
+				for (int j = i + 1; j < items.size(); j++) {
+					assertEquals(matrix.get(i, j), in.readFloat(), 0.0f);
+				}
+			}
+		}
+	}
+
+	@Test
+	void mappedFileWithSmallSegments(@TempDir Path directory) throws IOException {
+		// Rows of distances cross from one segment into the next
+		final List<String> items = strings(300, 6);
+		final StringDistance distance = new Levenshtein();
+		final DistanceMatrix matrix = DistanceMatrix.computeMapped(items, distance::distanceAll,
+				ForkJoinPool.commonPool(), directory.resolve("matrix"), 1000);
+		assertMatrix(items, distance, matrix);
+	}
+
+	@Test
+	void mappedFileIsOverwritten(@TempDir Path directory) throws IOException {
+		final Path file = directory.resolve("matrix");
+		Files.write(file, new byte[1024]);
+		DistanceMatrix.computeFromMetric(asList("a", "b", "ab"), new Levenshtein(), ForkJoinPool.commonPool(), file);
+		assertEquals(4L * 3, Files.size(file));
+	}
+
+}
@@ -0,0 +1,156 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.SetMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Dice;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.OverlapCoefficient;
+import com.github.mpkorstanje.simmetrics.metrics.TanimotoCoefficient;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+final class SetSimilarityIndexTest {
+
+	private static final List<SetMetric<String>> METRICS = asList(
+			new Jaccard<>(),
+			new Dice<>(),
+			new OverlapCoefficient<>(),
+			new TanimotoCoefficient<>());
+
+	private static final List<Tokenizer> TOKENIZERS = asList(
+			Tokenizers.qGram(2),
+			Tokenizers.qGramWithPadding(3),
+			Tokenizers.whitespace());
+
+	private static final float[] THRESHOLDS = { 0.1f, 0.3f, 0.5f, 2.0f / 3.0f, 0.8f, 0.9f, 1.0f };
+
+	private static List<String> strings(int size) {
+		final Random random = new Random(42);
+		final List<String> strings = new ArrayList<>(size);
+		strings.add("");
+		for (int i = 1; i < size; i++) {
+			if (i % 10 == 0) {
+				// Near duplicates of earlier strings
+				strings.add(strings.get(random.nextInt(i)) + (char) ('a' + random.nextInt(5)));
+				continue;
+			}
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(16);
+			for (int j = 0; j < length; j++) {
+				builder.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(5)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+
+	private static List<ScoredCandidate> bruteForce(List<String> strings, SetMetric<String> metric,
+			Simplifier simplifier, Tokenizer tokenizer, String query, float threshold) {
+		final List<ScoredCandidate> expected = new ArrayList<>();
+		for (ScoredCandidate candidate : TopK.search(query, strings, (a, b) -> metric.compare(
+				tokenizer.tokenizeToSet(simplifier.simplify(a)),
+				tokenizer.tokenizeToSet(simplifier.simplify(b))), strings.size())) {
+			if (candidate.getScore() >= threshold) {
+				expected.add(candidate);
+			}
+		}
+		return expected;
+	}
+
+	@Test
+	void searchEqualsBruteForce() {
+		final List<String> strings = strings(300);
+		final List<String> queries = asList("", "a", "ab", "abcde", "ab cd", "eeeee", "xyz", "abcxyz",
+				strings.get(17), strings.get(20), strings.get(100));
+
+		for (SetMetric<String> metric : METRICS) {
+			for (Tokenizer tokenizer : TOKENIZERS) {
+				final SetSimilarityIndex index = SetSimilarityIndex.create(strings, metric, tokenizer);
+				for (String query : queries) {
+					for (float threshold : THRESHOLDS) {
+						assertEquals(bruteForce(strings, metric, input -> input, tokenizer, query, threshold),
+								index.search(query, threshold),
+								metric + " " + tokenizer + " '" + query + "' " + threshold);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void simplifiesBeforeTokenizing() {
+		final List<String> strings = asList("Chapman", "CHAPMAN", "Chaplin", "Sam");
+		final Simplifier simplifier = Simplifiers.toLowerCase();
+		final SetSimilarityIndex index = SetSimilarityIndex.create(strings, new Jaccard<>(), simplifier,
+				Tokenizers.qGram(2));
+
+		assertEquals(asList(
+				new ScoredCandidate("Chapman", 1.0f),
+				new ScoredCandidate("CHAPMAN", 1.0f)), index.search("chapman", 0.9f));
+		assertEquals(bruteForce(strings, new Jaccard<>(), simplifier, Tokenizers.qGram(2), "chap", 0.3f),
+				index.search("chap", 0.3f));
+	}
+
+	@Test
+	void emptyIndex() {
+		final SetSimilarityIndex index = SetSimilarityIndex.create(emptyList(), new Jaccard<>(), Tokenizers.qGram(2));
+		assertEquals(0, index.size());
+		assertEquals(emptyList(), index.search("abc", 0.5f));
+		assertEquals(emptyList(), index.search("", 0.5f));
+	}
+
+	@Test
+	void size() {
+		assertEquals(3, SetSimilarityIndex.create(asList("a", "b", "a"), new Dice<>(), Tokenizers.qGram(2)).size());
+	}
+
+	@Test
+	void illegalArguments() {
+		final List<String> strings = asList("cat", "hat");
+		final Tokenizer tokenizer = Tokenizers.qGram(2);
+		assertThrows(IllegalArgumentException.class,
+				() -> SetSimilarityIndex.create(strings, (a, b) -> 0.0f, tokenizer));
+		assertThrows(NullPointerException.class, () -> SetSimilarityIndex.create(null, new Jaccard<>(), tokenizer));
+		assertThrows(NullPointerException.class, () -> SetSimilarityIndex.create(strings, null, tokenizer));
+		assertThrows(NullPointerException.class, () -> SetSimilarityIndex.create(strings, new Jaccard<>(), null));
+		assertThrows(NullPointerException.class,
+				() -> SetSimilarityIndex.create(asList("cat", null), new Jaccard<>(), tokenizer));
+
+		final SetSimilarityIndex index = SetSimilarityIndex.create(strings, new Jaccard<>(), tokenizer);
+		assertThrows(IllegalArgumentException.class, () -> index.search("cat", 0.0f));
+		assertThrows(IllegalArgumentException.class, () -> index.search("cat", 1.1f));
+		assertThrows(NullPointerException.class, () -> index.search(null, 0.5f));
+	}
+
+}
@@ -0,0 +1,165 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.StringMetrics;
+
+final class SimilarityJoinTest {
+
+	private static final Comparator<ScoredPair> BY_INDEX = Comparator.comparingInt(ScoredPair::getLeftIndex)
+			.thenComparingInt(ScoredPair::getRightIndex);
+
+	private static final List<StringMetric> METRICS = asList(
+			new Levenshtein(),
+			StringMetrics.jaroWinkler(),
+			StringMetrics.dice());
+
+	private static List<String> strings(int size, long seed) {
+		final Random random = new Random(seed);
+		final List<String> strings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = random.nextInt(8);
+			for (int j = 0; j < length; j++) {
+				builder.append(random.nextInt(5) == 0 ? ' ' : (char) ('a' + random.nextInt(4)));
+			}
+			strings.add(builder.toString());
+		}
+		return strings;
+	}
+
+	private static List<ScoredPair> bruteForce(List<String> left, List<String> right, StringMetric metric,
+			float threshold, boolean self) {
+		final List<ScoredPair> pairs = new ArrayList<>();
+		for (int i = 0; i < left.size(); i++) {
+			for (int j = self ? i + 1 : 0; j < right.size(); j++) {
+				final float score = metric.compare(left.get(i), right.get(j));
+				if (score >= threshold) {
+					pairs.add(new ScoredPair(i, left.get(i), j, right.get(j), score));
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static List<ScoredPair> sorted(List<ScoredPair> pairs) {
+		pairs.sort(BY_INDEX);
+		return pairs;
+	}
+
+	@Test
+	void selfJoinEqualsBruteForce() {
+		final List<String> items = strings(600, 1);
+		for (StringMetric metric : METRICS) {
+			for (float threshold : new float[] { 0.0f, 0.5f, 0.8f, 1.0f }) {
+				final List<ScoredPair> expected = bruteForce(items, items, metric, threshold, true);
+				assertEquals(expected, sorted(SimilarityJoin.selfJoin(items, metric, threshold)
+						.collect(Collectors.toList())), metric + " " + threshold);
+				assertEquals(expected, sorted(SimilarityJoin.selfJoin(items, metric, threshold)
+						.parallel()
+						.collect(Collectors.toList())), metric + " " + threshold);
+			}
+		}
+	}
+
+	@Test
+	void joinEqualsBruteForce() {
+		final List<String> left = strings(300, 1);
+		final List<String> right = strings(700, 2);
+		for (StringMetric metric : METRICS) {
+			for (float threshold : new float[] { 0.0f, 0.5f, 0.8f, 1.0f }) {
+				final List<ScoredPair> expected = bruteForce(left, right, metric, threshold, false);
+				assertEquals(expected, sorted(SimilarityJoin.join(left, right, metric, threshold)
+						.collect(Collectors.toList())), metric + " " + threshold);
+			}
+		}
+	}
+
+	@Test
+	void joinInPool() {
+		final List<String> left = strings(700, 1);
+		final List<String> right = strings(500, 2);
+		final StringMetric metric = new Levenshtein();
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			final ConcurrentLinkedQueue<ScoredPair> selfPairs = new ConcurrentLinkedQueue<>();
+			SimilarityJoin.selfJoin(left, metric, 0.6f, pool, selfPairs::add);
+			assertEquals(bruteForce(left, left, metric, 0.6f, true), sorted(new ArrayList<>(selfPairs)));
+
+			final ConcurrentLinkedQueue<ScoredPair> pairs = new ConcurrentLinkedQueue<>();
+			SimilarityJoin.join(left, right, metric, 0.6f, pool, pairs::add);
+			assertEquals(bruteForce(left, right, metric, 0.6f, false), sorted(new ArrayList<>(pairs)));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void sequentialLists() {
+		final List<String> items = new LinkedList<>(asList("cat", "hat", "dog", "cat"));
+		assertEquals(asList(
+				new ScoredPair(0, "cat", 1, "hat", 1.0f - 1.0f / 3.0f),
+				new ScoredPair(0, "cat", 3, "cat", 1.0f),
+				new ScoredPair(1, "hat", 3, "cat", 1.0f - 1.0f / 3.0f)),
+				sorted(SimilarityJoin.selfJoin(items, new Levenshtein(), 0.5f).collect(Collectors.toList())));
+	}
+
+	@Test
+	void empty() {
+		assertEquals(emptyList(), SimilarityJoin.selfJoin(emptyList(), new Levenshtein(), 0.5f)
+				.collect(Collectors.toList()));
+		assertEquals(emptyList(), SimilarityJoin.join(asList("cat"), emptyList(), new Levenshtein(), 0.5f)
+				.collect(Collectors.toList()));
+	}
+
+	@Test
+	void illegalArguments() {
+		final List<String> items = asList("cat", "hat");
+		final StringMetric metric = new Levenshtein();
+		final ForkJoinPool pool = ForkJoinPool.commonPool();
+		assertThrows(IllegalArgumentException.class, () -> SimilarityJoin.selfJoin(items, metric, -0.1f));
+		assertThrows(IllegalArgumentException.class, () -> SimilarityJoin.join(items, items, metric, 1.1f));
+		assertThrows(NullPointerException.class, () -> SimilarityJoin.selfJoin(null, metric, 0.5f));
+		assertThrows(NullPointerException.class, () -> SimilarityJoin.selfJoin(items, null, 0.5f));
+		assertThrows(NullPointerException.class, () -> SimilarityJoin.join(items, null, metric, 0.5f));
+		assertThrows(NullPointerException.class, () -> SimilarityJoin.selfJoin(items, metric, 0.5f, null, p -> {
+		}));
+		assertThrows(NullPointerException.class, () -> SimilarityJoin.selfJoin(items, metric, 0.5f, pool, null));
+	}
+
+}
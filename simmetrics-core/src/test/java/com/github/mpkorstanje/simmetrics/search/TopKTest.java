@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * Simmetrics - Core
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.search;
+
+import static com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder.with;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.Jaccard;
+import com.github.mpkorstanje.simmetrics.metrics.JaroWinkler;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.metrics.StringMetrics;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+final class TopKTest {
+
+	private static final List<StringMetric> METRICS = asList(
+			new Levenshtein(),
+			new Levenshtein(1.0f, 2.0f),
+			new JaroWinkler(),
+			StringMetrics.longestCommonSubSequence(),
+			with(new Jaccard<String>()).tokenize(Tokenizers.qGram(2)).build());
+
+	private static List<String> candidates(int size) {
+		final Random random = new Random(42);
+		final List<String> candidates = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			final StringBuilder builder = new StringBuilder();
+			final int length = 1 + random.nextInt(10);
+			for (int j = 0; j < length; j++) {
+				builder.append((char) ('a' + random.nextInt(4)));
+			}
+			candidates.add(builder.toString());
+		}
+		return candidates;
+	}
+
+	private static List<ScoredCandidate> bruteForce(String query, List<String> candidates, StringMetric metric,
+			int k) {
+		return IntStream.range(0, candidates.size()).boxed()
+				.sorted(Comparator.comparing((Integer i) -> -metric.compare(query, candidates.get(i)))
+						.thenComparing(i -> i))
+				.limit(k)
+				.map(i -> new ScoredCandidate(candidates.get(i), metric.compare(query, candidates.get(i))))
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void searchEqualsBruteForce() {
+		final List<String> candidates = candidates(500);
+		for (StringMetric metric : METRICS) {
+			for (String query : asList("", "a", "abcd", "dcbaabcd")) {
+				for (int k : new int[] { 1, 5, 50 }) {
+					assertEquals(bruteForce(query, candidates, metric, k), TopK.search(query, candidates, metric, k),
+							metric + " " + query + " " + k);
+				}
+			}
+		}
+	}
+
+	@Test
+	void parallelSearchEqualsSequentialSearch() {
+		final List<String> candidates = candidates(5000);
+		final ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (StringMetric metric : METRICS) {
+				for (int k : new int[] { 1, 10, 100 }) {
+					assertEquals(TopK.search("abcdab", candidates, metric, k),
+							TopK.search("abcdab", candidates, metric, k, pool));
+				}
+			}
+			final Collection<String> set = new LinkedHashSet<>(candidates);
+			assertEquals(TopK.search("abcdab", set, new Levenshtein(), 10),
+					TopK.search("abcdab", set, new Levenshtein(), 10, pool));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void fewerCandidatesThanK() {
+		final List<ScoredCandidate> result = TopK.search("cat", asList("dog", "cat", "hat"), new Levenshtein(), 10);
+		assertEquals(asList(
+				new ScoredCandidate("cat", 1.0f),
+				new ScoredCandidate("hat", 1.0f - 1.0f / 3.0f),
+				new ScoredCandidate("dog", 0.0f)), result);
+	}
+
+	@Test
+	void tiesAreOrderedByPosition() {
+		final List<ScoredCandidate> result = TopK.search("aa", asList("ab", "ba", "bb", "ca"), new Levenshtein(), 2);
+		assertEquals(asList(
+				new ScoredCandidate("ab", 0.5f),
+				new ScoredCandidate("ba", 0.5f)), result);
+	}
+
+	@Test
+	void noCandidates() {
+		assertEquals(emptyList(), TopK.search("cat", emptyList(), new Levenshtein(), 1));
+	}
+
+	@Test
+	void illegalArguments() {
+		final List<String> candidates = asList("cat", "hat");
+		final StringMetric metric = new Levenshtein();
+		assertThrows(IllegalArgumentException.class, () -> TopK.search("cat", candidates, metric, 0));
+		assertThrows(IllegalArgumentException.class, () -> TopK.search("cat", candidates, metric, -1));
+		assertThrows(NullPointerException.class, () -> TopK.search(null, candidates, metric, 1));
+		assertThrows(NullPointerException.class, () -> TopK.search("cat", null, metric, 1));
+		assertThrows(NullPointerException.class, () -> TopK.search("cat", candidates, null, 1));
+		assertThrows(NullPointerException.class, () -> TopK.search("cat", asList("cat", null), metric, 1));
+		assertThrows(NullPointerException.class, () -> TopK.search("cat", candidates, metric, 1, null));
+	}
+
+}
@@ -26,6 +26,7 @@ import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -36,8 +37,12 @@ import static com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.toLowerC
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.ChainSimplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers.FusedSimplifier;
 import org.junit.jupiter.api.Test;
 
 @SuppressWarnings("static-method")
@@ -125,7 +130,57 @@ class SimplifiersTest {
 			return new T[] {
 					new T("Chilpéric II son of Childeric II",
 							"Chilperic II son of Childeric II"),
-					new T("The 11th Hour", "The 11th Hour"), new T("", ""), };
+					new T("The 11th Hour", "The 11th Hour"), new T("", ""),
+					new T("Ἀθῆναι", "Αθηναι"),
+					new T("Ёлка", "Елка"),
+					new T("e\u0483\u0301", "e\u0483"),
+					new T("^a`", "a"), };
+		}
+
+	}
+
+	static final class ShouldFoldDiacritics {
+
+		private static final Pattern DIACRITICS_AND_FRIENDS = Pattern
+				.compile("[\\p{InCombiningDiacriticalMarks}\\p{IsLm}\\p{IsSk}]+");
+
+		private static String reference(String input) {
+			return DIACRITICS_AND_FRIENDS.matcher(normalize(input, NFD)).replaceAll("");
+		}
+
+		@Test
+		void equivalentToDecomposition() {
+			// Latin, Greek and Cyrillic letters mixed with combining marks,
+			// Hebrew points, Hangul and a surrogate pair
+			final int[][] ranges = { { 0x20, 0x7F }, { 0xA0, 0x4FF }, { 0x1E00, 0x1FFF }, { 0x0591, 0x05C7 },
+					{ 0x20D0, 0x20F0 }, { 0xAC00, 0xAC10 }, { 0x1100, 0x1175 }, { 0x1D165, 0x1D169 } };
+			final Random random = new Random(42);
+			for (int i = 0; i < 20000; i++) {
+				final StringBuilder builder = new StringBuilder();
+				final int length = random.nextInt(8);
+				for (int j = 0; j < length; j++) {
+					final int[] range = ranges[random.nextInt(ranges.length)];
+					builder.appendCodePoint(range[0] + random.nextInt(range[1] - range[0]));
+				}
+				final String string = builder.toString();
+				assertEquals(reference(string), Simplifiers.removeDiacritics().simplify(string), string);
+			}
+		}
+
+		@Test
+		void everyCharacter() {
+			for (char c = 0; c < 0x3000; c++) {
+				final String string = "a" + c + "\u0301b";
+				assertEquals(reference(string), Simplifiers.removeDiacritics().simplify(string), string);
+			}
+		}
+
+		@Test
+		void returnsUnchangedInputAsIs() {
+			final String input = "The 11th Hour";
+			assertSame(input, Simplifiers.removeDiacritics().simplify(input));
+			final String normalized = "é";
+			assertSame(normalized, Simplifiers.normalize(NFC).simplify(normalized));
 		}
 
 	}
@@ -205,6 +260,108 @@ class SimplifiersTest {
 
 	}
 
+	static final class Compiled extends SimplifierTest {
+
+		@Override
+		protected Simplifier getSimplifier() {
+			return Simplifiers.compile(chain(toLowerCase(Locale.ENGLISH), Simplifiers.removeDiacritics(),
+					replaceNonWord(), Simplifiers.removeAll("\\s+")));
+		}
+
+		@Override
+		protected T[] getTests() {
+			return new T[] { new T("", ""),
+					new T("chilperic", "chilperic"),
+					new T("The 11th Hour!", "the11thhour"),
+					new T("Chilpéric II, son of Childeric^II", "chilpericiisonofchildericii") };
+		}
+
+	}
+
+	static final class ShouldCompile {
+
+		private static List<String> strings() {
+			final Random random = new Random(42);
+			final String alphabet = "aB1 _-!^`\t\n$\\é";
+			final List<String> strings = new ArrayList<>();
+			for (int i = 0; i < 500; i++) {
+				final StringBuilder builder = new StringBuilder();
+				final int length = random.nextInt(12);
+				for (int j = 0; j < length; j++) {
+					builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+				}
+				strings.add(builder.toString());
+			}
+			return strings;
+		}
+
+		private static void assertEquivalent(Simplifier simplifier) {
+			final Simplifier compiled = Simplifiers.compile(simplifier);
+			for (String string : strings()) {
+				assertEquals(simplifier.simplify(string), compiled.simplify(string), compiled + " " + string);
+			}
+		}
+
+		@Test
+		void equivalentToChain() {
+			assertEquivalent(chain(toLowerCase(Locale.ENGLISH), replaceNonWord()));
+			assertEquivalent(chain(Simplifiers.toUpperCase(Locale.ENGLISH), Simplifiers.removeNonWord()));
+			assertEquivalent(chain(Simplifiers.removeDiacritics(), Simplifiers.replaceAll("[a-z]+", "<$0>")));
+			assertEquivalent(chain(Simplifiers.normalize(NFD), Simplifiers.replaceAll("\\s+", "_"),
+					Simplifiers.replaceAll("[_1]", "--")));
+			assertEquivalent(chain(Simplifiers.replaceAll("\\p{Punct}", " "), Simplifiers.removeAll("\\s")));
+			assertEquivalent(Simplifiers.replaceAll("\\W+", ""));
+		}
+
+		@Test
+		void equivalentAfterLongInput() {
+			final Simplifier simplifier = chain(toLowerCase(Locale.ENGLISH), Simplifiers.replaceAll("\\W+", "_"));
+			final Simplifier compiled = Simplifiers.compile(simplifier);
+			final StringBuilder builder = new StringBuilder();
+			while (builder.length() < 10000) {
+				for (String string : strings()) {
+					builder.append(string);
+				}
+			}
+			final String longInput = builder.toString().replace("é", "");
+			assertEquals(simplifier.simplify(longInput), compiled.simplify(longInput));
+			assertEquals(simplifier.simplify("-aB 1-"), compiled.simplify("-aB 1-"));
+		}
+
+		@Test
+		void fusesBuiltInSimplifiers() {
+			final Simplifier compiled = Simplifiers.compile(chain(toLowerCase(Locale.ENGLISH), replaceNonWord()));
+			assertEquals(FusedSimplifier.class, compiled.getClass());
+			assertSame("already simple", compiled.simplify("already simple"));
+		}
+
+		@Test
+		void keepsOtherSimplifiers() {
+			final Simplifier sheep = toSheep();
+			final Simplifier compiled = Simplifiers
+					.compile(chain(toLowerCase(Locale.ENGLISH), sheep, replaceNonWord()));
+			assertEquals(ChainSimplifier.class, compiled.getClass());
+			final List<Simplifier> simplifiers = ((ChainSimplifier) compiled).getSimplifiers();
+			assertEquals(FusedSimplifier.class, simplifiers.get(0).getClass());
+			assertSame(sheep, simplifiers.get(1));
+			assertEquals(FusedSimplifier.class, simplifiers.get(2).getClass());
+			assertEquals("a Sheep", compiled.simplify("A"));
+		}
+
+		@Test
+		void returnsSimplifierWhenNothingCanBeFused() {
+			final Simplifier chain = chain(toSheep(), toGoat());
+			assertSame(chain, Simplifiers.compile(chain));
+
+			final Simplifier turkish = toLowerCase(new Locale("tr"));
+			assertSame(turkish, Simplifiers.compile(turkish));
+
+			final Simplifier regex = Simplifiers.removeAll("[a-z]{2}");
+			assertSame(regex, Simplifiers.compile(regex));
+		}
+
+	}
+
 	static Simplifier reverseCapitalized() {
 		return new Simplifier() {
 
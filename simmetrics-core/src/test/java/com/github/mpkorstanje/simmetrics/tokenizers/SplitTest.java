@@ -19,9 +19,15 @@
  */
 package com.github.mpkorstanje.simmetrics.tokenizers;
 
+import static java.util.Arrays.asList;
 import static java.util.regex.Pattern.compile;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers.Split;
 
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
 final class SplitTest extends TokenizerTest {
 
 	@Override
@@ -41,4 +47,15 @@ final class SplitTest extends TokenizerTest {
 				new T(",A,B,C,","","A", "B", "C",""),
 				new T("A,,B,,C", "A", "", "B", "", "C"), };
 	}
+
+	@Test
+	void shouldSplitLikePattern() {
+		for (String regex : asList("", ",", ",+", "\\b", "(?=B)", "^A", "C$")) {
+			final Pattern pattern = compile(regex);
+			for (String input : asList("", "A", "ABC", "A,B,,C", ",A,B,", "AB C")) {
+				assertEquals(asList(pattern.split(input, -1)), new Split(pattern).tokenizeToList(input),
+						regex + " " + input);
+			}
+		}
+	}
 }
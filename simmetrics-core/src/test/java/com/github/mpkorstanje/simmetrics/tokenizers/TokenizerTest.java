@@ -28,6 +28,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 import static com.github.mpkorstanje.simmetrics.matchers.ImplementsToString.implementsToString;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -172,6 +173,18 @@ public abstract class TokenizerTest {
 		}
 	}
 
+	@Test
+	final void shouldTokenizeToSink() {
+		if (!supportsTokenizeToList()) {
+			return;
+		}
+		for (T t : tests) {
+			final List<String> tokens = new ArrayList<>();
+			tokenizer.tokenize(t.string(), (source, start, end) -> tokens.add(source.subSequence(start, end).toString()));
+			testTokens(t.string(), t.tokensAsList(), tokens);
+		}
+	}
+
 	@Test
 	final void tokenizeToMultisetShouldThrowNullPointerException() {
 		if (supportsTokenizeToMultiset()) {
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Reads and writes single fields of delimiter separated lines.
+ * <p>
+ * Fields may be quoted with {@code "}. A quote inside a quoted field is
+ * escaped by doubling it. Quoted fields can not span multiple lines.
+ */
+public final class Csv {
+
+	private static final char QUOTE = '"';
+
+	private Csv() {
+		// Utility class
+	}
+
+	/**
+	 * Returns the field at the given column of a line. When the line has
+	 * fewer columns the empty string is returned.
+	 *
+	 * @param line
+	 *            the line to read
+	 * @param delimiter
+	 *            the field delimiter
+	 * @param column
+	 *            the zero based column
+	 * @return the unquoted field
+	 * @throws IllegalArgumentException
+	 *             when the column is negative
+	 */
+	public static String field(String line, char delimiter, int column) {
+		checkArgument(column >= 0, "column may not be negative");
+		int start = 0;
+		for (int i = 0; i < column; i++) {
+			start = skip(line, delimiter, start);
+			if (start < 0) {
+				return "";
+			}
+		}
+		if (start < line.length() && line.charAt(start) == QUOTE) {
+			return unquote(line, start + 1);
+		}
+		final int end = line.indexOf(delimiter, start);
+		return line.substring(start, end < 0 ? line.length() : end);
+	}
+
+	/**
+	 * Returns the start of the field after the field at {@code start} or
+	 * {@code -1} when there is none.
+	 */
+	private static int skip(String line, char delimiter, int start) {
+		int i = start;
+		if (i < line.length() && line.charAt(i) == QUOTE) {
+			for (i++; i < line.length(); i++) {
+				if (line.charAt(i) == QUOTE) {
+					if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+						i++;
+					} else {
+						i++;
+						break;
+					}
+				}
+			}
+		}
+		final int end = line.indexOf(delimiter, i);
+		return end < 0 ? -1 : end + 1;
+	}
+
+	private static String unquote(String line, int start) {
+		final StringBuilder field = new StringBuilder();
+		for (int i = start; i < line.length(); i++) {
+			final char c = line.charAt(i);
+			if (c == QUOTE) {
+				if (i + 1 < line.length() && line.charAt(i + 1) == QUOTE) {
+					i++;
+				} else {
+					break;
+				}
+			}
+			field.append(c);
+		}
+		return field.toString();
+	}
+
+	/**
+	 * Quotes a field when it contains the delimiter, a quote or a line
+	 * break.
+	 *
+	 * @param field
+	 *            the field to quote
+	 * @param delimiter
+	 *            the field delimiter
+	 * @return the field, quoted when needed
+	 */
+	public static String quote(String field, char delimiter) {
+		if (field.indexOf(delimiter) < 0 && field.indexOf(QUOTE) < 0 && field.indexOf('\n') < 0
+				&& field.indexOf('\r') < 0) {
+			return field;
+		}
+		return QUOTE + field.replace("\"", "\"\"") + QUOTE;
+	}
+
+}
@@ -0,0 +1,259 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.builders.Caches;
+import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
+import com.github.mpkorstanje.simmetrics.metrics.JaroWinkler;
+import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Command line entry point of the deduplication pipeline.
+ *
+ * <pre>
+ * java -jar dedup.jar [options] input [output]
+ *
+ *   --csv                 read a comma separated file
+ *   --delimiter c         read a file separated by c
+ *   --column n            compare the zero based column n, default 0
+ *   --header              skip the first line
+ *   --metric name         cosine (default), jaro-winkler or levenshtein
+ *   --threshold f         minimum similarity of a match, default 0.8
+ *   --max-block-size n    maximum rows in a block, default 100
+ *   --batch-size n        rows scored in parallel, default 4096
+ *   --cache-size n        maximum cached strings and tokens, default 65536
+ *   --chunk-size n        bytes of the input mapped at a time, default 64 MiB
+ * </pre>
+ *
+ * Without a delimiter each line of the input is a row. Clusters are written to
+ * the output, or standard out when omitted, as {@code cluster,row,value}.
+ * Rows are read again from the input by their position, so the input may not
+ * change while it is deduplicated.
+ * Progress is reported on standard error in rows per second.
+ */
+public final class Dedup {
+
+	private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private Dedup() {
+		// Utility class
+	}
+
+	public static void main(String[] args) throws IOException {
+		final Options options;
+		final Deduplicator deduplicator;
+		try {
+			options = Options.parse(args);
+			deduplicator = Deduplicator.with(metric(options.metric, options.cacheSize))
+					.threshold(options.threshold)
+					.maxBlockSize(options.maxBlockSize)
+					.batchSize(options.batchSize)
+					.build();
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println("usage: dedup [options] input [output]");
+			System.exit(2);
+			return;
+		}
+
+		final long[] lastReport = { System.nanoTime() };
+		try (MappedLines lines = MappedLines.open(options.input, options.chunkSize);
+				Writer output = open(options.output)) {
+			final Rows rows = rows(lines, options);
+			final Deduplicator.Stats stats = deduplicator.run(rows, output, progress -> {
+				final long now = System.nanoTime();
+				if (now - lastReport[0] >= REPORT_INTERVAL_NANOS) {
+					lastReport[0] = now;
+					System.err.println(progress);
+				}
+			});
+			System.err.println(stats);
+		}
+	}
+
+	static StringMetric metric(String name, int cacheSize) {
+		switch (name) {
+		case "cosine":
+			return StringMetricBuilder.with(new CosineSimilarity<String>())
+					.simplify(Simplifiers.toLowerCase())
+					.simplify(Simplifiers.removeNonWord())
+					.cacheStrings(Caches.simplificationCache(cacheSize))
+					.tokenize(Tokenizers.qGram(3))
+					.cacheTokens(Caches.tokenCache(cacheSize))
+					.build();
+		case "jaro-winkler":
+			return StringMetricBuilder.with(new JaroWinkler())
+					.simplify(Simplifiers.toLowerCase())
+					.cacheStrings(Caches.simplificationCache(cacheSize))
+					.build();
+		case "levenshtein":
+			return StringMetricBuilder.with(new Levenshtein())
+					.simplify(Simplifiers.toLowerCase())
+					.cacheStrings(Caches.simplificationCache(cacheSize))
+					.build();
+		default:
+			throw new IllegalArgumentException("unknown metric: " + name);
+		}
+	}
+
+	static Rows rows(Rows lines, Options options) {
+		if (options.header && lines.hasNext()) {
+			lines.next();
+		}
+		if (options.delimiter == null) {
+			return lines;
+		}
+		final char delimiter = options.delimiter;
+		final int column = options.column;
+		return new Rows() {
+			@Override
+			public boolean hasNext() {
+				return lines.hasNext();
+			}
+
+			@Override
+			public String next() {
+				return Csv.field(lines.next(), delimiter, column);
+			}
+
+			@Override
+			public long position() {
+				return lines.position();
+			}
+
+			@Override
+			public String read(long position) {
+				return Csv.field(lines.read(position), delimiter, column);
+			}
+		};
+	}
+
+	private static Writer open(Path output) throws IOException {
+		if (output == null) {
+			return new BufferedWriter(new OutputStreamWriter(System.out, UTF_8)) {
+				@Override
+				public void close() throws IOException {
+					// Leave standard out open
+					flush();
+				}
+			};
+		}
+		return Files.newBufferedWriter(output, UTF_8);
+	}
+
+	static final class Options {
+		Path input;
+		Path output;
+		Character delimiter;
+		int column;
+		boolean header;
+		String metric = "cosine";
+		float threshold = 0.8f;
+		int maxBlockSize = 100;
+		int batchSize = 4096;
+		int cacheSize = 1 << 16;
+		int chunkSize = MappedLines.DEFAULT_CHUNK_SIZE;
+
+		static Options parse(String[] args) {
+			final Options options = new Options();
+			int i = 0;
+			for (; i < args.length && args[i].startsWith("--"); i++) {
+				final String option = args[i];
+				if (option.equals("--csv")) {
+					options.delimiter = ',';
+					continue;
+				}
+				if (option.equals("--header")) {
+					options.header = true;
+					continue;
+				}
+				if (++i == args.length) {
+					throw new IllegalArgumentException("missing value for " + option);
+				}
+				final String value = args[i];
+				try {
+					switch (option) {
+					case "--delimiter":
+						if (value.length() != 1) {
+							throw new IllegalArgumentException("delimiter must be a single character");
+						}
+						options.delimiter = value.charAt(0);
+						break;
+					case "--column":
+						options.column = Integer.parseInt(value);
+						break;
+					case "--metric":
+						options.metric = value;
+						break;
+					case "--threshold":
+						options.threshold = Float.parseFloat(value);
+						break;
+					case "--max-block-size":
+						options.maxBlockSize = Integer.parseInt(value);
+						break;
+					case "--batch-size":
+						options.batchSize = Integer.parseInt(value);
+						break;
+					case "--cache-size":
+						options.cacheSize = Integer.parseInt(value);
+						break;
+					case "--chunk-size":
+						options.chunkSize = Integer.parseInt(value);
+						break;
+					default:
+						throw new IllegalArgumentException("unknown option: " + option);
+					}
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("invalid value for " + option + ": " + value);
+				}
+			}
+			checkArgument(options.column >= 0, "column may not be negative");
+			checkArgument(options.chunkSize > 0, "chunk size must be positive");
+			if (i == args.length) {
+				throw new IllegalArgumentException("missing input");
+			}
+			options.input = Paths.get(args[i++]);
+			if (i < args.length) {
+				options.output = Paths.get(args[i++]);
+			}
+			if (i < args.length) {
+				throw new IllegalArgumentException("unexpected argument: " + args[i]);
+			}
+			return options;
+		}
+	}
+
+}
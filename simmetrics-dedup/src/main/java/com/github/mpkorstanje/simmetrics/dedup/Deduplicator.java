@@ -0,0 +1,642 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Arrays.copyOf;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.mpkorstanje.simmetrics.PreparedStringMetric;
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifier;
+import com.github.mpkorstanje.simmetrics.simplifiers.Simplifiers;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizer;
+import com.github.mpkorstanje.simmetrics.tokenizers.Tokenizers;
+
+/**
+ * Groups similar rows into clusters.
+ * <p>
+ * Rows are read in batches. Each row is assigned to the blocks of its blocking
+ * keys, the tokens of the simplified row. Candidate pairs are formed with the
+ * earlier rows of the same blocks and scored in parallel by the metric. Pairs
+ * with a similarity of at least the threshold are matches; rows connected
+ * through matches form a cluster.
+ * <p>
+ * Only the position of a row is kept. Earlier rows are read again from the
+ * {@link Rows} once per batch in which they are a candidate, and again when
+ * their cluster is written. A block stops accepting rows once it holds the
+ * maximum block size. Rows sharing only very common keys are thus not
+ * compared, which keeps the number of pairs linear in the number of rows.
+ * Only the candidates of a single batch are held at a time.
+ * <p>
+ * A cluster is written as soon as all blocks of its rows are full, as no later
+ * row can join it. The remaining clusters are written at the end of the run.
+ * <p>
+ * The metric is typically composed with a {@link StringMetricBuilder}. Its
+ * simplification and token caches are shared by all threads scoring a batch.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class Deduplicator {
+
+	private static final int PARTITION_SIZE = 64;
+
+	private final StringMetric metric;
+	private final float threshold;
+	private final Simplifier simplifier;
+	private final Tokenizer tokenizer;
+	private final int maxBlockSize;
+	private final int batchSize;
+	private final ForkJoinPool pool;
+
+	private Deduplicator(Builder builder) {
+		this.metric = builder.metric;
+		this.threshold = builder.threshold;
+		this.simplifier = builder.simplifier;
+		this.tokenizer = builder.tokenizer;
+		this.maxBlockSize = builder.maxBlockSize;
+		this.batchSize = builder.batchSize;
+		this.pool = builder.pool;
+	}
+
+	/**
+	 * Starts building a deduplicator that compares rows with the given
+	 * metric.
+	 *
+	 * @param metric
+	 *            the metric measuring similarity
+	 * @return a builder for a deduplicator
+	 */
+	public static Builder with(StringMetric metric) {
+		return new Builder(metric);
+	}
+
+	/**
+	 * Clusters the rows and writes all clusters of two or more rows to the
+	 * output.
+	 *
+	 * @param rows
+	 *            the rows to cluster
+	 * @param output
+	 *            the output to write clusters to
+	 * @return statistics of the run
+	 * @throws IOException
+	 *             when the output could not be written
+	 * @see #run(Rows, Writer, Consumer)
+	 */
+	public Stats run(Rows rows, Writer output) throws IOException {
+		return run(rows, output, stats -> {
+		});
+	}
+
+	/**
+	 * Clusters the rows and writes all clusters of two or more rows to the
+	 * output. Each member of a cluster is written on a line of its own as
+	 * {@code cluster,row,value}. Clusters are numbered from zero in the order
+	 * they are written, rows are numbered from zero in input order. Clusters
+	 * completed by the same batch are written in the order of their first
+	 * row. Members of a cluster are written in row order.
+	 *
+	 * @param rows
+	 *            the rows to cluster
+	 * @param output
+	 *            the output to write clusters to
+	 * @param progress
+	 *            receives statistics after each batch
+	 * @return statistics of the run
+	 * @throws IOException
+	 *             when the output could not be written
+	 */
+	public Stats run(Rows rows, Writer output, Consumer<Stats> progress) throws IOException {
+		requireNonNull(rows);
+		requireNonNull(output);
+		requireNonNull(progress);
+		final Run run = new Run(rows, output);
+		final List<String> batch = new ArrayList<>(batchSize);
+		while (rows.hasNext()) {
+			batch.add(rows.next());
+			run.add(rows.position());
+			if (batch.size() == batchSize) {
+				run.process(batch);
+				batch.clear();
+				progress.accept(run.stats());
+			}
+		}
+		if (!batch.isEmpty()) {
+			run.process(batch);
+			progress.accept(run.stats());
+		}
+		run.finish();
+		output.flush();
+		return run.stats();
+	}
+
+	@Override
+	public String toString() {
+		return "Deduplicator [metric=" + metric + ", threshold=" + threshold + ", simplifier=" + simplifier
+				+ ", tokenizer=" + tokenizer + ", maxBlockSize=" + maxBlockSize + ", batchSize=" + batchSize + "]";
+	}
+
+	/**
+	 * The mutable state of a single run. Holds the position of every row read
+	 * so far and the clusters that were not written yet.
+	 */
+	private final class Run {
+		private final long start = System.nanoTime();
+		private final Rows rows;
+		private final Writer output;
+		private final Map<String, Block> blocks = new HashMap<>();
+		private final List<Block> filled = new ArrayList<>();
+		private final UnionFind sets = new UnionFind();
+		private long[] positions = new long[1024];
+		// Number of memberships of open blocks, summed over the rows of a set
+		private int[] open = new int[1024];
+		// Circular list of the rows of a set
+		private int[] members = new int[1024];
+		private int count;
+		private long pairs;
+		private long matches;
+		private long clusters;
+		private long written;
+
+		Run(Rows rows, Writer output) {
+			this.rows = rows;
+			this.output = output;
+		}
+
+		void add(long position) {
+			if (count == positions.length) {
+				positions = copyOf(positions, count * 2);
+				open = copyOf(open, count * 2);
+				members = copyOf(members, count * 2);
+			}
+			positions[count] = position;
+			members[count] = count;
+			count++;
+		}
+
+		void process(List<String> batch) throws IOException {
+			final int first = count - batch.size();
+			final int[][] candidates = new int[batch.size()][];
+			for (int k = 0; k < batch.size(); k++) {
+				candidates[k] = block(sets.add(), batch.get(k));
+				pairs += candidates[k].length;
+			}
+
+			final Values values = new Values(batch, first, candidates);
+			final int[][] matched = new int[batch.size()][];
+			pool.invoke(new Scoring(values, first, candidates, matched, 0, batch.size()));
+
+			for (int k = 0; k < matched.length; k++) {
+				for (int candidate : matched[k]) {
+					matches++;
+					merge(first + k, candidate);
+				}
+			}
+			close();
+		}
+
+		/**
+		 * Adds the row to the blocks of its keys and returns the distinct
+		 * earlier rows in those blocks.
+		 */
+		private int[] block(int row, String value) {
+			int[] candidates = new int[0];
+			int length = 0;
+			for (String key : tokenizer.tokenizeToSet(simplifier.simplify(value))) {
+				final Block block = blocks.computeIfAbsent(key, k -> new Block());
+				if (block.size == maxBlockSize) {
+					continue;
+				}
+				if (length + block.size > candidates.length) {
+					candidates = copyOf(candidates, Math.max(length + block.size, candidates.length * 2));
+				}
+				System.arraycopy(block.rows, 0, candidates, length, block.size);
+				length += block.size;
+				block.add(row);
+				open[row]++;
+				if (block.size == maxBlockSize) {
+					filled.add(block);
+				}
+			}
+			Arrays.sort(candidates, 0, length);
+			int distinct = 0;
+			for (int i = 0; i < length; i++) {
+				if (distinct == 0 || candidates[distinct - 1] != candidates[i]) {
+					candidates[distinct++] = candidates[i];
+				}
+			}
+			return copyOf(candidates, distinct);
+		}
+
+		private void merge(int a, int b) {
+			final int rootA = sets.find(a);
+			final int rootB = sets.find(b);
+			final boolean singleA = sets.size(rootA) == 1;
+			final boolean singleB = sets.size(rootB) == 1;
+			if (!sets.union(rootA, rootB)) {
+				return;
+			}
+			final int root = sets.find(rootA);
+			open[root] = open[rootA] + open[rootB];
+			// Splice the circular lists of both sets
+			final int next = members[rootA];
+			members[rootA] = members[rootB];
+			members[rootB] = next;
+			if (singleA && singleB) {
+				clusters++;
+			} else if (!singleA && !singleB) {
+				clusters--;
+			}
+		}
+
+		/**
+		 * Writes the clusters of which all blocks were filled by this batch.
+		 */
+		private void close() throws IOException {
+			final List<int[]> closed = new ArrayList<>();
+			for (Block block : filled) {
+				for (int row : block.rows) {
+					final int root = sets.find(row);
+					if (--open[root] == 0 && sets.size(root) > 1) {
+						closed.add(members(root));
+					}
+				}
+				// A full block is never a candidate again
+				block.rows = null;
+			}
+			filled.clear();
+			closed.sort((x, y) -> Integer.compare(x[0], y[0]));
+			for (int[] cluster : closed) {
+				write(cluster);
+			}
+		}
+
+		void finish() throws IOException {
+			final BitSet done = new BitSet(count);
+			for (int row = 0; row < count; row++) {
+				final int root = sets.find(row);
+				if (open[root] > 0 && sets.size(root) > 1 && !done.get(root)) {
+					done.set(root);
+					write(members(root));
+				}
+			}
+		}
+
+		private int[] members(int root) {
+			final int[] cluster = new int[sets.size(root)];
+			int member = root;
+			for (int i = 0; i < cluster.length; i++) {
+				cluster[i] = member;
+				member = members[member];
+			}
+			Arrays.sort(cluster);
+			return cluster;
+		}
+
+		private void write(int[] cluster) throws IOException {
+			final String id = Long.toString(written++);
+			for (int member : cluster) {
+				output.write(id);
+				output.write(',');
+				output.write(Integer.toString(member));
+				output.write(',');
+				output.write(Csv.quote(rows.read(positions[member]), ','));
+				output.write('\n');
+			}
+		}
+
+		Stats stats() {
+			return new Stats(count, pairs, matches, clusters, System.nanoTime() - start);
+		}
+
+		/**
+		 * The values of a batch and of the earlier rows it is compared
+		 * against. Earlier rows are read once per batch.
+		 */
+		private final class Values {
+			private final List<String> batch;
+			private final int first;
+			private final int[] earlier;
+			private final String[] earlierValues;
+
+			Values(List<String> batch, int first, int[][] candidates) {
+				this.batch = batch;
+				this.first = first;
+				int length = 0;
+				for (int[] candidate : candidates) {
+					length += candidate.length;
+				}
+				int[] earlier = new int[length];
+				length = 0;
+				for (int[] candidate : candidates) {
+					for (int row : candidate) {
+						if (row < first) {
+							earlier[length++] = row;
+						}
+					}
+				}
+				Arrays.sort(earlier, 0, length);
+				int distinct = 0;
+				for (int i = 0; i < length; i++) {
+					if (distinct == 0 || earlier[distinct - 1] != earlier[i]) {
+						earlier[distinct++] = earlier[i];
+					}
+				}
+				this.earlier = copyOf(earlier, distinct);
+				this.earlierValues = new String[distinct];
+				for (int i = 0; i < distinct; i++) {
+					earlierValues[i] = rows.read(positions[this.earlier[i]]);
+				}
+			}
+
+			String get(int row) {
+				if (row >= first) {
+					return batch.get(row - first);
+				}
+				return earlierValues[Arrays.binarySearch(earlier, row)];
+			}
+		}
+	}
+
+	/**
+	 * Row ids of a block, in insertion order. The rows of a full block are
+	 * released.
+	 */
+	private static final class Block {
+		int[] rows = new int[4];
+		int size;
+
+		void add(int row) {
+			if (size == rows.length) {
+				rows = copyOf(rows, size * 2);
+			}
+			rows[size++] = row;
+		}
+	}
+
+	private final class Scoring extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Run.Values values;
+		private final int first;
+		private final int[][] candidates;
+		private final int[][] matched;
+		private final int from;
+		private final int to;
+
+		Scoring(Run.Values values, int first, int[][] candidates, int[][] matched, int from, int to) {
+			this.values = values;
+			this.first = first;
+			this.candidates = candidates;
+			this.matched = matched;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= PARTITION_SIZE) {
+				for (int k = from; k < to; k++) {
+					matched[k] = score(values.get(first + k), candidates[k]);
+				}
+				return;
+			}
+			final int middle = (from + to) >>> 1;
+			invokeAll(new Scoring(values, first, candidates, matched, from, middle),
+					new Scoring(values, first, candidates, matched, middle, to));
+		}
+
+		private int[] score(String value, int[] rows) {
+			if (rows.length == 0) {
+				return rows;
+			}
+			final PreparedStringMetric prepared = metric.prepare(value);
+			int length = 0;
+			final int[] result = new int[rows.length];
+			for (int row : rows) {
+				if (prepared.compare(values.get(row), threshold) >= threshold) {
+					result[length++] = row;
+				}
+			}
+			return copyOf(result, length);
+		}
+	}
+
+	/**
+	 * Statistics of a deduplication run.
+	 * <p>
+	 * This class is immutable and thread-safe.
+	 */
+	public static final class Stats {
+		private final long rows;
+		private final long pairs;
+		private final long matches;
+		private final long clusters;
+		private final long elapsedNanos;
+
+		Stats(long rows, long pairs, long matches, long clusters, long elapsedNanos) {
+			this.rows = rows;
+			this.pairs = pairs;
+			this.matches = matches;
+			this.clusters = clusters;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Returns the number of rows read.
+		 *
+		 * @return the number of rows read
+		 */
+		public long rows() {
+			return rows;
+		}
+
+		/**
+		 * Returns the number of candidate pairs scored.
+		 *
+		 * @return the number of candidate pairs scored
+		 */
+		public long pairs() {
+			return pairs;
+		}
+
+		/**
+		 * Returns the number of candidate pairs with a similarity of at least
+		 * the threshold.
+		 *
+		 * @return the number of matches
+		 */
+		public long matches() {
+			return matches;
+		}
+
+		/**
+		 * Returns the number of clusters of two or more rows.
+		 *
+		 * @return the number of clusters
+		 */
+		public long clusters() {
+			return clusters;
+		}
+
+		/**
+		 * Returns the elapsed time since the start of the run.
+		 *
+		 * @param unit
+		 *            the unit of the returned time
+		 * @return the elapsed time
+		 */
+		public long elapsed(TimeUnit unit) {
+			return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+		}
+
+		/**
+		 * Returns the number of rows processed per second.
+		 *
+		 * @return the number of rows per second
+		 */
+		public double rowsPerSecond() {
+			return elapsedNanos == 0 ? 0.0 : rows * 1e9 / elapsedNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Stats [rows=%d, pairs=%d, matches=%d, clusters=%d, rows/s=%.0f]", rows, pairs,
+					matches, clusters, rowsPerSecond());
+		}
+	}
+
+	/**
+	 * Builder for a {@link Deduplicator}.
+	 */
+	public static final class Builder {
+		private final StringMetric metric;
+		private float threshold = 0.8f;
+		private Simplifier simplifier = Simplifiers.chain(Simplifiers.toLowerCase(), Simplifiers.replaceNonWord(" "));
+		private Tokenizer tokenizer = Tokenizers.whitespace();
+		private int maxBlockSize = 100;
+		private int batchSize = 4096;
+		private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+		Builder(StringMetric metric) {
+			this.metric = requireNonNull(metric);
+		}
+
+		/**
+		 * Sets the minimum similarity of a match. Defaults to 0.8.
+		 *
+		 * @param threshold
+		 *            the minimum similarity, between 0 and 1 inclusive
+		 * @return this builder
+		 * @throws IllegalArgumentException
+		 *             when the threshold is not in [0, 1]
+		 */
+		public Builder threshold(float threshold) {
+			checkArgument(0.0f <= threshold && threshold <= 1.0f, "threshold must be between 0 and 1");
+			this.threshold = threshold;
+			return this;
+		}
+
+		/**
+		 * Sets how the blocking keys of a row are computed. The keys are the
+		 * distinct tokens of the simplified row. Defaults to the lower case
+		 * words of a row.
+		 *
+		 * @param simplifier
+		 *            the simplifier applied before tokenization
+		 * @param tokenizer
+		 *            the tokenizer producing blocking keys
+		 * @return this builder
+		 */
+		public Builder blockBy(Simplifier simplifier, Tokenizer tokenizer) {
+			this.simplifier = requireNonNull(simplifier);
+			this.tokenizer = requireNonNull(tokenizer);
+			return this;
+		}
+
+		/**
+		 * Sets the maximum number of rows in a block. Defaults to 100.
+		 *
+		 * @param maxBlockSize
+		 *            the maximum number of rows in a block
+		 * @return this builder
+		 * @throws IllegalArgumentException
+		 *             when the size is not positive
+		 */
+		public Builder maxBlockSize(int maxBlockSize) {
+			checkArgument(maxBlockSize > 0, "maxBlockSize must be positive");
+			this.maxBlockSize = maxBlockSize;
+			return this;
+		}
+
+		/**
+		 * Sets the number of rows scored in parallel. Defaults to 4096.
+		 *
+		 * @param batchSize
+		 *            the number of rows in a batch
+		 * @return this builder
+		 * @throws IllegalArgumentException
+		 *             when the size is not positive
+		 */
+		public Builder batchSize(int batchSize) {
+			checkArgument(batchSize > 0, "batchSize must be positive");
+			this.batchSize = batchSize;
+			return this;
+		}
+
+		/**
+		 * Sets the pool scoring candidate pairs. Defaults to the common pool.
+		 *
+		 * @param pool
+		 *            the pool to score in
+		 * @return this builder
+		 */
+		public Builder pool(ForkJoinPool pool) {
+			this.pool = requireNonNull(pool);
+			return this;
+		}
+
+		/**
+		 * Builds the deduplicator.
+		 *
+		 * @return a new deduplicator
+		 */
+		public Deduplicator build() {
+			return new Deduplicator(this);
+		}
+	}
+
+}
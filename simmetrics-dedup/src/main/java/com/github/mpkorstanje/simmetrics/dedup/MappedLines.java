@@ -0,0 +1,219 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.lang.Math.min;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.copyOf;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads the lines of a UTF-8 encoded file through memory-mapped chunks.
+ * <p>
+ * Only a single chunk of the file is mapped at a time. A line that crosses the
+ * end of a chunk is read again from the start of the next chunk, so each line
+ * is decoded exactly once. A chunk grows when a single line does not fit into
+ * it. Lines are terminated by {@code \n} or {@code \r\n}; a trailing line
+ * terminator does not produce an empty last line.
+ * <p>
+ * The position of a line is the offset of its first byte in the file. A line
+ * is read again by its position without disturbing the mapped chunk.
+ * <p>
+ * Errors while mapping the file are thrown as {@link UncheckedIOException}.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class MappedLines implements Rows, Closeable {
+
+	/**
+	 * Default chunk size, 64 MiB.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 26;
+
+	private final FileChannel channel;
+	private final long size;
+	private final int chunkSize;
+
+	private MappedByteBuffer chunk;
+	private long chunkStart;
+	private byte[] line = new byte[256];
+	private String next;
+	private long nextPosition;
+	private long position = -1;
+
+	private MappedLines(FileChannel channel, int chunkSize) throws IOException {
+		this.channel = channel;
+		this.size = channel.size();
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Opens a file for reading with the default chunk size.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the lines of the file
+	 * @throws IOException
+	 *             when the file could not be opened
+	 */
+	public static MappedLines open(Path file) throws IOException {
+		return open(file, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Opens a file for reading.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @param chunkSize
+	 *            the number of bytes mapped at a time
+	 * @return the lines of the file
+	 * @throws IOException
+	 *             when the file could not be opened
+	 * @throws IllegalArgumentException
+	 *             when the chunk size is not positive
+	 */
+	public static MappedLines open(Path file, int chunkSize) throws IOException {
+		requireNonNull(file);
+		checkArgument(chunkSize > 0, "chunkSize must be positive");
+		return new MappedLines(FileChannel.open(file, StandardOpenOption.READ), chunkSize);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			try {
+				next = readLine();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public String next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final String result = next;
+		next = null;
+		position = nextPosition;
+		return result;
+	}
+
+	@Override
+	public long position() {
+		checkState(position >= 0, "no line was returned yet");
+		return position;
+	}
+
+	@Override
+	public String read(long position) {
+		checkArgument(0 <= position && position < size, "no line at %s", position);
+		try {
+			int length = 0;
+			while (true) {
+				final int read = channel.read(ByteBuffer.wrap(line, length, line.length - length), position + length);
+				if (read < 0) {
+					return decode(length);
+				}
+				for (int i = length; i < length + read; i++) {
+					if (line[i] == '\n') {
+						return decode(i);
+					}
+				}
+				length += read;
+				if (length == line.length) {
+					line = copyOf(line, length * 2);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private String readLine() throws IOException {
+		if (chunk == null) {
+			if (chunkStart >= size) {
+				return null;
+			}
+			map(chunkSize);
+		}
+
+		nextPosition = chunkStart + chunk.position();
+		int length = 0;
+		while (true) {
+			if (!chunk.hasRemaining()) {
+				final long end = chunkStart + chunk.position();
+				if (end >= size) {
+					// Last line without a terminator
+					chunk = null;
+					chunkStart = end;
+					return length == 0 ? null : decode(length);
+				}
+				// Read the partial line again from the start of the next chunk
+				chunkStart = end - length;
+				map(length < chunkSize / 2 ? chunkSize : length * 2);
+				length = 0;
+				continue;
+			}
+			final byte b = chunk.get();
+			if (b == '\n') {
+				return decode(length);
+			}
+			if (length == line.length) {
+				line = copyOf(line, length * 2);
+			}
+			line[length++] = b;
+		}
+	}
+
+	private void map(long length) throws IOException {
+		chunk = channel.map(MapMode.READ_ONLY, chunkStart, min(length, size - chunkStart));
+	}
+
+	private String decode(int length) {
+		if (length > 0 && line[length - 1] == '\r') {
+			length--;
+		}
+		return new String(line, 0, length, UTF_8);
+	}
+
+	@Override
+	public void close() throws IOException {
+		chunk = null;
+		channel.close();
+	}
+
+}
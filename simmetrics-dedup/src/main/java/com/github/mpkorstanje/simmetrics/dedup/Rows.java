@@ -0,0 +1,97 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Rows that can be read again by their position.
+ * <p>
+ * The {@link Deduplicator} keeps only the position of each row. A row is read
+ * again when it is scored against later rows and when its cluster is written.
+ */
+public interface Rows extends Iterator<String> {
+
+	/**
+	 * Returns the position of the row last returned by {@link #next()}.
+	 *
+	 * @return the position of the last row
+	 * @throws IllegalStateException
+	 *             when no row was returned yet
+	 */
+	long position();
+
+	/**
+	 * Reads the row at a position returned earlier by {@link #position()}.
+	 *
+	 * @param position
+	 *            the position of the row
+	 * @return the row
+	 * @throws IllegalArgumentException
+	 *             when there is no row at the position
+	 */
+	String read(long position);
+
+	/**
+	 * Returns rows backed by a list. The position of a row is its index.
+	 *
+	 * @param rows
+	 *            the rows
+	 * @return rows backed by the list
+	 */
+	static Rows of(List<String> rows) {
+		requireNonNull(rows);
+		return new Rows() {
+			private int next;
+
+			@Override
+			public boolean hasNext() {
+				return next < rows.size();
+			}
+
+			@Override
+			public String next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return rows.get(next++);
+			}
+
+			@Override
+			public long position() {
+				checkState(next > 0, "no row was returned yet");
+				return next - 1;
+			}
+
+			@Override
+			public String read(long position) {
+				checkArgument(0 <= position && position < rows.size(), "no row at %s", position);
+				return rows.get((int) position);
+			}
+		};
+	}
+
+}
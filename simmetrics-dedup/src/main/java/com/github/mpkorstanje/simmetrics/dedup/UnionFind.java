@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static java.util.Arrays.copyOf;
+
+/**
+ * Disjoint sets of rows. Sets are merged by size and paths are halved on
+ * lookup.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class UnionFind {
+
+	private int[] parent = new int[1024];
+	private int[] size = new int[1024];
+	private int count;
+
+	/**
+	 * Adds a new row in a set of its own.
+	 *
+	 * @return the row
+	 */
+	int add() {
+		if (count == parent.length) {
+			parent = copyOf(parent, count * 2);
+			size = copyOf(size, count * 2);
+		}
+		parent[count] = count;
+		size[count] = 1;
+		return count++;
+	}
+
+	int count() {
+		return count;
+	}
+
+	int find(int row) {
+		int r = row;
+		while (parent[r] != r) {
+			parent[r] = parent[parent[r]];
+			r = parent[r];
+		}
+		return r;
+	}
+
+	int size(int row) {
+		return size[find(row)];
+	}
+
+	/**
+	 * Merges the sets of two rows.
+	 *
+	 * @return true when the rows were in different sets
+	 */
+	boolean union(int a, int b) {
+		int ra = find(a);
+		int rb = find(b);
+		if (ra == rb) {
+			return false;
+		}
+		if (size[ra] < size[rb]) {
+			final int t = ra;
+			ra = rb;
+			rb = t;
+		}
+		parent[rb] = ra;
+		size[ra] += size[rb];
+		return true;
+	}
+
+}
@@ -0,0 +1,60 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+final class CsvTest {
+
+	@Test
+	void field() {
+		assertEquals("a", Csv.field("a,b,c", ',', 0));
+		assertEquals("b", Csv.field("a,b,c", ',', 1));
+		assertEquals("c", Csv.field("a,b,c", ',', 2));
+		assertEquals("", Csv.field("a,b,c", ',', 3));
+		assertEquals("", Csv.field("a,,c", ',', 1));
+		assertEquals("b", Csv.field("a;b", ';', 1));
+	}
+
+	@Test
+	void quotedField() {
+		assertEquals("a,b", Csv.field("\"a,b\",c", ',', 0));
+		assertEquals("c", Csv.field("\"a,b\",c", ',', 1));
+		assertEquals("say \"hi\"", Csv.field("x,\"say \"\"hi\"\"\"", ',', 1));
+		assertEquals("d", Csv.field("\"a\"\",b\",\"c\",d", ',', 2));
+	}
+
+	@Test
+	void negativeColumn() {
+		assertThrows(IllegalArgumentException.class, () -> Csv.field("a", ',', -1));
+	}
+
+	@Test
+	void quote() {
+		assertEquals("abc", Csv.quote("abc", ','));
+		assertEquals("\"a,b\"", Csv.quote("a,b", ','));
+		assertEquals("\"say \"\"hi\"\"\"", Csv.quote("say \"hi\"", ','));
+		assertEquals("say \"hi\"", Csv.field(Csv.quote("say \"hi\"", ','), ',', 0));
+	}
+
+}
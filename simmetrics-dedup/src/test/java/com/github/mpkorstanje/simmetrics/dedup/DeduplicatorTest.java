@@ -0,0 +1,146 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.metrics.StringMetrics;
+
+final class DeduplicatorTest {
+
+	private static final List<String> ROWS = asList(
+			"Acme Corporation",
+			"Globex Inc",
+			"ACME Corporation.",
+			"Initech",
+			"Globex Inc.",
+			"Umbrella",
+			"acme corporation");
+
+	private static String run(Deduplicator deduplicator, List<String> rows) throws IOException {
+		final StringWriter output = new StringWriter();
+		deduplicator.run(Rows.of(rows), output);
+		return output.toString();
+	}
+
+	@Test
+	void clusters() throws IOException {
+		final Deduplicator deduplicator = Deduplicator.with(Dedup.metric("cosine", 16)).build();
+		final String expected = ""
+				+ "0,0,Acme Corporation\n"
+				+ "0,2,ACME Corporation.\n"
+				+ "0,6,acme corporation\n"
+				+ "1,1,Globex Inc\n"
+				+ "1,4,Globex Inc.\n";
+		assertEquals(expected, run(deduplicator, ROWS));
+	}
+
+	@Test
+	void stats() throws IOException {
+		final Deduplicator deduplicator = Deduplicator.with(Dedup.metric("cosine", 16)).build();
+		final Deduplicator.Stats stats = deduplicator.run(Rows.of(ROWS), new StringWriter());
+		assertEquals(7, stats.rows());
+		// Rows 2 and 6 are blocked with row 0 and each other, row 4 with 1
+		assertEquals(4, stats.pairs());
+		assertEquals(4, stats.matches());
+		assertEquals(2, stats.clusters());
+	}
+
+	@Test
+	void quotesValues() throws IOException {
+		final Deduplicator deduplicator = Deduplicator.with(StringMetrics.identity()).threshold(1.0f).build();
+		assertEquals("0,0,\"a,b\"\n0,1,\"a,b\"\n", run(deduplicator, asList("a,b", "a,b", "c")));
+	}
+
+	@Test
+	void batchesDoNotChangeClusters() throws IOException {
+		final Random random = new Random(1);
+		final List<String> rows = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			rows.add("name " + random.nextInt(300) + " " + (char) ('a' + random.nextInt(3)));
+		}
+		final StringMetric metric = Dedup.metric("levenshtein", 64);
+		final String expected = run(Deduplicator.with(metric).batchSize(rows.size()).maxBlockSize(rows.size()).build(),
+				rows);
+		final ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (int batchSize : new int[] { 1, 7, 100 }) {
+				final Deduplicator deduplicator = Deduplicator.with(metric)
+						.batchSize(batchSize)
+						.maxBlockSize(rows.size())
+						.pool(pool)
+						.build();
+				assertEquals(expected, run(deduplicator, rows), "batch size " + batchSize);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void oversizedBlocksAreSkipped() throws IOException {
+		final Deduplicator deduplicator = Deduplicator.with(StringMetrics.identity())
+				.threshold(1.0f)
+				.maxBlockSize(2)
+				.build();
+		// The third "x" finds the block of x full
+		final Deduplicator.Stats stats = deduplicator.run(Rows.of(asList("x", "x", "x")), new StringWriter());
+		assertEquals(1, stats.pairs());
+		assertEquals(1, stats.clusters());
+	}
+
+	@Test
+	void writesClustersOnceTheirBlocksAreFull() throws IOException {
+		final Deduplicator deduplicator = Deduplicator.with(StringMetrics.identity())
+				.threshold(1.0f)
+				.maxBlockSize(3)
+				.batchSize(1)
+				.build();
+		final StringWriter output = new StringWriter();
+		final List<String> written = new ArrayList<>();
+		deduplicator.run(Rows.of(asList("x", "x", "x", "y", "y")), output, stats -> written.add(output.toString()));
+		// The third x fills the block of x, the block of y is never full
+		final String x = "0,0,x\n0,1,x\n0,2,x\n";
+		assertEquals(asList("", "", x, x, x), written);
+		assertEquals(x + "1,3,y\n1,4,y\n", output.toString());
+	}
+
+	@Test
+	void invalidArguments() {
+		final Deduplicator.Builder builder = Deduplicator.with(StringMetrics.identity());
+		assertThrows(IllegalArgumentException.class, () -> builder.threshold(1.1f));
+		assertThrows(IllegalArgumentException.class, () -> builder.maxBlockSize(0));
+		assertThrows(IllegalArgumentException.class, () -> builder.batchSize(0));
+		assertThrows(NullPointerException.class, () -> Deduplicator.with(null));
+	}
+
+}
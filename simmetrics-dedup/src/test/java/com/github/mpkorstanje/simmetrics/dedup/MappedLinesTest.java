@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * Simmetrics - Dedup
+ * %%
+ * Copyright (C) 2014 - 2021 Simmetrics Authors
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package com.github.mpkorstanje.simmetrics.dedup;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class MappedLinesTest {
+
+	@TempDir
+	Path directory;
+
+	private List<String> read(String content, int chunkSize) throws IOException {
+		final Path file = directory.resolve("lines");
+		Files.write(file, content.getBytes(UTF_8));
+		final List<String> lines = new ArrayList<>();
+		try (MappedLines mapped = MappedLines.open(file, chunkSize)) {
+			mapped.forEachRemaining(lines::add);
+		}
+		return lines;
+	}
+
+	@Test
+	void lines() throws IOException {
+		assertEquals(asList("one", "two", "three"), read("one\ntwo\nthree\n", 1024));
+	}
+
+	@Test
+	void lastLineWithoutTerminator() throws IOException {
+		assertEquals(asList("one", "two"), read("one\ntwo", 1024));
+	}
+
+	@Test
+	void carriageReturnLineFeed() throws IOException {
+		assertEquals(asList("one", "two"), read("one\r\ntwo\r\n", 1024));
+	}
+
+	@Test
+	void emptyLines() throws IOException {
+		assertEquals(asList("", "one", "", "two"), read("\none\n\ntwo\n", 1024));
+	}
+
+	@Test
+	void emptyFile() throws IOException {
+		assertEquals(asList(), read("", 1024));
+	}
+
+	@Test
+	void linesCrossChunks() throws IOException {
+		final StringBuilder content = new StringBuilder();
+		final List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			final String line = "line é€ " + i;
+			expected.add(line);
+			content.append(line).append('\n');
+		}
+		for (int chunkSize = 1; chunkSize < 40; chunkSize++) {
+			assertEquals(expected, read(content.toString(), chunkSize), "chunk size " + chunkSize);
+		}
+	}
+
+	@Test
+	void lineLongerThanChunk() throws IOException {
+		final StringBuilder line = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			line.append((char) ('a' + i % 26));
+		}
+		assertEquals(asList("a", line.toString(), "b"), read("a\n" + line + "\nb", 64));
+	}
+
+	@Test
+	void readByPosition() throws IOException {
+		final Path file = directory.resolve("lines");
+		Files.write(file, "one\r\n\ntwo é\nthree".getBytes(UTF_8));
+		final List<Long> positions = new ArrayList<>();
+		try (MappedLines mapped = MappedLines.open(file, 4)) {
+			while (mapped.hasNext()) {
+				mapped.next();
+				positions.add(mapped.position());
+			}
+			assertEquals(asList(0L, 5L, 6L, 13L), positions);
+			assertEquals("two é", mapped.read(6));
+			assertEquals("one", mapped.read(0));
+			assertEquals("", mapped.read(5));
+			assertEquals("three", mapped.read(13));
+			assertThrows(IllegalArgumentException.class, () -> mapped.read(18));
+		}
+	}
+
+	@Test
+	void noSuchElement() throws IOException {
+		final Path file = directory.resolve("lines");
+		Files.write(file, "one".getBytes(UTF_8));
+		try (MappedLines mapped = MappedLines.open(file)) {
+			mapped.next();
+			assertFalse(mapped.hasNext());
+			assertThrows(NoSuchElementException.class, mapped::next);
+		}
+	}
+
+}
@@ -27,6 +27,10 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 
 import com.github.mpkorstanje.simmetrics.StringMetric;
+import com.github.mpkorstanje.simmetrics.builders.CacheStats;
+import com.github.mpkorstanje.simmetrics.builders.Caches;
+import com.github.mpkorstanje.simmetrics.builders.SimplificationCache;
+import com.github.mpkorstanje.simmetrics.builders.TokenCache;
 import com.github.mpkorstanje.simmetrics.builders.StringMetricBuilder;
 import com.github.mpkorstanje.simmetrics.metrics.CosineSimilarity;
 import com.github.mpkorstanje.simmetrics.metrics.Levenshtein;
@@ -260,4 +264,32 @@ final class StringMetricBuilderExample {
 		return metric.compare(a, b); // 0.6902
 	}
 
+	/**
+	 * The builder also accepts bounded caches that do not lock when a value is
+	 * cached. These caches keep statistics that help decide whether caching
+	 * pays off.
+	 */
+	static CacheStats example08() {
+
+		String a = "A quirky thing it is. This is a sentence.";
+		String b = "This sentence is similar; a quirky thing it is.";
+
+		SimplificationCache stringCache = Caches.simplificationCache(1000);
+		TokenCache<Multiset<String>> tokenCache = Caches.tokenCache(1000);
+
+		StringMetric metric =
+				StringMetricBuilder.with(new CosineSimilarity<>())
+				.simplify(Simplifiers.toLowerCase())
+				.simplify(Simplifiers.removeNonWord())
+				.cacheStrings(stringCache)
+				.tokenize(Tokenizers.qGram(3))
+				.cacheTokens(tokenCache)
+				.build();
+
+		metric.compare(a, b); // 0.6902
+		metric.compare(a, b); // 0.6902
+
+		return tokenCache.stats(); // hitRate 0.5
+	}
+
 }
@@ -21,6 +21,8 @@ package com.github.mpkorstanje.simmetrics.example;
 
 import org.junit.jupiter.api.Test;
 
+import com.github.mpkorstanje.simmetrics.builders.CacheStats;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 final class StringMetricBuilderExampleTest {
@@ -66,4 +68,11 @@ final class StringMetricBuilderExampleTest {
 	void example07(){
 		assertEquals(0.6902f, StringMetricBuilderExample.example07(), DELTA);
 	}
+
+	@Test
+	void example08(){
+		final CacheStats stats = StringMetricBuilderExample.example08();
+		assertEquals(0.5, stats.hitRate(), DELTA);
+		assertEquals(2, stats.hitCount());
+	}
 }